@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A process wide snapshot of the classes within the Java runtime image (i.e. {@code jrt:/}).<br>
+ * The runtime image is opened once as a {@link FileSystem}, which can be read concurrently, so importing JDK classes
+ * neither opens a {@link java.lang.module.ModuleReader} per class nor lists a whole module to find a single class.
+ * Since the runtime image cannot change while the JVM is running, the recordings of parsed classes
+ * (compare {@link ClassFileRecording}) are immutable and shared by all imports of the JVM, no matter which
+ * {@link ClassFileImporter} parsed them first. The recordings are softly referenced, i.e. they are only
+ * dropped if the JVM runs low on memory.
+ */
+class JdkClassSnapshot {
+    private static final String MODULES_ROOT = "/modules";
+
+    private final FileSystem runtimeImage;
+    private final Cache<String, byte[]> recordings = CacheBuilder.newBuilder().softValues().build();
+
+    private JdkClassSnapshot(FileSystem runtimeImage) {
+        this.runtimeImage = runtimeImage;
+    }
+
+    static JdkClassSnapshot get() {
+        return Holder.INSTANCE;
+    }
+
+    boolean containsModule(String moduleName) {
+        return Files.isDirectory(pathOf(moduleName, NormalizedResourceName.from("")));
+    }
+
+    /**
+     * @return The names of all files within the given module that equal or reside beneath {@code resourceName}
+     */
+    List<String> listFiles(String moduleName, NormalizedResourceName resourceName) {
+        Path moduleRoot = pathOf(moduleName, NormalizedResourceName.from(""));
+        Path start = pathOf(moduleName, resourceName);
+        if (!Files.exists(start)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(start)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .map(file -> moduleRoot.relativize(file).toString())
+                    .collect(toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    InputStream openStream(String moduleName, NormalizedResourceName entry) throws IOException {
+        return Files.newInputStream(pathOf(moduleName, entry));
+    }
+
+    /**
+     * @return The number of bytes read from the runtime image, i.e. {@code 0} if the class file had been recorded before
+     */
+    long accept(String moduleName, NormalizedResourceName entry, ClassVisitor visitor, int parsingOptions) throws IOException {
+        AtomicLong numberOfBytesRead = new AtomicLong();
+        ClassFileRecording.replay(getRecording(moduleName, entry, parsingOptions, numberOfBytesRead), visitor);
+        return numberOfBytesRead.get();
+    }
+
+    byte[] getRecording(String moduleName, NormalizedResourceName entry, int parsingOptions) throws IOException {
+        return getRecording(moduleName, entry, parsingOptions, new AtomicLong());
+    }
+
+    // NOTE: Different parsing options (e.g. skipping code) produce different recordings of the same class file
+    private byte[] getRecording(String moduleName, NormalizedResourceName entry, int parsingOptions, AtomicLong numberOfBytesRead) throws IOException {
+        String key = moduleName + "/" + entry + "/" + parsingOptions;
+        try {
+            return recordings.get(key, () -> record(moduleName, entry, parsingOptions, numberOfBytesRead));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private byte[] record(String moduleName, NormalizedResourceName entry, int parsingOptions, AtomicLong numberOfBytesRead) throws IOException {
+        ClassFileRecording.Recorder recorder = new ClassFileRecording.Recorder();
+        byte[] classFile = Files.readAllBytes(pathOf(moduleName, entry));
+        numberOfBytesRead.set(classFile.length);
+        new ClassReader(classFile).accept(recorder, parsingOptions);
+        return recorder.toByteArray();
+    }
+
+    private Path pathOf(String moduleName, NormalizedResourceName resourceName) {
+        return runtimeImage.getPath(MODULES_ROOT, moduleName, resourceName.toString());
+    }
+
+    private static class Holder {
+        private static final JdkClassSnapshot INSTANCE = new JdkClassSnapshot(FileSystems.getFileSystem(URI.create("jrt:/")));
+    }
+}
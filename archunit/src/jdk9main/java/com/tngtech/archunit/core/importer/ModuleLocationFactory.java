@@ -17,20 +17,16 @@ package com.tngtech.archunit.core.importer;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.module.ModuleFinder;
-import java.lang.module.ModuleReader;
-import java.lang.module.ModuleReference;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.Optional;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Stream;
+import java.util.List;
+
+import org.objectweb.asm.ClassVisitor;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 
 class ModuleLocationFactory implements Location.Factory {
     @Override
@@ -43,46 +39,28 @@ class ModuleLocationFactory implements Location.Factory {
         return new ModuleLocation(NormalizedUri.from(uri));
     }
 
-    private static <T> T doWithModuleReader(ModuleReference moduleReference, ModuleReaderProcessor<T> readerProcessor) {
-        try (ModuleReader moduleReader = moduleReference.open()) {
-            return readerProcessor.process(moduleReader);
-        } catch (IOException e) {
-            String message = String.format("Unexpected error while processing module %s", moduleReference);
-            throw new RuntimeException(message, e);
-        }
-    }
-
     private static class ModuleLocation extends Location {
         private static final String SCHEME = "jrt";
 
-        private final ModuleReference moduleReference;
+        private final String moduleName;
         private final NormalizedResourceName resourceName;
 
         ModuleLocation(NormalizedUri uri) {
             super(uri);
             checkScheme(SCHEME, uri);
-            this.moduleReference = findModuleReference(uri);
+            this.moduleName = uri.getFirstSegment();
+            checkState(JdkClassSnapshot.get().containsModule(moduleName), "Couldn't find module %s of URI %s", moduleName, uri);
             this.resourceName = parseResourceName(uri);
         }
 
-        ModuleLocation(ModuleReference moduleReference, NormalizedResourceName resourceName) {
-            super(createUri(moduleReference, resourceName));
-            this.moduleReference = moduleReference;
+        ModuleLocation(String moduleName, NormalizedResourceName resourceName) {
+            super(createUri(moduleName, resourceName));
+            this.moduleName = moduleName;
             this.resourceName = resourceName;
         }
 
-        private static NormalizedUri createUri(ModuleReference moduleReference, NormalizedResourceName resourceName) {
-            checkState(moduleReference.location().isPresent(),
-                    "We only consider module references with location, so something went wrong here");
-
-            return NormalizedUri.from(moduleReference.location().get() + resourceName.toAbsolutePath());
-        }
-
-        private ModuleReference findModuleReference(NormalizedUri uri) {
-            String moduleName = uri.getFirstSegment();
-            Optional<ModuleReference> moduleReference = ModuleFinder.ofSystem().find(moduleName);
-            checkState(moduleReference.isPresent(), "Couldn't find module %s of URI %s", moduleName, uri);
-            return moduleReference.get();
+        private static NormalizedUri createUri(String moduleName, NormalizedResourceName resourceName) {
+            return NormalizedUri.from(SCHEME + ":/" + moduleName + resourceName.toAbsolutePath());
         }
 
         private NormalizedResourceName parseResourceName(NormalizedUri uri) {
@@ -101,10 +79,9 @@ class ModuleLocationFactory implements Location.Factory {
 
         @Override
         Iterable<NormalizedResourceName> iterateEntriesInternal() {
-            return doWithModuleReader(moduleReference, moduleReader -> moduleReader.list()
-                    .filter(resourceName::isStartOf)
+            return JdkClassSnapshot.get().listFiles(moduleName, resourceName).stream()
                     .map(NormalizedResourceName::from)
-                    .collect(toList()));
+                    .collect(toList());
         }
 
         @Override
@@ -112,31 +89,19 @@ class ModuleLocationFactory implements Location.Factory {
             if (!importOptions.include(this)) {
                 return Collections::emptyListIterator;
             }
-            return new ModuleClassFileSource(moduleReference, resourceName, importOptions);
+            return new ModuleClassFileSource(moduleName, resourceName, importOptions);
         }
     }
 
     private static class ModuleClassFileSource implements ClassFileSource {
-        private final Stream<ClassFileLocation> locations;
-
-        ModuleClassFileSource(
-                ModuleReference moduleReference,
-                NormalizedResourceName resourceName,
-                ImportOptions importOptions) {
-
-            Set<String> entries = loadEntries(moduleReference, resourceName);
-            locations = entries.stream()
-                    .map(entry -> new ModuleClassFileLocation(moduleReference, entry))
-                    .filter(classFileLocation -> classFileLocation.isIncludedBy(importOptions))
-                    .map(Function.identity()); // thanks Java type system :-(
-        }
+        private final List<ClassFileLocation> locations;
 
-        private Set<String> loadEntries(ModuleReference moduleReference, NormalizedResourceName resourceName) {
-            return doWithModuleReader(moduleReference, moduleReader -> moduleReader.list()
-                    .filter(resourceName::isStartOf)
+        ModuleClassFileSource(String moduleName, NormalizedResourceName resourceName, ImportOptions importOptions) {
+            locations = JdkClassSnapshot.get().listFiles(moduleName, resourceName).stream()
                     .filter(FileToImport::isRelevant)
-                    .map(entry -> "/" + entry)
-                    .collect(toSet()));
+                    .map(entry -> new ModuleClassFileLocation(moduleName, NormalizedResourceName.from(entry)))
+                    .filter(classFileLocation -> classFileLocation.isIncludedBy(importOptions))
+                    .collect(toList());
         }
 
         @Override
@@ -146,25 +111,24 @@ class ModuleLocationFactory implements Location.Factory {
     }
 
     private static class ModuleClassFileLocation implements ClassFileLocation {
-        private final ModuleReference moduleReference;
+        private final String moduleName;
         private final NormalizedResourceName entry;
         private final ModuleLocation location;
 
-        ModuleClassFileLocation(ModuleReference moduleReference, String entry) {
-            this(moduleReference, NormalizedResourceName.from(entry));
-        }
-
-        ModuleClassFileLocation(ModuleReference moduleReference, NormalizedResourceName entry) {
-            this.moduleReference = moduleReference;
+        ModuleClassFileLocation(String moduleName, NormalizedResourceName entry) {
+            this.moduleName = moduleName;
             this.entry = entry;
-            location = new ModuleLocation(moduleReference, entry);
+            location = new ModuleLocation(moduleName, entry);
         }
 
         @Override
         public InputStream openStream() {
-            return doWithModuleReader(moduleReference, moduleReader ->
-                    moduleReader.open(entry.toString()).orElseThrow(() -> new IllegalStateException(
-                            String.format("Entry %s parsed from JRT location %s could not be opened. This is most likely a bug.", entry, location))));
+            try {
+                return JdkClassSnapshot.get().openStream(moduleName, entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(
+                        String.format("Entry %s parsed from JRT location %s could not be opened. This is most likely a bug.", entry, location), e);
+            }
         }
 
         @Override
@@ -172,6 +136,21 @@ class ModuleLocationFactory implements Location.Factory {
             return location.asURI();
         }
 
+        @Override
+        public long accept(ClassVisitor visitor, int parsingOptions) throws IOException {
+            return JdkClassSnapshot.get().accept(moduleName, entry, visitor, parsingOptions);
+        }
+
+        // NOTE: The shared recording is equivalent to the given class file, since the runtime image cannot change
+        @Override
+        public void accept(byte[] classFile, ClassVisitor visitor, int parsingOptions) {
+            try {
+                accept(visitor, parsingOptions);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
         boolean isIncludedBy(ImportOptions importOptions) {
             return importOptions.include(location);
         }
@@ -181,9 +160,4 @@ class ModuleLocationFactory implements Location.Factory {
             return getClass().getSimpleName() + "{uri=" + getUri() + '}';
         }
     }
-
-    @FunctionalInterface
-    private interface ModuleReaderProcessor<T> {
-        T process(ModuleReader reader) throws IOException;
-    }
 }
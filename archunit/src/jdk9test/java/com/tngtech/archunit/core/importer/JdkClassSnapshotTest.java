@@ -0,0 +1,49 @@
+package com.tngtech.archunit.core.importer;
+
+import java.io.File;
+import java.util.Set;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import org.junit.Test;
+
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JdkClassSnapshotTest {
+    @Test
+    public void shares_recordings_of_JDK_classes_between_imports() throws Exception {
+        NormalizedResourceName entry = NormalizedResourceName.from("java/io/File.class");
+
+        byte[] first = JdkClassSnapshot.get().getRecording("java.base", entry, 0);
+        byte[] second = JdkClassSnapshot.get().getRecording("java.base", entry, 0);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void lists_files_beneath_resource_name() {
+        assertThat(JdkClassSnapshot.get().listFiles("java.base", NormalizedResourceName.from("java/io")))
+                .contains("java/io/File.class", "java/io/FileReader.class")
+                .doesNotContain("java/lang/Object.class");
+        assertThat(JdkClassSnapshot.get().listFiles("java.base", NormalizedResourceName.from("java/io/File.class")))
+                .containsOnly("java/io/File.class");
+        assertThat(JdkClassSnapshot.get().listFiles("java.base", NormalizedResourceName.from("java/notthere")))
+                .isEmpty();
+    }
+
+    @Test
+    public void different_importers_import_the_same_JDK_classes() {
+        JavaClass first = new ClassFileImporter().importPackages("java.io").get(File.class);
+        JavaClass second = new ClassFileImporter().importPackages("java.io").get(File.class);
+
+        assertThat(namesOf(second.getMethods()))
+                .isEqualTo(namesOf(first.getMethods()))
+                .contains(File.class.getName() + ".exists()");
+        assertThat(second.getMethodCallsFromSelf()).hasSameSizeAs(first.getMethodCallsFromSelf()).isNotEmpty();
+    }
+
+    private Set<String> namesOf(Set<JavaMethod> methods) {
+        return methods.stream().map(JavaMethod::getFullName).collect(toSet());
+    }
+}
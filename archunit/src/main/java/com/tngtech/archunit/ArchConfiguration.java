@@ -30,10 +30,14 @@ import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.tngtech.archunit.base.Optional;
+import com.tngtech.archunit.core.domain.Source;
+import com.tngtech.archunit.core.domain.Source.HashAlgorithm;
+import com.tngtech.archunit.core.importer.ImportMetricsListener;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static com.tngtech.archunit.base.ClassLoaders.getCurrentClassLoader;
@@ -50,6 +54,14 @@ public final class ArchConfiguration {
     static final String CLASS_RESOLVER_ARGS = "classResolver.args";
     @Internal
     public static final String ENABLE_MD5_IN_CLASS_SOURCES = "enableMd5InClassSources";
+    @Internal
+    public static final String CLASS_SOURCE_HASH_ALGORITHM = "classSourceHashAlgorithm";
+    @Internal
+    public static final String IMPORT_METRICS_LISTENER = "importMetricsListener";
+    @Internal
+    public static final String IMPORT_PARALLELISM = "importParallelism";
+    @Internal
+    public static final String IMPORT_CACHE_DIRECTORY = "importCacheDirectory";
     private static final String EXTENSION_PREFIX = "extension";
 
     private static final Logger LOG = LoggerFactory.getLogger(ArchConfiguration.class);
@@ -120,6 +132,88 @@ public final class ArchConfiguration {
         properties.setProperty(ENABLE_MD5_IN_CLASS_SOURCES, String.valueOf(enabled));
     }
 
+    /**
+     * @return The algorithm to calculate the {@link Source.Md5sum} of imported class files with,
+     *         if {@link #md5InClassSourcesEnabled()}. Defaults to {@link HashAlgorithm#MD5}.
+     */
+    @PublicAPI(usage = ACCESS)
+    public HashAlgorithm getClassSourceHashAlgorithm() {
+        return HashAlgorithm.valueOf(properties.getProperty(CLASS_SOURCE_HASH_ALGORITHM));
+    }
+
+    /**
+     * @param algorithm The algorithm to calculate the {@link Source.Md5sum} of imported class files with
+     * @see #getClassSourceHashAlgorithm()
+     */
+    @PublicAPI(usage = ACCESS)
+    public void setClassSourceHashAlgorithm(HashAlgorithm algorithm) {
+        properties.setProperty(CLASS_SOURCE_HASH_ALGORITHM, algorithm.name());
+    }
+
+    /**
+     * @return The number of threads used to parse class files during the import. A value of {@code 1} (the default)
+     *         means that all class files are parsed sequentially within the calling thread.
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getImportParallelism() {
+        return Integer.parseInt(properties.getProperty(IMPORT_PARALLELISM));
+    }
+
+    /**
+     * @param parallelism The number of threads to parse class files with during the import (must be at least {@code 1})
+     * @see #getImportParallelism()
+     */
+    @PublicAPI(usage = ACCESS)
+    public void setImportParallelism(int parallelism) {
+        checkArgument(parallelism >= 1, "Import parallelism must be at least 1, but was %s", parallelism);
+        properties.setProperty(IMPORT_PARALLELISM, String.valueOf(parallelism));
+    }
+
+    /**
+     * @return The directory where the results of parsing class files are cached between imports, if configured.
+     *         If absent (the default), every import parses all class files again.
+     */
+    @PublicAPI(usage = ACCESS)
+    public Optional<String> getImportCacheDirectory() {
+        return Optional.fromNullable(properties.getProperty(IMPORT_CACHE_DIRECTORY));
+    }
+
+    /**
+     * @param directory The directory to cache the results of parsing class files in (will be created if necessary)
+     * @see #getImportCacheDirectory()
+     */
+    @PublicAPI(usage = ACCESS)
+    public void setImportCacheDirectory(String directory) {
+        properties.setProperty(IMPORT_CACHE_DIRECTORY, directory);
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public void unsetImportCacheDirectory() {
+        properties.remove(IMPORT_CACHE_DIRECTORY);
+    }
+
+    /**
+     * @return The fully qualified class name of the {@link ImportMetricsListener} to notify about every import, if configured
+     */
+    @PublicAPI(usage = ACCESS)
+    public Optional<String> getImportMetricsListener() {
+        return Optional.fromNullable(properties.getProperty(IMPORT_METRICS_LISTENER));
+    }
+
+    /**
+     * @param listener The {@link ImportMetricsListener} to notify about every import
+     * @see #getImportMetricsListener()
+     */
+    @PublicAPI(usage = ACCESS)
+    public void setImportMetricsListener(Class<? extends ImportMetricsListener> listener) {
+        properties.setProperty(IMPORT_METRICS_LISTENER, listener.getName());
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public void unsetImportMetricsListener() {
+        properties.remove(IMPORT_METRICS_LISTENER);
+    }
+
     @PublicAPI(usage = ACCESS)
     public Optional<String> getClassResolver() {
         return Optional.fromNullable(properties.getProperty(CLASS_RESOLVER));
@@ -270,7 +364,9 @@ public final class ArchConfiguration {
     private static class PropertiesOverwritableBySystemProperties {
         private static final Properties PROPERTY_DEFAULTS = createProperties(ImmutableMap.of(
                 RESOLVE_MISSING_DEPENDENCIES_FROM_CLASS_PATH, Boolean.TRUE.toString(),
-                ENABLE_MD5_IN_CLASS_SOURCES, Boolean.FALSE.toString()
+                ENABLE_MD5_IN_CLASS_SOURCES, Boolean.FALSE.toString(),
+                CLASS_SOURCE_HASH_ALGORITHM, HashAlgorithm.MD5.name(),
+                IMPORT_PARALLELISM, String.valueOf(1)
         ));
 
         private final Properties baseProperties = createProperties(PROPERTY_DEFAULTS);
@@ -105,6 +105,32 @@ public class ArchUnitException extends RuntimeException {
         }
     }
 
+    @Internal
+    public static class ImportMetricsListenerConfigurationException extends ArchUnitException {
+        public ImportMetricsListenerConfigurationException(String listenerClassName, Throwable cause) {
+            super(String.format("Error creating import metrics listener %s, it must provide a public default constructor",
+                    listenerClassName), cause);
+        }
+    }
+
+    @Internal
+    public static class CodeUnitBodiesNotImportedException extends ArchUnitException {
+        public CodeUnitBodiesNotImportedException(String message) {
+            super(message);
+        }
+    }
+
+    @Internal
+    public static class AccessesNotImportableException extends ArchUnitException {
+        public AccessesNotImportableException(String message) {
+            super(message);
+        }
+
+        public AccessesNotImportableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
     @Internal
     public static class InvalidSyntaxUsageException extends ArchUnitException {
         public InvalidSyntaxUsageException(String message) {
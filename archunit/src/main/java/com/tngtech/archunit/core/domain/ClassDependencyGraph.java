@@ -0,0 +1,324 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+/**
+ * The dependencies between all classes of one import as a compressed sparse row (CSR) graph. Every class is assigned
+ * a dense int id, the outgoing and incoming edges of all classes are stored within flat int arrays, where the edges
+ * of class {@code id} are found at the indexes {@code [start(id), end(id))}. There is one edge per pair of origin and target class,
+ * carrying the {@link Dependency.Kind#mask() kinds} of all dependencies between them as a bit mask.
+ * <br><br>
+ * Like for {@link JavaClass#getTransitiveDependenciesFromSelf()}, dependencies on arrays are recorded as edges
+ * to their {@link JavaClass#getBaseComponentType() base component type}, since arrays have no dependencies of their own.
+ */
+final class ClassDependencyGraph {
+    static final int NO_ID = -1;
+
+    private final List<JavaClass> classes;
+    private final Map<JavaClass, Integer> ids;
+    private final List<Set<Dependency>> dependenciesByOrigin;
+    private final int[] outgoingOffsets;
+    private final int[] outgoingTargets;
+    private final int[] outgoingKinds;
+    private final int[] incomingOffsets;
+    private final int[] incomingOrigins;
+    private final int[] incomingKinds;
+    private final int[] incomingDependencyOffsets;
+    private final Dependency[] incomingDependencies;
+    private final Supplier<ClassDependencyReachability> reachability = Suppliers.memoize(new Supplier<ClassDependencyReachability>() {
+        @Override
+        public ClassDependencyReachability get() {
+            return ClassDependencyReachability.of(ClassDependencyGraph.this);
+        }
+    });
+
+    private ClassDependencyGraph(Builder builder) {
+        classes = builder.classes;
+        ids = builder.ids;
+        dependenciesByOrigin = builder.dependenciesByOrigin;
+        int numberOfClasses = classes.size();
+
+        outgoingOffsets = builder.outgoingOffsets(numberOfClasses);
+        outgoingTargets = builder.outgoingTargets.toArray();
+        outgoingKinds = builder.outgoingKinds.toArray();
+        int numberOfEdges = outgoingTargets.length;
+
+        int[] incomingCounts = new int[numberOfClasses];
+        for (int target : outgoingTargets) {
+            incomingCounts[target]++;
+        }
+        int[] incomingDependencyCounts = new int[numberOfClasses];
+        int numberOfDependencies = 0;
+        for (Set<Dependency> dependencies : dependenciesByOrigin) {
+            for (Dependency dependency : dependencies) {
+                incomingDependencyCounts[ids.get(dependency.getTargetClass())]++;
+                numberOfDependencies++;
+            }
+        }
+
+        incomingOffsets = offsetsOf(incomingCounts);
+        incomingOrigins = new int[numberOfEdges];
+        incomingKinds = new int[numberOfEdges];
+        int[] nextIncoming = Arrays.copyOf(incomingOffsets, numberOfClasses);
+        for (int origin = 0; origin < numberOfClasses; origin++) {
+            for (int edge = outgoingOffsets[origin]; edge < outgoingOffsets[origin + 1]; edge++) {
+                int index = nextIncoming[outgoingTargets[edge]]++;
+                incomingOrigins[index] = origin;
+                incomingKinds[index] = outgoingKinds[edge];
+            }
+        }
+
+        incomingDependencyOffsets = offsetsOf(incomingDependencyCounts);
+        incomingDependencies = new Dependency[numberOfDependencies];
+        int[] nextIncomingDependency = Arrays.copyOf(incomingDependencyOffsets, numberOfClasses);
+        for (Set<Dependency> dependencies : dependenciesByOrigin) {
+            for (Dependency dependency : dependencies) {
+                incomingDependencies[nextIncomingDependency[ids.get(dependency.getTargetClass())]++] = dependency;
+            }
+        }
+    }
+
+    private static int[] offsetsOf(int[] counts) {
+        int[] offsets = new int[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            offsets[i + 1] = offsets[i] + counts[i];
+        }
+        return offsets;
+    }
+
+    int size() {
+        return classes.size();
+    }
+
+    int numberOfEdges() {
+        return outgoingTargets.length;
+    }
+
+    /**
+     * @return The id of the given class, or {@link #NO_ID}, if the class is not part of this graph
+     */
+    int idOf(JavaClass javaClass) {
+        Integer id = ids.get(javaClass);
+        return id != null ? id : NO_ID;
+    }
+
+    JavaClass classOf(int id) {
+        return classes.get(id);
+    }
+
+    int outgoingStart(int id) {
+        return outgoingOffsets[id];
+    }
+
+    int outgoingEnd(int id) {
+        return outgoingOffsets[id + 1];
+    }
+
+    int targetAt(int outgoingEdge) {
+        return outgoingTargets[outgoingEdge];
+    }
+
+    int outgoingKindsAt(int outgoingEdge) {
+        return outgoingKinds[outgoingEdge];
+    }
+
+    int incomingStart(int id) {
+        return incomingOffsets[id];
+    }
+
+    int incomingEnd(int id) {
+        return incomingOffsets[id + 1];
+    }
+
+    int originAt(int incomingEdge) {
+        return incomingOrigins[incomingEdge];
+    }
+
+    int incomingKindsAt(int incomingEdge) {
+        return incomingKinds[incomingEdge];
+    }
+
+    /**
+     * @return All {@link Dependency dependencies} with the given class as {@link Dependency#getTargetClass() target class}.
+     *         The set is a view on the graph, i.e. nothing is copied.
+     */
+    Set<Dependency> getDependenciesTo(JavaClass javaClass) {
+        Integer id = ids.get(javaClass);
+        if (id == null) {
+            return Collections.emptySet();
+        }
+        return new DependencySlice(id, incomingDependencyOffsets[id], incomingDependencyOffsets[id + 1]);
+    }
+
+    /**
+     * @return The transitive reachability between the classes of this graph, computed on first query
+     */
+    ClassDependencyReachability getReachability() {
+        return reachability.get();
+    }
+
+    static ClassDependencyGraph of(Iterable<JavaClass> classes) {
+        Builder builder = new Builder();
+        for (JavaClass javaClass : classes) {
+            builder.register(javaClass);
+        }
+        // NOTE: Dependencies might target classes that have not been passed, these are appended without dependencies of their own
+        int numberOfOrigins = builder.classes.size();
+        for (int origin = 0; origin < numberOfOrigins; origin++) {
+            builder.addDependenciesOf(origin);
+        }
+        return new ClassDependencyGraph(builder);
+    }
+
+    private static class Builder {
+        private final List<JavaClass> classes = new ArrayList<>();
+        private final Map<JavaClass, Integer> ids = new HashMap<>();
+        private final List<Set<Dependency>> dependenciesByOrigin = new ArrayList<>();
+        private final IntList edgeOffsets = new IntList();
+        private final IntList outgoingTargets = new IntList();
+        private final IntList outgoingKinds = new IntList();
+        // NOTE: Scratch space to merge the kinds of all dependencies of one origin per target, indexed by target id
+        private int[] kindsByTarget = new int[0];
+        private final IntList targetsOfOrigin = new IntList();
+
+        void register(JavaClass javaClass) {
+            if (!ids.containsKey(javaClass)) {
+                add(javaClass, javaClass.getDirectDependenciesFromSelf());
+            }
+        }
+
+        int idOf(JavaClass javaClass) {
+            Integer id = ids.get(javaClass);
+            return id != null ? id : add(javaClass, Collections.<Dependency>emptySet());
+        }
+
+        private int add(JavaClass javaClass, Set<Dependency> dependencies) {
+            int id = classes.size();
+            classes.add(javaClass);
+            ids.put(javaClass, id);
+            dependenciesByOrigin.add(dependencies);
+            return id;
+        }
+
+        // NOTE: Must be called for the origins in ascending order, since the edges are appended to flat arrays right away
+        void addDependenciesOf(int origin) {
+            edgeOffsets.add(outgoingTargets.size());
+            for (Dependency dependency : dependenciesByOrigin.get(origin)) {
+                idOf(dependency.getTargetClass());
+                int target = idOf(dependency.getTargetClass().getBaseComponentType());
+                if (target != origin) {
+                    mergeKinds(target, dependency.getKind().mask());
+                }
+            }
+            for (int i = 0; i < targetsOfOrigin.size(); i++) {
+                int target = targetsOfOrigin.get(i);
+                outgoingTargets.add(target);
+                outgoingKinds.add(kindsByTarget[target]);
+                kindsByTarget[target] = 0;
+            }
+            targetsOfOrigin.clear();
+        }
+
+        private void mergeKinds(int target, int kinds) {
+            if (target >= kindsByTarget.length) {
+                kindsByTarget = Arrays.copyOf(kindsByTarget, Math.max(classes.size(), 2 * kindsByTarget.length));
+            }
+            if (kindsByTarget[target] == 0) {
+                targetsOfOrigin.add(target);
+            }
+            kindsByTarget[target] |= kinds;
+        }
+
+        // NOTE: Classes appended as dependency targets have no dependencies of their own, i.e. no edges
+        int[] outgoingOffsets(int numberOfClasses) {
+            int[] result = Arrays.copyOf(edgeOffsets.toArray(), numberOfClasses + 1);
+            Arrays.fill(result, edgeOffsets.size(), result.length, outgoingTargets.size());
+            return result;
+        }
+    }
+
+    // NOTE: The dependencies of one target class are distinct, since every origin class contributes a set of its own
+    private class DependencySlice extends AbstractSet<Dependency> {
+        private final int target;
+        private final int start;
+        private final int end;
+
+        DependencySlice(int target, int start, int end) {
+            this.target = target;
+            this.start = start;
+            this.end = end;
+        }
+
+        // NOTE: Every dependency within this slice is contained in the set of direct dependencies of its origin,
+        //       so we can look it up there instead of scanning the slice
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Dependency)) {
+                return false;
+            }
+            Dependency dependency = (Dependency) o;
+            if (!classes.get(target).equals(dependency.getTargetClass())) {
+                return false;
+            }
+            Integer origin = ids.get(dependency.getOriginClass());
+            return origin != null && dependenciesByOrigin.get(origin).contains(dependency);
+        }
+
+        @Override
+        public Iterator<Dependency> iterator() {
+            return new Iterator<Dependency>() {
+                private int next = start;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Dependency next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return incomingDependencies[next++];
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.util.Arrays;
+
+/**
+ * Answers which classes of a {@link ClassDependencyGraph} can be reached from a class by following dependencies transitively.
+ * <br><br>
+ * The graph is condensed into its strongly connected components once, since all classes within the same cycle
+ * reach exactly the same classes. Queries then traverse the condensed graph on demand. Nothing is retained
+ * between queries, so memory stays linear in the size of the graph, and queries can run concurrently without locking.
+ * Since components are numbered in reverse topological order, a search for a specific target can skip all components
+ * numbered below the target. Neither step recurses on the Java stack, so arbitrarily deep dependency chains are fine.
+ */
+final class ClassDependencyReachability {
+    private final int[] componentOfClass;
+    private final int[] componentMemberOffsets;
+    private final int[] componentMembers;
+    private final int[] componentSuccessorOffsets;
+    private final int[] componentSuccessors;
+
+    private ClassDependencyReachability(ClassDependencyGraph graph, int[] componentOfClass, int numberOfComponents) {
+        this.componentOfClass = componentOfClass;
+
+        componentMemberOffsets = new int[numberOfComponents + 1];
+        for (int component : componentOfClass) {
+            componentMemberOffsets[component + 1]++;
+        }
+        for (int component = 0; component < numberOfComponents; component++) {
+            componentMemberOffsets[component + 1] += componentMemberOffsets[component];
+        }
+        componentMembers = new int[componentOfClass.length];
+        int[] nextMember = Arrays.copyOf(componentMemberOffsets, numberOfComponents);
+        for (int id = 0; id < componentOfClass.length; id++) {
+            componentMembers[nextMember[componentOfClass[id]]++] = id;
+        }
+
+        componentSuccessorOffsets = new int[numberOfComponents + 1];
+        int[] successors = new int[graph.numberOfEdges()];
+        int numberOfSuccessors = 0;
+        int[] lastSeenBy = new int[numberOfComponents];
+        Arrays.fill(lastSeenBy, -1);
+        for (int component = 0; component < numberOfComponents; component++) {
+            componentSuccessorOffsets[component] = numberOfSuccessors;
+            for (int member = componentMemberOffsets[component]; member < componentMemberOffsets[component + 1]; member++) {
+                int id = componentMembers[member];
+                for (int edge = graph.outgoingStart(id); edge < graph.outgoingEnd(id); edge++) {
+                    int successor = componentOfClass[graph.targetAt(edge)];
+                    if (successor != component && lastSeenBy[successor] != component) {
+                        lastSeenBy[successor] = component;
+                        successors[numberOfSuccessors++] = successor;
+                    }
+                }
+            }
+        }
+        componentSuccessorOffsets[numberOfComponents] = numberOfSuccessors;
+        componentSuccessors = Arrays.copyOf(successors, numberOfSuccessors);
+    }
+
+    int numberOfComponents() {
+        return componentMemberOffsets.length - 1;
+    }
+
+    int componentOf(int id) {
+        return componentOfClass[id];
+    }
+
+    int componentMembersStart(int component) {
+        return componentMemberOffsets[component];
+    }
+
+    int componentMembersEnd(int component) {
+        return componentMemberOffsets[component + 1];
+    }
+
+    int componentMemberAt(int index) {
+        return componentMembers[index];
+    }
+
+    int componentSuccessorsStart(int component) {
+        return componentSuccessorOffsets[component];
+    }
+
+    int componentSuccessorsEnd(int component) {
+        return componentSuccessorOffsets[component + 1];
+    }
+
+    int componentSuccessorAt(int index) {
+        return componentSuccessors[index];
+    }
+
+    /**
+     * @return Whether the class with id {@code targetId} can be reached from the class with id {@code originId},
+     *         where every class can reach itself.
+     */
+    boolean reaches(int originId, int targetId) {
+        int target = componentOfClass[targetId];
+        IntList reachableComponents = searchComponentsFrom(componentOfClass[originId], target);
+        for (int i = 0; i < reachableComponents.size(); i++) {
+            if (reachableComponents.get(i) == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The components reachable from the class with the given id, including its own component, each one exactly once.
+     *         Every call computes a new array, which is owned by the caller.
+     */
+    int[] reachableComponentsFrom(int id) {
+        return searchComponentsFrom(componentOfClass[id], 0).toArray();
+    }
+
+    // NOTE: Components are numbered in reverse topological order (compare ComponentFinder), i.e. every successor
+    //       of a component has a smaller number. Thus only components within [lowestComponent, start] are relevant,
+    //       all components below lowestComponent can neither be nor reach any of the components we are looking for.
+    //       The list of reached components doubles as the queue of a breadth-first search, and together with the sparse
+    //       set of visited components, the costs of a search are proportional to the part of the graph it reaches.
+    private IntList searchComponentsFrom(int start, int lowestComponent) {
+        IntList reached = new IntList();
+        if (start < lowestComponent) {
+            return reached;
+        }
+        IntSet visited = new IntSet();
+        visited.add(start);
+        reached.add(start);
+        for (int next = 0; next < reached.size(); next++) {
+            int component = reached.get(next);
+            for (int i = componentSuccessorOffsets[component]; i < componentSuccessorOffsets[component + 1]; i++) {
+                int successor = componentSuccessors[i];
+                if (successor >= lowestComponent && visited.add(successor)) {
+                    reached.add(successor);
+                }
+            }
+        }
+        return reached;
+    }
+
+    static ClassDependencyReachability of(ClassDependencyGraph graph) {
+        ComponentFinder componentFinder = new ComponentFinder(graph);
+        componentFinder.findComponents();
+        return new ClassDependencyReachability(graph, componentFinder.componentOfClass, componentFinder.numberOfComponents);
+    }
+
+    /**
+     * Tarjan's algorithm to find strongly connected components, where the recursion is replaced by an explicit stack.
+     * Tarjan's algorithm completes a component only after all components reachable from it, so the components are
+     * numbered in reverse topological order.
+     */
+    private static class ComponentFinder {
+        private static final int UNVISITED = -1;
+
+        private final ClassDependencyGraph graph;
+        private final int[] index;
+        private final int[] lowLink;
+        private final boolean[] onStack;
+        private final int[] componentStack;
+        private final int[] callStack;
+        private final int[] nextEdge;
+        private final int[] componentOfClass;
+        private int componentStackSize = 0;
+        private int nextIndex = 0;
+        private int numberOfComponents = 0;
+
+        ComponentFinder(ClassDependencyGraph graph) {
+            this.graph = graph;
+            int size = graph.size();
+            index = new int[size];
+            Arrays.fill(index, UNVISITED);
+            lowLink = new int[size];
+            onStack = new boolean[size];
+            componentStack = new int[size];
+            callStack = new int[size];
+            nextEdge = new int[size];
+            componentOfClass = new int[size];
+        }
+
+        void findComponents() {
+            for (int id = 0; id < graph.size(); id++) {
+                if (index[id] == UNVISITED) {
+                    findComponentsFrom(id);
+                }
+            }
+        }
+
+        private void findComponentsFrom(int root) {
+            int callStackSize = 0;
+            callStack[callStackSize++] = visit(root);
+            while (callStackSize > 0) {
+                int current = callStack[callStackSize - 1];
+                if (nextEdge[current] < graph.outgoingEnd(current)) {
+                    int target = graph.targetAt(nextEdge[current]++);
+                    if (index[target] == UNVISITED) {
+                        callStack[callStackSize++] = visit(target);
+                    } else if (onStack[target]) {
+                        lowLink[current] = Math.min(lowLink[current], index[target]);
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+                if (lowLink[current] == index[current]) {
+                    completeComponentOf(current);
+                }
+                if (callStackSize > 0) {
+                    int caller = callStack[callStackSize - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[current]);
+                }
+            }
+        }
+
+        private int visit(int id) {
+            index[id] = nextIndex;
+            lowLink[id] = nextIndex;
+            nextIndex++;
+            nextEdge[id] = graph.outgoingStart(id);
+            componentStack[componentStackSize++] = id;
+            onStack[id] = true;
+            return id;
+        }
+
+        private void completeComponentOf(int root) {
+            int member;
+            do {
+                member = componentStack[--componentStackSize];
+                onStack[member] = false;
+                componentOfClass[member] = numberOfComponents;
+            } while (member != root);
+            numberOfComponents++;
+        }
+    }
+}
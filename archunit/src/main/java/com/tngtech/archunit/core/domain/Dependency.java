@@ -30,7 +30,6 @@ import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.properties.HasName;
 import com.tngtech.archunit.core.domain.properties.HasSourceCodeLocation;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 
 /**
@@ -52,33 +51,57 @@ public class Dependency implements HasDescription, Comparable<Dependency>, HasSo
     private final JavaClass originClass;
     private final JavaClass targetClass;
     private final int lineNumber;
-    private final String description;
-    private final SourceCodeLocation sourceCodeLocation;
+    private final Kind kind;
+    private final HasDescription origin;
+    private final String dependencyType;
     private final int hashCode;
+    private String description;
+    private SourceCodeLocation sourceCodeLocation;
 
-    private Dependency(JavaClass originClass, JavaClass targetClass, int lineNumber, String description) {
-        checkArgument(!originClass.equals(targetClass) || targetClass.isPrimitive(),
-                "Tried to create illegal dependency '%s' (%s -> %s), this is likely a bug!",
-                description, originClass.getSimpleName(), targetClass.getSimpleName());
-
+    // NOTE: The description is only rendered on demand from origin, dependency type and target,
+    //       since most dependencies never end up within a violation message
+    private Dependency(JavaClass originClass, JavaClass targetClass, int lineNumber, Kind kind, HasDescription origin, String dependencyType) {
         this.originClass = originClass;
         this.targetClass = targetClass;
         this.lineNumber = lineNumber;
-        this.description = description;
-        this.sourceCodeLocation = SourceCodeLocation.of(originClass, lineNumber);
-        hashCode = Objects.hash(originClass, targetClass, lineNumber, description);
+        this.kind = kind;
+        this.origin = origin;
+        this.dependencyType = dependencyType;
+        if (originClass.equals(targetClass) && !targetClass.isPrimitive()) {
+            throw new IllegalArgumentException(String.format("Tried to create illegal dependency '%s' (%s -> %s), this is likely a bug!",
+                    getDescription(), originClass.getSimpleName(), targetClass.getSimpleName()));
+        }
+        hashCode = hashCodeOf(originClass, targetClass, lineNumber, kind, origin);
+    }
+
+    private static int hashCodeOf(JavaClass originClass, JavaClass targetClass, int lineNumber, Kind kind, HasDescription origin) {
+        int result = originClass.hashCode();
+        result = 31 * result + targetClass.hashCode();
+        result = 31 * result + lineNumber;
+        result = 31 * result + kind.hashCode();
+        return 31 * result + System.identityHashCode(origin);
     }
 
     static Set<Dependency> tryCreateFromAccess(JavaAccess<?> access) {
         JavaClass originOwner = access.getOriginOwner();
         JavaClass targetOwner = access.getTargetOwner();
         ImmutableSet.Builder<Dependency> dependencies = ImmutableSet.<Dependency>builder()
-                .addAll(createComponentTypeDependencies(originOwner, access.getOrigin().getDescription(), targetOwner, access.getSourceCodeLocation()));
-        dependencies.addAll(tryCreateDependency(originOwner, targetOwner, access.getDescription(), access.getLineNumber()).asSet());
+                .addAll(createComponentTypeDependencies(originOwner, access.getOrigin(), targetOwner, access.getLineNumber()));
+        dependencies.addAll(tryCreateDependency(originOwner, targetOwner, access.getLineNumber(), Kind.ACCESS, access, null).asSet());
         return dependencies.build();
     }
 
     static Dependency fromInheritance(JavaClass origin, JavaClass targetSuperType) {
+        Optional<Dependency> result = tryCreateDependency(origin, targetSuperType, 0, Kind.INHERITANCE, origin, null);
+
+        if (!result.isPresent()) {
+            throw new IllegalStateException(String.format("Tried to create illegal inheritance dependency '%s' (%s -> %s), this is likely a bug!",
+                    describeInheritance(origin, targetSuperType), origin.getSimpleName(), targetSuperType.getSimpleName()));
+        }
+        return result.get();
+    }
+
+    private static String describeInheritance(JavaClass origin, JavaClass targetSuperType) {
         String originType = origin.isInterface() ? "Interface" : "Class";
         String originDescription = originType + " " + bracketFormat(origin.getName());
 
@@ -89,107 +112,87 @@ public class Dependency implements HasDescription, Comparable<Dependency>, HasSo
 
         String dependencyDescription = originDescription + " " + dependencyType + " " + targetType + " " + targetDescription;
 
-        String description = dependencyDescription + " in " + origin.getSourceCodeLocation();
-        Optional<Dependency> result = tryCreateDependency(origin, targetSuperType, description, 0);
-
-        if (!result.isPresent()) {
-            throw new IllegalStateException(String.format("Tried to create illegal inheritance dependency '%s' (%s -> %s), this is likely a bug!",
-                    description, origin.getSimpleName(), targetSuperType.getSimpleName()));
-        }
-        return result.get();
+        return dependencyDescription + " in " + origin.getSourceCodeLocation();
     }
 
     static Set<Dependency> tryCreateFromField(JavaField field) {
-        return tryCreateDependencyFromJavaMember(field, "has type", field.getRawType());
+        return tryCreateDependencyFromJavaMember(field, "has type", field.getRawType(), Kind.FIELD_TYPE);
     }
 
     static Set<Dependency> tryCreateFromReturnType(JavaMethod method) {
-        return tryCreateDependencyFromJavaMember(method, "has return type", method.getRawReturnType());
+        return tryCreateDependencyFromJavaMember(method, "has return type", method.getRawReturnType(), Kind.RETURN_TYPE);
     }
 
     static Set<Dependency> tryCreateFromParameter(JavaCodeUnit codeUnit, JavaClass parameter) {
-        return tryCreateDependencyFromJavaMember(codeUnit, "has parameter of type", parameter);
+        return tryCreateDependencyFromJavaMember(codeUnit, "has parameter of type", parameter, Kind.PARAMETER_TYPE);
     }
 
     static Set<Dependency> tryCreateFromThrowsDeclaration(ThrowsDeclaration<? extends JavaCodeUnit> declaration) {
-        return tryCreateDependencyFromJavaMember(declaration.getLocation(), "throws type", declaration.getRawType());
+        return tryCreateDependencyFromJavaMember(declaration.getLocation(), "throws type", declaration.getRawType(), Kind.THROWS_DECLARATION);
     }
 
     static Set<Dependency> tryCreateFromInstanceofCheck(InstanceofCheck instanceofCheck) {
-        return tryCreateDependencyFromJavaMemberWithLocation(instanceofCheck.getOwner(), "checks instanceof", instanceofCheck.getRawType(), instanceofCheck.getLineNumber());
+        JavaCodeUnit origin = instanceofCheck.getOwner();
+        return tryCreateDependency(
+                origin.getOwner(), origin, "checks instanceof", instanceofCheck.getRawType(), instanceofCheck.getLineNumber(), Kind.INSTANCEOF_CHECK);
     }
 
     static Set<Dependency> tryCreateFromAnnotation(JavaAnnotation<?> target) {
         Origin origin = findSuitableOrigin(target, target.getAnnotatedElement());
-        return tryCreateDependency(origin.originClass, origin.originDescription, "is annotated with", target.getRawType());
+        return tryCreateDependency(origin.originClass, origin.origin, "is annotated with", target.getRawType(), 0, Kind.ANNOTATION);
     }
 
     static Set<Dependency> tryCreateFromAnnotationMember(JavaAnnotation<?> annotation, JavaClass memberType) {
         Origin origin = findSuitableOrigin(annotation, annotation.getAnnotatedElement());
-        return tryCreateDependency(origin.originClass, origin.originDescription, "has annotation member of type", memberType);
+        return tryCreateDependency(origin.originClass, origin.origin, "has annotation member of type", memberType, 0, Kind.ANNOTATION_MEMBER);
     }
 
     static Set<Dependency> tryCreateFromTypeParameter(JavaTypeVariable<?> typeParameter, JavaClass typeParameterDependency) {
         String dependencyType = "has type parameter '" + typeParameter.getName() + "' depending on";
         Origin origin = findSuitableOrigin(typeParameter, typeParameter.getOwner());
-        return tryCreateDependency(origin.originClass, origin.originDescription, dependencyType, typeParameterDependency);
+        return tryCreateDependency(origin.originClass, origin.origin, dependencyType, typeParameterDependency, 0, Kind.TYPE_PARAMETER);
     }
 
     private static Origin findSuitableOrigin(Object dependencyCause, Object originCandidate) {
         if (originCandidate instanceof JavaMember) {
             JavaMember member = (JavaMember) originCandidate;
-            return new Origin(member.getOwner(), member.getDescription());
+            return new Origin(member.getOwner(), member);
         }
         if (originCandidate instanceof JavaClass) {
             JavaClass clazz = (JavaClass) originCandidate;
-            return new Origin(clazz, clazz.getDescription());
+            return new Origin(clazz, clazz);
         }
         throw new IllegalStateException("Could not find suitable dependency origin for " + dependencyCause);
     }
 
-    private static Set<Dependency> tryCreateDependencyFromJavaMember(JavaMember origin, String dependencyType, JavaClass target) {
-        return tryCreateDependency(origin.getOwner(), origin.getDescription(), dependencyType, target);
-    }
-
-    private static Set<Dependency> tryCreateDependencyFromJavaMemberWithLocation(JavaMember origin, String dependencyType, JavaClass target, int lineNumber) {
-        return tryCreateDependency(origin.getOwner(), origin.getDescription(), dependencyType, target, SourceCodeLocation.of(origin.getOwner(), lineNumber));
-    }
-
-    private static Set<Dependency> tryCreateDependency(
-            JavaClass originClass, String originDescription, String dependencyType, JavaClass targetClass) {
-
-        return tryCreateDependency(originClass, originDescription, dependencyType, targetClass, originClass.getSourceCodeLocation());
+    private static Set<Dependency> tryCreateDependencyFromJavaMember(JavaMember origin, String dependencyType, JavaClass target, Kind kind) {
+        return tryCreateDependency(origin.getOwner(), origin, dependencyType, target, 0, kind);
     }
 
     private static Set<Dependency> tryCreateDependency(
-            JavaClass originClass, String originDescription, String dependencyType, JavaClass targetClass, SourceCodeLocation sourceCodeLocation) {
+            JavaClass originClass, HasDescription origin, String dependencyType, JavaClass targetClass, int lineNumber, Kind kind) {
         ImmutableSet.Builder<Dependency> dependencies = ImmutableSet.<Dependency>builder()
-                .addAll(createComponentTypeDependencies(originClass, originDescription, targetClass, sourceCodeLocation));
-        String targetDescription = bracketFormat(targetClass.getName());
-        String dependencyDescription = originDescription + " " + dependencyType + " " + targetDescription;
-        String description = dependencyDescription + " in " + sourceCodeLocation;
-        dependencies.addAll(tryCreateDependency(originClass, targetClass, description, sourceCodeLocation.getLineNumber()).asSet());
+                .addAll(createComponentTypeDependencies(originClass, origin, targetClass, lineNumber));
+        dependencies.addAll(tryCreateDependency(originClass, targetClass, lineNumber, kind, origin, dependencyType).asSet());
         return dependencies.build();
     }
 
-    private static Set<Dependency> createComponentTypeDependencies(JavaClass originClass, String originDescription, JavaClass targetClass, SourceCodeLocation sourceCodeLocation) {
+    private static Set<Dependency> createComponentTypeDependencies(JavaClass originClass, HasDescription origin, JavaClass targetClass, int lineNumber) {
         ImmutableSet.Builder<Dependency> result = ImmutableSet.builder();
         Optional<JavaClass> componentType = targetClass.tryGetComponentType();
         while (componentType.isPresent()) {
-            String componentTypeTargetDescription = bracketFormat(componentType.get().getName());
-            String componentTypeDependencyDescription = originDescription + " depends on component type " + componentTypeTargetDescription;
-            String componentTypeDescription = componentTypeDependencyDescription + " in " + sourceCodeLocation;
-            result.addAll(tryCreateDependency(originClass, componentType.get(), componentTypeDescription, sourceCodeLocation.getLineNumber()).asSet());
+            result.addAll(tryCreateDependency(originClass, componentType.get(), lineNumber, Kind.COMPONENT_TYPE, origin, "depends on component type").asSet());
             componentType = componentType.get().tryGetComponentType();
         }
         return result.build();
     }
 
-    private static Optional<Dependency> tryCreateDependency(JavaClass originClass, JavaClass targetClass, String description, int lineNumber) {
+    private static Optional<Dependency> tryCreateDependency(
+            JavaClass originClass, JavaClass targetClass, int lineNumber, Kind kind, HasDescription origin, String dependencyType) {
         if (originClass.equals(targetClass) || targetClass.isPrimitive()) {
             return Optional.absent();
         }
-        return Optional.of(new Dependency(originClass, targetClass, lineNumber, description));
+        return Optional.of(new Dependency(originClass, targetClass, lineNumber, kind, origin, dependencyType));
     }
 
     private static String bracketFormat(String name) {
@@ -209,12 +212,33 @@ public class Dependency implements HasDescription, Comparable<Dependency>, HasSo
     @Override
     @PublicAPI(usage = ACCESS)
     public String getDescription() {
+        if (description == null) {
+            description = createDescription();
+        }
         return description;
     }
 
+    private String createDescription() {
+        switch (kind) {
+            case ACCESS:
+                return origin.getDescription();
+            case INHERITANCE:
+                return describeInheritance(originClass, targetClass);
+            default:
+                return origin.getDescription() + " " + dependencyType + " " + bracketFormat(targetClass.getName()) + " in " + getSourceCodeLocation();
+        }
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
     @Override
     @PublicAPI(usage = ACCESS)
     public SourceCodeLocation getSourceCodeLocation() {
+        if (sourceCodeLocation == null) {
+            sourceCodeLocation = SourceCodeLocation.of(originClass, lineNumber);
+        }
         return sourceCodeLocation;
     }
 
@@ -241,10 +265,12 @@ public class Dependency implements HasDescription, Comparable<Dependency>, HasSo
             return false;
         }
         final Dependency other = (Dependency) obj;
-        return Objects.equals(this.originClass, other.originClass)
+        return this.origin == other.origin
+                && Objects.equals(this.originClass, other.originClass)
                 && Objects.equals(this.targetClass, other.targetClass)
-                && Objects.equals(this.lineNumber, other.lineNumber)
-                && Objects.equals(this.description, other.description);
+                && this.lineNumber == other.lineNumber
+                && this.kind == other.kind
+                && Objects.equals(this.dependencyType, other.dependencyType);
     }
 
     @Override
@@ -253,7 +279,7 @@ public class Dependency implements HasDescription, Comparable<Dependency>, HasSo
                 .add("originClass", originClass)
                 .add("targetClass", targetClass)
                 .add("lineNumber", lineNumber)
-                .add("description", description)
+                .add("description", getDescription())
                 .toString();
     }
 
@@ -266,13 +292,35 @@ public class Dependency implements HasDescription, Comparable<Dependency>, HasSo
         return JavaClasses.of(classes);
     }
 
+    /**
+     * The syntactical cause of a dependency. The kinds of several dependencies can be combined into a bit mask
+     * (compare {@link #mask()}).
+     */
+    enum Kind {
+        ACCESS,
+        INHERITANCE,
+        FIELD_TYPE,
+        RETURN_TYPE,
+        PARAMETER_TYPE,
+        THROWS_DECLARATION,
+        INSTANCEOF_CHECK,
+        ANNOTATION,
+        ANNOTATION_MEMBER,
+        TYPE_PARAMETER,
+        COMPONENT_TYPE;
+
+        int mask() {
+            return 1 << ordinal();
+        }
+    }
+
     private static class Origin {
         private final JavaClass originClass;
-        private final String originDescription;
+        private final HasDescription origin;
 
-        private Origin(JavaClass originClass, String originDescription) {
+        private Origin(JavaClass originClass, HasDescription origin) {
             this.originClass = originClass;
-            this.originDescription = originDescription;
+            this.origin = origin;
         }
     }
 
@@ -62,6 +62,10 @@ public class DomainObjectCreationContext {
         return JavaClasses.of(selectedClasses, allClasses, importContext);
     }
 
+    public static void registerResolvedClasses(JavaClasses importedClasses, Collection<JavaClass> resolvedClasses) {
+        JavaClasses.registerResolvedClasses(importedClasses, resolvedClasses);
+    }
+
     public static JavaClass createJavaClass(JavaClassBuilder builder) {
         return new JavaClass(builder);
     }
@@ -86,6 +90,14 @@ public class DomainObjectCreationContext {
         javaClass.completeAnnotations(importContext);
     }
 
+    public static void completeDependencies(JavaClass javaClass, ImportContext importContext) {
+        javaClass.completeFrom(importContext);
+    }
+
+    public static void completeAccesses(JavaCodeUnit codeUnit, ImportContext importContext) {
+        codeUnit.completeAccessesFrom(importContext);
+    }
+
     public static <T extends HasDescription> JavaAnnotation<T> createJavaAnnotation(T owner, JavaAnnotationBuilder builder) {
         return new JavaAnnotation<>(owner, builder);
     }
@@ -138,8 +150,24 @@ public class DomainObjectCreationContext {
         return new JavaEnumConstant(builder);
     }
 
-    public static Source createSource(URI uri, Optional<String> sourceFileName, boolean md5InClassSourcesEnabled) {
-        return new Source(uri, sourceFileName, md5InClassSourcesEnabled);
+    public static Source createSource(URI uri, Optional<String> sourceFileName, Source.Md5sum md5sum) {
+        return new Source(uri, sourceFileName, md5sum);
+    }
+
+    public static Source.Md5sum createMd5sum(byte[] classFile, Source.HashAlgorithm algorithm) {
+        return Source.Md5sum.of(classFile, algorithm);
+    }
+
+    public static Source.Md5sum restoreMd5sum(byte[] md5Bytes, String text) {
+        return Source.Md5sum.restore(md5Bytes, text);
+    }
+
+    public static Source.Md5sum createUndeterminedMd5sum() {
+        return Source.Md5sum.UNDETERMINED;
+    }
+
+    public static Source.Md5sum createDisabledMd5sum() {
+        return Source.Md5sum.DISABLED;
     }
 
     public static <CODE_UNIT extends JavaCodeUnit> ThrowsClause<CODE_UNIT> createThrowsClause(CODE_UNIT codeUnit, List<JavaClass> types) {
@@ -44,6 +44,12 @@ public interface ImportContext {
 
     Optional<JavaClass> createEnclosingClass(JavaClass owner);
 
+    boolean areCodeUnitBodiesImported();
+
+    boolean areAccessesImportedOnDemand();
+
+    void importAccessesOnDemand(JavaClass owner);
+
     Set<JavaFieldAccess> createFieldAccessesFor(JavaCodeUnit codeUnit);
 
     Set<JavaMethodCall> createMethodCallsFor(JavaCodeUnit codeUnit);
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.util.Arrays;
+
+/**
+ * A hash set of non-negative primitive ints with open addressing, whose memory is proportional to the number of
+ * contained values instead of the largest value (compare {@link java.util.BitSet}).
+ */
+final class IntSet {
+    private static final int FREE = -1;
+
+    private int[] slots = newSlots(16);
+    private int size = 0;
+
+    /**
+     * @return {@code true}, if the set did not contain the value before
+     */
+    boolean add(int value) {
+        if (2 * (size + 1) > slots.length) {
+            rehash(2 * slots.length);
+        }
+        if (!insert(slots, value)) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    private void rehash(int numberOfSlots) {
+        int[] newSlots = newSlots(numberOfSlots);
+        for (int value : slots) {
+            if (value != FREE) {
+                insert(newSlots, value);
+            }
+        }
+        slots = newSlots;
+    }
+
+    private static boolean insert(int[] slots, int value) {
+        int mask = slots.length - 1;
+        int slot = indexOf(value, mask);
+        while (slots[slot] != FREE) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        return true;
+    }
+
+    // NOTE: Ids are dense, so we spread them over the table to avoid long runs of occupied slots
+    private static int indexOf(int value, int mask) {
+        int hash = value * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int[] newSlots(int numberOfSlots) {
+        int[] slots = new int[numberOfSlots];
+        Arrays.fill(slots, FREE);
+        return slots;
+    }
+}
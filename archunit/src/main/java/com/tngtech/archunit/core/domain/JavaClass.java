@@ -1337,6 +1337,10 @@ public class JavaClass implements JavaType, HasName.AndFullName, HasAnnotations<
         }
     }
 
+    ReverseDependencies getReverseDependencies() {
+        return reverseDependencies;
+    }
+
     void setReverseDependencies(ReverseDependencies reverseDependencies) {
         this.reverseDependencies = reverseDependencies;
         for (JavaMember member : members) {
@@ -1344,6 +1348,13 @@ public class JavaClass implements JavaType, HasName.AndFullName, HasAnnotations<
         }
     }
 
+    /**
+     * @return The dependency graph of all classes imported together with this class
+     */
+    ClassDependencyGraph getDependencyGraph() {
+        return reverseDependencies.getDependencyGraph();
+    }
+
     @Override
     public String toString() {
         return "JavaClass{name='" + descriptor.getFullyQualifiedClassName() + "'}";
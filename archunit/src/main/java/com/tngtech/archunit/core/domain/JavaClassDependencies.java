@@ -17,6 +17,7 @@ package com.tngtech.archunit.core.domain;
 
 import java.util.Set;
 
+import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
@@ -41,7 +42,7 @@ class JavaClassDependencies {
             @Override
             public Set<Dependency> get() {
                 ImmutableSet.Builder<Dependency> result = ImmutableSet.builder();
-                result.addAll(dependenciesFromAccesses(javaClass.getAccessesFromSelf()));
+                result.addAll(dependenciesFromAccesses());
                 result.addAll(inheritanceDependenciesFromSelf());
                 result.addAll(fieldDependenciesFromSelf());
                 result.addAll(returnTypeDependenciesFromSelf());
@@ -60,10 +61,12 @@ class JavaClassDependencies {
         return directDependenciesFromClass.get();
     }
 
-    private Set<Dependency> dependenciesFromAccesses(Set<JavaAccess<?>> accesses) {
+    private Set<Dependency> dependenciesFromAccesses() {
         ImmutableSet.Builder<Dependency> result = ImmutableSet.builder();
-        for (JavaAccess<?> access : accesses) {
-            result.addAll(Dependency.tryCreateFromAccess(access));
+        for (JavaCodeUnit codeUnit : codeUnitsWithImportedBody()) {
+            for (JavaAccess<?> access : codeUnit.getAccessesFromSelf()) {
+                result.addAll(Dependency.tryCreateFromAccess(access));
+            }
         }
         return result.build();
     }
@@ -133,7 +136,7 @@ class JavaClassDependencies {
 
     private Set<Dependency> instanceofCheckDependenciesFromSelf() {
         ImmutableSet.Builder<Dependency> result = ImmutableSet.builder();
-        for (JavaCodeUnit codeUnit : javaClass.getCodeUnits()) {
+        for (JavaCodeUnit codeUnit : codeUnitsWithImportedBody()) {
             for (InstanceofCheck instanceofCheck : codeUnit.getInstanceofChecks()) {
                 result.addAll(Dependency.tryCreateFromInstanceofCheck(instanceofCheck));
             }
@@ -141,6 +144,16 @@ class JavaClassDependencies {
         return result.build();
     }
 
+    // NOTE: If code unit bodies were not imported, the dependencies only comprise those originating from signatures
+    private Iterable<JavaCodeUnit> codeUnitsWithImportedBody() {
+        return FluentIterable.from(javaClass.getCodeUnits()).filter(new Predicate<JavaCodeUnit>() {
+            @Override
+            public boolean apply(JavaCodeUnit input) {
+                return input.isBodyImported();
+            }
+        });
+    }
+
     private Set<Dependency> typeParameterDependenciesFromSelf() {
         ImmutableSet.Builder<Dependency> result = ImmutableSet.builder();
         for (JavaTypeVariable<?> typeVariable : javaClass.getTypeParameters()) {
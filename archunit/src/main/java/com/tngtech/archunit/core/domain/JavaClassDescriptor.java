@@ -23,9 +23,12 @@ import com.google.common.base.Function;
 import com.google.common.base.Strings;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Maps;
 import com.tngtech.archunit.Internal;
 import com.tngtech.archunit.base.ArchUnitException.ReflectionException;
@@ -65,21 +68,31 @@ public interface JavaClassDescriptor {
 
     @Internal
     final class From {
+        private static final int MAX_CACHED_DESCRIPTORS = 100_000;
+
+        private static final Interner<String> packageNames = Interners.newWeakInterner();
+        // NOTE: The cache lives as long as the class loader of ArchUnit, which might import many different class paths over time
+        //       (e.g. within a long running test JVM). Thus descriptors that are not referenced anymore must be collectable
+        //       and the cache must not grow without bounds. Evicting a descriptor is safe, since descriptors are compared by name.
         private static final LoadingCache<String, JavaClassDescriptor> descriptorCache =
-                CacheBuilder.newBuilder().build(new CacheLoader<String, JavaClassDescriptor>() {
-                    @Override
-                    public JavaClassDescriptor load(String typeName) {
-                        if (primitiveClassesByNameOrDescriptor.containsKey(typeName)) {
-                            return new PrimitiveClassDescriptor(Type.getType(primitiveClassesByNameOrDescriptor.get(typeName)).getClassName());
-                        }
-                        if (isArray(typeName)) {
-                            // NOTE: ASM uses the canonical name for arrays (i.e. java.lang.Object[]), but we want the class name,
-                            //       i.e. [Ljava.lang.Object;
-                            return new ArrayClassDescriptor(ensureCorrectArrayTypeName(typeName));
-                        }
-                        return new ObjectClassDescriptor(typeName);
-                    }
-                });
+                CacheBuilder.newBuilder()
+                        .weakValues()
+                        .maximumSize(MAX_CACHED_DESCRIPTORS)
+                        .recordStats()
+                        .build(new CacheLoader<String, JavaClassDescriptor>() {
+                            @Override
+                            public JavaClassDescriptor load(String typeName) {
+                                if (primitiveClassesByNameOrDescriptor.containsKey(typeName)) {
+                                    return new PrimitiveClassDescriptor(Type.getType(primitiveClassesByNameOrDescriptor.get(typeName)).getClassName());
+                                }
+                                if (isArray(typeName)) {
+                                    // NOTE: ASM uses the canonical name for arrays (i.e. java.lang.Object[]), but we want the class name,
+                                    //       i.e. [Ljava.lang.Object;
+                                    return new ArrayClassDescriptor(ensureCorrectArrayTypeName(typeName));
+                                }
+                                return new ObjectClassDescriptor(typeName);
+                            }
+                        });
         private static final ImmutableMap<String, Class<?>> primitiveClassesByName =
                 Maps.uniqueIndex(allPrimitiveTypes(), new Function<Class<?>, String>() {
                     @Override
@@ -104,6 +117,11 @@ public interface JavaClassDescriptor {
             return descriptorCache.getUnchecked(typeName);
         }
 
+        public static CacheStatistics getCacheStatistics() {
+            CacheStats stats = descriptorCache.stats();
+            return new CacheStatistics(descriptorCache.size(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+        }
+
         private static boolean isArray(String typeName) {
             // We support class name ([Ljava.lang.Object;) and canonical name java.lang.Object[]
             return typeName.startsWith("[") || typeName.endsWith("]");
@@ -313,9 +331,53 @@ public interface JavaClassDescriptor {
             }
         }
 
+        // NOTE: Many types share the same package, so we intern the package names instead of keeping a copy per type
         private static String createPackage(String fullName) {
             int packageEnd = fullName.lastIndexOf('.');
-            return packageEnd >= 0 ? fullName.substring(0, packageEnd) : "";
+            return packageEnd >= 0 ? packageNames.intern(fullName.substring(0, packageEnd)) : "";
+        }
+
+        @Internal
+        public static final class CacheStatistics {
+            private final long size;
+            private final long hitCount;
+            private final long missCount;
+            private final long evictionCount;
+
+            private CacheStatistics(long size, long hitCount, long missCount, long evictionCount) {
+                this.size = size;
+                this.hitCount = hitCount;
+                this.missCount = missCount;
+                this.evictionCount = evictionCount;
+            }
+
+            /**
+             * @return The approximate number of descriptors currently cached
+             */
+            public long getSize() {
+                return size;
+            }
+
+            public long getHitCount() {
+                return hitCount;
+            }
+
+            public long getMissCount() {
+                return missCount;
+            }
+
+            /**
+             * @return The number of descriptors evicted because of the size limit or because they were garbage collected
+             */
+            public long getEvictionCount() {
+                return evictionCount;
+            }
+
+            @Override
+            public String toString() {
+                return getClass().getSimpleName() + "{size=" + size + ", hitCount=" + hitCount
+                        + ", missCount=" + missCount + ", evictionCount=" + evictionCount + '}';
+            }
         }
     }
 }
@@ -15,33 +15,52 @@
  */
 package com.tngtech.archunit.core.domain;
 
-import com.google.common.collect.ImmutableSet;
-
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableSet;
+
+import static com.tngtech.archunit.core.domain.ClassDependencyGraph.NO_ID;
+
 class JavaClassTransitiveDependencies {
     private JavaClassTransitiveDependencies() {
     }
 
     static Set<Dependency> findTransitiveDependenciesFrom(JavaClass javaClass) {
+        ClassDependencyGraph graph = javaClass.getDependencyGraph();
+        int id = graph.idOf(javaClass);
+        if (id == NO_ID) {
+            return findTransitiveDependenciesOutsideOfGraph(javaClass);
+        }
+
+        ClassDependencyReachability reachability = graph.getReachability();
         ImmutableSet.Builder<Dependency> transitiveDependencies = ImmutableSet.builder();
-        Set<JavaClass> analyzedClasses = new HashSet<>();  // to avoid infinite recursion for cyclic dependencies
-        addTransitiveDependenciesFrom(javaClass, transitiveDependencies, analyzedClasses);
+        for (int component : reachability.reachableComponentsFrom(id)) {
+            for (int member = reachability.componentMembersStart(component); member < reachability.componentMembersEnd(component); member++) {
+                transitiveDependencies.addAll(graph.classOf(reachability.componentMemberAt(member)).getDirectDependenciesFromSelf());
+            }
+        }
         return transitiveDependencies.build();
     }
 
-    private static void addTransitiveDependenciesFrom(JavaClass javaClass, ImmutableSet.Builder<Dependency> transitiveDependencies, Set<JavaClass> analyzedClasses) {
-        analyzedClasses.add(javaClass);  // currently being analyzed
-        Set<JavaClass> targetClassesToRecurse = new HashSet<>();
-        for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
-            transitiveDependencies.add(dependency);
-            targetClassesToRecurse.add(dependency.getTargetClass().getBaseComponentType());
-        }
-        for (JavaClass targetClass : targetClassesToRecurse) {
-            if (!analyzedClasses.contains(targetClass)) {
-                addTransitiveDependenciesFrom(targetClass, transitiveDependencies, analyzedClasses);
+    // NOTE: Stubs are not part of any dependency graph, we simply traverse the dependencies without memoizing anything
+    private static Set<Dependency> findTransitiveDependenciesOutsideOfGraph(JavaClass javaClass) {
+        ImmutableSet.Builder<Dependency> transitiveDependencies = ImmutableSet.builder();
+        Set<JavaClass> analyzedClasses = new HashSet<>();
+        Deque<JavaClass> classesToAnalyze = new ArrayDeque<>();
+        classesToAnalyze.add(javaClass);
+        analyzedClasses.add(javaClass);
+        while (!classesToAnalyze.isEmpty()) {
+            for (Dependency dependency : classesToAnalyze.poll().getDirectDependenciesFromSelf()) {
+                transitiveDependencies.add(dependency);
+                JavaClass targetClass = dependency.getTargetClass().getBaseComponentType();
+                if (analyzedClasses.add(targetClass)) {
+                    classesToAnalyze.add(targetClass);
+                }
             }
         }
+        return transitiveDependencies.build();
     }
 }
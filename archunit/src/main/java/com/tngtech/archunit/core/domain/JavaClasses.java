@@ -36,15 +36,17 @@ import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 public final class JavaClasses extends ForwardingCollection<JavaClass> implements DescribedIterable<JavaClass>, CanOverrideDescription<JavaClasses> {
     private final ImmutableMap<String, JavaClass> classes;
     private final JavaPackage defaultPackage;
+    private final ReverseDependencies reverseDependencies;
     private final String description;
 
-    private JavaClasses(JavaPackage defaultPackage, Map<String, JavaClass> classes) {
-        this(defaultPackage, classes, "classes");
+    private JavaClasses(JavaPackage defaultPackage, ReverseDependencies reverseDependencies, Map<String, JavaClass> classes) {
+        this(defaultPackage, reverseDependencies, classes, "classes");
     }
 
-    private JavaClasses(JavaPackage defaultPackage, Map<String, JavaClass> classes, String description) {
+    private JavaClasses(JavaPackage defaultPackage, ReverseDependencies reverseDependencies, Map<String, JavaClass> classes, String description) {
         this.classes = ImmutableMap.copyOf(classes);
         this.defaultPackage = checkNotNull(defaultPackage);
+        this.reverseDependencies = checkNotNull(reverseDependencies);
         this.description = checkNotNull(description);
     }
 
@@ -56,12 +58,12 @@ public final class JavaClasses extends ForwardingCollection<JavaClass> implement
     public JavaClasses that(DescribedPredicate<? super JavaClass> predicate) {
         Map<String, JavaClass> matchingElements = Guava.Maps.filterValues(classes, predicate);
         String newDescription = String.format("%s that %s", description, predicate.getDescription());
-        return new JavaClasses(defaultPackage, matchingElements, newDescription);
+        return new JavaClasses(defaultPackage, reverseDependencies, matchingElements, newDescription);
     }
 
     @Override
     public JavaClasses as(String description) {
-        return new JavaClasses(defaultPackage, classes, description);
+        return new JavaClasses(defaultPackage, reverseDependencies, classes, description);
     }
 
     @Override
@@ -179,7 +181,7 @@ public final class JavaClasses extends ForwardingCollection<JavaClass> implement
         JavaPackage defaultPackage = !Iterables.isEmpty(classes)
                 ? getRoot(classes.iterator().next().getPackage())
                 : JavaPackage.from(classes);
-        return new JavaClasses(defaultPackage, mapping);
+        return new JavaClasses(defaultPackage, ReverseDependencies.EMPTY, mapping);
     }
 
     private static JavaPackage getRoot(JavaPackage javaPackage) {
@@ -193,15 +195,22 @@ public final class JavaClasses extends ForwardingCollection<JavaClass> implement
     static JavaClasses of(
             Map<String, JavaClass> selectedClasses, Collection<JavaClass> allClasses, ImportContext importContext) {
 
-        ReverseDependencies.Creation reverseDependenciesCreation = new ReverseDependencies.Creation();
+        ReverseDependencies.Creation reverseDependenciesCreation = new ReverseDependencies.Creation(importContext.areCodeUnitBodiesImported());
         JavaPackage defaultPackage = JavaPackage.from(allClasses);
         for (JavaClass clazz : allClasses) {
             setPackage(clazz, defaultPackage);
-            JavaClassDependencies classDependencies = clazz.completeFrom(importContext);
-            reverseDependenciesCreation.registerDependenciesOf(clazz, classDependencies);
+            clazz.completeFrom(importContext);
+            reverseDependenciesCreation.register(clazz);
         }
-        reverseDependenciesCreation.finish(allClasses);
-        return new JavaClasses(defaultPackage, selectedClasses);
+        ReverseDependencies reverseDependencies = reverseDependenciesCreation.finish(allClasses);
+        return new JavaClasses(defaultPackage, reverseDependencies, selectedClasses);
+    }
+
+    // NOTE: Classes resolved after the import must end up in the same package tree and reverse dependencies as all other imported classes,
+    //       so it makes no difference for any query, if a class was resolved during the import or later on
+    static void registerResolvedClasses(JavaClasses importedClasses, Collection<JavaClass> resolvedClasses) {
+        JavaPackage.addResolvedClasses(importedClasses.defaultPackage, resolvedClasses);
+        importedClasses.reverseDependencies.register(resolvedClasses);
     }
 
     private static void setPackage(JavaClass clazz, JavaPackage defaultPackage) {
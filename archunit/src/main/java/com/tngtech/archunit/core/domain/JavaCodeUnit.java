@@ -23,6 +23,7 @@ import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
 import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.base.ArchUnitException.CodeUnitBodiesNotImportedException;
 import com.tngtech.archunit.base.ChainableFunction;
 import com.tngtech.archunit.base.DescribedPredicate;
 import com.tngtech.archunit.base.Optional;
@@ -32,6 +33,7 @@ import com.tngtech.archunit.core.domain.properties.HasParameterTypes;
 import com.tngtech.archunit.core.domain.properties.HasReturnType;
 import com.tngtech.archunit.core.domain.properties.HasThrowsClause;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaCodeUnitBuilder;
+import com.tngtech.archunit.core.importer.ImportMode;
 
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static com.tngtech.archunit.core.domain.Formatters.formatMethod;
@@ -55,6 +57,8 @@ public abstract class JavaCodeUnit extends JavaMember implements HasParameterTyp
     private Set<JavaFieldAccess> fieldAccesses = Collections.emptySet();
     private Set<JavaMethodCall> methodCalls = Collections.emptySet();
     private Set<JavaConstructorCall> constructorCalls = Collections.emptySet();
+    private boolean bodyImported = true;
+    private volatile ImportContext accessImportOnDemand;
 
     JavaCodeUnit(JavaCodeUnitBuilder<?, ?> builder) {
         super(builder);
@@ -97,26 +101,68 @@ public abstract class JavaCodeUnit extends JavaMember implements HasParameterTyp
         return returnType;
     }
 
+    /**
+     * @throws CodeUnitBodiesNotImportedException if the body of this code unit was not imported
+     *                                            (compare {@link ImportMode#SIGNATURES_ONLY})
+     */
     @PublicAPI(usage = ACCESS)
     public Set<JavaFieldAccess> getFieldAccesses() {
+        checkBodyImported("field accesses");
+        ensureAccessesImported();
         return fieldAccesses;
     }
 
+    /**
+     * @throws CodeUnitBodiesNotImportedException if the body of this code unit was not imported
+     *                                            (compare {@link ImportMode#SIGNATURES_ONLY})
+     */
     @PublicAPI(usage = ACCESS)
     public Set<JavaMethodCall> getMethodCallsFromSelf() {
+        checkBodyImported("method calls");
+        ensureAccessesImported();
         return methodCalls;
     }
 
+    /**
+     * @throws CodeUnitBodiesNotImportedException if the body of this code unit was not imported
+     *                                            (compare {@link ImportMode#SIGNATURES_ONLY})
+     */
     @PublicAPI(usage = ACCESS)
     public Set<JavaConstructorCall> getConstructorCallsFromSelf() {
+        checkBodyImported("constructor calls");
+        ensureAccessesImported();
         return constructorCalls;
     }
 
+    /**
+     * @throws CodeUnitBodiesNotImportedException if the body of this code unit was not imported
+     *                                            (compare {@link ImportMode#SIGNATURES_ONLY})
+     */
     @PublicAPI(usage = ACCESS)
     public Set<InstanceofCheck> getInstanceofChecks() {
+        checkBodyImported("instanceof checks");
         return instanceofChecks;
     }
 
+    boolean isBodyImported() {
+        return bodyImported;
+    }
+
+    private void ensureAccessesImported() {
+        ImportContext context = accessImportOnDemand;
+        if (context != null) {
+            context.importAccessesOnDemand(getOwner());
+        }
+    }
+
+    private void checkBodyImported(String requestedInformation) {
+        if (!bodyImported) {
+            throw new CodeUnitBodiesNotImportedException(String.format(
+                    "Can't determine %s of %s, because the bodies of code units were not imported (import mode %s)",
+                    requestedInformation, getFullName(), ImportMode.SIGNATURES_ONLY.name()));
+        }
+    }
+
     @PublicAPI(usage = ACCESS)
     public Set<JavaCall<?>> getCallsFromSelf() {
         return ImmutableSet.<JavaCall<?>>builder()
@@ -157,9 +203,22 @@ public abstract class JavaCodeUnit extends JavaMember implements HasParameterTyp
     }
 
     void completeFrom(ImportContext context) {
+        if (!context.areCodeUnitBodiesImported()) {
+            bodyImported = false;
+            return;
+        }
+        if (context.areAccessesImportedOnDemand()) {
+            accessImportOnDemand = context;
+            return;
+        }
+        completeAccessesFrom(context);
+    }
+
+    void completeAccessesFrom(ImportContext context) {
         fieldAccesses = context.createFieldAccessesFor(this);
         methodCalls = context.createMethodCallsFor(this);
         constructorCalls = context.createConstructorCallsFor(this);
+        accessImportOnDemand = null;
     }
 
     @ResolvesTypesViaReflection
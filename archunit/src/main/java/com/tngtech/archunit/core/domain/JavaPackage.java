@@ -17,6 +17,7 @@ package com.tngtech.archunit.core.domain;
 
 import java.lang.annotation.Annotation;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -54,9 +55,10 @@ import static java.util.Collections.singleton;
 public final class JavaPackage implements HasName, HasAnnotations<JavaPackage> {
     private final String name;
     private final String relativeName;
-    private final Set<JavaClass> classes;
-    private final Optional<JavaClass> packageInfo;
-    private final Map<String, JavaPackage> subPackages;
+    // NOTE: Classes resolved after the import (compare addResolvedClasses(..)) replace these sets, they are never modified
+    private volatile Set<JavaClass> classes;
+    private volatile Optional<JavaClass> packageInfo;
+    private volatile Map<String, JavaPackage> subPackages;
     private Optional<JavaPackage> parent = Optional.absent();
 
     private JavaPackage(String name, Set<JavaClass> classes, Map<String, JavaPackage> subPackages) {
@@ -520,6 +522,44 @@ public final class JavaPackage implements HasName, HasAnnotations<JavaPackage> {
         return new Tree(classes).toJavaPackage();
     }
 
+    /**
+     * Adds classes that have been resolved after the package tree was created (e.g. with
+     * {@link com.tngtech.archunit.core.importer.ImportMode#ACCESSES_ON_DEMAND}) to the tree of the given default package,
+     * creating any missing sub-packages, and sets the respective package of each class.
+     */
+    static void addResolvedClasses(JavaPackage defaultPackage, Iterable<JavaClass> classes) {
+        synchronized (defaultPackage) {
+            for (JavaClass clazz : classes) {
+                JavaPackage javaPackage = defaultPackage;
+                if (!clazz.getPackageName().isEmpty()) {
+                    for (String part : Splitter.on('.').split(clazz.getPackageName())) {
+                        javaPackage = javaPackage.getOrAddSubPackage(part);
+                    }
+                }
+                javaPackage.addClass(clazz);
+                clazz.setPackage(javaPackage);
+            }
+        }
+    }
+
+    private JavaPackage getOrAddSubPackage(String relativeName) {
+        JavaPackage subPackage = subPackages.get(relativeName);
+        if (subPackage == null) {
+            String subPackageName = name.isEmpty() ? relativeName : name + "." + relativeName;
+            subPackage = new JavaPackage(subPackageName, Collections.<JavaClass>emptySet(), Collections.<String, JavaPackage>emptyMap());
+            subPackage.setParent(this);
+            subPackages = ImmutableMap.<String, JavaPackage>builder().putAll(subPackages).put(relativeName, subPackage).build();
+        }
+        return subPackage;
+    }
+
+    private void addClass(JavaClass clazz) {
+        if (!classes.contains(clazz)) {
+            classes = ImmutableSet.<JavaClass>builder().addAll(classes).add(clazz).build();
+            packageInfo = tryGetClassWithSimpleName("package-info");
+        }
+    }
+
     private static class Tree {
         private final String packageName;
         private final Map<String, Tree> subPackageTrees;
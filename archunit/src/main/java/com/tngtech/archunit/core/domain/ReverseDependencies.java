@@ -16,251 +16,437 @@
 package com.tngtech.archunit.core.domain;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.ArchUnitException.CodeUnitBodiesNotImportedException;
+import com.tngtech.archunit.core.importer.ImportMode;
 
 final class ReverseDependencies {
+    private static final int PARTITION_SIZE = 128;
 
-    private final LoadingCache<JavaField, Set<JavaFieldAccess>> accessToFieldCache;
-    private final LoadingCache<JavaMethod, Set<JavaMethodCall>> callToMethodCache;
-    private final LoadingCache<JavaConstructor, Set<JavaConstructorCall>> callToConstructorCache;
-    private final SetMultimap<JavaClass, JavaField> fieldTypeDependencies;
-    private final SetMultimap<JavaClass, JavaMethod> methodParameterTypeDependencies;
-    private final SetMultimap<JavaClass, JavaMethod> methodReturnTypeDependencies;
-    private final SetMultimap<JavaClass, ThrowsDeclaration<JavaMethod>> methodsThrowsDeclarationDependencies;
-    private final SetMultimap<JavaClass, JavaConstructor> constructorParameterTypeDependencies;
-    private final SetMultimap<JavaClass, ThrowsDeclaration<JavaConstructor>> constructorThrowsDeclarationDependencies;
-    private final SetMultimap<JavaClass, JavaAnnotation<?>> annotationTypeDependencies;
-    private final SetMultimap<JavaClass, JavaAnnotation<?>> annotationParameterTypeDependencies;
-    private final SetMultimap<JavaClass, InstanceofCheck> instanceofCheckDependencies;
-    private final Supplier<SetMultimap<JavaClass, Dependency>> directDependenciesToClass;
+    private final boolean accessesImported;
+    private volatile ImmutableList<JavaClass> classes;
+    private volatile int modificationCount;
+    private final IndexOfClasses<AccessIndex> accessIndex = new IndexOfClasses<AccessIndex>() {
+        // NOTE: With ImportMode.ACCESSES_ON_DEMAND collecting the accesses triggers the import of the accesses of all classes
+        @Override
+        AccessIndex create(List<JavaClass> classes) {
+            return new AccessIndex(new AccessDependencies(accessesImported ? classes : Collections.<JavaClass>emptyList()));
+        }
+    };
+    private final IndexOfClasses<MemberDependencies> memberDependencies = new IndexOfClasses<MemberDependencies>() {
+        @Override
+        MemberDependencies create(List<JavaClass> classes) {
+            return MemberDependencies.of(classes, ArchConfiguration.get().getImportParallelism());
+        }
+    };
+    private final IndexOfClasses<ClassDependencyGraph> dependencyGraph = new IndexOfClasses<ClassDependencyGraph>() {
+        @Override
+        ClassDependencyGraph create(List<JavaClass> classes) {
+            return ClassDependencyGraph.of(classes);
+        }
+    };
 
     private ReverseDependencies(ReverseDependencies.Creation creation) {
-        accessToFieldCache = CacheBuilder.newBuilder().build(new ResolvingAccessLoader<>(creation.fieldAccessDependencies.build()));
-        callToMethodCache = CacheBuilder.newBuilder().build(new ResolvingAccessLoader<>(creation.methodCallDependencies.build()));
-        callToConstructorCache = CacheBuilder.newBuilder().build(new ConstructorCallLoader(creation.constructorCallDependencies.build()));
-        this.fieldTypeDependencies = creation.fieldTypeDependencies.build();
-        this.methodParameterTypeDependencies = creation.methodParameterTypeDependencies.build();
-        this.methodReturnTypeDependencies = creation.methodReturnTypeDependencies.build();
-        this.methodsThrowsDeclarationDependencies = creation.methodsThrowsDeclarationDependencies.build();
-        this.constructorParameterTypeDependencies = creation.constructorParameterTypeDependencies.build();
-        this.constructorThrowsDeclarationDependencies = creation.constructorThrowsDeclarationDependencies.build();
-        this.annotationTypeDependencies = creation.annotationTypeDependencies.build();
-        this.annotationParameterTypeDependencies = creation.annotationParameterTypeDependencies.build();
-        this.instanceofCheckDependencies = creation.instanceofCheckDependencies.build();
-        this.directDependenciesToClass = createDirectDependenciesToClassSupplier(creation.allDependencies);
+        this.accessesImported = creation.accessesImported;
+        this.classes = ImmutableList.copyOf(creation.allClasses);
     }
 
-    private static Supplier<SetMultimap<JavaClass, Dependency>> createDirectDependenciesToClassSupplier(final List<JavaClassDependencies> allDependencies) {
-        return Suppliers.memoize(new Supplier<SetMultimap<JavaClass, Dependency>>() {
-            @Override
-            public SetMultimap<JavaClass, Dependency> get() {
-                ImmutableSetMultimap.Builder<JavaClass, Dependency> result = ImmutableSetMultimap.builder();
-                for (JavaClassDependencies dependencies : allDependencies) {
-                    for (Dependency dependency : dependencies.getDirectDependenciesFromClass()) {
-                        result.put(dependency.getTargetClass(), dependency);
-                    }
-                }
-                return result.build();
+    /**
+     * Adds classes that have been resolved or completed after the import, e.g. with {@link ImportMode#ACCESSES_ON_DEMAND}
+     * the targets of accesses that are imported later on. Any index built so far is rebuilt on the next query.
+     */
+    synchronized void register(Collection<JavaClass> resolvedClasses) {
+        ImmutableList.Builder<JavaClass> newClasses = ImmutableList.<JavaClass>builder().addAll(classes);
+        for (JavaClass clazz : resolvedClasses) {
+            if (clazz.getReverseDependencies() != this) {
+                newClasses.add(clazz);
+                clazz.setReverseDependencies(this);
             }
-        });
+        }
+        classes = newClasses.build();
+        modificationCount++;
     }
 
     Set<JavaFieldAccess> getAccessesTo(JavaField field) {
-        return accessToFieldCache.getUnchecked(field);
+        checkAccessesImported(field);
+        return accessIndex.get().accessToFieldCache.getUnchecked(field);
     }
 
     Set<JavaMethodCall> getCallsTo(JavaMethod method) {
-        return callToMethodCache.getUnchecked(method);
+        checkAccessesImported(method);
+        return accessIndex.get().callToMethodCache.getUnchecked(method);
     }
 
     Set<JavaConstructorCall> getCallsTo(JavaConstructor constructor) {
-        return callToConstructorCache.getUnchecked(constructor);
+        checkAccessesImported(constructor);
+        return accessIndex.get().callToConstructorCache.getUnchecked(constructor);
+    }
+
+    private void checkAccessesImported(JavaMember target) {
+        if (!accessesImported) {
+            throw new CodeUnitBodiesNotImportedException(String.format(
+                    "Can't determine accesses to %s, because the bodies of code units were not imported (import mode %s)",
+                    target.getFullName(), ImportMode.SIGNATURES_ONLY.name()));
+        }
     }
 
     Set<JavaField> getFieldsWithTypeOf(JavaClass clazz) {
-        return fieldTypeDependencies.get(clazz);
+        return memberDependencies.get().fieldTypeDependencies.get(clazz);
     }
 
     Set<JavaMethod> getMethodsWithParameterTypeOf(JavaClass clazz) {
-        return methodParameterTypeDependencies.get(clazz);
+        return memberDependencies.get().methodParameterTypeDependencies.get(clazz);
     }
 
     Set<JavaMethod> getMethodsWithReturnTypeOf(JavaClass clazz) {
-        return methodReturnTypeDependencies.get(clazz);
+        return memberDependencies.get().methodReturnTypeDependencies.get(clazz);
     }
 
     Set<ThrowsDeclaration<JavaMethod>> getMethodThrowsDeclarationsWithTypeOf(JavaClass clazz) {
-        return methodsThrowsDeclarationDependencies.get(clazz);
+        return memberDependencies.get().methodsThrowsDeclarationDependencies.get(clazz);
     }
 
     Set<JavaConstructor> getConstructorsWithParameterTypeOf(JavaClass clazz) {
-        return constructorParameterTypeDependencies.get(clazz);
+        return memberDependencies.get().constructorParameterTypeDependencies.get(clazz);
     }
 
     Set<ThrowsDeclaration<JavaConstructor>> getConstructorsWithThrowsDeclarationTypeOf(JavaClass clazz) {
-        return constructorThrowsDeclarationDependencies.get(clazz);
+        return memberDependencies.get().constructorThrowsDeclarationDependencies.get(clazz);
     }
 
     Set<JavaAnnotation<?>> getAnnotationsWithTypeOf(JavaClass clazz) {
-        return annotationTypeDependencies.get(clazz);
+        return memberDependencies.get().annotationTypeDependencies.get(clazz);
     }
 
     Set<JavaAnnotation<?>> getAnnotationsWithParameterTypeOf(JavaClass clazz) {
-        return annotationParameterTypeDependencies.get(clazz);
+        return memberDependencies.get().annotationParameterTypeDependencies.get(clazz);
     }
 
     Set<InstanceofCheck> getInstanceofChecksWithTypeOf(JavaClass clazz) {
-        return instanceofCheckDependencies.get(clazz);
+        return memberDependencies.get().instanceofCheckDependencies.get(clazz);
     }
 
     Set<Dependency> getDirectDependenciesTo(JavaClass clazz) {
-        return directDependenciesToClass.get().get(clazz);
+        return dependencyGraph.get().getDependenciesTo(clazz);
     }
 
-    static final ReverseDependencies EMPTY = new ReverseDependencies(new Creation());
+    ClassDependencyGraph getDependencyGraph() {
+        return dependencyGraph.get();
+    }
+
+    static final ReverseDependencies EMPTY = new ReverseDependencies(new Creation(true));
 
     static class Creation {
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaFieldAccess> fieldAccessDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaMethodCall> methodCallDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<String, JavaConstructorCall> constructorCallDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaField> fieldTypeDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaMethod> methodParameterTypeDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaMethod> methodReturnTypeDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, ThrowsDeclaration<JavaMethod>> methodsThrowsDeclarationDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaConstructor> constructorParameterTypeDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, ThrowsDeclaration<JavaConstructor>> constructorThrowsDeclarationDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaAnnotation<?>> annotationTypeDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, JavaAnnotation<?>> annotationParameterTypeDependencies = ImmutableSetMultimap.builder();
-        private final ImmutableSetMultimap.Builder<JavaClass, InstanceofCheck> instanceofCheckDependencies = ImmutableSetMultimap.builder();
-        private final List<JavaClassDependencies> allDependencies = new ArrayList<>();
-
-        public void registerDependenciesOf(JavaClass clazz, JavaClassDependencies classDependencies) {
-            registerAccesses(clazz);
-            registerFields(clazz);
-            registerMethods(clazz);
-            registerConstructors(clazz);
-            registerAnnotations(clazz);
-            registerStaticInitializer(clazz);
-            allDependencies.add(classDependencies);
+        private final boolean accessesImported;
+        private final List<JavaClass> allClasses = new ArrayList<>();
+
+        Creation(boolean accessesImported) {
+            this.accessesImported = accessesImported;
         }
 
-        private void registerAccesses(JavaClass clazz) {
-            for (JavaFieldAccess access : clazz.getFieldAccessesFromSelf()) {
-                fieldAccessDependencies.put(access.getTargetOwner(), access);
-            }
-            for (JavaMethodCall call : clazz.getMethodCallsFromSelf()) {
-                methodCallDependencies.put(call.getTargetOwner(), call);
-            }
-            for (JavaConstructorCall call : clazz.getConstructorCallsFromSelf()) {
-                constructorCallDependencies.put(call.getTarget().getFullName(), call);
-            }
+        void register(JavaClass clazz) {
+            allClasses.add(clazz);
         }
 
-        private void registerFields(JavaClass clazz) {
-            for (JavaField field : clazz.getFields()) {
-                fieldTypeDependencies.put(field.getRawType(), field);
+        ReverseDependencies finish(Iterable<JavaClass> classes) {
+            ReverseDependencies reverseDependencies = new ReverseDependencies(this);
+            for (JavaClass clazz : classes) {
+                clazz.setReverseDependencies(reverseDependencies);
             }
+            return reverseDependencies;
         }
+    }
 
-        private void registerMethods(JavaClass clazz) {
-            for (JavaMethod method : clazz.getMethods()) {
-                for (JavaClass parameter : method.getRawParameterTypes()) {
-                    methodParameterTypeDependencies.put(parameter, method);
+    /**
+     * An index over all classes, that is only created on the first query, since many rules never ask for dependencies
+     * to a class. If further classes are registered later on, the index is created anew. Since creating the index might
+     * itself resolve further classes (compare {@link ImportMode#ACCESSES_ON_DEMAND}), it is created until it covers all classes.
+     */
+    private abstract class IndexOfClasses<T> {
+        private volatile T index;
+        private volatile int indexedModificationCount;
+
+        T get() {
+            T result = index;
+            if (result != null && indexedModificationCount == modificationCount) {
+                return result;
+            }
+            synchronized (this) {
+                while (index == null || indexedModificationCount != modificationCount) {
+                    int currentModificationCount = modificationCount;
+                    index = create(classes);
+                    indexedModificationCount = currentModificationCount;
                 }
-                methodReturnTypeDependencies.put(method.getRawReturnType(), method);
-                for (ThrowsDeclaration<JavaMethod> throwsDeclaration : method.getThrowsClause()) {
-                    methodsThrowsDeclarationDependencies.put(throwsDeclaration.getRawType(), throwsDeclaration);
+                return index;
+            }
+        }
+
+        abstract T create(List<JavaClass> classes);
+    }
+
+    private static class AccessIndex {
+        private final LoadingCache<JavaField, Set<JavaFieldAccess>> accessToFieldCache;
+        private final LoadingCache<JavaMethod, Set<JavaMethodCall>> callToMethodCache;
+        private final LoadingCache<JavaConstructor, Set<JavaConstructorCall>> callToConstructorCache;
+
+        AccessIndex(AccessDependencies accessDependencies) {
+            accessToFieldCache = CacheBuilder.newBuilder().build(new ResolvingAccessLoader<JavaField, JavaFieldAccess>(accessDependencies) {
+                @Override
+                SetMultimap<JavaClass, JavaFieldAccess> getAccessesToSelf(AccessDependencies dependencies) {
+                    return dependencies.fieldAccessDependencies;
                 }
-                for (InstanceofCheck instanceofCheck : method.getInstanceofChecks()) {
-                    instanceofCheckDependencies.put(instanceofCheck.getRawType(), instanceofCheck);
+            });
+            callToMethodCache = CacheBuilder.newBuilder().build(new ResolvingAccessLoader<JavaMethod, JavaMethodCall>(accessDependencies) {
+                @Override
+                SetMultimap<JavaClass, JavaMethodCall> getAccessesToSelf(AccessDependencies dependencies) {
+                    return dependencies.methodCallDependencies;
                 }
+            });
+            callToConstructorCache = CacheBuilder.newBuilder().build(new ConstructorCallLoader(accessDependencies));
+        }
+    }
+
+    private static class MemberDependencies {
+        private final SetMultimap<JavaClass, JavaField> fieldTypeDependencies;
+        private final SetMultimap<JavaClass, JavaMethod> methodParameterTypeDependencies;
+        private final SetMultimap<JavaClass, JavaMethod> methodReturnTypeDependencies;
+        private final SetMultimap<JavaClass, ThrowsDeclaration<JavaMethod>> methodsThrowsDeclarationDependencies;
+        private final SetMultimap<JavaClass, JavaConstructor> constructorParameterTypeDependencies;
+        private final SetMultimap<JavaClass, ThrowsDeclaration<JavaConstructor>> constructorThrowsDeclarationDependencies;
+        private final SetMultimap<JavaClass, JavaAnnotation<?>> annotationTypeDependencies;
+        private final SetMultimap<JavaClass, JavaAnnotation<?>> annotationParameterTypeDependencies;
+        private final SetMultimap<JavaClass, InstanceofCheck> instanceofCheckDependencies;
+
+        private MemberDependencies(Builder builder) {
+            this.fieldTypeDependencies = builder.fieldTypeDependencies.build();
+            this.methodParameterTypeDependencies = builder.methodParameterTypeDependencies.build();
+            this.methodReturnTypeDependencies = builder.methodReturnTypeDependencies.build();
+            this.methodsThrowsDeclarationDependencies = builder.methodsThrowsDeclarationDependencies.build();
+            this.constructorParameterTypeDependencies = builder.constructorParameterTypeDependencies.build();
+            this.constructorThrowsDeclarationDependencies = builder.constructorThrowsDeclarationDependencies.build();
+            this.annotationTypeDependencies = builder.annotationTypeDependencies.build();
+            this.annotationParameterTypeDependencies = builder.annotationParameterTypeDependencies.build();
+            this.instanceofCheckDependencies = builder.instanceofCheckDependencies.build();
+        }
+
+        static MemberDependencies of(List<JavaClass> classes, int parallelism) {
+            Builder result = new Builder();
+            for (MemberDependencies partition : indexInPartitions(classes, parallelism)) {
+                result.addAll(partition);
             }
+            return result.build();
         }
 
-        private void registerConstructors(JavaClass clazz) {
-            for (JavaConstructor constructor : clazz.getConstructors()) {
-                for (JavaClass parameter : constructor.getRawParameterTypes()) {
-                    constructorParameterTypeDependencies.put(parameter, constructor);
+        private static List<MemberDependencies> indexInPartitions(List<JavaClass> classes, int parallelism) {
+            List<List<JavaClass>> partitions = Lists.partition(classes, PARTITION_SIZE);
+            List<MemberDependencies> result = new ArrayList<>();
+            if (parallelism <= 1 || partitions.size() <= 1) {
+                for (List<JavaClass> partition : partitions) {
+                    result.add(index(partition));
                 }
-                for (ThrowsDeclaration<JavaConstructor> throwsDeclaration : constructor.getThrowsClause()) {
-                    constructorThrowsDeclarationDependencies.put(throwsDeclaration.getRawType(), throwsDeclaration);
+                return result;
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<Future<MemberDependencies>> futures = new ArrayList<>();
+                for (final List<JavaClass> partition : partitions) {
+                    futures.add(pool.submit(new Callable<MemberDependencies>() {
+                        @Override
+                        public MemberDependencies call() {
+                            return index(partition);
+                        }
+                    }));
                 }
-                for (InstanceofCheck instanceofCheck : constructor.getInstanceofChecks()) {
-                    instanceofCheckDependencies.put(instanceofCheck.getRawType(), instanceofCheck);
+                for (Future<MemberDependencies> future : futures) {
+                    result.add(Futures.getUnchecked(future));
                 }
+                return result;
+            } finally {
+                pool.shutdownNow();
             }
         }
 
-        private void registerAnnotations(JavaClass clazz) {
-            for (final JavaAnnotation<?> annotation : findAnnotations(clazz)) {
-                annotationTypeDependencies.put(annotation.getRawType(), annotation);
-                annotation.accept(new JavaAnnotation.DefaultParameterVisitor() {
-                    @Override
-                    public void visitClass(String propertyName, JavaClass javaClass) {
-                        annotationParameterTypeDependencies.put(javaClass, annotation);
-                    }
+        private static MemberDependencies index(List<JavaClass> classes) {
+            Builder builder = new Builder();
+            for (JavaClass clazz : classes) {
+                builder.registerMembersOf(clazz);
+            }
+            return builder.build();
+        }
+
+        private static class Builder {
+            private final ImmutableSetMultimap.Builder<JavaClass, JavaField> fieldTypeDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, JavaMethod> methodParameterTypeDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, JavaMethod> methodReturnTypeDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, ThrowsDeclaration<JavaMethod>> methodsThrowsDeclarationDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, JavaConstructor> constructorParameterTypeDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, ThrowsDeclaration<JavaConstructor>> constructorThrowsDeclarationDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, JavaAnnotation<?>> annotationTypeDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, JavaAnnotation<?>> annotationParameterTypeDependencies = ImmutableSetMultimap.builder();
+            private final ImmutableSetMultimap.Builder<JavaClass, InstanceofCheck> instanceofCheckDependencies = ImmutableSetMultimap.builder();
+
+            void addAll(MemberDependencies partition) {
+                fieldTypeDependencies.putAll(partition.fieldTypeDependencies);
+                methodParameterTypeDependencies.putAll(partition.methodParameterTypeDependencies);
+                methodReturnTypeDependencies.putAll(partition.methodReturnTypeDependencies);
+                methodsThrowsDeclarationDependencies.putAll(partition.methodsThrowsDeclarationDependencies);
+                constructorParameterTypeDependencies.putAll(partition.constructorParameterTypeDependencies);
+                constructorThrowsDeclarationDependencies.putAll(partition.constructorThrowsDeclarationDependencies);
+                annotationTypeDependencies.putAll(partition.annotationTypeDependencies);
+                annotationParameterTypeDependencies.putAll(partition.annotationParameterTypeDependencies);
+                instanceofCheckDependencies.putAll(partition.instanceofCheckDependencies);
+            }
+
+            void registerMembersOf(JavaClass clazz) {
+                registerFields(clazz);
+                registerMethods(clazz);
+                registerConstructors(clazz);
+                registerAnnotations(clazz);
+                registerStaticInitializer(clazz);
+            }
+
+            private void registerFields(JavaClass clazz) {
+                for (JavaField field : clazz.getFields()) {
+                    fieldTypeDependencies.put(field.getRawType(), field);
+                }
+            }
 
-                    @Override
-                    public void visitEnumConstant(String propertyName, JavaEnumConstant enumConstant) {
-                        annotationParameterTypeDependencies.put(enumConstant.getDeclaringClass(), annotation);
+            private void registerMethods(JavaClass clazz) {
+                for (JavaMethod method : clazz.getMethods()) {
+                    for (JavaClass parameter : method.getRawParameterTypes()) {
+                        methodParameterTypeDependencies.put(parameter, method);
+                    }
+                    methodReturnTypeDependencies.put(method.getRawReturnType(), method);
+                    for (ThrowsDeclaration<JavaMethod> throwsDeclaration : method.getThrowsClause()) {
+                        methodsThrowsDeclarationDependencies.put(throwsDeclaration.getRawType(), throwsDeclaration);
                     }
+                    registerInstanceofChecks(method);
+                }
+            }
 
-                    @Override
-                    public void visitAnnotation(String propertyName, JavaAnnotation<?> memberAnnotation) {
-                        annotationParameterTypeDependencies.put(memberAnnotation.getRawType(), annotation);
-                        memberAnnotation.accept(this);
+            private void registerConstructors(JavaClass clazz) {
+                for (JavaConstructor constructor : clazz.getConstructors()) {
+                    for (JavaClass parameter : constructor.getRawParameterTypes()) {
+                        constructorParameterTypeDependencies.put(parameter, constructor);
                     }
-                });
+                    for (ThrowsDeclaration<JavaConstructor> throwsDeclaration : constructor.getThrowsClause()) {
+                        constructorThrowsDeclarationDependencies.put(throwsDeclaration.getRawType(), throwsDeclaration);
+                    }
+                    registerInstanceofChecks(constructor);
+                }
+            }
+
+            private void registerAnnotations(JavaClass clazz) {
+                for (final JavaAnnotation<?> annotation : findAnnotations(clazz)) {
+                    annotationTypeDependencies.put(annotation.getRawType(), annotation);
+                    annotation.accept(new JavaAnnotation.DefaultParameterVisitor() {
+                        @Override
+                        public void visitClass(String propertyName, JavaClass javaClass) {
+                            annotationParameterTypeDependencies.put(javaClass, annotation);
+                        }
+
+                        @Override
+                        public void visitEnumConstant(String propertyName, JavaEnumConstant enumConstant) {
+                            annotationParameterTypeDependencies.put(enumConstant.getDeclaringClass(), annotation);
+                        }
+
+                        @Override
+                        public void visitAnnotation(String propertyName, JavaAnnotation<?> memberAnnotation) {
+                            annotationParameterTypeDependencies.put(memberAnnotation.getRawType(), annotation);
+                            memberAnnotation.accept(this);
+                        }
+                    });
+                }
             }
-        }
 
-        private Set<JavaAnnotation<?>> findAnnotations(JavaClass clazz) {
-            Set<JavaAnnotation<?>> result = Sets.<JavaAnnotation<?>>newHashSet(clazz.getAnnotations());
-            for (JavaMember member : clazz.getMembers()) {
-                result.addAll(member.getAnnotations());
+            private Set<JavaAnnotation<?>> findAnnotations(JavaClass clazz) {
+                Set<JavaAnnotation<?>> result = Sets.<JavaAnnotation<?>>newHashSet(clazz.getAnnotations());
+                for (JavaMember member : clazz.getMembers()) {
+                    result.addAll(member.getAnnotations());
+                }
+                return result;
             }
-            return result;
-        }
 
-        private void registerStaticInitializer(JavaClass clazz) {
-            if (clazz.getStaticInitializer().isPresent()) {
-                for (InstanceofCheck instanceofCheck : clazz.getStaticInitializer().get().getInstanceofChecks()) {
-                    instanceofCheckDependencies.put(instanceofCheck.getRawType(), instanceofCheck);
+            private void registerStaticInitializer(JavaClass clazz) {
+                if (clazz.getStaticInitializer().isPresent()) {
+                    registerInstanceofChecks(clazz.getStaticInitializer().get());
                 }
             }
+
+            private void registerInstanceofChecks(JavaCodeUnit codeUnit) {
+                if (codeUnit.isBodyImported()) {
+                    for (InstanceofCheck instanceofCheck : codeUnit.getInstanceofChecks()) {
+                        instanceofCheckDependencies.put(instanceofCheck.getRawType(), instanceofCheck);
+                    }
+                }
+            }
+
+            MemberDependencies build() {
+                return new MemberDependencies(this);
+            }
         }
+    }
 
-        void finish(Iterable<JavaClass> classes) {
-            ReverseDependencies reverseDependencies = new ReverseDependencies(this);
+    private static class AccessDependencies {
+        private final SetMultimap<JavaClass, JavaFieldAccess> fieldAccessDependencies;
+        private final SetMultimap<JavaClass, JavaMethodCall> methodCallDependencies;
+        private final SetMultimap<String, JavaConstructorCall> constructorCallDependencies;
+
+        AccessDependencies(List<JavaClass> classes) {
+            ImmutableSetMultimap.Builder<JavaClass, JavaFieldAccess> fieldAccessDependencies = ImmutableSetMultimap.builder();
+            ImmutableSetMultimap.Builder<JavaClass, JavaMethodCall> methodCallDependencies = ImmutableSetMultimap.builder();
+            ImmutableSetMultimap.Builder<String, JavaConstructorCall> constructorCallDependencies = ImmutableSetMultimap.builder();
             for (JavaClass clazz : classes) {
-                clazz.setReverseDependencies(reverseDependencies);
+                for (JavaFieldAccess access : clazz.getFieldAccessesFromSelf()) {
+                    fieldAccessDependencies.put(access.getTargetOwner(), access);
+                }
+                for (JavaMethodCall call : clazz.getMethodCallsFromSelf()) {
+                    methodCallDependencies.put(call.getTargetOwner(), call);
+                }
+                for (JavaConstructorCall call : clazz.getConstructorCallsFromSelf()) {
+                    constructorCallDependencies.put(call.getTarget().getFullName(), call);
+                }
             }
+            this.fieldAccessDependencies = fieldAccessDependencies.build();
+            this.methodCallDependencies = methodCallDependencies.build();
+            this.constructorCallDependencies = constructorCallDependencies.build();
         }
     }
 
-    private static class ResolvingAccessLoader<MEMBER extends JavaMember, ACCESS extends JavaAccess<?>> extends CacheLoader<MEMBER, Set<ACCESS>> {
-        private final SetMultimap<JavaClass, ACCESS> accessesToSelf;
+    private abstract static class ResolvingAccessLoader<MEMBER extends JavaMember, ACCESS extends JavaAccess<?>> extends CacheLoader<MEMBER, Set<ACCESS>> {
+        private final AccessDependencies accessDependencies;
 
-        private ResolvingAccessLoader(SetMultimap<JavaClass, ACCESS> accessesToSelf) {
-            this.accessesToSelf = accessesToSelf;
+        private ResolvingAccessLoader(AccessDependencies accessDependencies) {
+            this.accessDependencies = accessDependencies;
         }
 
+        abstract SetMultimap<JavaClass, ACCESS> getAccessesToSelf(AccessDependencies dependencies);
+
         @Override
         public Set<ACCESS> load(MEMBER member) {
+            SetMultimap<JavaClass, ACCESS> accessesToSelf = getAccessesToSelf(accessDependencies);
             ImmutableSet.Builder<ACCESS> result = ImmutableSet.builder();
             for (final JavaClass javaClass : getPossibleTargetClassesForAccess(member.getOwner())) {
-                for (ACCESS access : this.accessesToSelf.get(javaClass)) {
+                for (ACCESS access : accessesToSelf.get(javaClass)) {
                     if (access.getTarget().resolve().contains(member)) {
                         result.add(access);
                     }
@@ -278,16 +464,16 @@ final class ReverseDependencies {
     }
 
     private static class ConstructorCallLoader extends CacheLoader<JavaConstructor, Set<JavaConstructorCall>> {
-        private final SetMultimap<String, JavaConstructorCall> accessesToSelf;
+        private final AccessDependencies accessDependencies;
 
-        private ConstructorCallLoader(SetMultimap<String, JavaConstructorCall> accessesToSelf) {
-            this.accessesToSelf = accessesToSelf;
+        private ConstructorCallLoader(AccessDependencies accessDependencies) {
+            this.accessDependencies = accessDependencies;
         }
 
         @Override
         public Set<JavaConstructorCall> load(JavaConstructor member) {
             ImmutableSet.Builder<JavaConstructorCall> result = ImmutableSet.builder();
-            result.addAll(accessesToSelf.get(member.getFullName()));
+            result.addAll(accessDependencies.constructorCallDependencies.get(member.getFullName()));
             return result.build();
         }
     }
@@ -23,6 +23,8 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Objects;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.PublicAPI;
@@ -41,6 +43,12 @@ import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
  * {@value com.tngtech.archunit.ArchConfiguration#ENABLE_MD5_IN_CLASS_SOURCES}=true
  * </code><br><br>
  * to your <code>{@value com.tngtech.archunit.ArchConfiguration#ARCHUNIT_PROPERTIES_RESOURCE_NAME}</code>.
+ * If the sums are only needed to detect changed class files, a faster non-cryptographic {@link HashAlgorithm}
+ * can be chosen via
+ * <br><br><code>
+ * {@value com.tngtech.archunit.ArchConfiguration#CLASS_SOURCE_HASH_ALGORITHM}=CRC32C
+ * </code><br><br>
+ * in which case {@link #getMd5sum()} contains the respective checksum instead of the md5 sum.
  * </p>
  */
 public class Source {
@@ -54,6 +62,12 @@ public class Source {
         md5sum = md5InClassSourcesEnabled ? Md5sum.of(uri) : Md5sum.DISABLED;
     }
 
+    Source(URI uri, Optional<String> fileName, Md5sum md5sum) {
+        this.uri = checkNotNull(uri);
+        this.fileName = checkNotNull(fileName);
+        this.md5sum = checkNotNull(md5sum);
+    }
+
     @PublicAPI(usage = ACCESS)
     public URI getUri() {
         return uri;
@@ -92,6 +106,37 @@ public class Source {
         return uri + " [md5='" + md5sum + "']";
     }
 
+    /**
+     * The algorithm to calculate the {@link Md5sum} of a class file with.
+     */
+    @PublicAPI(usage = ACCESS)
+    public enum HashAlgorithm {
+        /**
+         * The md5 sum of the class file (the default)
+         */
+        @PublicAPI(usage = ACCESS)
+        MD5 {
+            @Override
+            Md5sum hash(byte[] input) {
+                MessageDigest md5Digest = Md5sum.MD5_DIGEST.get();
+                return md5Digest != null ? new Md5sum(input, md5Digest) : Md5sum.NOT_SUPPORTED;
+            }
+        },
+        /**
+         * The CRC32C checksum of the class file, which is considerably faster to calculate than the md5 sum
+         * and sufficient to detect changes of a class file
+         */
+        @PublicAPI(usage = ACCESS)
+        CRC32C {
+            @Override
+            Md5sum hash(byte[] input) {
+                return new Md5sum(Hashing.crc32c().hashBytes(input).asBytes());
+            }
+        };
+
+        abstract Md5sum hash(byte[] input);
+    }
+
     public static class Md5sum {
         /**
          * We can't determine the md5 sum, because the platform is missing the digest algorithm
@@ -106,7 +151,13 @@ public class Source {
          */
         static final Md5sum DISABLED = new Md5sum("DISABLED");
 
-        private static final MessageDigest MD5_DIGEST = getMd5Digest();
+        // NOTE: MessageDigest is not thread safe, but classes might be imported by several threads in parallel
+        private static final ThreadLocal<MessageDigest> MD5_DIGEST = new ThreadLocal<MessageDigest>() {
+            @Override
+            protected MessageDigest initialValue() {
+                return getMd5Digest();
+            }
+        };
 
         private final byte[] md5Bytes;
         private final String text;
@@ -117,7 +168,11 @@ public class Source {
         }
 
         private Md5sum(byte[] input, MessageDigest md5Digest) {
-            this.md5Bytes = md5Digest.digest(input);
+            this(md5Digest.digest(input));
+        }
+
+        private Md5sum(byte[] hash) {
+            this.md5Bytes = hash;
             text = toHex(md5Bytes);
         }
 
@@ -168,12 +223,31 @@ public class Source {
         }
 
         private static Md5sum of(URI uri) {
-            if (MD5_DIGEST == null) {
-                return NOT_SUPPORTED;
+            Optional<byte[]> bytesFromUri = read(uri);
+            if (!bytesFromUri.isPresent()) {
+                return UNDETERMINED;
             }
+            return of(bytesFromUri.get(), HashAlgorithm.MD5);
+        }
 
-            Optional<byte[]> bytesFromUri = read(uri);
-            return bytesFromUri.isPresent() ? new Md5sum(bytesFromUri.get(), MD5_DIGEST) : UNDETERMINED;
+        static Md5sum of(byte[] input, HashAlgorithm algorithm) {
+            return algorithm.hash(input);
+        }
+
+        /**
+         * Restores an {@link Md5sum} from its {@link #asBytes() bytes} and its {@link #toString() text},
+         * e.g. after it has been written to a snapshot.
+         */
+        static Md5sum restore(byte[] md5Bytes, String text) {
+            if (md5Bytes.length > 0) {
+                return new Md5sum(md5Bytes);
+            }
+            for (Md5sum undetermined : ImmutableList.of(NOT_SUPPORTED, UNDETERMINED, DISABLED)) {
+                if (undetermined.text.equals(text)) {
+                    return undetermined;
+                }
+            }
+            throw new IllegalArgumentException("Unknown md5 sum " + text);
         }
 
         private static Optional<byte[]> read(URI uri) {
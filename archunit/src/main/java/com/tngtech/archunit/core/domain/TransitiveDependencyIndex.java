@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.domain;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+
+import com.tngtech.archunit.Internal;
+import com.tngtech.archunit.base.DescribedPredicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.tngtech.archunit.core.domain.ClassDependencyGraph.NO_ID;
+
+/**
+ * Answers for many origin classes, whether they transitively depend on any class matching a predicate,
+ * without a separate graph search per origin.
+ * <br><br>
+ * For every import the predicate is evaluated once per class. Then every strongly connected component of the
+ * dependency graph is labeled, if any class matching the predicate can be reached from it. Since the components
+ * are ordered topologically, this takes a single pass over the condensed graph. Afterwards, each query only
+ * needs to look at the direct dependencies of the origin class. A path to a matching class is only searched
+ * on request, e.g. to report a violation. The search then never leaves the labeled components.
+ * <br><br>
+ * {@link TransitiveDependencyIndex} is declared {@link Internal @Internal}; users should rely on
+ * {@link com.tngtech.archunit.lang.conditions.ArchConditions#transitivelyDependOnClassesThat(DescribedPredicate)} instead.
+ */
+@Internal
+public final class TransitiveDependencyIndex {
+    private final DescribedPredicate<? super JavaClass> predicate;
+    // NOTE: Weak keys, so a rule kept within a static field doesn't keep the classes of all past imports alive
+    private final Map<ClassDependencyGraph, Labels> labelsByGraph = Collections.synchronizedMap(new WeakHashMap<ClassDependencyGraph, Labels>());
+
+    private TransitiveDependencyIndex(DescribedPredicate<? super JavaClass> predicate) {
+        this.predicate = checkNotNull(predicate);
+    }
+
+    /**
+     * @return Whether {@code origin} depends on a class matching the predicate of this index, either directly
+     *         or via any chain of dependencies
+     */
+    public boolean transitivelyDependsOnMatchingClass(JavaClass origin) {
+        ClassDependencyGraph graph = origin.getDependencyGraph();
+        int id = graph.idOf(origin);
+        if (id == NO_ID) {
+            return false;
+        }
+        Labels labels = labelsOf(graph);
+        for (int edge = graph.outgoingStart(id); edge < graph.outgoingEnd(id); edge++) {
+            if (labels.reachesMatchingClass(graph.targetAt(edge))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return One of the shortest chains of classes, starting with {@code origin} and ending with a class
+     *         matching the predicate of this index, where each class depends on the next one. An empty list,
+     *         if {@code origin} does not {@link #transitivelyDependsOnMatchingClass(JavaClass) transitively depend on any matching class}.
+     */
+    public List<JavaClass> findDependencyPathToMatchingClass(JavaClass origin) {
+        if (!transitivelyDependsOnMatchingClass(origin)) {
+            return Collections.emptyList();
+        }
+
+        ClassDependencyGraph graph = origin.getDependencyGraph();
+        Labels labels = labelsOf(graph);
+        int originId = graph.idOf(origin);
+        Map<Integer, Integer> predecessors = new HashMap<>();
+        Queue<Integer> classesToVisit = new ArrayDeque<>();
+        classesToVisit.add(originId);
+        while (!classesToVisit.isEmpty()) {
+            int current = classesToVisit.poll();
+            for (int edge = graph.outgoingStart(current); edge < graph.outgoingEnd(current); edge++) {
+                int target = graph.targetAt(edge);
+                if (!labels.reachesMatchingClass(target) || predecessors.containsKey(target)) {
+                    continue;
+                }
+                predecessors.put(target, current);
+                if (labels.matches[target]) {
+                    return createPath(graph, predecessors, originId, target);
+                }
+                classesToVisit.add(target);
+            }
+        }
+        throw new IllegalStateException("Labeled component of " + origin.getName() + " doesn't reach a matching class, this is likely a bug!");
+    }
+
+    private List<JavaClass> createPath(ClassDependencyGraph graph, Map<Integer, Integer> predecessors, int originId, int targetId) {
+        LinkedList<JavaClass> result = new LinkedList<>();
+        int current = targetId;
+        do {
+            result.addFirst(graph.classOf(current));
+            current = predecessors.get(current);
+        } while (current != originId);
+        result.addFirst(graph.classOf(originId));
+        return result;
+    }
+
+    private Labels labelsOf(ClassDependencyGraph graph) {
+        synchronized (labelsByGraph) {
+            Labels labels = labelsByGraph.get(graph);
+            if (labels == null) {
+                labels = new Labels(graph, predicate);
+                labelsByGraph.put(graph, labels);
+            }
+            return labels;
+        }
+    }
+
+    public static TransitiveDependencyIndex forTargetClassesThat(DescribedPredicate<? super JavaClass> predicate) {
+        return new TransitiveDependencyIndex(predicate);
+    }
+
+    private static class Labels {
+        private final boolean[] matches;
+        private final int[] componentOfClass;
+        private final boolean[] componentReachesMatchingClass;
+
+        Labels(ClassDependencyGraph graph, DescribedPredicate<? super JavaClass> predicate) {
+            ClassDependencyReachability reachability = graph.getReachability();
+            matches = new boolean[graph.size()];
+            componentOfClass = new int[graph.size()];
+            componentReachesMatchingClass = new boolean[reachability.numberOfComponents()];
+            for (int id = 0; id < graph.size(); id++) {
+                matches[id] = predicate.apply(graph.classOf(id));
+                componentOfClass[id] = reachability.componentOf(id);
+                componentReachesMatchingClass[componentOfClass[id]] |= matches[id];
+            }
+            // successors always have a smaller number than their component, so they are labeled first
+            for (int component = 0; component < componentReachesMatchingClass.length; component++) {
+                for (int i = reachability.componentSuccessorsStart(component);
+                     i < reachability.componentSuccessorsEnd(component) && !componentReachesMatchingClass[component]; i++) {
+                    componentReachesMatchingClass[component] = componentReachesMatchingClass[reachability.componentSuccessorAt(i)];
+                }
+            }
+        }
+
+        /**
+         * @return Whether the class with the given id matches itself or transitively depends on a matching class
+         */
+        boolean reachesMatchingClass(int id) {
+            return componentReachesMatchingClass[componentOfClass[id]];
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.tngtech.archunit.base.Optional;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
+
+/**
+ * Resolves the classes of a chunked import (compare {@link ClassFileImporter#importLocationsInChunks(java.util.Collection, int)})
+ * from the class files of all chunks, i.e. a class missing from one chunk is resolved from the chunk it belongs to,
+ * while classes outside of the imported locations are replaced by stubs.
+ */
+class ChunkClassResolver implements ClassResolver {
+    private final ImmutableMap<URI, ClassFileLocation> locationsByUri;
+    private final ImmutableListMultimap<String, URI> urisByFileName;
+    private ClassUriImporter classUriImporter;
+
+    ChunkClassResolver(Iterable<ClassFileLocation> locationsOfAllChunks) {
+        Map<URI, ClassFileLocation> locationsByUri = new LinkedHashMap<>();
+        ImmutableListMultimap.Builder<String, URI> urisByFileName = ImmutableListMultimap.builder();
+        for (ClassFileLocation location : locationsOfAllChunks) {
+            URI uri = location.getUri();
+            if (!locationsByUri.containsKey(uri)) {
+                locationsByUri.put(uri, location);
+                urisByFileName.put(fileNameOf(uri.toString()), uri);
+            }
+        }
+        this.locationsByUri = ImmutableMap.copyOf(locationsByUri);
+        this.urisByFileName = urisByFileName.build();
+    }
+
+    Map<URI, ClassFileLocation> getLocationsByUri() {
+        return locationsByUri;
+    }
+
+    @Override
+    public void setClassUriImporter(ClassUriImporter classUriImporter) {
+        this.classUriImporter = classUriImporter;
+    }
+
+    // NOTE: The package root of a class file is unknown without reading it, thus we look the type up by the path suffix
+    //       of its class file and only accept the imported class, if it really has the requested name
+    @Override
+    public Optional<JavaClass> tryResolve(String typeName) {
+        String pathSuffix = "/" + typeName.replace('.', '/') + ".class";
+        for (URI uri : urisByFileName.get(fileNameOf(pathSuffix))) {
+            if (uri.toString().endsWith(pathSuffix)) {
+                Optional<JavaClass> javaClass = classUriImporter.tryImport(uri);
+                if (javaClass.isPresent() && javaClass.get().getName().equals(typeName)) {
+                    return javaClass;
+                }
+            }
+        }
+        return Optional.absent();
+    }
+
+    private static String fileNameOf(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
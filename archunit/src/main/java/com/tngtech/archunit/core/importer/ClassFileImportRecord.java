@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -28,15 +29,20 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.SetMultimap;
 import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
 import com.tngtech.archunit.core.domain.JavaMember;
 import com.tngtech.archunit.core.domain.JavaMethod;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaTypeParameterBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.TypeParametersBuilder;
+import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
+import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.google.common.base.Preconditions.checkState;
 
+// NOTE: Classes resolved while the imported classes are completed concurrently are merged into the record of the import,
+//       thus all details that are read during the completion are accessed synchronized
 class ClassFileImportRecord {
     private static final Logger LOG = LoggerFactory.getLogger(ClassFileImportRecord.class);
 
@@ -55,10 +61,11 @@ class ClassFileImportRecord {
     private final SetMultimap<String, DomainBuilders.JavaAnnotationBuilder> annotationsByOwner = HashMultimap.create();
     private final Map<String, DomainBuilders.JavaAnnotationBuilder.ValueBuilder> annotationDefaultValuesByOwner = new HashMap<>();
     private final EnclosingClassesByInnerClasses enclosingClassNamesByOwner = new EnclosingClassesByInnerClasses();
+    private final Map<String, ClassFileLocation> classFileLocationsByOwner = new HashMap<>();
 
-    private final Set<RawAccessRecord.ForField> rawFieldAccessRecords = new HashSet<>();
-    private final Set<RawAccessRecord> rawMethodCallRecords = new HashSet<>();
-    private final Set<RawAccessRecord> rawConstructorCallRecords = new HashSet<>();
+    private final RawAccessRecordTable.ForFieldAccesses rawFieldAccessRecords = new RawAccessRecordTable.ForFieldAccesses();
+    private final RawAccessRecordTable.ForCalls rawMethodCallRecords = new RawAccessRecordTable.ForCalls();
+    private final RawAccessRecordTable.ForCalls rawConstructorCallRecords = new RawAccessRecordTable.ForCalls();
 
     void setSuperClass(String ownerName, String superClassName) {
         checkState(!superClassNamesByOwner.containsKey(ownerName),
@@ -110,34 +117,34 @@ class ClassFileImportRecord {
         enclosingClassNamesByOwner.register(ownerName, enclosingClassName);
     }
 
-    Optional<String> getSuperClassFor(String name) {
+    synchronized Optional<String> getSuperClassFor(String name) {
         return Optional.fromNullable(superClassNamesByOwner.get(name));
     }
 
-    Set<String> getInterfaceNamesFor(String ownerName) {
-        return interfaceNamesByOwner.get(ownerName);
+    synchronized Set<String> getInterfaceNamesFor(String ownerName) {
+        return ImmutableSet.copyOf(interfaceNamesByOwner.get(ownerName));
     }
 
-    TypeParametersBuilder getTypeParameterBuildersFor(String ownerName) {
+    synchronized TypeParametersBuilder getTypeParameterBuildersFor(String ownerName) {
         if (!typeParametersBuilderByOwner.containsKey(ownerName)) {
             return NO_TYPE_PARAMETERS;
         }
         return typeParametersBuilderByOwner.get(ownerName);
     }
 
-    Set<DomainBuilders.JavaFieldBuilder> getFieldBuildersFor(String ownerName) {
-        return fieldBuildersByOwner.get(ownerName);
+    synchronized Set<DomainBuilders.JavaFieldBuilder> getFieldBuildersFor(String ownerName) {
+        return ImmutableSet.copyOf(fieldBuildersByOwner.get(ownerName));
     }
 
-    Set<DomainBuilders.JavaMethodBuilder> getMethodBuildersFor(String ownerName) {
-        return methodBuildersByOwner.get(ownerName);
+    synchronized Set<DomainBuilders.JavaMethodBuilder> getMethodBuildersFor(String ownerName) {
+        return ImmutableSet.copyOf(methodBuildersByOwner.get(ownerName));
     }
 
-    Set<DomainBuilders.JavaConstructorBuilder> getConstructorBuildersFor(String ownerName) {
-        return constructorBuildersByOwner.get(ownerName);
+    synchronized Set<DomainBuilders.JavaConstructorBuilder> getConstructorBuildersFor(String ownerName) {
+        return ImmutableSet.copyOf(constructorBuildersByOwner.get(ownerName));
     }
 
-    Optional<DomainBuilders.JavaStaticInitializerBuilder> getStaticInitializerBuilderFor(String ownerName) {
+    synchronized Optional<DomainBuilders.JavaStaticInitializerBuilder> getStaticInitializerBuilderFor(String ownerName) {
         return Optional.fromNullable(staticInitializerBuildersByOwner.get(ownerName));
     }
 
@@ -149,8 +156,8 @@ class ClassFileImportRecord {
         return result.build();
     }
 
-    Set<DomainBuilders.JavaAnnotationBuilder> getAnnotationsFor(JavaClass owner) {
-        return annotationsByOwner.get(owner.getName());
+    synchronized Set<DomainBuilders.JavaAnnotationBuilder> getAnnotationsFor(JavaClass owner) {
+        return ImmutableSet.copyOf(annotationsByOwner.get(owner.getName()));
     }
 
     Set<String> getMemberAnnotationTypeNamesFor(JavaClass owner) {
@@ -175,40 +182,48 @@ class ClassFileImportRecord {
                 : Collections.<DomainBuilders.JavaMemberBuilder<?, ?>>emptySet();
     }
 
-    Set<DomainBuilders.JavaAnnotationBuilder> getAnnotationsFor(JavaMember owner) {
-        return annotationsByOwner.get(getMemberKey(owner));
+    synchronized Set<DomainBuilders.JavaAnnotationBuilder> getAnnotationsFor(JavaMember owner) {
+        return ImmutableSet.copyOf(annotationsByOwner.get(getMemberKey(owner)));
     }
 
-    Optional<DomainBuilders.JavaAnnotationBuilder.ValueBuilder> getAnnotationDefaultValueBuilderFor(JavaMethod method) {
+    synchronized Optional<DomainBuilders.JavaAnnotationBuilder.ValueBuilder> getAnnotationDefaultValueBuilderFor(JavaMethod method) {
         return Optional.fromNullable(annotationDefaultValuesByOwner.get(getMemberKey(method)));
     }
 
-    Optional<String> getEnclosingClassFor(String ownerName) {
+    synchronized Optional<String> getEnclosingClassFor(String ownerName) {
         return enclosingClassNamesByOwner.get(ownerName);
     }
 
-    void registerFieldAccess(RawAccessRecord.ForField record) {
-        rawFieldAccessRecords.add(record);
+    void setClassFileLocation(String ownerName, ClassFileLocation location) {
+        classFileLocationsByOwner.put(ownerName, location);
     }
 
-    void registerMethodCall(RawAccessRecord record) {
-        rawMethodCallRecords.add(record);
+    synchronized Optional<ClassFileLocation> getClassFileLocationFor(String ownerName) {
+        return Optional.fromNullable(classFileLocationsByOwner.get(ownerName));
     }
 
-    void registerConstructorCall(RawAccessRecord record) {
-        rawConstructorCallRecords.add(record);
+    void registerFieldAccess(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType) {
+        rawFieldAccessRecords.add(caller, target, lineNumber, accessType);
     }
 
-    Set<RawAccessRecord.ForField> getRawFieldAccessRecords() {
-        return ImmutableSet.copyOf(rawFieldAccessRecords);
+    void registerMethodCall(CodeUnit caller, TargetInfo target, int lineNumber) {
+        rawMethodCallRecords.add(caller, target, lineNumber);
     }
 
-    Set<RawAccessRecord> getRawMethodCallRecords() {
-        return ImmutableSet.copyOf(rawMethodCallRecords);
+    void registerConstructorCall(CodeUnit caller, TargetInfo target, int lineNumber) {
+        rawConstructorCallRecords.add(caller, target, lineNumber);
     }
 
-    Set<RawAccessRecord> getRawConstructorCallRecords() {
-        return ImmutableSet.copyOf(rawConstructorCallRecords);
+    List<RawAccessRecord.ForField> getRawFieldAccessRecords() {
+        return rawFieldAccessRecords.asList();
+    }
+
+    List<RawAccessRecord> getRawMethodCallRecords() {
+        return rawMethodCallRecords.asList();
+    }
+
+    List<RawAccessRecord> getRawConstructorCallRecords() {
+        return rawConstructorCallRecords.asList();
     }
 
     void addAll(Collection<JavaClass> javaClasses) {
@@ -217,15 +232,89 @@ class ClassFileImportRecord {
         }
     }
 
+    /**
+     * Adds all classes of {@code other}, together with all details recorded for them, unless a class with the same
+     * name is already part of this record. Details recorded within {@code other} for classes that could not be
+     * imported completely are dropped.
+     */
+    void mergeWith(ClassFileImportRecord other) {
+        Set<String> newClassNames = new HashSet<>();
+        for (JavaClass javaClass : other.classes.values()) {
+            if (!classes.containsKey(javaClass.getName())) {
+                classes.put(javaClass.getName(), javaClass);
+                newClassNames.add(javaClass.getName());
+            }
+        }
+
+        for (String ownerName : newClassNames) {
+            mergeClassDetails(other, ownerName);
+        }
+        mergeMemberDetails(other, newClassNames);
+        mergeAccessRecords(other, newClassNames);
+    }
+
+    // NOTE: Classes resolved from outside of the import are parsed into records of their own, so they can be resolved concurrently.
+    //       Their InnerClasses attributes might register enclosing classes for other classes, too, thus we merge all of those.
+    synchronized void mergeDetailsOfResolvedClass(ClassFileImportRecord other, String className) {
+        mergeClassDetails(other, className);
+        mergeMemberDetails(other, Collections.singleton(className));
+        enclosingClassNamesByOwner.registerAll(other.enclosingClassNamesByOwner);
+    }
+
+    private void mergeClassDetails(ClassFileImportRecord other, String ownerName) {
+        Optional<String> superClassName = other.getSuperClassFor(ownerName);
+        if (superClassName.isPresent()) {
+            setSuperClass(ownerName, superClassName.get());
+        }
+        interfaceNamesByOwner.putAll(ownerName, other.interfaceNamesByOwner.get(ownerName));
+        if (other.typeParametersBuilderByOwner.containsKey(ownerName)) {
+            typeParametersBuilderByOwner.put(ownerName, other.typeParametersBuilderByOwner.get(ownerName));
+        }
+        fieldBuildersByOwner.putAll(ownerName, other.fieldBuildersByOwner.get(ownerName));
+        methodBuildersByOwner.putAll(ownerName, other.methodBuildersByOwner.get(ownerName));
+        constructorBuildersByOwner.putAll(ownerName, other.constructorBuildersByOwner.get(ownerName));
+        Optional<DomainBuilders.JavaStaticInitializerBuilder> staticInitializerBuilder = other.getStaticInitializerBuilderFor(ownerName);
+        if (staticInitializerBuilder.isPresent()) {
+            setStaticInitializer(ownerName, staticInitializerBuilder.get());
+        }
+        Optional<String> enclosingClassName = other.getEnclosingClassFor(ownerName);
+        if (enclosingClassName.isPresent()) {
+            setEnclosingClass(ownerName, enclosingClassName.get());
+        }
+        Optional<ClassFileLocation> classFileLocation = other.getClassFileLocationFor(ownerName);
+        if (classFileLocation.isPresent()) {
+            setClassFileLocation(ownerName, classFileLocation.get());
+        }
+    }
+
+    private void mergeMemberDetails(ClassFileImportRecord other, Set<String> newClassNames) {
+        for (String key : other.annotationsByOwner.keySet()) {
+            if (newClassNames.contains(getOwnerName(key))) {
+                annotationsByOwner.putAll(key, other.annotationsByOwner.get(key));
+            }
+        }
+        for (Map.Entry<String, DomainBuilders.JavaAnnotationBuilder.ValueBuilder> entry : other.annotationDefaultValuesByOwner.entrySet()) {
+            if (newClassNames.contains(getOwnerName(entry.getKey()))) {
+                annotationDefaultValuesByOwner.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void mergeAccessRecords(ClassFileImportRecord other, Set<String> newClassNames) {
+        rawFieldAccessRecords.addAllWithCallerIn(other.rawFieldAccessRecords, newClassNames);
+        rawMethodCallRecords.addAllWithCallerIn(other.rawMethodCallRecords, newClassNames);
+        rawConstructorCallRecords.addAllWithCallerIn(other.rawConstructorCallRecords, newClassNames);
+    }
+
     Map<String, JavaClass> getClasses() {
         return classes;
     }
 
-    Set<RawAccessRecord> getAccessRecords() {
-        return ImmutableSet.<RawAccessRecord>builder()
-                .addAll(rawFieldAccessRecords)
-                .addAll(rawMethodCallRecords)
-                .addAll(rawConstructorCallRecords)
+    Set<String> getAccessTargetOwnerNames() {
+        return ImmutableSet.<String>builder()
+                .addAll(rawFieldAccessRecords.getTargetOwnerNames())
+                .addAll(rawMethodCallRecords.getTargetOwnerNames())
+                .addAll(rawConstructorCallRecords.getTargetOwnerNames())
                 .build();
     }
 
@@ -245,6 +334,11 @@ class ClassFileImportRecord {
         return declaringClassName + "|" + methodName + "|" + descriptor;
     }
 
+    private static String getOwnerName(String key) {
+        int memberKeySeparatorIndex = key.indexOf('|');
+        return memberKeySeparatorIndex >= 0 ? key.substring(0, memberKeySeparatorIndex) : key;
+    }
+
     // NOTE: ASM calls visitInnerClass and visitOuterClass several times, sometimes when the outer class is imported
     //       and sometimes again when the inner class is imported. To make it easier, we'll just deal with duplicate
     //       registrations, as there is no harm, as long as no conflicting information is recorded.
@@ -269,6 +363,12 @@ class ClassFileImportRecord {
             return registeringAllowed;
         }
 
+        void registerAll(EnclosingClassesByInnerClasses other) {
+            for (Map.Entry<String, String> entry : other.innerToOuter.entrySet()) {
+                register(entry.getKey(), entry.getValue());
+            }
+        }
+
         public Optional<String> get(String ownerName) {
             return Optional.fromNullable(innerToOuter.get(ownerName));
         }
@@ -27,18 +27,25 @@ import java.util.List;
 import java.util.Set;
 import java.util.jar.JarFile;
 
+import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ImportMetrics.Phase;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolverFromClasspath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
 import static java.util.Collections.singletonList;
@@ -81,6 +88,8 @@ public final class ClassFileImporter {
     private static final Logger LOG = LoggerFactory.getLogger(ClassFileImporter.class);
 
     private final ImportOptions importOptions;
+    private final ImportMode importMode;
+    private final boolean capturesSnapshot;
 
     @PublicAPI(usage = ACCESS)
     public ClassFileImporter() {
@@ -89,7 +98,13 @@ public final class ClassFileImporter {
 
     @PublicAPI(usage = ACCESS)
     public ClassFileImporter(ImportOptions importOptions) {
+        this(importOptions, ImportMode.FULL, false);
+    }
+
+    private ClassFileImporter(ImportOptions importOptions, ImportMode importMode, boolean capturesSnapshot) {
         this.importOptions = importOptions;
+        this.importMode = importMode;
+        this.capturesSnapshot = capturesSnapshot;
     }
 
     /**
@@ -101,7 +116,27 @@ public final class ClassFileImporter {
      */
     @PublicAPI(usage = ACCESS)
     public ClassFileImporter withImportOption(ImportOption option) {
-        return new ClassFileImporter(importOptions.with(option));
+        return new ClassFileImporter(importOptions.with(option), importMode, capturesSnapshot);
+    }
+
+    /**
+     * Determines how much of each class file to import, e.g. {@link ImportMode#SIGNATURES_ONLY} to skip the bodies of
+     * methods and constructors, if rules only need to know about signatures. Note that
+     * this object will not be modified, but instead a copy with adjusted behavior will be returned.
+     *
+     * @param importMode The {@link ImportMode} to import class files with (default is {@link ImportMode#FULL})
+     * @return A {@link ClassFileImporter} which imports class files according to the specified {@link ImportMode}
+     */
+    @PublicAPI(usage = ACCESS)
+    public ClassFileImporter withImportMode(ImportMode importMode) {
+        return new ClassFileImporter(importOptions, importMode, capturesSnapshot);
+    }
+
+    /**
+     * @see JavaClassesSnapshot#capturing(ClassFileImporter)
+     */
+    ClassFileImporter capturingSnapshot() {
+        return new ClassFileImporter(importOptions, importMode, true);
     }
 
     /**
@@ -329,19 +364,100 @@ public final class ClassFileImporter {
      */
     @PublicAPI(usage = ACCESS)
     public JavaClasses importLocations(Collection<Location> locations) {
-        List<ClassFileSource> sources = new ArrayList<>();
-        for (Location location : locations) {
-            tryAdd(sources, location);
+        ImportMetricsRecorder metricsRecorder = new ImportMetricsRecorder();
+        ImportMetricsRecorder.Measurement locating = metricsRecorder.start(Phase.LOCATE_CLASS_FILES);
+        ImportCache importCache = ImportCache.create(metricsRecorder);
+        JarFileHandles jarFileHandles = new JarFileHandles();
+        jarFileHandles.startPooling();
+        try {
+            List<ClassFileSource> sources = new ArrayList<>();
+            for (Location location : locations) {
+                Optional<ClassFileSource> source = tryCreateSource(location, jarFileHandles);
+                if (source.isPresent()) {
+                    sources.add(importCache.decorate(location, source.get()));
+                }
+            }
+            locating.stop();
+            JavaClasses classes = new ClassFileProcessor(importMode, metricsRecorder, createSnapshotCapture()).process(unify(sources));
+            importCache.persist();
+            return classes;
+        } finally {
+            jarFileHandles.stopPooling();
+        }
+    }
+
+    /**
+     * Like {@link #importLocations(Collection)}, but imports the class files in chunks of at most {@code maxClassesPerChunk}
+     * class files each. A chunk is only imported once the returned {@link Iterable} reaches it, thus as long as previous
+     * chunks are not retained, the memory consumption is proportional to the size of a chunk instead of the number of
+     * classes at the given {@link Location locations}.
+     * <br><br>
+     * Note that every chunk is imported on its own, but classes of other chunks are resolved from the given locations
+     * as far as they are part of the class hierarchies, enclosing classes or annotations of the chunk's classes.
+     * All other classes missing from a chunk, like targets of accesses or classes outside of the given locations,
+     * are replaced by stubs, no matter which {@link ClassResolver} is configured, since resolving them
+     * would import classes of other chunks and their dependencies into every chunk.
+     * Thus this is only suitable for rules that consider each class in isolation
+     * (compare {@link com.tngtech.archunit.lang.ClassLocalArchRule ClassLocalArchRule}).
+     * To resolve classes of other chunks, the locations of all class files are determined before the first chunk is imported,
+     * i.e. the memory consumption does grow with the number of class files, but not with their contents.
+     * Chunked imports do not use the import cache (compare {@link ArchConfiguration#setImportCacheDirectory(String)}),
+     * since the cache would have to retain the bytes of all imported class files.
+     */
+    @PublicAPI(usage = ACCESS)
+    public Iterable<JavaClasses> importLocationsInChunks(final Collection<Location> locations, final int maxClassesPerChunk) {
+        checkArgument(maxClassesPerChunk > 0, "Chunk size must be positive, but was %s", maxClassesPerChunk);
+        return new Iterable<JavaClasses>() {
+            @Override
+            public Iterator<JavaClasses> iterator() {
+                final JarFileHandles jarFileHandles = new JarFileHandles();
+                List<ClassFileSource> sources = new ArrayList<>();
+                for (Location location : locations) {
+                    sources.addAll(tryCreateSource(location, jarFileHandles).asSet());
+                }
+                List<ClassFileLocation> classFileLocations = ImmutableList.copyOf(unify(sources));
+                final ChunkClassResolver classResolver = new ChunkClassResolver(classFileLocations);
+                Iterator<List<ClassFileLocation>> chunks = Lists.partition(classFileLocations, maxClassesPerChunk).iterator();
+                return Iterators.transform(chunks, new Function<List<ClassFileLocation>, JavaClasses>() {
+                    @Override
+                    public JavaClasses apply(List<ClassFileLocation> chunk) {
+                        jarFileHandles.startPooling();
+                        try {
+                            return new ClassFileProcessor(importMode).processChunk(sourceOf(chunk), classResolver);
+                        } finally {
+                            jarFileHandles.stopPooling();
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    private Optional<JavaClassesSnapshot.Capture> createSnapshotCapture() {
+        if (!capturesSnapshot) {
+            return Optional.absent();
         }
-        return new ClassFileProcessor().process(unify(sources));
+        checkState(importMode == ImportMode.FULL,
+                "Only classes imported with %s can be written to a snapshot, but import mode is %s", ImportMode.FULL, importMode);
+        return Optional.of(new JavaClassesSnapshot.Capture());
+    }
+
+    private ClassFileSource sourceOf(final List<ClassFileLocation> chunk) {
+        return new ClassFileSource() {
+            @Override
+            public Iterator<ClassFileLocation> iterator() {
+                return chunk.iterator();
+            }
+        };
     }
 
-    private void tryAdd(List<ClassFileSource> sources, Location location) {
+    private Optional<ClassFileSource> tryCreateSource(Location location, JarFileHandles jarFileHandles) {
         try {
-            sources.add(location.asClassFileSource(importOptions));
+            return Optional.of(location.asClassFileSource(importOptions, jarFileHandles));
         } catch (Exception e) {
             LOG.warn(String.format("Couldn't derive %s from %s",
                     ClassFileSource.class.getSimpleName(), location), e);
+            return Optional.absent();
         }
     }
 
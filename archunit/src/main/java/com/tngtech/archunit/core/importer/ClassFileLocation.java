@@ -15,11 +15,28 @@
  */
 package com.tngtech.archunit.core.importer;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 
+import org.objectweb.asm.ClassVisitor;
+
 interface ClassFileLocation {
     InputStream openStream();
 
     URI getUri();
+
+    /**
+     * Lets the given visitor visit the class file at this location.
+     *
+     * @param parsingOptions The options to parse the class file with, as defined by {@link org.objectweb.asm.ClassReader}
+     * @return The number of bytes read to do so, i.e. {@code 0} if the class file is replayed from a recording
+     */
+    long accept(ClassVisitor visitor, int parsingOptions) throws IOException;
+
+    /**
+     * Like {@link #accept(ClassVisitor, int)}, but for the content of the class file at this location,
+     * which the caller has already read via {@link #openStream()}. Thus, the class file is not read again.
+     */
+    void accept(byte[] classFile, ClassVisitor visitor, int parsingOptions);
 }
@@ -15,23 +15,46 @@
  */
 package com.tngtech.archunit.core.importer;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import com.google.common.collect.Iterators;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Futures;
 import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.ArchUnitException.AccessesNotImportableException;
 import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClassDescriptor;
 import com.tngtech.archunit.core.domain.JavaClasses;
 import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
+import com.tngtech.archunit.core.domain.Source.HashAlgorithm;
+import com.tngtech.archunit.core.importer.ClassFileSource.InputStreamSupplier;
+import com.tngtech.archunit.core.importer.ClassFileSource.InputStreamSupplierClassFileLocation;
 import com.tngtech.archunit.core.importer.DomainBuilders.TypeParametersBuilder;
+import com.tngtech.archunit.core.importer.ImportMetrics.Phase;
 import com.tngtech.archunit.core.importer.JavaClassProcessor.AccessHandler;
 import com.tngtech.archunit.core.importer.JavaClassProcessor.DeclarationHandler;
 import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
 import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver.ClassUriImporter;
+import com.tngtech.archunit.core.importer.resolvers.ClassResolverFromClasspath;
+import com.tngtech.archunit.core.importer.resolvers.SelectedClassResolverFromClasspath;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,24 +66,182 @@ class ClassFileProcessor {
 
     static final int ASM_API_VERSION = ASM7;
 
-    private final boolean md5InClassSourcesEnabled = ArchConfiguration.get().md5InClassSourcesEnabled();
+    private static final int PARTITION_SIZE = 128;
+
+    private final Optional<HashAlgorithm> classSourceHashAlgorithm = getClassSourceHashAlgorithm();
+    private final int importParallelism = ArchConfiguration.get().getImportParallelism();
     private final ClassResolver.Factory classResolverFactory = new ClassResolver.Factory();
+    private final ImportMode importMode;
+    private final ImportMetricsRecorder metricsRecorder;
+    private final Optional<JavaClassesSnapshot.Capture> snapshotCapture;
+
+    ClassFileProcessor(ImportMode importMode) {
+        this(importMode, new ImportMetricsRecorder());
+    }
+
+    ClassFileProcessor(ImportMode importMode, ImportMetricsRecorder metricsRecorder) {
+        this(importMode, metricsRecorder, Optional.<JavaClassesSnapshot.Capture>absent());
+    }
+
+    /**
+     * @param snapshotCapture If present, captures every parsed class file, so the resulting {@link JavaClasses}
+     *                        can be written to a {@link JavaClassesSnapshot} later on
+     */
+    ClassFileProcessor(ImportMode importMode, ImportMetricsRecorder metricsRecorder, Optional<JavaClassesSnapshot.Capture> snapshotCapture) {
+        this.importMode = importMode;
+        this.metricsRecorder = metricsRecorder;
+        this.snapshotCapture = snapshotCapture;
+    }
 
     JavaClasses process(ClassFileSource source) {
+        return process(source, classResolverFactory.create(), Collections.<URI, ClassFileLocation>emptyMap());
+    }
+
+    /**
+     * @param resolvableLocations Locations of classes the {@link ClassResolver} might resolve,
+     *                            that cannot simply be read from their {@link URI}
+     */
+    JavaClasses process(ClassFileSource source, ClassResolver classResolver, Map<URI, ClassFileLocation> resolvableLocations) {
+        return process(source, classResolver, resolvableLocations, true);
+    }
+
+    /**
+     * Like {@link #process(ClassFileSource, ClassResolver, Map)} for one chunk of a chunked import, i.e. the hierarchies,
+     * enclosing classes and annotations of the chunk's classes are resolved from the other chunks,
+     * while the targets of accesses are replaced by stubs
+     */
+    JavaClasses processChunk(ClassFileSource chunk, ChunkClassResolver classResolver) {
+        return process(chunk, classResolver, classResolver.getLocationsByUri(), false);
+    }
+
+    private JavaClasses process(ClassFileSource source, ClassResolver classResolver, Map<URI, ClassFileLocation> resolvableLocations,
+            boolean resolveAccessTargets) {
         ClassFileImportRecord importRecord = new ClassFileImportRecord();
-        RecordAccessHandler accessHandler = new RecordAccessHandler(importRecord);
+        ImportedNames importedNames = new ImportedNames();
+        ClassFileSource measuredSource = metricsRecorder.measureLocating(source);
+        ImportMetricsRecorder.Measurement parsing = metricsRecorder.start(Phase.PARSE_CLASS_FILES);
+        if (importParallelism > 1) {
+            processInParallel(measuredSource, importRecord, importedNames);
+        } else {
+            processSequentially(measuredSource, importRecord, importedNames);
+        }
+        parsing.stop();
+        prepare(classResolver, importRecord, importedNames, resolvableLocations);
+        JavaClasses classes = new ClassGraphCreator(importRecord, classResolver, getResolutionParallelism(classResolver), importMode,
+                resolveAccessTargets, new OnDemandAccessRecordImporter(importRecord, importedNames, classSourceHashAlgorithm), metricsRecorder)
+                .complete();
+        if (snapshotCapture.isPresent()) {
+            snapshotCapture.get().registerFor(classes);
+        }
+        LOG.debug("Descriptor cache after import: {}", JavaClassDescriptor.From.getCacheStatistics());
+        metricsRecorder.finish();
+        return classes;
+    }
+
+    private void processSequentially(Iterable<ClassFileLocation> locations, ClassFileImportRecord importRecord, ImportedNames importedNames) {
+        AccessHandler accessHandler = importMode.recordsAccessesDuringImport()
+                ? new RecordAccessHandler(importRecord, importedNames)
+                : new AccessHandler.NoOp();
         ClassDetailsRecorder classDetailsRecorder = new ClassDetailsRecorder(importRecord);
-        for (ClassFileLocation location : source) {
-            try (InputStream s = location.openStream()) {
-                JavaClassProcessor javaClassProcessor =
-                        new JavaClassProcessor(new SourceDescriptor(location.getUri(), md5InClassSourcesEnabled), classDetailsRecorder, accessHandler);
-                new ClassReader(s).accept(javaClassProcessor, 0);
-                importRecord.addAll(javaClassProcessor.createJavaClass().asSet());
+        for (ClassFileLocation location : locations) {
+            try {
+                ClassFileToProcess classFile = ClassFileToProcess.read(location, classSourceHashAlgorithm);
+                JavaClassProcessor javaClassProcessor = new JavaClassProcessor(
+                        classFile.getSourceDescriptor(), importedNames, classDetailsRecorder, accessHandler);
+                classFile.accept(javaClassProcessor, importMode.getParsingOptions(), snapshotCapture);
+                metricsRecorder.recordBytesRead(classFile.getNumberOfBytesRead());
+                Optional<JavaClass> javaClass = javaClassProcessor.createJavaClass();
+                importRecord.addAll(javaClass.asSet());
+                if (javaClass.isPresent() && importMode.importsAccessesOnDemand()) {
+                    importRecord.setClassFileLocation(javaClass.get().getName(), location);
+                }
             } catch (Exception e) {
                 LOG.warn(String.format("Couldn't import class from %s", location.getUri()), e);
             }
         }
-        return new ClassGraphCreator(importRecord, getClassResolver(classDetailsRecorder)).complete();
+    }
+
+    // NOTE: Each partition is parsed into its own record, the records are then merged in the original order of the source.
+    //       Thus, if the same class is contained several times within the source, the first occurrence wins, exactly like
+    //       for the sequential import, and the result does not depend on the scheduling of the threads.
+    //       Partitions are submitted while the source is still being iterated, so parsing overlaps with e.g. walking directories.
+    private void processInParallel(ClassFileSource source, ClassFileImportRecord importRecord, ImportedNames importedNames) {
+        LOG.debug("Importing class files with parallelism {}", importParallelism);
+
+        ForkJoinPool pool = new ForkJoinPool(importParallelism);
+        try {
+            List<Future<ClassFileImportRecord>> partialRecords = new ArrayList<>();
+            Iterator<List<ClassFileLocation>> partitions = Iterators.partition(source.iterator(), PARTITION_SIZE);
+            while (partitions.hasNext()) {
+                partialRecords.add(pool.submit(processPartition(partitions.next(), importedNames)));
+            }
+            for (Future<ClassFileImportRecord> partialRecord : partialRecords) {
+                importRecord.mergeWith(Futures.getUnchecked(partialRecord));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Callable<ClassFileImportRecord> processPartition(final List<ClassFileLocation> partition, final ImportedNames importedNames) {
+        return new Callable<ClassFileImportRecord>() {
+            @Override
+            public ClassFileImportRecord call() {
+                ClassFileImportRecord partialRecord = new ClassFileImportRecord();
+                processSequentially(partition, partialRecord, importedNames);
+                return partialRecord;
+            }
+        };
+    }
+
+    // NOTE: The class file is read again from the very location it was imported from, i.e. through the same archive handles,
+    //       and its accesses must match the imported class. Thus, we fail loudly instead of silently reporting no accesses at all
+    private static class OnDemandAccessRecordImporter implements ClassGraphCreator.AccessRecordImporter {
+        private final ClassFileImportRecord importRecord;
+        private final ImportedNames importedNames;
+        private final Optional<HashAlgorithm> classSourceHashAlgorithm;
+
+        OnDemandAccessRecordImporter(ClassFileImportRecord importRecord, ImportedNames importedNames,
+                Optional<HashAlgorithm> classSourceHashAlgorithm) {
+            this.importRecord = importRecord;
+            this.importedNames = importedNames;
+            this.classSourceHashAlgorithm = classSourceHashAlgorithm;
+        }
+
+        @Override
+        public ClassFileImportRecord importAccessRecordsFrom(JavaClass owner) {
+            Optional<ClassFileLocation> location = importRecord.getClassFileLocationFor(owner.getName());
+            if (!location.isPresent()) {
+                throw new AccessesNotImportableException(String.format(
+                        "Can't import accesses of %s, because its class file location is unknown", owner.getName()));
+            }
+            ClassFileImportRecord accessRecord = new ClassFileImportRecord();
+            try {
+                ClassFileToProcess classFile = ClassFileToProcess.read(location.get(), classSourceHashAlgorithm);
+                checkUnchanged(owner, classFile.getSourceDescriptor());
+                JavaClassProcessor classProcessor = new JavaClassProcessor(classFile.getSourceDescriptor(), importedNames,
+                        new ClassDetailsRecorder(accessRecord), new RecordAccessHandler(accessRecord, importedNames));
+                classFile.accept(classProcessor, ImportMode.FULL.getParsingOptions());
+                Optional<JavaClass> reimported = classProcessor.createJavaClass();
+                if (!reimported.isPresent() || !reimported.get().getName().equals(owner.getName())) {
+                    throw new AccessesNotImportableException(String.format(
+                            "Can't import accesses of %s, because %s doesn't contain it anymore", owner.getName(), location.get().getUri()));
+                }
+            } catch (AccessesNotImportableException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AccessesNotImportableException(String.format("Couldn't import accesses of %s from %s",
+                        owner.getName(), location.get().getUri()), e);
+            }
+            return accessRecord;
+        }
+
+        private void checkUnchanged(JavaClass owner, SourceDescriptor sourceDescriptor) {
+            if (classSourceHashAlgorithm.isPresent() && !owner.getSource().get().getMd5sum().equals(sourceDescriptor.getMd5sum())) {
+                throw new AccessesNotImportableException(String.format(
+                        "Can't import accesses of %s, because %s has changed since the import", owner.getName(), sourceDescriptor.getUri()));
+            }
+        }
     }
 
     private static class ClassDetailsRecorder implements DeclarationHandler {
@@ -131,20 +312,27 @@ class ClassFileProcessor {
         }
     }
 
-    private static class RecordAccessHandler implements AccessHandler {
+    static class RecordAccessHandler implements AccessHandler {
         private static final Logger LOG = LoggerFactory.getLogger(RecordAccessHandler.class);
 
         private final ClassFileImportRecord importRecord;
+        private final ImportedNames importedNames;
+        private final AccessesOfCodeUnit accessesOfCodeUnit = new AccessesOfCodeUnit();
         private CodeUnit codeUnit;
         private int lineNumber;
 
-        private RecordAccessHandler(ClassFileImportRecord importRecord) {
+        RecordAccessHandler(ClassFileImportRecord importRecord, ImportedNames importedNames) {
             this.importRecord = importRecord;
+            this.importedNames = importedNames;
         }
 
+        // NOTE: The handler is shared by all classes of one partition, so class files without line numbers must not
+        //       inherit the last line number of the previous code unit
         @Override
         public void setContext(CodeUnit codeUnit) {
             this.codeUnit = codeUnit;
+            this.lineNumber = 0;
+            accessesOfCodeUnit.reset();
         }
 
         @Override
@@ -156,58 +344,255 @@ class ClassFileProcessor {
         public void handleFieldInstruction(int opcode, String owner, String name, String desc) {
             AccessType accessType = AccessType.forOpCode(opcode);
             LOG.trace("Found {} access to field {}.{}:{} in line {}", accessType, owner, name, desc, lineNumber);
-            TargetInfo target = new TargetInfo(owner, name, desc);
-            importRecord.registerFieldAccess(filled(new RawAccessRecord.ForField.Builder(), target)
-                    .withAccessType(accessType)
-                    .build());
+            if (!accessesOfCodeUnit.add(accessType, owner, name, desc, lineNumber)) {
+                return;
+            }
+            importRecord.registerFieldAccess(codeUnit, targetInfo(owner, name, desc), lineNumber, accessType);
         }
 
         @Override
         public void handleMethodInstruction(String owner, String name, String desc) {
             LOG.trace("Found call of method {}.{}:{} in line {}", owner, name, desc, lineNumber);
+            if (!accessesOfCodeUnit.add(null, owner, name, desc, lineNumber)) {
+                return;
+            }
             if (CONSTRUCTOR_NAME.equals(name)) {
-                TargetInfo target = new TargetInfo(owner, name, desc);
-                importRecord.registerConstructorCall(filled(new RawAccessRecord.Builder(), target).build());
+                importRecord.registerConstructorCall(codeUnit, targetInfo(owner, name, desc), lineNumber);
             } else {
-                TargetInfo target = new TargetInfo(owner, name, desc);
-                importRecord.registerMethodCall(filled(new RawAccessRecord.Builder(), target).build());
+                importRecord.registerMethodCall(codeUnit, targetInfo(owner, name, desc), lineNumber);
             }
         }
 
-        private <BUILDER extends RawAccessRecord.BaseBuilder<BUILDER>> BUILDER filled(BUILDER builder, TargetInfo target) {
-            return builder
-                    .withCaller(codeUnit)
-                    .withTarget(target)
-                    .withLineNumber(lineNumber);
+        private TargetInfo targetInfo(String owner, String name, String desc) {
+            return new TargetInfo(importedNames.descriptorOfAsmObjectTypeName(owner), importedNames.intern(name), importedNames.intern(desc));
         }
     }
 
-    private ClassResolver getClassResolver(ClassDetailsRecorder classDetailsRecorder) {
-        ClassResolver classResolver = classResolverFactory.create();
-        classResolver.setClassUriImporter(new UriImporterOfProcessor(classDetailsRecorder, md5InClassSourcesEnabled));
-        return classResolver;
+    // NOTE: Loops or fluent chains often access the same target from the same line many times. Duplicate accesses are
+    //       detected before anything is created for them, by looking up a reusable key within the accesses of the current code unit.
+    private static class AccessesOfCodeUnit {
+        private final AccessKey lookupKey = new AccessKey();
+        private Set<AccessKey> accesses = new HashSet<>();
+
+        void reset() {
+            if (!accesses.isEmpty()) {
+                accesses = new HashSet<>();
+            }
+        }
+
+        /**
+         * @param accessType The type of the field access, or {@code null} for calls of methods or constructors
+         * @return {@code true}, if no equal access has been added for the current code unit before
+         */
+        boolean add(AccessType accessType, String owner, String name, String desc, int lineNumber) {
+            lookupKey.set(accessType, owner, name, desc, lineNumber);
+            if (accesses.contains(lookupKey)) {
+                return false;
+            }
+            accesses.add(lookupKey.copy());
+            return true;
+        }
+
+        private static class AccessKey {
+            private AccessType accessType;
+            private String owner;
+            private String name;
+            private String desc;
+            private int lineNumber;
+            private int hashCode;
+
+            void set(AccessType accessType, String owner, String name, String desc, int lineNumber) {
+                this.accessType = accessType;
+                this.owner = owner;
+                this.name = name;
+                this.desc = desc;
+                this.lineNumber = lineNumber;
+                this.hashCode = hashCodeOf(accessType, owner, name, desc, lineNumber);
+            }
+
+            // NOTE: Unlike Objects.hash(..) this does not allocate anything, since it is evaluated for every single access
+            private static int hashCodeOf(AccessType accessType, String owner, String name, String desc, int lineNumber) {
+                int result = Objects.hashCode(accessType);
+                result = 31 * result + Objects.hashCode(owner);
+                result = 31 * result + Objects.hashCode(name);
+                result = 31 * result + Objects.hashCode(desc);
+                return 31 * result + lineNumber;
+            }
+
+            AccessKey copy() {
+                AccessKey copy = new AccessKey();
+                copy.set(accessType, owner, name, desc, lineNumber);
+                return copy;
+            }
+
+            @Override
+            public int hashCode() {
+                return hashCode;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj) {
+                    return true;
+                }
+                if (obj == null || getClass() != obj.getClass()) {
+                    return false;
+                }
+                final AccessKey other = (AccessKey) obj;
+                return this.lineNumber == other.lineNumber
+                        && Objects.equals(this.accessType, other.accessType)
+                        && Objects.equals(this.owner, other.owner)
+                        && Objects.equals(this.name, other.name)
+                        && Objects.equals(this.desc, other.desc);
+            }
+        }
     }
 
-    private static class UriImporterOfProcessor implements ClassUriImporter {
-        private final DeclarationHandler declarationHandler;
-        private final boolean md5InClassSourcesEnabled;
+    private void prepare(ClassResolver classResolver, ClassFileImportRecord importRecord, ImportedNames importedNames,
+            Map<URI, ClassFileLocation> resolvableLocations) {
+        classResolver.setClassUriImporter(new UriImporterOfProcessor(
+                importRecord, importedNames, resolvableLocations, classSourceHashAlgorithm, importMode.getParsingOptions(), snapshotCapture,
+                metricsRecorder));
+    }
+
+    // NOTE: Custom ClassResolvers are not necessarily thread-safe, so we only resolve concurrently with the resolvers of ArchUnit
+    private int getResolutionParallelism(ClassResolver classResolver) {
+        boolean threadSafe = classResolver instanceof ClassResolverFromClasspath
+                || classResolver instanceof SelectedClassResolverFromClasspath
+                || classResolver instanceof JavaClassesSnapshot.SnapshotClassResolver
+                || classResolver instanceof ChunkClassResolver;
+        return threadSafe ? importParallelism : 1;
+    }
 
-        UriImporterOfProcessor(DeclarationHandler declarationHandler, boolean md5InClassSourcesEnabled) {
-            this.declarationHandler = declarationHandler;
-            this.md5InClassSourcesEnabled = md5InClassSourcesEnabled;
+    private static class UriImporterOfProcessor implements ClassUriImporter {
+        private final ClassFileImportRecord importRecord;
+        private final ImportedNames importedNames;
+        private final Map<URI, ClassFileLocation> resolvableLocations;
+        private final Optional<HashAlgorithm> classSourceHashAlgorithm;
+        private final int parsingOptions;
+        private final Optional<JavaClassesSnapshot.Capture> snapshotCapture;
+        private final ImportMetricsRecorder metricsRecorder;
+
+        UriImporterOfProcessor(ClassFileImportRecord importRecord, ImportedNames importedNames, Map<URI, ClassFileLocation> resolvableLocations,
+                Optional<HashAlgorithm> classSourceHashAlgorithm, int parsingOptions, Optional<JavaClassesSnapshot.Capture> snapshotCapture,
+                ImportMetricsRecorder metricsRecorder) {
+            this.importRecord = importRecord;
+            this.importedNames = importedNames;
+            this.resolvableLocations = resolvableLocations;
+            this.classSourceHashAlgorithm = classSourceHashAlgorithm;
+            this.parsingOptions = parsingOptions;
+            this.snapshotCapture = snapshotCapture;
+            this.metricsRecorder = metricsRecorder;
         }
 
         @Override
         public Optional<JavaClass> tryImport(URI uri) {
-            try (InputStream inputStream = uri.toURL().openStream()) {
-                JavaClassProcessor classProcessor = new JavaClassProcessor(new SourceDescriptor(uri, md5InClassSourcesEnabled), declarationHandler);
-                new ClassReader(inputStream).accept(classProcessor, 0);
-                return classProcessor.createJavaClass();
+            ClassFileImportRecord classRecord = new ClassFileImportRecord();
+            try {
+                ClassFileToProcess classFile = ClassFileToProcess.read(locationOf(uri), classSourceHashAlgorithm);
+                JavaClassProcessor classProcessor = new JavaClassProcessor(
+                        classFile.getSourceDescriptor(), importedNames, new ClassDetailsRecorder(classRecord));
+                classFile.accept(classProcessor, parsingOptions, snapshotCapture);
+                metricsRecorder.recordBytesRead(classFile.getNumberOfBytesRead());
+                Optional<JavaClass> result = classProcessor.createJavaClass();
+                if (result.isPresent()) {
+                    importRecord.mergeDetailsOfResolvedClass(classRecord, result.get().getName());
+                }
+                return result;
             } catch (Exception e) {
                 LOG.warn(String.format("Error during import from %s, falling back to simple import", uri), e);
                 return Optional.absent();
             }
         }
+
+        private ClassFileLocation locationOf(final URI uri) {
+            ClassFileLocation location = resolvableLocations.get(uri);
+            if (location != null) {
+                return location;
+            }
+            return new InputStreamSupplierClassFileLocation(uri, new InputStreamSupplier() {
+                @Override
+                InputStream getInputStream() throws IOException {
+                    return uri.toURL().openStream();
+                }
+            });
+        }
+    }
+
+    // NOTE: If class sources are hashed, the class file is read only once, and the very same bytes are hashed and parsed
+    private static class ClassFileToProcess {
+        private final ClassFileLocation location;
+        private final SourceDescriptor sourceDescriptor;
+        private final Optional<byte[]> content;
+        private long numberOfBytesRead;
+
+        private ClassFileToProcess(ClassFileLocation location, SourceDescriptor sourceDescriptor, Optional<byte[]> content) {
+            this.location = location;
+            this.sourceDescriptor = sourceDescriptor;
+            this.content = content;
+            this.numberOfBytesRead = content.isPresent() ? content.get().length : 0;
+        }
+
+        SourceDescriptor getSourceDescriptor() {
+            return sourceDescriptor;
+        }
+
+        /**
+         * @return The number of bytes read from the class file so far, i.e. to determine its checksum and to visit it
+         */
+        long getNumberOfBytesRead() {
+            return numberOfBytesRead;
+        }
+
+        void accept(ClassVisitor visitor, int parsingOptions) throws IOException {
+            if (content.isPresent()) {
+                location.accept(content.get(), visitor, parsingOptions);
+            } else {
+                numberOfBytesRead += location.accept(visitor, parsingOptions);
+            }
+        }
+
+        // NOTE: The class file is parsed only once, into a recording, which is replayed to the visitor and kept by the capture
+        void accept(ClassVisitor visitor, int parsingOptions, Optional<JavaClassesSnapshot.Capture> snapshotCapture) throws IOException {
+            if (!snapshotCapture.isPresent()) {
+                accept(visitor, parsingOptions);
+                return;
+            }
+            ClassFileRecording.Recorder recorder = new ClassFileRecording.Recorder();
+            accept(recorder, parsingOptions);
+            byte[] recording = recorder.toByteArray();
+            snapshotCapture.get().add(sourceDescriptor, recording);
+            ClassFileRecording.replay(recording, visitor);
+        }
+
+        static ClassFileToProcess read(ClassFileLocation location, Optional<HashAlgorithm> hashAlgorithm) {
+            if (location instanceof JavaClassesSnapshot.RecordedClassFileLocation) {
+                SourceDescriptor recorded = ((JavaClassesSnapshot.RecordedClassFileLocation) location).getSourceDescriptor();
+                return new ClassFileToProcess(location, recorded, Optional.<byte[]>absent());
+            }
+            if (!hashAlgorithm.isPresent()) {
+                return new ClassFileToProcess(location, SourceDescriptor.withoutMd5sum(location.getUri()), Optional.<byte[]>absent());
+            }
+            Optional<byte[]> content = tryRead(location);
+            SourceDescriptor sourceDescriptor = content.isPresent()
+                    ? SourceDescriptor.of(location.getUri(), content.get(), hashAlgorithm.get())
+                    : SourceDescriptor.withUndeterminedMd5sum(location.getUri());
+            return new ClassFileToProcess(location, sourceDescriptor, content);
+        }
+
+        private static Optional<byte[]> tryRead(ClassFileLocation location) {
+            try (InputStream in = location.openStream()) {
+                return Optional.of(ByteStreams.toByteArray(in));
+            } catch (IOException | RuntimeException e) {
+                return Optional.absent();
+            }
+        }
+    }
+
+    private static Optional<HashAlgorithm> getClassSourceHashAlgorithm() {
+        return ArchConfiguration.get().md5InClassSourcesEnabled()
+                ? Optional.of(ArchConfiguration.get().getClassSourceHashAlgorithm())
+                : Optional.<HashAlgorithm>absent();
     }
 
 }
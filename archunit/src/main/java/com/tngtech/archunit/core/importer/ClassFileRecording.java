@@ -0,0 +1,625 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import static com.tngtech.archunit.core.importer.ClassFileProcessor.ASM_API_VERSION;
+
+/**
+ * A compact recording of exactly those ASM visitor events of a class file, that are relevant to the import
+ * (compare {@link JavaClassProcessor}). Replaying such a recording into a {@link ClassVisitor} is considerably
+ * cheaper than parsing the original class file, because the constant pool, stack map frames and all
+ * irrelevant bytecode instructions have already been dropped.
+ */
+class ClassFileRecording {
+    private static final byte END = 0;
+    private static final byte VISIT = 1;
+    private static final byte SOURCE = 2;
+    private static final byte INNER_CLASS = 3;
+    private static final byte OUTER_CLASS = 4;
+    private static final byte FIELD = 5;
+    private static final byte METHOD = 6;
+    private static final byte ANNOTATION = 7;
+    private static final byte CODE = 8;
+    private static final byte LINE_NUMBER = 9;
+    private static final byte FIELD_INSTRUCTION = 10;
+    private static final byte METHOD_INSTRUCTION = 11;
+    private static final byte TYPE_INSTRUCTION = 12;
+    private static final byte ANNOTATION_DEFAULT = 13;
+    private static final byte VALUE = 14;
+    private static final byte ENUM = 15;
+    private static final byte ARRAY = 16;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte BYTE_VALUE = 1;
+    private static final byte BOOLEAN_VALUE = 2;
+    private static final byte CHAR_VALUE = 3;
+    private static final byte SHORT_VALUE = 4;
+    private static final byte INT_VALUE = 5;
+    private static final byte LONG_VALUE = 6;
+    private static final byte FLOAT_VALUE = 7;
+    private static final byte DOUBLE_VALUE = 8;
+    private static final byte STRING_VALUE = 9;
+    private static final byte TYPE_VALUE = 10;
+    private static final byte BYTE_ARRAY_VALUE = 11;
+    private static final byte BOOLEAN_ARRAY_VALUE = 12;
+    private static final byte CHAR_ARRAY_VALUE = 13;
+    private static final byte SHORT_ARRAY_VALUE = 14;
+    private static final byte INT_ARRAY_VALUE = 15;
+    private static final byte LONG_ARRAY_VALUE = 16;
+    private static final byte FLOAT_ARRAY_VALUE = 17;
+    private static final byte DOUBLE_ARRAY_VALUE = 18;
+
+    private ClassFileRecording() {
+    }
+
+    static void replay(byte[] recording, ClassVisitor visitor) {
+        try {
+            new Replay(new DataInputStream(new ByteArrayInputStream(recording))).replayClass(visitor);
+        } catch (IOException e) {
+            throw new IllegalStateException("Recording of class file is corrupt", e);
+        }
+    }
+
+    static class Recorder extends ClassVisitor {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Output out = new Output(new DataOutputStream(bytes));
+
+        Recorder() {
+            super(ASM_API_VERSION);
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            out.writeEvent(VISIT).writeInt(version).writeInt(access).writeString(name).writeString(signature).writeString(superName).writeStrings(interfaces);
+        }
+
+        @Override
+        public void visitSource(String source, String debug) {
+            out.writeEvent(SOURCE).writeString(source).writeString(debug);
+        }
+
+        @Override
+        public void visitInnerClass(String name, String outerName, String innerName, int access) {
+            out.writeEvent(INNER_CLASS).writeString(name).writeString(outerName).writeString(innerName).writeInt(access);
+        }
+
+        @Override
+        public void visitOuterClass(String owner, String name, String descriptor) {
+            out.writeEvent(OUTER_CLASS).writeString(owner).writeString(name).writeString(descriptor);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            out.writeEvent(ANNOTATION).writeString(descriptor).writeBoolean(visible);
+            return new AnnotationRecorder(out);
+        }
+
+        // NOTE: The constant value of fields is not relevant to the import, so we do not record it
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            out.writeEvent(FIELD).writeInt(access).writeString(name).writeString(descriptor).writeString(signature);
+            return new FieldRecorder(out);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            out.writeEvent(METHOD).writeInt(access).writeString(name).writeString(descriptor).writeString(signature).writeStrings(exceptions);
+            return new MethodRecorder(out);
+        }
+
+        @Override
+        public void visitEnd() {
+            out.writeEvent(END);
+        }
+    }
+
+    private static class FieldRecorder extends FieldVisitor {
+        private final Output out;
+
+        FieldRecorder(Output out) {
+            super(ASM_API_VERSION);
+            this.out = out;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            out.writeEvent(ANNOTATION).writeString(descriptor).writeBoolean(visible);
+            return new AnnotationRecorder(out);
+        }
+
+        @Override
+        public void visitEnd() {
+            out.writeEvent(END);
+        }
+    }
+
+    private static class MethodRecorder extends MethodVisitor {
+        private final Output out;
+
+        MethodRecorder(Output out) {
+            super(ASM_API_VERSION);
+            this.out = out;
+        }
+
+        @Override
+        public void visitCode() {
+            out.writeEvent(CODE);
+        }
+
+        @Override
+        public void visitLineNumber(int line, Label start) {
+            out.writeEvent(LINE_NUMBER).writeInt(line);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            out.writeEvent(FIELD_INSTRUCTION).writeInt(opcode).writeString(owner).writeString(name).writeString(descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            out.writeEvent(METHOD_INSTRUCTION).writeInt(opcode).writeString(owner).writeString(name).writeString(descriptor).writeBoolean(isInterface);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            if (opcode == Opcodes.INSTANCEOF) {
+                out.writeEvent(TYPE_INSTRUCTION).writeInt(opcode).writeString(type);
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            out.writeEvent(ANNOTATION).writeString(descriptor).writeBoolean(visible);
+            return new AnnotationRecorder(out);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotationDefault() {
+            out.writeEvent(ANNOTATION_DEFAULT);
+            return new AnnotationRecorder(out);
+        }
+
+        @Override
+        public void visitEnd() {
+            out.writeEvent(END);
+        }
+    }
+
+    private static class AnnotationRecorder extends AnnotationVisitor {
+        private final Output out;
+
+        AnnotationRecorder(Output out) {
+            super(ASM_API_VERSION);
+            this.out = out;
+        }
+
+        @Override
+        public void visit(String name, Object value) {
+            out.writeEvent(VALUE).writeString(name).writeValue(value);
+        }
+
+        @Override
+        public void visitEnum(String name, String descriptor, String value) {
+            out.writeEvent(ENUM).writeString(name).writeString(descriptor).writeString(value);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+            out.writeEvent(ANNOTATION).writeString(name).writeString(descriptor);
+            return new AnnotationRecorder(out);
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            out.writeEvent(ARRAY).writeString(name);
+            return new AnnotationRecorder(out);
+        }
+
+        @Override
+        public void visitEnd() {
+            out.writeEvent(END);
+        }
+    }
+
+    private static class Output {
+        private final DataOutputStream out;
+
+        Output(DataOutputStream out) {
+            this.out = out;
+        }
+
+        Output writeEvent(byte event) {
+            return writeByte(event);
+        }
+
+        Output writeByte(int value) {
+            try {
+                out.writeByte(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this;
+        }
+
+        Output writeBoolean(boolean value) {
+            return writeByte(value ? 1 : 0);
+        }
+
+        Output writeInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this;
+        }
+
+        Output writeLong(long value) {
+            try {
+                out.writeLong(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this;
+        }
+
+        Output writeString(String value) {
+            writeBoolean(value != null);
+            if (value != null) {
+                try {
+                    out.writeUTF(value);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return this;
+        }
+
+        Output writeStrings(String[] values) {
+            writeInt(values != null ? values.length : -1);
+            if (values != null) {
+                for (String value : values) {
+                    writeString(value);
+                }
+            }
+            return this;
+        }
+
+        Output writeValue(Object value) {
+            if (value == null) {
+                return writeByte(NULL_VALUE);
+            } else if (value instanceof Byte) {
+                return writeByte(BYTE_VALUE).writeByte((Byte) value);
+            } else if (value instanceof Boolean) {
+                return writeByte(BOOLEAN_VALUE).writeBoolean((Boolean) value);
+            } else if (value instanceof Character) {
+                return writeByte(CHAR_VALUE).writeInt((Character) value);
+            } else if (value instanceof Short) {
+                return writeByte(SHORT_VALUE).writeInt((Short) value);
+            } else if (value instanceof Integer) {
+                return writeByte(INT_VALUE).writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                return writeByte(LONG_VALUE).writeLong((Long) value);
+            } else if (value instanceof Float) {
+                return writeByte(FLOAT_VALUE).writeInt(Float.floatToRawIntBits((Float) value));
+            } else if (value instanceof Double) {
+                return writeByte(DOUBLE_VALUE).writeLong(Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof String) {
+                return writeByte(STRING_VALUE).writeString((String) value);
+            } else if (value instanceof Type) {
+                return writeByte(TYPE_VALUE).writeString(((Type) value).getDescriptor());
+            }
+            return writeArrayValue(value);
+        }
+
+        private Output writeArrayValue(Object value) {
+            if (value instanceof byte[]) {
+                byte[] array = (byte[]) value;
+                writeByte(BYTE_ARRAY_VALUE).writeInt(array.length);
+                for (byte element : array) {
+                    writeByte(element);
+                }
+            } else if (value instanceof boolean[]) {
+                boolean[] array = (boolean[]) value;
+                writeByte(BOOLEAN_ARRAY_VALUE).writeInt(array.length);
+                for (boolean element : array) {
+                    writeBoolean(element);
+                }
+            } else if (value instanceof char[]) {
+                char[] array = (char[]) value;
+                writeByte(CHAR_ARRAY_VALUE).writeInt(array.length);
+                for (char element : array) {
+                    writeInt(element);
+                }
+            } else if (value instanceof short[]) {
+                short[] array = (short[]) value;
+                writeByte(SHORT_ARRAY_VALUE).writeInt(array.length);
+                for (short element : array) {
+                    writeInt(element);
+                }
+            } else if (value instanceof int[]) {
+                int[] array = (int[]) value;
+                writeByte(INT_ARRAY_VALUE).writeInt(array.length);
+                for (int element : array) {
+                    writeInt(element);
+                }
+            } else if (value instanceof long[]) {
+                long[] array = (long[]) value;
+                writeByte(LONG_ARRAY_VALUE).writeInt(array.length);
+                for (long element : array) {
+                    writeLong(element);
+                }
+            } else if (value instanceof float[]) {
+                float[] array = (float[]) value;
+                writeByte(FLOAT_ARRAY_VALUE).writeInt(array.length);
+                for (float element : array) {
+                    writeInt(Float.floatToRawIntBits(element));
+                }
+            } else if (value instanceof double[]) {
+                double[] array = (double[]) value;
+                writeByte(DOUBLE_ARRAY_VALUE).writeInt(array.length);
+                for (double element : array) {
+                    writeLong(Double.doubleToRawLongBits(element));
+                }
+            } else {
+                throw new IllegalArgumentException(String.format("Can't record annotation value %s of type %s", value, value.getClass().getName()));
+            }
+            return this;
+        }
+    }
+
+    // NOTE: A visitor might return null for nested elements it is not interested in (e.g. JavaClassProcessor
+    //       after it aborted the import of an already imported class), in this case we still have to consume
+    //       the respective events up to the matching END
+    private static class Replay {
+        private final DataInputStream in;
+
+        Replay(DataInputStream in) {
+            this.in = in;
+        }
+
+        void replayClass(ClassVisitor visitor) throws IOException {
+            byte event;
+            while ((event = in.readByte()) != END) {
+                switch (event) {
+                    case VISIT:
+                        visitor.visit(in.readInt(), in.readInt(), readString(), readString(), readString(), readStrings());
+                        break;
+                    case SOURCE:
+                        visitor.visitSource(readString(), readString());
+                        break;
+                    case INNER_CLASS:
+                        visitor.visitInnerClass(readString(), readString(), readString(), in.readInt());
+                        break;
+                    case OUTER_CLASS:
+                        visitor.visitOuterClass(readString(), readString(), readString());
+                        break;
+                    case ANNOTATION:
+                        replayAnnotation(visitor.visitAnnotation(readString(), in.readBoolean()));
+                        break;
+                    case FIELD:
+                        replayField(visitor.visitField(in.readInt(), readString(), readString(), readString(), null));
+                        break;
+                    case METHOD:
+                        replayMethod(visitor.visitMethod(in.readInt(), readString(), readString(), readString(), readStrings()));
+                        break;
+                    default:
+                        throw unexpected(event);
+                }
+            }
+            visitor.visitEnd();
+        }
+
+        private void replayField(FieldVisitor visitor) throws IOException {
+            byte event;
+            while ((event = in.readByte()) != END) {
+                if (event != ANNOTATION) {
+                    throw unexpected(event);
+                }
+                String descriptor = readString();
+                boolean visible = in.readBoolean();
+                replayAnnotation(visitor != null ? visitor.visitAnnotation(descriptor, visible) : null);
+            }
+            if (visitor != null) {
+                visitor.visitEnd();
+            }
+        }
+
+        private void replayMethod(MethodVisitor visitor) throws IOException {
+            MethodVisitor target = visitor != null ? visitor : new MethodVisitor(ASM_API_VERSION) {
+            };
+            byte event;
+            while ((event = in.readByte()) != END) {
+                switch (event) {
+                    case CODE:
+                        target.visitCode();
+                        break;
+                    case LINE_NUMBER:
+                        target.visitLineNumber(in.readInt(), new Label());
+                        break;
+                    case FIELD_INSTRUCTION:
+                        target.visitFieldInsn(in.readInt(), readString(), readString(), readString());
+                        break;
+                    case METHOD_INSTRUCTION:
+                        target.visitMethodInsn(in.readInt(), readString(), readString(), readString(), in.readBoolean());
+                        break;
+                    case TYPE_INSTRUCTION:
+                        target.visitTypeInsn(in.readInt(), readString());
+                        break;
+                    case ANNOTATION:
+                        replayAnnotation(target.visitAnnotation(readString(), in.readBoolean()));
+                        break;
+                    case ANNOTATION_DEFAULT:
+                        replayAnnotation(target.visitAnnotationDefault());
+                        break;
+                    default:
+                        throw unexpected(event);
+                }
+            }
+            target.visitEnd();
+        }
+
+        private void replayAnnotation(AnnotationVisitor visitor) throws IOException {
+            AnnotationVisitor target = visitor != null ? visitor : new AnnotationVisitor(ASM_API_VERSION) {
+            };
+            byte event;
+            while ((event = in.readByte()) != END) {
+                switch (event) {
+                    case VALUE:
+                        target.visit(readString(), readValue());
+                        break;
+                    case ENUM:
+                        target.visitEnum(readString(), readString(), readString());
+                        break;
+                    case ANNOTATION:
+                        replayAnnotation(target.visitAnnotation(readString(), readString()));
+                        break;
+                    case ARRAY:
+                        replayAnnotation(target.visitArray(readString()));
+                        break;
+                    default:
+                        throw unexpected(event);
+                }
+            }
+            target.visitEnd();
+        }
+
+        private String readString() throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        private String[] readStrings() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            String[] result = new String[length];
+            for (int i = 0; i < length; i++) {
+                result[i] = readString();
+            }
+            return result;
+        }
+
+        private Object readValue() throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+                case NULL_VALUE:
+                    return null;
+                case BYTE_VALUE:
+                    return in.readByte();
+                case BOOLEAN_VALUE:
+                    return in.readBoolean();
+                case CHAR_VALUE:
+                    return (char) in.readInt();
+                case SHORT_VALUE:
+                    return (short) in.readInt();
+                case INT_VALUE:
+                    return in.readInt();
+                case LONG_VALUE:
+                    return in.readLong();
+                case FLOAT_VALUE:
+                    return Float.intBitsToFloat(in.readInt());
+                case DOUBLE_VALUE:
+                    return Double.longBitsToDouble(in.readLong());
+                case STRING_VALUE:
+                    return readString();
+                case TYPE_VALUE:
+                    return Type.getType(readString());
+                default:
+                    return readArrayValue(type);
+            }
+        }
+
+        private Object readArrayValue(byte type) throws IOException {
+            int length = in.readInt();
+            switch (type) {
+                case BYTE_ARRAY_VALUE:
+                    byte[] bytes = new byte[length];
+                    for (int i = 0; i < length; i++) {
+                        bytes[i] = in.readByte();
+                    }
+                    return bytes;
+                case BOOLEAN_ARRAY_VALUE:
+                    boolean[] booleans = new boolean[length];
+                    for (int i = 0; i < length; i++) {
+                        booleans[i] = in.readBoolean();
+                    }
+                    return booleans;
+                case CHAR_ARRAY_VALUE:
+                    char[] chars = new char[length];
+                    for (int i = 0; i < length; i++) {
+                        chars[i] = (char) in.readInt();
+                    }
+                    return chars;
+                case SHORT_ARRAY_VALUE:
+                    short[] shorts = new short[length];
+                    for (int i = 0; i < length; i++) {
+                        shorts[i] = (short) in.readInt();
+                    }
+                    return shorts;
+                case INT_ARRAY_VALUE:
+                    int[] ints = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        ints[i] = in.readInt();
+                    }
+                    return ints;
+                case LONG_ARRAY_VALUE:
+                    long[] longs = new long[length];
+                    for (int i = 0; i < length; i++) {
+                        longs[i] = in.readLong();
+                    }
+                    return longs;
+                case FLOAT_ARRAY_VALUE:
+                    float[] floats = new float[length];
+                    for (int i = 0; i < length; i++) {
+                        floats[i] = Float.intBitsToFloat(in.readInt());
+                    }
+                    return floats;
+                case DOUBLE_ARRAY_VALUE:
+                    double[] doubles = new double[length];
+                    for (int i = 0; i < length; i++) {
+                        doubles[i] = Double.longBitsToDouble(in.readLong());
+                    }
+                    return doubles;
+                default:
+                    throw new IOException("Unknown value type " + type);
+            }
+        }
+
+        private IOException unexpected(byte event) {
+            return new IOException("Unexpected event " + event);
+        }
+    }
+}
@@ -15,64 +15,124 @@
  */
 package com.tngtech.archunit.core.importer;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.JarURLConnection;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.FileVisitResult;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.Iterators;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Futures;
+import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.Internal;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.Collections.singletonList;
 
 @Internal
 interface ClassFileSource extends Iterable<ClassFileLocation> {
+    /**
+     * Walks the directory tree lazily, i.e. class files are handed out while the rest of the tree is still being walked.
+     * With an import parallelism greater than one (compare {@link ArchConfiguration#getImportParallelism()}),
+     * subdirectories are listed concurrently ahead of the consumer. In any case the class files are returned in a
+     * deterministic order: the class files of a directory in order of their names, followed by the class files
+     * of each subdirectory in order of their names.
+     */
     @Internal
-    class FromFilePath extends SimpleFileVisitor<Path> implements ClassFileSource {
-        private final Set<ClassFileLocation> classFileLocations = new HashSet<>();
+    class FromFilePath implements ClassFileSource {
+        private static final Logger LOG = LoggerFactory.getLogger(FromFilePath.class);
+
+        private static final Comparator<Path> BY_FILE_NAME = new Comparator<Path>() {
+            @Override
+            public int compare(Path first, Path second) {
+                return first.getFileName().toString().compareTo(second.getFileName().toString());
+            }
+        };
+
+        // NOTE: All walks with the same parallelism share one pool, whose idle worker threads terminate on their own.
+        //       Thus, a walk that is abandoned before its iteration has finished does not leak any pool or thread
+        private static final LoadingCache<Integer, ForkJoinPool> WALK_POOLS = CacheBuilder.newBuilder()
+                .build(new CacheLoader<Integer, ForkJoinPool>() {
+                    @Override
+                    public ForkJoinPool load(Integer parallelism) {
+                        return new ForkJoinPool(parallelism);
+                    }
+                });
+
+        private final Path path;
         private final ImportOptions importOptions;
+        private final int parallelism = ArchConfiguration.get().getImportParallelism();
 
         FromFilePath(Path path, ImportOptions importOptions) {
+            this.path = path;
             this.importOptions = importOptions;
-            if (path.toFile().exists()) {
-                try {
-                    Files.walkFileTree(path, this);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }
         }
 
         @Override
         public Iterator<ClassFileLocation> iterator() {
-            return classFileLocations.iterator();
-        }
-
-        @Override
-        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-            if (shouldBeConsidered(file)) {
-                classFileLocations.add(new InputStreamSupplierClassFileLocation(file.toUri(), newInputStreamSupplierFor(file)));
+            if (!Files.exists(path, NOFOLLOW_LINKS)) {
+                return Collections.emptyIterator();
+            }
+            if (!Files.isDirectory(path, NOFOLLOW_LINKS)) {
+                return shouldBeConsidered(path)
+                        ? Iterators.singletonIterator(classFileLocationOf(path))
+                        : Collections.<ClassFileLocation>emptyIterator();
+            }
+            if (!shouldBeWalked(path)) {
+                return Collections.emptyIterator();
             }
-            return FileVisitResult.CONTINUE;
+            return parallelism > 1
+                    ? new ParallelDirectoryWalk(path, parallelism).iterator()
+                    : new DirectoryWalk(path).iterator();
         }
 
         private boolean shouldBeConsidered(Path file) {
             Path fileName = file.getFileName();
             return fileName != null
                     && FileToImport.isRelevant(fileName.toString())
-                    && importOptions.include(Location.of(file));
+                    && (importOptions.isEmpty() || importOptions.include(Location.of(file)));
+        }
+
+        private boolean shouldBeWalked(Path directory) {
+            return importOptions.isEmpty() || importOptions.mayIncludeAnyLocationIn(Location.of(directory));
+        }
+
+        private ClassFileLocation classFileLocationOf(Path file) {
+            return new InputStreamSupplierClassFileLocation(file.toUri(), newInputStreamSupplierFor(file));
         }
 
         private Supplier<InputStream> newInputStreamSupplierFor(final Path file) {
@@ -83,6 +143,165 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
                 }
             };
         }
+
+        // NOTE: Like Files.walkFileTree(..) we do not follow symbolic links to directories
+        private DirectoryListing list(Path directory) {
+            List<Path> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    entries.add(entry);
+                }
+            } catch (IOException e) {
+                LOG.warn(String.format("Couldn't list directory %s", directory), e);
+            }
+            Collections.sort(entries, BY_FILE_NAME);
+
+            DirectoryListing result = new DirectoryListing();
+            for (Path entry : entries) {
+                if (Files.isDirectory(entry, NOFOLLOW_LINKS)) {
+                    if (shouldBeWalked(entry)) {
+                        result.subdirectories.add(entry);
+                    }
+                } else if (shouldBeConsidered(entry)) {
+                    result.classFiles.add(classFileLocationOf(entry));
+                }
+            }
+            return result;
+        }
+
+        private static class DirectoryListing {
+            final List<ClassFileLocation> classFiles = new ArrayList<>();
+            final List<Path> subdirectories = new ArrayList<>();
+        }
+
+        /**
+         * A directory of the walk, whose listing might still be in progress
+         */
+        private interface PendingDirectory {
+            DirectoryListing getListing();
+
+            List<PendingDirectory> getSubdirectories();
+        }
+
+        private abstract static class Walk {
+            Iterator<ClassFileLocation> iterator() {
+                return new AbstractIterator<ClassFileLocation>() {
+                    private final Deque<Iterator<PendingDirectory>> pendingDirectories =
+                            new ArrayDeque<>(singletonList(singletonList(root()).iterator()));
+                    private Iterator<ClassFileLocation> classFilesOfCurrentDirectory = Collections.emptyIterator();
+
+                    @Override
+                    protected ClassFileLocation computeNext() {
+                        while (!classFilesOfCurrentDirectory.hasNext()) {
+                            if (pendingDirectories.isEmpty()) {
+                                return endOfData();
+                            }
+                            Iterator<PendingDirectory> siblings = pendingDirectories.peek();
+                            if (!siblings.hasNext()) {
+                                pendingDirectories.pop();
+                                continue;
+                            }
+                            PendingDirectory directory = siblings.next();
+                            classFilesOfCurrentDirectory = directory.getListing().classFiles.iterator();
+                            pendingDirectories.push(directory.getSubdirectories().iterator());
+                        }
+                        return classFilesOfCurrentDirectory.next();
+                    }
+                };
+            }
+
+            abstract PendingDirectory root();
+        }
+
+        private class DirectoryWalk extends Walk {
+            private final Path root;
+
+            DirectoryWalk(Path root) {
+                this.root = root;
+            }
+
+            @Override
+            PendingDirectory root() {
+                return pendingDirectory(root);
+            }
+
+            private PendingDirectory pendingDirectory(final Path directory) {
+                return new PendingDirectory() {
+                    private final Supplier<DirectoryListing> listing = Suppliers.memoize(new Supplier<DirectoryListing>() {
+                        @Override
+                        public DirectoryListing get() {
+                            return list(directory);
+                        }
+                    });
+
+                    @Override
+                    public DirectoryListing getListing() {
+                        return listing.get();
+                    }
+
+                    @Override
+                    public List<PendingDirectory> getSubdirectories() {
+                        List<PendingDirectory> result = new ArrayList<>();
+                        for (Path subdirectory : getListing().subdirectories) {
+                            result.add(pendingDirectory(subdirectory));
+                        }
+                        return result;
+                    }
+                };
+            }
+        }
+
+        // NOTE: Every listed directory immediately submits the listing of its subdirectories, so the walk runs ahead
+        //       of the consumer, which only waits for the listing it needs next
+        private class ParallelDirectoryWalk extends Walk {
+            private final Path root;
+            private final ForkJoinPool pool;
+
+            ParallelDirectoryWalk(Path root, int parallelism) {
+                this.root = root;
+                this.pool = WALK_POOLS.getUnchecked(parallelism);
+            }
+
+            @Override
+            PendingDirectory root() {
+                return submit(root);
+            }
+
+            private PendingDirectory submit(final Path directory) {
+                final Future<ListingWithSubdirectories> future = pool.submit(new Callable<ListingWithSubdirectories>() {
+                    @Override
+                    public ListingWithSubdirectories call() {
+                        DirectoryListing listing = list(directory);
+                        List<PendingDirectory> subdirectories = new ArrayList<>();
+                        for (Path subdirectory : listing.subdirectories) {
+                            subdirectories.add(submit(subdirectory));
+                        }
+                        return new ListingWithSubdirectories(listing, subdirectories);
+                    }
+                });
+                return new PendingDirectory() {
+                    @Override
+                    public DirectoryListing getListing() {
+                        return Futures.getUnchecked(future).listing;
+                    }
+
+                    @Override
+                    public List<PendingDirectory> getSubdirectories() {
+                        return Futures.getUnchecked(future).subdirectories;
+                    }
+                };
+            }
+        }
+
+        private static class ListingWithSubdirectories {
+            final DirectoryListing listing;
+            final List<PendingDirectory> subdirectories;
+
+            ListingWithSubdirectories(DirectoryListing listing, List<PendingDirectory> subdirectories) {
+                this.listing = listing;
+                this.subdirectories = subdirectories;
+            }
+        }
     }
 
     @Internal
@@ -90,17 +309,26 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
         private final FluentIterable<ClassFileLocation> classFileLocations;
 
         FromJar(URL jarUrl, String path, ImportOptions importOptions) {
-            this(jarUrl, NormalizedResourceName.from(path), importOptions);
+            this(jarUrl, path, importOptions, new JarFileHandles());
+        }
+
+        FromJar(URL jarUrl, String path, ImportOptions importOptions, JarFileHandles jarFileHandles) {
+            this(jarUrl, NormalizedResourceName.from(path), importOptions, jarFileHandles);
         }
 
-        FromJar(URL jarUrl, NormalizedResourceName path, ImportOptions importOptions) {
+        FromJar(URL jarUrl, NormalizedResourceName path, ImportOptions importOptions, JarFileHandles jarFileHandles) {
+            if (!importOptions.isEmpty() && !importOptions.mayIncludeAnyLocationIn(Location.of(jarUrl))) {
+                classFileLocations = FluentIterable.from(Collections.<ClassFileLocation>emptySet());
+                return;
+            }
             try {
                 JarURLConnection connection = (JarURLConnection) jarUrl.openConnection();
-                classFileLocations = FluentIterable.from(Collections.list(connection.getJarFile().entries()))
+                Archive archive = Archive.of(connection, jarFileHandles);
+                classFileLocations = FluentIterable.from(archive.getEntries())
                         .filter(classFilesBeneath(path))
-                        .transform(toClassFilesInJarOf(connection))
-                        .filter(by(importOptions))
-                        .transform(toInputStreamSupplier());
+                        .filter(inFoldersIncludedBy(importOptions, connection.getJarFileURL()))
+                        .transform(toClassFilesIn(archive, connection.getJarFileURL()))
+                        .filter(by(importOptions));
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -116,34 +344,43 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
             };
         }
 
-        private Function<JarEntry, ClassFileInJar> toClassFilesInJarOf(final JarURLConnection connection) {
-            return new Function<JarEntry, ClassFileInJar>() {
+        // NOTE: The decision is made once per folder, so excluded folders cost neither a Location nor an ImportOption per entry
+        private Predicate<JarEntry> inFoldersIncludedBy(final ImportOptions importOptions, final URL jarFileUrl) {
+            if (importOptions.isEmpty()) {
+                return Predicates.alwaysTrue();
+            }
+            final Map<String, Boolean> includedByFolder = new HashMap<>();
+            return new Predicate<JarEntry>() {
                 @Override
-                public ClassFileInJar apply(JarEntry input) {
-                    return new ClassFileInJar(connection, input);
+                public boolean apply(JarEntry input) {
+                    String folder = input.getName().substring(0, input.getName().lastIndexOf('/') + 1);
+                    if (folder.isEmpty()) {
+                        return true;
+                    }
+                    Boolean included = includedByFolder.get(folder);
+                    if (included == null) {
+                        included = importOptions.mayIncludeAnyLocationIn(Location.of(jarFileUrl).append(folder));
+                        includedByFolder.put(folder, included);
+                    }
+                    return included;
                 }
             };
         }
 
-        private Predicate<ClassFileInJar> by(final ImportOptions importOptions) {
-            return new Predicate<ClassFileInJar>() {
+        private Function<JarEntry, ClassFileLocation> toClassFilesIn(final Archive archive, final URL jarFileUrl) {
+            return new Function<JarEntry, ClassFileLocation>() {
                 @Override
-                public boolean apply(ClassFileInJar input) {
-                    return input.isIncludedIn(importOptions);
+                public ClassFileLocation apply(JarEntry input) {
+                    return new ClassFileInJar(archive, jarFileUrl, input);
                 }
             };
         }
 
-        private Function<ClassFileInJar, ClassFileLocation> toInputStreamSupplier() {
-            return new Function<ClassFileInJar, ClassFileLocation>() {
+        private Predicate<ClassFileLocation> by(final ImportOptions importOptions) {
+            return new Predicate<ClassFileLocation>() {
                 @Override
-                public ClassFileLocation apply(final ClassFileInJar input) {
-                    return new InputStreamSupplierClassFileLocation(input.getUri(), new InputStreamSupplier() {
-                        @Override
-                        InputStream getInputStream() throws IOException {
-                            return input.openStream();
-                        }
-                    });
+                public boolean apply(ClassFileLocation input) {
+                    return importOptions.include(Location.of(input.getUri()));
                 }
             };
         }
@@ -153,31 +390,124 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
             return classFileLocations.iterator();
         }
 
-        private static class ClassFileInJar {
+        private abstract static class Archive {
+            abstract List<JarEntry> getEntries() throws IOException;
+
+            abstract InputStream openStream(JarEntry entry) throws IOException;
+
+            abstract byte[] read(JarEntry entry) throws IOException;
+
+            // NOTE: Local archives are read through the open handles of the current import. Any other archives (e.g. nested or remote ones)
+            //       can only be read through the JarURLConnection
+            static Archive of(JarURLConnection connection, JarFileHandles jarFileHandles) throws IOException {
+                URL jarFileUrl = connection.getJarFileURL();
+                if ("file".equals(jarFileUrl.getProtocol())) {
+                    try {
+                        return new PooledArchive(new File(jarFileUrl.toURI()), jarFileHandles);
+                    } catch (URISyntaxException | IllegalArgumentException ignored) {
+                        // fall through to connection
+                    }
+                }
+                return new ArchiveFromConnection(connection);
+            }
+        }
+
+        private static class PooledArchive extends Archive {
+            private final File file;
+            private final JarFileHandles jarFileHandles;
+
+            PooledArchive(File file, JarFileHandles jarFileHandles) {
+                this.file = file;
+                this.jarFileHandles = jarFileHandles;
+            }
+
+            @Override
+            List<JarEntry> getEntries() throws IOException {
+                return jarFileHandles.withJarFile(file, new JarFileHandles.JarFileAction<List<JarEntry>>() {
+                    @Override
+                    public List<JarEntry> process(JarFile jarFile) {
+                        return Collections.list(jarFile.entries());
+                    }
+                });
+            }
+
+            @Override
+            InputStream openStream(JarEntry entry) throws IOException {
+                return jarFileHandles.openEntry(file, entry);
+            }
+
+            @Override
+            byte[] read(JarEntry entry) throws IOException {
+                return jarFileHandles.readEntry(file, entry);
+            }
+        }
+
+        private static class ArchiveFromConnection extends Archive {
             private final JarURLConnection connection;
+
+            ArchiveFromConnection(JarURLConnection connection) {
+                this.connection = connection;
+            }
+
+            @Override
+            List<JarEntry> getEntries() throws IOException {
+                return Collections.list(connection.getJarFile().entries());
+            }
+
+            @Override
+            InputStream openStream(JarEntry entry) throws IOException {
+                return connection.getJarFile().getInputStream(entry);
+            }
+
+            @Override
+            byte[] read(JarEntry entry) throws IOException {
+                try (InputStream in = openStream(entry)) {
+                    return ByteStreams.toByteArray(in);
+                }
+            }
+        }
+
+        private static class ClassFileInJar implements ClassFileLocation {
+            private final Archive archive;
             private final JarEntry jarEntry;
             private final URI uri;
 
-            private ClassFileInJar(JarURLConnection connection, JarEntry jarEntry) {
-                this.connection = connection;
+            private ClassFileInJar(Archive archive, URL jarFileUrl, JarEntry jarEntry) {
+                this.archive = archive;
                 this.jarEntry = jarEntry;
-                this.uri = makeJarUri(jarEntry);
+                this.uri = Location.of(jarFileUrl).append(jarEntry.getName()).asURI();
             }
 
-            private URI makeJarUri(JarEntry input) {
-                return Location.of(connection.getJarFileURL()).append(input.getName()).asURI();
+            @Override
+            public URI getUri() {
+                return uri;
             }
 
-            URI getUri() {
-                return uri;
+            @Override
+            public InputStream openStream() {
+                try {
+                    return archive.openStream(jarEntry);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
+            // NOTE: We pass the bytes of the entry directly to ASM, instead of letting ASM copy the stream through its own buffers
+            @Override
+            public long accept(ClassVisitor visitor, int parsingOptions) throws IOException {
+                byte[] classFile = archive.read(jarEntry);
+                new ClassReader(classFile).accept(visitor, parsingOptions);
+                return classFile.length;
             }
 
-            InputStream openStream() throws IOException {
-                return connection.getJarFile().getInputStream(jarEntry);
+            @Override
+            public void accept(byte[] classFile, ClassVisitor visitor, int parsingOptions) {
+                new ClassReader(classFile).accept(visitor, parsingOptions);
             }
 
-            boolean isIncludedIn(ImportOptions importOptions) {
-                return importOptions.include(Location.of(uri));
+            @Override
+            public String toString() {
+                return getClass().getSimpleName() + "{uri=" + uri + '}';
             }
         }
     }
@@ -202,6 +532,21 @@ interface ClassFileSource extends Iterable<ClassFileLocation> {
             return uri;
         }
 
+        @Override
+        public long accept(ClassVisitor visitor, int parsingOptions) throws IOException {
+            byte[] classFile;
+            try (InputStream in = openStream()) {
+                classFile = ByteStreams.toByteArray(in);
+            }
+            new ClassReader(classFile).accept(visitor, parsingOptions);
+            return classFile.length;
+        }
+
+        @Override
+        public void accept(byte[] classFile, ClassVisitor visitor, int parsingOptions) {
+            new ClassReader(classFile).accept(visitor, parsingOptions);
+        }
+
         @Override
         public String toString() {
             return getClass().getSimpleName() + "{uri=" + uri + '}';
@@ -15,14 +15,27 @@
  */
 package com.tngtech.archunit.core.importer;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.Futures;
+import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.base.Function;
 import com.tngtech.archunit.base.HasDescription;
 import com.tngtech.archunit.base.Optional;
@@ -49,120 +62,255 @@ import com.tngtech.archunit.core.importer.DomainBuilders.JavaConstructorCallBuil
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaFieldAccessBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.JavaMethodCallBuilder;
 import com.tngtech.archunit.core.importer.DomainBuilders.TypeParametersBuilder;
+import com.tngtech.archunit.core.importer.ImportMetrics.Phase;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
 
+import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.completeAccesses;
 import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.completeAnnotations;
 import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.completeClassHierarchy;
+import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.completeDependencies;
 import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.completeEnclosingClass;
 import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.completeMembers;
 import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.completeTypeParameters;
 import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.createJavaClasses;
+import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.registerResolvedClasses;
 import static com.tngtech.archunit.core.importer.DomainBuilders.BuilderWithBuildParameter.BuildFinisher.build;
 import static com.tngtech.archunit.core.importer.DomainBuilders.buildAnnotations;
 
 class ClassGraphCreator implements ImportContext {
+    private static final int PARTITION_SIZE = 128;
+
+    private final int completionParallelism = ArchConfiguration.get().getImportParallelism();
     private final ImportedClasses classes;
 
     private final ClassFileImportRecord importRecord;
+    private final ImportMode importMode;
+    private final boolean resolveAccessTargets;
+    private final AccessRecordImporter accessRecordImporter;
+    private final ImportMetricsRecorder metricsRecorder;
 
     private final SetMultimap<JavaCodeUnit, FieldAccessRecord> processedFieldAccessRecords = HashMultimap.create();
     private final SetMultimap<JavaCodeUnit, AccessRecord<MethodCallTarget>> processedMethodCallRecords = HashMultimap.create();
     private final SetMultimap<JavaCodeUnit, AccessRecord<ConstructorCallTarget>> processedConstructorCallRecords = HashMultimap.create();
-    private final Function<JavaClass, Set<String>> superClassStrategy;
-    private final Function<JavaClass, Set<String>> interfaceStrategy;
-
-    ClassGraphCreator(ClassFileImportRecord importRecord, ClassResolver classResolver) {
+    private final Set<String> classesWithAccessesImportedOnDemand = new HashSet<>();
+    private final Set<String> uncompletedClassNames = new HashSet<>();
+    private int numberOfProcessedResolvedClasses;
+    private final List<JavaClass> resolvedClassesToRegister = new ArrayList<>();
+    private JavaClasses importedClasses;
+
+    ClassGraphCreator(ClassFileImportRecord importRecord, ClassResolver classResolver, int resolutionParallelism,
+            ImportMode importMode, boolean resolveAccessTargets, AccessRecordImporter accessRecordImporter, ImportMetricsRecorder metricsRecorder) {
         this.importRecord = importRecord;
-        classes = new ImportedClasses(importRecord.getClasses(), classResolver);
-        superClassStrategy = createSuperClassStrategy();
-        interfaceStrategy = createInterfaceStrategy();
-    }
-
-    private Function<JavaClass, Set<String>> createSuperClassStrategy() {
-        return new Function<JavaClass, Set<String>>() {
-            @Override
-            public Set<String> apply(JavaClass input) {
-                return importRecord.getSuperClassFor(input.getName()).asSet();
-            }
-        };
-    }
-
-    private Function<JavaClass, Set<String>> createInterfaceStrategy() {
-        return new Function<JavaClass, Set<String>>() {
-            @Override
-            public Set<String> apply(JavaClass input) {
-                return importRecord.getInterfaceNamesFor(input.getName());
-            }
-        };
+        this.importMode = importMode;
+        this.resolveAccessTargets = resolveAccessTargets;
+        this.accessRecordImporter = accessRecordImporter;
+        this.metricsRecorder = metricsRecorder;
+        classes = new ImportedClasses(importRecord.getClasses(), classResolver, resolutionParallelism);
     }
 
     JavaClasses complete() {
-        ensureCallTargetsArePresent();
+        ImportMetricsRecorder.Measurement measurement = metricsRecorder.start(Phase.RESOLVE_MISSING_CLASSES);
+        if (resolveAccessTargets) {
+            ensureCallTargetsArePresent(importRecord);
+        } else {
+            ensureEnclosingClassesArePresent();
+        }
         ensureClassesOfInheritanceHierarchiesArePresent();
         ensureMetaAnnotationsArePresent();
+        if (!resolveAccessTargets) {
+            ensureCallTargetsArePresentAsStubs();
+        }
+        measurement.stop();
+
+        measurement = metricsRecorder.start(Phase.COMPLETE_CLASSES);
+        numberOfProcessedResolvedClasses = classes.getNumberOfAdditionallyResolvedClasses();
         completeClasses();
-        completeAccesses();
-        return createJavaClasses(classes.getDirectlyImported(), classes.getAllWithOuterClassesSortedBeforeInnerClasses(), this);
-    }
+        measurement.stop();
 
-    private void ensureCallTargetsArePresent() {
-        for (RawAccessRecord record : importRecord.getAccessRecords()) {
-            classes.ensurePresent(record.target.owner.getFullyQualifiedClassName());
+        measurement = metricsRecorder.start(Phase.CREATE_ACCESSES);
+        processAccessRecords(importRecord);
+        measurement.stop();
+
+        measurement = metricsRecorder.start(Phase.CREATE_JAVA_CLASSES);
+        if (importMode.importsAccessesOnDemand()) {
+            rememberUncompletedClasses();
         }
+        JavaClasses result = createJavaClasses(
+                classes.getDirectlyImported(), classes.getAllWithOuterClassesSortedBeforeInnerClasses(), this);
+        registerResolvedClassesIn(result);
+        measurement.stop();
+
+        recordCounts();
+        return result;
     }
 
-    private void ensureClassesOfInheritanceHierarchiesArePresent() {
-        for (String superClassName : importRecord.getAllSuperClassNames()) {
-            resolveInheritance(superClassName, superClassStrategy);
-        }
+    private void recordCounts() {
+        int numberOfAdditionalClasses = classes.getNumberOfAdditionallyResolvedClasses();
+        int numberOfStubClasses = classes.getNumberOfStubClasses();
+        metricsRecorder.recordClasses(classes.getDirectlyImported().size(),
+                numberOfAdditionalClasses - numberOfStubClasses, numberOfStubClasses);
+        metricsRecorder.recordNumberOfAccesses(processedFieldAccessRecords.size()
+                + processedMethodCallRecords.size()
+                + processedConstructorCallRecords.size());
+    }
+
+    private void ensureCallTargetsArePresent(ClassFileImportRecord record) {
+        classes.ensureAllPresent(record.getAccessTargetOwnerNames());
+    }
 
-        for (String superInterfaceName : importRecord.getAllSuperInterfaceNames()) {
-            resolveInheritance(superInterfaceName, interfaceStrategy);
+    // NOTE: If access targets are not resolved, enclosing classes would otherwise only be resolved lazily while completing
+    //       the classes, i.e. after the hierarchies have been resolved and the remaining access targets have become stubs
+    private void ensureEnclosingClassesArePresent() {
+        Collection<String> currentLevel = classes.getDirectlyImported().keySet();
+        while (!currentLevel.isEmpty()) {
+            Set<String> missingEnclosingClassNames = new HashSet<>();
+            for (String typeName : currentLevel) {
+                Optional<String> enclosingClassName = importRecord.getEnclosingClassFor(typeName);
+                if (enclosingClassName.isPresent() && !classes.isPresent(enclosingClassName.get())) {
+                    missingEnclosingClassNames.add(enclosingClassName.get());
+                }
+            }
+            classes.ensureAllPresent(missingEnclosingClassNames);
+            currentLevel = missingEnclosingClassNames;
         }
     }
 
-    private void resolveInheritance(String currentTypeName, Function<JavaClass, Set<String>> inheritanceStrategy) {
-        for (String parent : inheritanceStrategy.apply(classes.getOrResolve(currentTypeName))) {
-            resolveInheritance(parent, inheritanceStrategy);
+    // NOTE: This runs after all hierarchies have been resolved, so a type only becomes a stub, if it is not part of any hierarchy
+    private void ensureCallTargetsArePresentAsStubs() {
+        classes.ensureAllPresentAsStubs(importRecord.getAccessTargetOwnerNames());
+    }
+
+    private void ensureClassesOfInheritanceHierarchiesArePresent() {
+        resolveInheritanceHierarchies(ImmutableSet.<String>builder()
+                .addAll(importRecord.getAllSuperClassNames())
+                .addAll(importRecord.getAllSuperInterfaceNames())
+                .build());
+    }
+
+    // NOTE: The hierarchies are resolved level by level, so all missing types of one level can be resolved as a batch
+    //       and the depth of a hierarchy has no influence on the depth of the stack
+    private Set<String> resolveInheritanceHierarchies(Set<String> typeNames) {
+        Set<String> visited = new HashSet<>();
+        Set<String> currentLevel = typeNames;
+        while (!currentLevel.isEmpty()) {
+            visited.addAll(currentLevel);
+            classes.ensureAllPresent(currentLevel);
+            Set<String> nextLevel = new HashSet<>();
+            for (String typeName : currentLevel) {
+                nextLevel.addAll(importRecord.getSuperClassFor(typeName).asSet());
+                nextLevel.addAll(importRecord.getInterfaceNamesFor(typeName));
+            }
+            nextLevel.removeAll(visited);
+            currentLevel = nextLevel;
         }
+        return visited;
     }
 
     private void completeClasses() {
-        for (JavaClass javaClass : classes.getAllWithOuterClassesSortedBeforeInnerClasses()) {
+        complete(classes.getAllWithOuterClassesSortedBeforeInnerClasses());
+    }
+
+    // NOTE: Completing the class hierarchy registers subclasses with their parents, and type parameters might refer to
+    //       type parameters of enclosing classes, thus these declarations are completed sequentially, outer classes first.
+    //       Members and annotations only depend on the class itself, thus these are completed in parallel, if configured.
+    private void complete(Collection<JavaClass> javaClasses) {
+        for (JavaClass javaClass : javaClasses) {
             completeClassHierarchy(javaClass, this);
             completeEnclosingClass(javaClass, this);
             completeTypeParameters(javaClass, this);
-            completeMembers(javaClass, this);
-            completeAnnotations(javaClass, this);
         }
+        processInPartitions(ImmutableList.copyOf(javaClasses), new PartitionProcessor<JavaClass, Void>() {
+            @Override
+            public Void process(List<JavaClass> partition) {
+                for (JavaClass javaClass : partition) {
+                    completeMembers(javaClass, ClassGraphCreator.this);
+                    completeAnnotations(javaClass, ClassGraphCreator.this);
+                }
+                return null;
+            }
+        });
+    }
+
+    private void processAccessRecords(ClassFileImportRecord record) {
+        process(record.getRawFieldAccessRecords(), AccessRecord.Factory.forFieldAccessRecord(), processedFieldAccessRecords);
+        process(record.getRawMethodCallRecords(), AccessRecord.Factory.forMethodCallRecord(), processedMethodCallRecords);
+        process(record.getRawConstructorCallRecords(), AccessRecord.Factory.forConstructorCallRecord(), processedConstructorCallRecords);
     }
 
-    private void completeAccesses() {
-        for (RawAccessRecord.ForField fieldAccessRecord : importRecord.getRawFieldAccessRecords()) {
-            tryProcess(fieldAccessRecord, AccessRecord.Factory.forFieldAccessRecord(), processedFieldAccessRecords);
+    // NOTE: Every partition collects its processed records on its own, the results are then merged within the calling thread
+    private <T extends AccessRecord<?>, B extends RawAccessRecord> void process(
+            List<B> rawRecords,
+            final AccessRecord.Factory<B, T> factory,
+            Multimap<JavaCodeUnit, T> processedAccessRecords) {
+
+        List<SetMultimap<JavaCodeUnit, T>> partialResults = processInPartitions(rawRecords,
+                new PartitionProcessor<B, SetMultimap<JavaCodeUnit, T>>() {
+                    @Override
+                    public SetMultimap<JavaCodeUnit, T> process(List<B> partition) {
+                        SetMultimap<JavaCodeUnit, T> result = HashMultimap.create();
+                        for (B rawRecord : partition) {
+                            T processed = factory.create(rawRecord, classes);
+                            result.put(processed.getCaller(), processed);
+                        }
+                        return result;
+                    }
+                });
+        for (SetMultimap<JavaCodeUnit, T> partialResult : partialResults) {
+            processedAccessRecords.putAll(partialResult);
         }
-        for (RawAccessRecord methodCallRecord : importRecord.getRawMethodCallRecords()) {
-            tryProcess(methodCallRecord, AccessRecord.Factory.forMethodCallRecord(), processedMethodCallRecords);
+    }
+
+    /**
+     * @return The results of all partitions in the order of the given elements
+     */
+    private <T, R> List<R> processInPartitions(List<T> elements, final PartitionProcessor<T, R> processor) {
+        List<List<T>> partitions = Lists.partition(elements, PARTITION_SIZE);
+        List<R> result = new ArrayList<>();
+        if (completionParallelism <= 1 || partitions.size() <= 1) {
+            for (List<T> partition : partitions) {
+                result.add(processor.process(partition));
+            }
+            return result;
         }
-        for (RawAccessRecord constructorCallRecord : importRecord.getRawConstructorCallRecords()) {
-            tryProcess(constructorCallRecord, AccessRecord.Factory.forConstructorCallRecord(), processedConstructorCallRecords);
+
+        ForkJoinPool pool = new ForkJoinPool(completionParallelism);
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            for (final List<T> partition : partitions) {
+                futures.add(pool.submit(new Callable<R>() {
+                    @Override
+                    public R call() {
+                        return processor.process(partition);
+                    }
+                }));
+            }
+            for (Future<R> future : futures) {
+                result.add(Futures.getUnchecked(future));
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
         }
     }
 
     private void ensureMetaAnnotationsArePresent() {
-        for (JavaClass javaClass : classes.getAllWithOuterClassesSortedBeforeInnerClasses()) {
-            resolveAnnotationHierarchy(javaClass);
-        }
+        resolveAnnotationHierarchies(classes.getAllWithOuterClassesSortedBeforeInnerClasses());
     }
 
-    private void resolveAnnotationHierarchy(JavaClass javaClass) {
-        for (String annotationTypeName : getAnnotationTypeNamesToResolveFor(javaClass)) {
-            boolean hadBeenPreviouslyResolved = classes.isPresent(annotationTypeName);
-            JavaClass annotationType = classes.getOrResolve(annotationTypeName);
-
-            if (!hadBeenPreviouslyResolved) {
-                resolveAnnotationHierarchy(annotationType);
+    // NOTE: Like for the inheritance hierarchies, annotation types are resolved level by level, i.e. only the annotations
+    //       of annotation types resolved within the current level need to be considered for the next level
+    private void resolveAnnotationHierarchies(Collection<JavaClass> javaClasses) {
+        Collection<JavaClass> currentLevel = javaClasses;
+        while (!currentLevel.isEmpty()) {
+            Set<String> missingAnnotationTypeNames = new HashSet<>();
+            for (JavaClass javaClass : currentLevel) {
+                for (String annotationTypeName : getAnnotationTypeNamesToResolveFor(javaClass)) {
+                    if (!classes.isPresent(annotationTypeName)) {
+                        missingAnnotationTypeNames.add(annotationTypeName);
+                    }
+                }
             }
+            currentLevel = classes.ensureAllPresent(missingAnnotationTypeNames);
         }
     }
 
@@ -173,13 +321,91 @@ class ClassGraphCreator implements ImportContext {
                 .build();
     }
 
-    private <T extends AccessRecord<?>, B extends RawAccessRecord> void tryProcess(
-            B rawRecord,
-            AccessRecord.Factory<B, T> factory,
-            Multimap<JavaCodeUnit, T> processedAccessRecords) {
+    @Override
+    public boolean areCodeUnitBodiesImported() {
+        return importMode.importsCodeUnitBodies();
+    }
+
+    @Override
+    public boolean areAccessesImportedOnDemand() {
+        return importMode.importsAccessesOnDemand();
+    }
+
+    // NOTE: Only directly imported classes have accesses (compare complete()), all other classes are just marked as complete.
+    //       Classes that are first encountered as targets of the imported accesses are resolved and completed on the fly.
+    @Override
+    public synchronized void importAccessesOnDemand(JavaClass owner) {
+        if (classesWithAccessesImportedOnDemand.contains(owner.getName())) {
+            return;
+        }
+        if (classes.getDirectlyImported().get(owner.getName()) == owner && owner.getSource().isPresent()) {
+            ClassFileImportRecord accessRecord = accessRecordImporter.importAccessRecordsFrom(owner);
+            ensureCallTargetsArePresent(accessRecord);
+            completeResolvedClasses(accessRecord.getAccessTargetOwnerNames());
+            processAccessRecords(accessRecord);
+            if (importedClasses != null) {
+                registerResolvedClassesIn(importedClasses);
+            }
+        }
+        classesWithAccessesImportedOnDemand.add(owner.getName());
+        for (JavaCodeUnit codeUnit : owner.getCodeUnits()) {
+            completeAccesses(codeUnit, this);
+            processedFieldAccessRecords.removeAll(codeUnit);
+            processedMethodCallRecords.removeAll(codeUnit);
+            processedConstructorCallRecords.removeAll(codeUnit);
+        }
+    }
+
+    // NOTE: Classes that are resolved while completing the imported classes (e.g. types of members) are not completed themselves
+    private void rememberUncompletedClasses() {
+        for (JavaClass javaClass : classes.getAdditionallyResolvedClassesFrom(numberOfProcessedResolvedClasses)) {
+            uncompletedClassNames.add(javaClass.getName());
+            numberOfProcessedResolvedClasses++;
+        }
+    }
+
+    // NOTE: Like for ImportMode.FULL, the targets of accesses are completed together with their hierarchies, no matter if
+    //       they have just been resolved or have been resolved before without being completed (compare rememberUncompletedClasses())
+    private void completeResolvedClasses(Set<String> accessTargetOwnerNames) {
+        SortedMap<String, JavaClass> classesToComplete = new TreeMap<>();
+        addUncompletedClassesOfHierarchies(accessTargetOwnerNames, classesToComplete);
+        while (numberOfProcessedResolvedClasses < classes.getNumberOfAdditionallyResolvedClasses()) {
+            List<JavaClass> newlyResolvedClasses = classes.getAdditionallyResolvedClassesFrom(numberOfProcessedResolvedClasses);
+            numberOfProcessedResolvedClasses += newlyResolvedClasses.size();
+            Set<String> newlyResolvedClassNames = new HashSet<>();
+            for (JavaClass javaClass : newlyResolvedClasses) {
+                newlyResolvedClassNames.add(javaClass.getName());
+                classesToComplete.put(javaClass.getName(), javaClass);
+            }
+            addUncompletedClassesOfHierarchies(newlyResolvedClassNames, classesToComplete);
+            resolveAnnotationHierarchies(newlyResolvedClasses);
+        }
+        complete(classesToComplete.values());
+
+        List<JavaClass> classesResolvedDuringCompletion = classes.getAdditionallyResolvedClassesFrom(numberOfProcessedResolvedClasses);
+        rememberUncompletedClasses();
+        for (JavaClass javaClass : Iterables.concat(classesToComplete.values(), classesResolvedDuringCompletion)) {
+            completeDependencies(javaClass, this);
+            resolvedClassesToRegister.add(javaClass);
+        }
+    }
+
+    private void addUncompletedClassesOfHierarchies(Set<String> typeNames, Map<String, JavaClass> classesToComplete) {
+        for (String typeName : resolveInheritanceHierarchies(typeNames)) {
+            if (uncompletedClassNames.remove(typeName)) {
+                classesToComplete.put(typeName, classes.getOrResolve(typeName));
+            }
+        }
+    }
 
-        T processed = factory.create(rawRecord, classes);
-        processedAccessRecords.put(processed.getCaller(), processed);
+    // NOTE: Classes resolved while the accesses of a class are imported on demand are registered like all classes of the import,
+    //       i.e. with their package and for reverse dependencies, so the result does not differ from ImportMode.FULL
+    private synchronized void registerResolvedClassesIn(JavaClasses importedClasses) {
+        this.importedClasses = importedClasses;
+        if (!resolvedClassesToRegister.isEmpty()) {
+            registerResolvedClasses(importedClasses, ImmutableList.copyOf(resolvedClassesToRegister));
+            resolvedClassesToRegister.clear();
+        }
     }
 
     @Override
@@ -315,4 +541,16 @@ class ClassGraphCreator implements ImportContext {
         }
         return Optional.absent();
     }
+
+    interface AccessRecordImporter {
+        /**
+         * @throws com.tngtech.archunit.base.ArchUnitException.AccessesNotImportableException if the class file of {@code owner}
+         *         can't be read anymore or has changed since the import
+         */
+        ClassFileImportRecord importAccessRecordsFrom(JavaClass owner);
+    }
+
+    private interface PartitionProcessor<T, R> {
+        R process(List<T> partition);
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import com.google.common.base.Joiner;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.tngtech.archunit.Internal;
+import com.tngtech.archunit.base.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.tngtech.archunit.core.importer.UrlSource.From.BOOT_CLASS_PATH_PROPERTY_NAME;
+import static com.tngtech.archunit.core.importer.UrlSource.From.CLASS_PATH_PROPERTY_NAME;
+
+/**
+ * Maps the names of all class files on the class path (e.g. {@code java/lang/Object.class}) to the
+ * {@link URI} of the first class path entry containing them, i.e. the entry the system class loader would pick.
+ * The index is built once by listing all JARs and directories of the class path
+ * (including the entries referenced from manifests), and is only built again if the class path changes.
+ * Besides that, the index remembers resources that could not be found at all, to avoid repeated futile lookups.
+ */
+@Internal
+public final class ClassPathIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassPathIndex.class);
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private static ClassPathIndex instance;
+
+    private final String classPath;
+    private final Map<String, String> classPathEntryByResourceName = new HashMap<>();
+    private final LoadingCache<ClassLoader, Set<String>> missingResourceNamesByClassLoader = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(new CacheLoader<ClassLoader, Set<String>>() {
+                @Override
+                public Set<String> load(ClassLoader classLoader) {
+                    return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                }
+            });
+
+    private ClassPathIndex(String classPath, UrlSource classPathEntries) {
+        this.classPath = classPath;
+        for (URL entry : classPathEntries) {
+            index(entry);
+        }
+        LOG.debug("Indexed {} class files on the class path", classPathEntryByResourceName.size());
+    }
+
+    public static synchronized ClassPathIndex get() {
+        String classPath = System.getProperty(BOOT_CLASS_PATH_PROPERTY_NAME, "") + File.pathSeparator + System.getProperty(CLASS_PATH_PROPERTY_NAME, "");
+        if (instance == null || !instance.classPath.equals(classPath)) {
+            instance = new ClassPathIndex(classPath, UrlSource.From.classPathSystemProperties());
+        }
+        return instance;
+    }
+
+    /**
+     * @param resourceName The name of a class file resource, e.g. {@code java/lang/Object.class}
+     * @return The {@link URI} of the class file, if it is contained within the class path
+     */
+    public Optional<URI> tryGetUriOf(String resourceName) {
+        String classPathEntry = classPathEntryByResourceName.get(resourceName);
+        if (classPathEntry == null) {
+            return Optional.absent();
+        }
+        try {
+            return Optional.of(URI.create(classPathEntry + resourceName));
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Couldn't create URI for class file " + resourceName, e);
+            return Optional.absent();
+        }
+    }
+
+    /**
+     * @return true, if the resource has been registered as missing for the given {@link ClassLoader} before
+     * @see #registerMissing(String, ClassLoader)
+     */
+    public boolean isKnownToBeMissing(String resourceName, ClassLoader classLoader) {
+        return missingResourceNamesByClassLoader.getUnchecked(classLoader).contains(resourceName);
+    }
+
+    /**
+     * Remembers that the resource could neither be found within this index, nor by the given {@link ClassLoader},
+     * so the expensive lookup by the {@link ClassLoader} does not need to be repeated.
+     */
+    public void registerMissing(String resourceName, ClassLoader classLoader) {
+        missingResourceNamesByClassLoader.getUnchecked(classLoader).add(resourceName);
+    }
+
+    private void index(URL classPathEntry) {
+        try {
+            if (classPathEntry.getProtocol().equals("jar")) {
+                indexJar(classPathEntry);
+            } else if (classPathEntry.getProtocol().equals("file") && classPathEntry.getPath().endsWith("/")) {
+                indexDirectory(classPathEntry);
+            }
+        } catch (Exception e) {
+            LOG.debug("Couldn't index class path entry " + classPathEntry, e);
+        }
+    }
+
+    private void indexJar(URL classPathEntry) throws Exception {
+        final String entryUri = classPathEntry.toURI().toString();
+        File file = Paths.get(((JarURLConnection) classPathEntry.openConnection()).getJarFileURL().toURI()).toFile();
+        if (!file.isFile()) {
+            return;
+        }
+        new JarFileHandles().withJarFile(file, new JarFileHandles.JarFileAction<Void>() {
+            @Override
+            public Void process(JarFile jarFile) {
+                for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.getName().endsWith(CLASS_FILE_SUFFIX)) {
+                        register(entry.getName(), entryUri);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    private void indexDirectory(URL classPathEntry) throws Exception {
+        final String entryUri = classPathEntry.toURI().toString();
+        final Path root = Paths.get(classPathEntry.toURI());
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (file.getFileName().toString().endsWith(CLASS_FILE_SUFFIX)) {
+                    register(Joiner.on('/').join(root.relativize(file)), entryUri);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LOG.debug("Couldn't index class path file " + file, e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(String resourceName, String classPathEntryUri) {
+        if (!classPathEntryByResourceName.containsKey(resourceName)) {
+            classPathEntryByResourceName.put(resourceName, classPathEntryUri);
+        }
+    }
+}
@@ -385,7 +385,7 @@ public final class DomainBuilders {
 
         public Optional<Source> getSource() {
             return sourceDescriptor.isPresent()
-                    ? Optional.of(createSource(sourceDescriptor.get().getUri(), sourceFileName, sourceDescriptor.get().isMd5InClassSourcesEnabled()))
+                    ? Optional.of(createSource(sourceDescriptor.get().getUri(), sourceFileName, sourceDescriptor.get().getMd5sum()))
                     : Optional.<Source>absent();
         }
 
@@ -0,0 +1,482 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Iterators;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.Optional;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Caches the relevant parse events of class files (compare {@link ClassFileRecording}) on disk, within one cache file
+ * per imported {@link Location}. Cached recordings are validated without reading the class files themselves:
+ * <ul>
+ *     <li>the recordings of a JAR file are valid as long as the checksum of the JAR file is unchanged
+ *     (the checksum is only computed again, if size or modification time of the JAR file have changed)</li>
+ *     <li>the recording of a class file within a directory is valid as long as size and modification time
+ *     of this class file are unchanged</li>
+ * </ul>
+ * A cache file is only read once the first class file of its location is imported. When the cache is persisted,
+ * recordings that have not been used by the import are dropped, and cache files that have not been used
+ * for {@value #DAYS_TO_KEEP_UNUSED_CACHE_FILES} days are deleted.
+ * The cache is only active, if {@link ArchConfiguration#getImportCacheDirectory()} is configured.
+ */
+class ImportCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ImportCache.class);
+
+    private static final String CACHE_FILE_SUFFIX = ".classes.cache";
+    private static final int MAGIC = 0x41524355;
+    private static final int FORMAT_VERSION = 3;
+    private static final int DAYS_TO_KEEP_UNUSED_CACHE_FILES = 30;
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final Optional<Path> cacheDirectory;
+    private final ImportMetricsRecorder metricsRecorder;
+    private final Map<Location, LocationCache> locationCaches = new HashMap<>();
+
+    private ImportCache(Optional<Path> cacheDirectory, ImportMetricsRecorder metricsRecorder) {
+        this.cacheDirectory = cacheDirectory;
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * @param metricsRecorder Records all bytes read by the cache, i.e. cache files, JAR files to validate and class files to record
+     */
+    static ImportCache create(ImportMetricsRecorder metricsRecorder) {
+        Optional<String> cacheDirectory = ArchConfiguration.get().getImportCacheDirectory();
+        return cacheDirectory.isPresent()
+                ? new ImportCache(Optional.of(Paths.get(cacheDirectory.get())), metricsRecorder)
+                : new ImportCache(Optional.<Path>absent(), metricsRecorder);
+    }
+
+    /**
+     * @return A source that reads the class files of the given location from the cache where possible, or simply the
+     *         given source, if the cache is not active or can't validate the class files of this kind of location
+     */
+    ClassFileSource decorate(Location location, final ClassFileSource source) {
+        if (!cacheDirectory.isPresent()) {
+            return source;
+        }
+        Optional<LocationCache> locationCache = getLocationCache(location);
+        if (!locationCache.isPresent()) {
+            return source;
+        }
+        final LocationCache cache = locationCache.get();
+        return new ClassFileSource() {
+            @Override
+            public Iterator<ClassFileLocation> iterator() {
+                return Iterators.transform(source.iterator(), new Function<ClassFileLocation, ClassFileLocation>() {
+                    @Override
+                    public ClassFileLocation apply(ClassFileLocation input) {
+                        return new CachedClassFileLocation(cache, input);
+                    }
+                });
+            }
+        };
+    }
+
+    private Optional<LocationCache> getLocationCache(Location location) {
+        LocationCache result = locationCaches.get(location);
+        if (result != null) {
+            return Optional.of(result);
+        }
+        Path cacheFile = cacheDirectory.get().resolve(HASH.hashString(location.asURI().toString(), UTF_8) + CACHE_FILE_SUFFIX);
+        URI uri = location.asURI();
+        if (location.isJar()) {
+            Optional<File> jarFile = fileOfJar(uri);
+            result = jarFile.isPresent() ? new JarFileCache(cacheFile, metricsRecorder, jarFile.get()) : null;
+        } else if ("file".equals(uri.getScheme())) {
+            result = new DirectoryCache(cacheFile, metricsRecorder);
+        }
+        if (result != null) {
+            locationCaches.put(location, result);
+        }
+        return Optional.fromNullable(result);
+    }
+
+    private static Optional<File> fileOfJar(URI jarUri) {
+        String fileUri = jarUri.getRawSchemeSpecificPart().split("!/", 2)[0];
+        try {
+            File file = new File(URI.create(fileUri));
+            return file.isFile() ? Optional.of(file) : Optional.<File>absent();
+        } catch (IllegalArgumentException e) {
+            return Optional.absent();
+        }
+    }
+
+    void persist() {
+        if (!cacheDirectory.isPresent()) {
+            return;
+        }
+        for (LocationCache locationCache : locationCaches.values()) {
+            locationCache.persist();
+        }
+        deleteUnusedCacheFiles(cacheDirectory.get());
+    }
+
+    private void deleteUnusedCacheFiles(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long oldestTimeToKeep = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(DAYS_TO_KEEP_UNUSED_CACHE_FILES);
+        try (DirectoryStream<Path> cacheFiles = Files.newDirectoryStream(directory, "*" + CACHE_FILE_SUFFIX)) {
+            for (Path cacheFile : cacheFiles) {
+                if (Files.getLastModifiedTime(cacheFile).toMillis() < oldestTimeToKeep) {
+                    Files.deleteIfExists(cacheFile);
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug(String.format("Couldn't delete unused import cache files from %s", directory), e);
+        }
+    }
+
+    // NOTE: Several processes might share the same cache directory, thus readers must never see a partially written file
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(source);
+            throw e;
+        }
+    }
+
+    /**
+     * The cached recordings of the class files of one {@link Location}. Entries are keyed by the URI of the class file
+     * together with the parsing options, since different parsing options (e.g. skipping code) produce different
+     * recordings of the same class file.
+     */
+    private abstract static class LocationCache {
+        private final Path cacheFile;
+        final ImportMetricsRecorder metricsRecorder;
+        private final Supplier<Map<String, Entry>> storedEntries = Suppliers.memoize(new Supplier<Map<String, Entry>>() {
+            @Override
+            public Map<String, Entry> get() {
+                return load();
+            }
+        });
+        private final Map<String, Entry> usedEntries = new ConcurrentHashMap<>();
+        private final AtomicBoolean modified = new AtomicBoolean(false);
+
+        LocationCache(Path cacheFile, ImportMetricsRecorder metricsRecorder) {
+            this.cacheFile = cacheFile;
+            this.metricsRecorder = metricsRecorder;
+        }
+
+        byte[] getRecording(ClassFileLocation location, Optional<byte[]> content, int parsingOptions) throws IOException {
+            String key = location.getUri() + "/" + parsingOptions;
+            Fingerprint fingerprint = fingerprintOf(location);
+            Entry entry = storedEntries.get().get(key);
+            if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+                entry = new Entry(fingerprint, record(location, content, parsingOptions));
+                modified.set(true);
+            }
+            usedEntries.put(key, entry);
+            return entry.recording;
+        }
+
+        private byte[] record(ClassFileLocation location, Optional<byte[]> content, int parsingOptions) throws IOException {
+            byte[] classFile;
+            if (content.isPresent()) {
+                classFile = content.get();
+            } else {
+                try (InputStream in = location.openStream()) {
+                    classFile = ByteStreams.toByteArray(in);
+                }
+                metricsRecorder.recordBytesRead(classFile.length);
+            }
+            ClassFileRecording.Recorder recorder = new ClassFileRecording.Recorder();
+            new ClassReader(classFile).accept(recorder, parsingOptions);
+            return recorder.toByteArray();
+        }
+
+        /**
+         * @return The fingerprint of the class file at the given location, which must be determined without reading the class file
+         */
+        abstract Fingerprint fingerprintOf(ClassFileLocation location) throws IOException;
+
+        /**
+         * @return {@code true}, if the entries stored within the cache file with the given header are still valid
+         */
+        abstract boolean isValid(Fingerprint storedLocationFingerprint) throws IOException;
+
+        abstract Fingerprint currentLocationFingerprint() throws IOException;
+
+        private Map<String, Entry> load() {
+            if (!Files.exists(cacheFile)) {
+                return Collections.emptyMap();
+            }
+            try (CountingInputStream in = new CountingInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+                try {
+                    return readEntries(new DataInputStream(in));
+                } finally {
+                    metricsRecorder.recordBytesRead(in.getCount());
+                }
+            } catch (IOException e) {
+                LOG.warn(String.format("Ignoring corrupt import cache %s", cacheFile), e);
+                return Collections.emptyMap();
+            }
+        }
+
+        private Map<String, Entry> readEntries(DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOG.debug("Ignoring import cache {} of unknown format", cacheFile);
+                return Collections.emptyMap();
+            }
+            if (!isValid(Fingerprint.readFrom(in))) {
+                return Collections.emptyMap();
+            }
+            Map<String, Entry> result = new HashMap<>();
+            int numberOfEntries = in.readInt();
+            for (int i = 0; i < numberOfEntries; i++) {
+                String key = in.readUTF();
+                Fingerprint fingerprint = Fingerprint.readFrom(in);
+                byte[] recording = new byte[in.readInt()];
+                in.readFully(recording);
+                result.put(key, new Entry(fingerprint, recording));
+            }
+            return result;
+        }
+
+        // NOTE: Entries that have not been used are dropped, unused cache files are kept alive by their modification time
+        void persist() {
+            if (usedEntries.isEmpty()) {
+                return;
+            }
+            try {
+                if (!modified.get() && usedEntries.size() == storedEntries.get().size()) {
+                    Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+                    return;
+                }
+                Files.createDirectories(cacheFile.getParent());
+                Path tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                    write(out);
+                }
+                moveAtomically(tempFile, cacheFile);
+            } catch (IOException e) {
+                LOG.warn(String.format("Couldn't write import cache to %s", cacheFile), e);
+            }
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            currentLocationFingerprint().writeTo(out);
+            out.writeInt(usedEntries.size());
+            for (Map.Entry<String, Entry> entry : usedEntries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().fingerprint.writeTo(out);
+                out.writeInt(entry.getValue().recording.length);
+                out.write(entry.getValue().recording);
+            }
+        }
+    }
+
+    // NOTE: The class files within an archive can't be validated on their own without reading them, thus all recordings
+    //       of the archive are validated at once by the checksum of the archive
+    private static class JarFileCache extends LocationCache {
+        private final File jarFile;
+        private final Supplier<Fingerprint> currentFingerprint = Suppliers.memoize(new Supplier<Fingerprint>() {
+            @Override
+            public Fingerprint get() {
+                try {
+                    String checksum = com.google.common.io.Files.asByteSource(jarFile).hash(HASH).toString();
+                    metricsRecorder.recordBytesRead(jarFile.length());
+                    return new Fingerprint(jarFile.length(), jarFile.lastModified(), checksum);
+                } catch (IOException e) {
+                    throw new IllegalStateException(String.format("Couldn't compute checksum of %s", jarFile), e);
+                }
+            }
+        });
+
+        JarFileCache(Path cacheFile, ImportMetricsRecorder metricsRecorder, File jarFile) {
+            super(cacheFile, metricsRecorder);
+            this.jarFile = jarFile;
+        }
+
+        @Override
+        Fingerprint fingerprintOf(ClassFileLocation location) {
+            return Fingerprint.NONE;
+        }
+
+        @Override
+        boolean isValid(Fingerprint stored) {
+            if (stored.size == jarFile.length() && stored.lastModified == jarFile.lastModified()) {
+                return true;
+            }
+            return stored.checksum.equals(currentFingerprint.get().checksum);
+        }
+
+        @Override
+        Fingerprint currentLocationFingerprint() {
+            return currentFingerprint.get();
+        }
+    }
+
+    private static class DirectoryCache extends LocationCache {
+        DirectoryCache(Path cacheFile, ImportMetricsRecorder metricsRecorder) {
+            super(cacheFile, metricsRecorder);
+        }
+
+        @Override
+        Fingerprint fingerprintOf(ClassFileLocation location) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(Paths.get(location.getUri()), BasicFileAttributes.class);
+            return new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis(), "");
+        }
+
+        @Override
+        boolean isValid(Fingerprint stored) {
+            return true;
+        }
+
+        @Override
+        Fingerprint currentLocationFingerprint() {
+            return Fingerprint.NONE;
+        }
+    }
+
+    private static class Fingerprint {
+        static final Fingerprint NONE = new Fingerprint(-1, -1, "");
+
+        private final long size;
+        private final long lastModified;
+        private final String checksum;
+
+        Fingerprint(long size, long lastModified, String checksum) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeUTF(checksum);
+        }
+
+        static Fingerprint readFrom(DataInputStream in) throws IOException {
+            return new Fingerprint(in.readLong(), in.readLong(), in.readUTF());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, lastModified, checksum);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Fingerprint other = (Fingerprint) obj;
+            return this.size == other.size
+                    && this.lastModified == other.lastModified
+                    && Objects.equals(this.checksum, other.checksum);
+        }
+    }
+
+    private static class Entry {
+        private final Fingerprint fingerprint;
+        private final byte[] recording;
+
+        Entry(Fingerprint fingerprint, byte[] recording) {
+            this.fingerprint = fingerprint;
+            this.recording = recording;
+        }
+    }
+
+    private static class CachedClassFileLocation implements ClassFileLocation {
+        private final LocationCache cache;
+        private final ClassFileLocation delegate;
+
+        CachedClassFileLocation(LocationCache cache, ClassFileLocation delegate) {
+            this.cache = cache;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return delegate.openStream();
+        }
+
+        @Override
+        public URI getUri() {
+            return delegate.getUri();
+        }
+
+        // NOTE: If the recording is valid, the class file is not read at all. Otherwise the cache records the bytes
+        //       it reads itself, like for all other files read by the cache
+        @Override
+        public long accept(ClassVisitor visitor, int parsingOptions) throws IOException {
+            ClassFileRecording.replay(cache.getRecording(delegate, Optional.<byte[]>absent(), parsingOptions), visitor);
+            return 0;
+        }
+
+        @Override
+        public void accept(byte[] classFile, ClassVisitor visitor, int parsingOptions) {
+            try {
+                ClassFileRecording.replay(cache.getRecording(delegate, Optional.of(classFile), parsingOptions), visitor);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{delegate=" + delegate + '}';
+        }
+    }
+}
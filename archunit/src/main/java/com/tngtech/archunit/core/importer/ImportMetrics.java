@@ -0,0 +1,262 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.base.Optional;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measurements of a single import, e.g. {@link ClassFileImporter#importLocations(java.util.Collection)}, which tell
+ * where the time of the import was spent. To receive the metrics of each import, configure an
+ * {@link ImportMetricsListener}. Additionally, a summary of every import is logged on level DEBUG.
+ */
+@PublicAPI(usage = ACCESS)
+public final class ImportMetrics {
+    private final Map<Phase, Long> wallTimeNanos;
+    private final Map<Phase, Long> allocatedBytes;
+    private final int numberOfClassFiles;
+    private final int numberOfImportedClasses;
+    private final int numberOfResolvedClasses;
+    private final int numberOfStubClasses;
+    private final int numberOfAccesses;
+    private final long numberOfBytesRead;
+
+    private ImportMetrics(Builder builder) {
+        wallTimeNanos = ImmutableMap.copyOf(builder.wallTimeNanos);
+        allocatedBytes = ImmutableMap.copyOf(builder.allocatedBytes);
+        numberOfClassFiles = builder.numberOfClassFiles;
+        numberOfImportedClasses = builder.numberOfImportedClasses;
+        numberOfResolvedClasses = builder.numberOfResolvedClasses;
+        numberOfStubClasses = builder.numberOfStubClasses;
+        numberOfAccesses = builder.numberOfAccesses;
+        numberOfBytesRead = builder.numberOfBytesRead;
+    }
+
+    /**
+     * @return The wall clock time spent within the given phase, in nanoseconds
+     */
+    @PublicAPI(usage = ACCESS)
+    public long getWallTimeNanos(Phase phase) {
+        Long result = wallTimeNanos.get(phase);
+        return result != null ? result : 0;
+    }
+
+    /**
+     * @return The wall clock time of the whole import, in nanoseconds
+     *         (the sum of all phases, except for {@link Phase#LOCATE_CLASS_FILES}, which overlaps with {@link Phase#PARSE_CLASS_FILES})
+     */
+    @PublicAPI(usage = ACCESS)
+    public long getTotalWallTimeNanos() {
+        long result = 0;
+        for (Map.Entry<Phase, Long> entry : wallTimeNanos.entrySet()) {
+            if (entry.getKey() != Phase.LOCATE_CLASS_FILES) {
+                result += entry.getValue();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of bytes allocated on the heap by the importing thread within the given phase.
+     *         Absent, if the JVM does not support measuring the allocations of a thread. Note that allocations of other threads,
+     *         e.g. if class files are parsed in parallel (compare {@link com.tngtech.archunit.ArchConfiguration#getImportParallelism()}),
+     *         are not included.
+     */
+    @PublicAPI(usage = ACCESS)
+    public Optional<Long> getAllocatedBytes(Phase phase) {
+        return Optional.fromNullable(allocatedBytes.get(phase));
+    }
+
+    /**
+     * @return The number of class files that were parsed (including class files that could not be imported)
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfClassFiles() {
+        return numberOfClassFiles;
+    }
+
+    /**
+     * @return The number of classes that were imported from the requested locations
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfImportedClasses() {
+        return numberOfImportedClasses;
+    }
+
+    /**
+     * @return The number of additional classes that were resolved by the configured
+     *         {@link com.tngtech.archunit.core.importer.resolvers.ClassResolver ClassResolver}
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfResolvedClasses() {
+        return numberOfResolvedClasses;
+    }
+
+    /**
+     * @return The number of additional classes that could not be resolved and were thus replaced by stubs
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfStubClasses() {
+        return numberOfStubClasses;
+    }
+
+    /**
+     * @return The number of field accesses, method calls and constructor calls that were created
+     */
+    @PublicAPI(usage = ACCESS)
+    public int getNumberOfAccesses() {
+        return numberOfAccesses;
+    }
+
+    /**
+     * @return The number of bytes read from disk, i.e. the content of all class files that were read, as well as all files read by the
+     *         import cache (compare {@link com.tngtech.archunit.ArchConfiguration#setImportCacheDirectory(String)}). Class files replayed
+     *         from the import cache or from a {@link JavaClassesSnapshot} are not read, thus they are not counted.
+     */
+    @PublicAPI(usage = ACCESS)
+    public long getNumberOfBytesRead() {
+        return numberOfBytesRead;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder phases = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            phases.append(phase).append("=").append(NANOSECONDS.toMillis(getWallTimeNanos(phase))).append("ms");
+            Optional<Long> allocated = getAllocatedBytes(phase);
+            if (allocated.isPresent()) {
+                phases.append("/").append(allocated.get() / 1024).append("KB");
+            }
+            phases.append(", ");
+        }
+        return getClass().getSimpleName() + "{"
+                + "total=" + NANOSECONDS.toMillis(getTotalWallTimeNanos()) + "ms, "
+                + phases
+                + "classFiles=" + numberOfClassFiles
+                + ", importedClasses=" + numberOfImportedClasses
+                + ", resolvedClasses=" + numberOfResolvedClasses
+                + ", stubClasses=" + numberOfStubClasses
+                + ", accesses=" + numberOfAccesses
+                + ", bytesRead=" + numberOfBytesRead
+                + "}";
+    }
+
+    /**
+     * The phases of an import, in the order they are executed.
+     */
+    @PublicAPI(usage = ACCESS)
+    public enum Phase {
+        /**
+         * Locating the class files at the requested locations, e.g. walking directories or reading the entries of JAR files.
+         * Since class files are located lazily while they are parsed, this overlaps with {@link #PARSE_CLASS_FILES}.
+         */
+        @PublicAPI(usage = ACCESS)
+        LOCATE_CLASS_FILES,
+        /**
+         * Reading and parsing the located class files
+         */
+        @PublicAPI(usage = ACCESS)
+        PARSE_CLASS_FILES,
+        /**
+         * Resolving classes missing from the import, e.g. targets of accesses, super classes or annotation types
+         */
+        @PublicAPI(usage = ACCESS)
+        RESOLVE_MISSING_CLASSES,
+        /**
+         * Completing the class hierarchies, members, type parameters and annotations of all classes
+         */
+        @PublicAPI(usage = ACCESS)
+        COMPLETE_CLASSES,
+        /**
+         * Creating field accesses, method calls and constructor calls
+         */
+        @PublicAPI(usage = ACCESS)
+        CREATE_ACCESSES,
+        /**
+         * Creating the {@link com.tngtech.archunit.core.domain.JavaClasses JavaClasses} from all imported and resolved classes.
+         * Note that the dependencies between classes, as well as the reverse dependencies (e.g. {@code javaClass.getAccessesToSelf()}),
+         * are only created on first access after the import, thus they are not measured by any phase.
+         */
+        @PublicAPI(usage = ACCESS)
+        CREATE_JAVA_CLASSES
+    }
+
+    static final class Builder {
+        private final Map<Phase, Long> wallTimeNanos = new EnumMap<>(Phase.class);
+        private final Map<Phase, Long> allocatedBytes = new EnumMap<>(Phase.class);
+        private int numberOfClassFiles;
+        private int numberOfImportedClasses;
+        private int numberOfResolvedClasses;
+        private int numberOfStubClasses;
+        private int numberOfAccesses;
+        private long numberOfBytesRead;
+
+        Builder addPhase(Phase phase, long wallTimeNanos, Optional<Long> allocatedBytes) {
+            this.wallTimeNanos.put(phase, getWallTimeNanos(phase) + wallTimeNanos);
+            if (allocatedBytes.isPresent()) {
+                Long allocatedSoFar = this.allocatedBytes.get(phase);
+                this.allocatedBytes.put(phase, (allocatedSoFar != null ? allocatedSoFar : 0) + allocatedBytes.get());
+            }
+            return this;
+        }
+
+        private long getWallTimeNanos(Phase phase) {
+            Long result = wallTimeNanos.get(phase);
+            return result != null ? result : 0;
+        }
+
+        Builder withNumberOfClassFiles(int numberOfClassFiles) {
+            this.numberOfClassFiles = numberOfClassFiles;
+            return this;
+        }
+
+        Builder withNumberOfImportedClasses(int numberOfImportedClasses) {
+            this.numberOfImportedClasses = numberOfImportedClasses;
+            return this;
+        }
+
+        Builder withNumberOfResolvedClasses(int numberOfResolvedClasses) {
+            this.numberOfResolvedClasses = numberOfResolvedClasses;
+            return this;
+        }
+
+        Builder withNumberOfStubClasses(int numberOfStubClasses) {
+            this.numberOfStubClasses = numberOfStubClasses;
+            return this;
+        }
+
+        Builder withNumberOfAccesses(int numberOfAccesses) {
+            this.numberOfAccesses = numberOfAccesses;
+            return this;
+        }
+
+        Builder withNumberOfBytesRead(long numberOfBytesRead) {
+            this.numberOfBytesRead = numberOfBytesRead;
+            return this;
+        }
+
+        ImportMetrics build() {
+            return new ImportMetrics(this);
+        }
+    }
+}
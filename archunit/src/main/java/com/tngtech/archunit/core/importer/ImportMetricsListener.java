@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.PublicAPI;
+
+import static com.tngtech.archunit.PublicAPI.Usage.INHERITANCE;
+
+/**
+ * Receives the {@link ImportMetrics} of every import. To register a listener, configure
+ * <br><br><code>
+ * {@value com.tngtech.archunit.ArchConfiguration#IMPORT_METRICS_LISTENER}=some.pkg.MyImportMetricsListener
+ * </code><br><br>
+ * within <code>{@value com.tngtech.archunit.ArchConfiguration#ARCHUNIT_PROPERTIES_RESOURCE_NAME}</code>,
+ * or call {@link ArchConfiguration#setImportMetricsListener(Class)}.
+ * The listener must provide a public default constructor. It is instantiated once per JVM and might be notified
+ * by several threads concurrently, if several imports run in parallel.
+ */
+@PublicAPI(usage = INHERITANCE)
+public interface ImportMetricsListener {
+    /**
+     * Called whenever an import has finished, right before the imported classes are returned
+     *
+     * @param metrics The metrics of the finished import
+     */
+    void onImportFinished(ImportMetrics metrics);
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.AbstractIterator;
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.ArchUnitException.ImportMetricsListenerConfigurationException;
+import com.tngtech.archunit.base.Optional;
+import com.tngtech.archunit.core.MayResolveTypesViaReflection;
+import com.tngtech.archunit.core.importer.ImportMetrics.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the {@link ImportMetrics} of a single import. All phases are measured within the importing thread,
+ * bytes read are recorded by whatever thread reads them.
+ */
+class ImportMetricsRecorder {
+    private static final Logger LOG = LoggerFactory.getLogger(ImportMetricsRecorder.class);
+
+    private static final boolean ALLOCATION_MEASUREMENT_SUPPORTED = isAllocationMeasurementSupported();
+    private static final ConcurrentMap<String, ImportMetricsListener> listeners = new ConcurrentHashMap<>();
+
+    private final ImportMetrics.Builder metrics = new ImportMetrics.Builder();
+    private int numberOfClassFiles;
+    private final AtomicLong numberOfBytesRead = new AtomicLong();
+
+    Measurement start(Phase phase) {
+        return new Measurement(phase);
+    }
+
+    /**
+     * @return The given source, where all time spent to iterate the source is recorded as {@link Phase#LOCATE_CLASS_FILES}
+     *         and all iterated class files are counted
+     */
+    ClassFileSource measureLocating(final ClassFileSource source) {
+        return new ClassFileSource() {
+            @Override
+            public Iterator<ClassFileLocation> iterator() {
+                Measurement measurement = start(Phase.LOCATE_CLASS_FILES);
+                final Iterator<ClassFileLocation> delegate = source.iterator();
+                measurement.stop();
+                return new AbstractIterator<ClassFileLocation>() {
+                    @Override
+                    protected ClassFileLocation computeNext() {
+                        Measurement measurement = start(Phase.LOCATE_CLASS_FILES);
+                        try {
+                            if (!delegate.hasNext()) {
+                                return endOfData();
+                            }
+                            numberOfClassFiles++;
+                            return delegate.next();
+                        } finally {
+                            measurement.stop();
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    void recordClasses(int numberOfImportedClasses, int numberOfResolvedClasses, int numberOfStubClasses) {
+        metrics.withNumberOfImportedClasses(numberOfImportedClasses)
+                .withNumberOfResolvedClasses(numberOfResolvedClasses)
+                .withNumberOfStubClasses(numberOfStubClasses);
+    }
+
+    void recordNumberOfAccesses(int numberOfAccesses) {
+        metrics.withNumberOfAccesses(numberOfAccesses);
+    }
+
+    void recordBytesRead(long numberOfBytes) {
+        numberOfBytesRead.addAndGet(numberOfBytes);
+    }
+
+    ImportMetrics finish() {
+        ImportMetrics result = metrics
+                .withNumberOfClassFiles(numberOfClassFiles)
+                .withNumberOfBytesRead(numberOfBytesRead.get())
+                .build();
+        LOG.debug("Import finished: {}", result);
+        Optional<ImportMetricsListener> listener = getConfiguredListener();
+        if (listener.isPresent()) {
+            listener.get().onImportFinished(result);
+        }
+        return result;
+    }
+
+    private static Optional<ImportMetricsListener> getConfiguredListener() {
+        Optional<String> listenerClassName = ArchConfiguration.get().getImportMetricsListener();
+        if (!listenerClassName.isPresent()) {
+            return Optional.absent();
+        }
+        ImportMetricsListener listener = listeners.get(listenerClassName.get());
+        if (listener == null) {
+            listeners.putIfAbsent(listenerClassName.get(), createListener(listenerClassName.get()));
+            listener = listeners.get(listenerClassName.get());
+        }
+        return Optional.of(listener);
+    }
+
+    @MayResolveTypesViaReflection(reason = "Loading an ImportMetricsListener implementation is independent of the actual import")
+    private static ImportMetricsListener createListener(String listenerClassName) {
+        try {
+            return (ImportMetricsListener) Class.forName(listenerClassName).getConstructor().newInstance();
+        } catch (Exception | LinkageError e) {
+            throw new ImportMetricsListenerConfigurationException(listenerClassName, e);
+        }
+    }
+
+    // NOTE: Measuring the allocations of a thread is an optional feature of HotSpot based JVMs
+    private static boolean isAllocationMeasurementSupported() {
+        try {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            return threadMXBean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()
+                    && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled();
+        } catch (LinkageError | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static Optional<Long> currentThreadAllocatedBytes() {
+        if (!ALLOCATION_MEASUREMENT_SUPPORTED) {
+            return Optional.absent();
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Optional.of(threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()));
+    }
+
+    class Measurement {
+        private final Phase phase;
+        private final long startNanos;
+        private final Optional<Long> startAllocatedBytes;
+
+        private Measurement(Phase phase) {
+            this.phase = phase;
+            this.startAllocatedBytes = currentThreadAllocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        void stop() {
+            long wallTimeNanos = System.nanoTime() - startNanos;
+            Optional<Long> endAllocatedBytes = currentThreadAllocatedBytes();
+            Optional<Long> allocatedBytes = startAllocatedBytes.isPresent() && endAllocatedBytes.isPresent()
+                    ? Optional.of(endAllocatedBytes.get() - startAllocatedBytes.get())
+                    : Optional.<Long>absent();
+            metrics.addPhase(phase, wallTimeNanos, allocatedBytes);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.domain.JavaCodeUnit;
+
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+import static org.objectweb.asm.ClassReader.SKIP_CODE;
+import static org.objectweb.asm.ClassReader.SKIP_FRAMES;
+
+/**
+ * Determines how much of each class file the {@link ClassFileImporter} imports
+ * (compare {@link ClassFileImporter#withImportMode(ImportMode)}).
+ */
+@PublicAPI(usage = ACCESS)
+public enum ImportMode {
+    /**
+     * Imports all information about classes, including the bodies of methods, constructors and static initializers,
+     * i.e. all field accesses, method calls, constructor calls and instanceof checks. This is the default.
+     */
+    @PublicAPI(usage = ACCESS)
+    FULL(0, true, false),
+
+    /**
+     * Imports the same information as {@link #FULL}, but defers the import of field accesses, method calls and constructor calls
+     * until they are requested for the first time. Once any access from a class is requested
+     * (e.g. via {@link JavaCodeUnit#getMethodCallsFromSelf()}), the class file of that class is parsed again from its
+     * {@link com.tngtech.archunit.core.domain.Source Source}, and the accesses of all its code units are imported.
+     * Queries for accesses to a class (e.g. {@link com.tngtech.archunit.core.domain.JavaClass#getAccessesToSelf()})
+     * need the accesses of all imported classes and will thus trigger the import of all of them.
+     * <br><br>
+     * This makes the import considerably faster if only few classes are inspected for their accesses,
+     * e.g. if most rules only inspect the class hierarchy, annotations or signatures.
+     * Classes that are only referenced from accesses are resolved as soon as the respective accesses are imported,
+     * and are then added to the package tree and the reverse dependencies of the imported classes.
+     * If the class file can't be read anymore or has changed since the import, requesting its accesses will fail with an
+     * {@link com.tngtech.archunit.base.ArchUnitException.AccessesNotImportableException AccessesNotImportableException}.
+     */
+    @PublicAPI(usage = ACCESS)
+    ACCESSES_ON_DEMAND(SKIP_FRAMES, true, true),
+
+    /**
+     * Only imports the signatures of classes and their members, i.e. class hierarchy, annotations, field types,
+     * as well as parameter, return and throws types of methods and constructors. The bodies of code units are skipped,
+     * which makes the import considerably faster and the imported classes considerably smaller.
+     * <br><br>
+     * Any attempt to obtain information from the body of a {@link JavaCodeUnit} (e.g. {@link JavaCodeUnit#getMethodCallsFromSelf()})
+     * will fail with an exception. Dependencies of classes will only comprise dependencies originating from signatures.
+     */
+    @PublicAPI(usage = ACCESS)
+    SIGNATURES_ONLY(SKIP_CODE | SKIP_FRAMES, false, false);
+
+    private final int parsingOptions;
+    private final boolean codeUnitBodiesImported;
+    private final boolean accessesImportedOnDemand;
+
+    ImportMode(int parsingOptions, boolean codeUnitBodiesImported, boolean accessesImportedOnDemand) {
+        this.parsingOptions = parsingOptions;
+        this.codeUnitBodiesImported = codeUnitBodiesImported;
+        this.accessesImportedOnDemand = accessesImportedOnDemand;
+    }
+
+    int getParsingOptions() {
+        return parsingOptions;
+    }
+
+    boolean importsCodeUnitBodies() {
+        return codeUnitBodiesImported;
+    }
+
+    boolean importsAccessesOnDemand() {
+        return accessesImportedOnDemand;
+    }
+
+    boolean recordsAccessesDuringImport() {
+        return codeUnitBodiesImported && !accessesImportedOnDemand;
+    }
+}
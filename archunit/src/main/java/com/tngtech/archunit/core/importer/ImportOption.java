@@ -38,7 +38,23 @@ import static com.tngtech.archunit.PublicAPI.Usage.INHERITANCE;
 public interface ImportOption {
     boolean includes(Location location);
 
-    enum Predefined implements ImportOption {
+    /**
+     * An {@link ImportOption} that can additionally decide for a whole directory, or folder within an archive, at once.
+     * If {@link #mayIncludeAnyLocationIn(Location)} returns {@code false} for a directory, the importer will neither
+     * walk this directory, nor evaluate {@link #includes(Location)} for any class file within.
+     */
+    @PublicAPI(usage = INHERITANCE)
+    interface DirectoryAware extends ImportOption {
+        /**
+         * @param directory The {@link Location} of a directory, or a folder within an archive,
+         *                  e.g. '<code>file:///some/path/</code>' or '<code>jar:file:///some.jar!/some/pkg/</code>'
+         * @return {@code false}, if {@link #includes(Location)} would return {@code false} for every {@link Location}
+         * within this directory (including subdirectories), {@code true} if it might include any
+         */
+        boolean mayIncludeAnyLocationIn(Location directory);
+    }
+
+    enum Predefined implements DirectoryAware {
         DO_NOT_INCLUDE_TESTS {
             private final DoNotIncludeTests doNotIncludeTests = new DoNotIncludeTests();
 
@@ -46,6 +62,11 @@ public interface ImportOption {
             public boolean includes(Location location) {
                 return doNotIncludeTests.includes(location);
             }
+
+            @Override
+            public boolean mayIncludeAnyLocationIn(Location directory) {
+                return doNotIncludeTests.mayIncludeAnyLocationIn(directory);
+            }
         },
         DO_NOT_INCLUDE_JARS {
             private final DoNotIncludeJars doNotIncludeJars = new DoNotIncludeJars();
@@ -54,6 +75,11 @@ public interface ImportOption {
             public boolean includes(Location location) {
                 return doNotIncludeJars.includes(location);
             }
+
+            @Override
+            public boolean mayIncludeAnyLocationIn(Location directory) {
+                return doNotIncludeJars.mayIncludeAnyLocationIn(directory);
+            }
         },
         /**
          * Since Java 9 there are JARs and JRTs, this will exclude both
@@ -65,6 +91,11 @@ public interface ImportOption {
             public boolean includes(Location location) {
                 return doNotIncludeArchives.includes(location);
             }
+
+            @Override
+            public boolean mayIncludeAnyLocationIn(Location directory) {
+                return doNotIncludeArchives.mayIncludeAnyLocationIn(directory);
+            }
         }
     }
 
@@ -74,7 +105,7 @@ public interface ImportOption {
      * Thus it is just a best guess, how tests can be identified,
      * in other environments, it might be necessary, to implement the correct {@link ImportOption} yourself.
      */
-    final class DoNotIncludeTests implements ImportOption {
+    final class DoNotIncludeTests implements DirectoryAware {
         private static final Pattern MAVEN_PATTERN = Pattern.compile(".*/target/test-classes/.*");
         private static final Pattern GRADLE_PATTERN = Pattern.compile(".*/build/classes/([^/]+/)?test/.*");
         private static final Pattern INTELLIJ_PATTERN = Pattern.compile(".*/out/test/classes/.*");
@@ -90,19 +121,35 @@ public interface ImportOption {
             }
             return true;
         }
+
+        // NOTE: All patterns have the form '.*/some/dirs/.*', so if a directory matches, every location within matches as well
+        @Override
+        public boolean mayIncludeAnyLocationIn(Location directory) {
+            return includes(directory);
+        }
     }
 
-    final class DoNotIncludeJars implements ImportOption {
+    final class DoNotIncludeJars implements DirectoryAware {
         @Override
         public boolean includes(Location location) {
             return !location.isJar();
         }
+
+        @Override
+        public boolean mayIncludeAnyLocationIn(Location directory) {
+            return !directory.isJar();
+        }
     }
 
-    final class DoNotIncludeArchives implements ImportOption {
+    final class DoNotIncludeArchives implements DirectoryAware {
         @Override
         public boolean includes(Location location) {
             return !location.isArchive();
         }
+
+        @Override
+        public boolean mayIncludeAnyLocationIn(Location directory) {
+            return !directory.isArchive();
+        }
     }
 }
@@ -50,6 +50,10 @@ public final class ImportOptions {
         return new ImportOptions(ImmutableSet.<ImportOption>builder().addAll(options).add(option).build());
     }
 
+    boolean isEmpty() {
+        return options.isEmpty();
+    }
+
     boolean include(Location location) {
         for (ImportOption option : options) {
             if (!option.includes(location)) {
@@ -58,4 +62,17 @@ public final class ImportOptions {
         }
         return true;
     }
+
+    /**
+     * @return {@code false}, if any {@link ImportOption.DirectoryAware} option excludes every location within the directory
+     */
+    boolean mayIncludeAnyLocationIn(Location directory) {
+        for (ImportOption option : options) {
+            if (option instanceof ImportOption.DirectoryAware
+                    && !((ImportOption.DirectoryAware) option).mayIncludeAnyLocationIn(directory)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -15,14 +15,23 @@
  */
 package com.tngtech.archunit.core.importer;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
 import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.JavaClass;
 import com.tngtech.archunit.core.domain.JavaClassDescriptor;
@@ -33,18 +42,24 @@ import static com.tngtech.archunit.core.domain.JavaModifier.ABSTRACT;
 import static com.tngtech.archunit.core.domain.JavaModifier.FINAL;
 import static com.tngtech.archunit.core.domain.JavaModifier.PUBLIC;
 
+// NOTE: Classes might be completed concurrently, thus looking up present classes does not block,
+//       while resolving missing classes is synchronized, so every type is resolved exactly once
 class ImportedClasses {
     private static final ImmutableSet<JavaModifier> PRIMITIVE_AND_ARRAY_TYPE_MODIFIERS =
             Sets.immutableEnumSet(PUBLIC, ABSTRACT, FINAL);
 
     private final ImmutableMap<String, JavaClass> directlyImported;
-    private final Map<String, JavaClass> allClasses = new HashMap<>();
+    private final Map<String, JavaClass> allClasses = new ConcurrentHashMap<>();
+    private final List<JavaClass> additionallyResolved = new ArrayList<>();
+    private int numberOfStubClasses;
     private final ClassResolver resolver;
+    private final int resolutionParallelism;
 
-    ImportedClasses(Map<String, JavaClass> directlyImported, ClassResolver resolver) {
+    ImportedClasses(Map<String, JavaClass> directlyImported, ClassResolver resolver, int resolutionParallelism) {
         this.directlyImported = ImmutableMap.copyOf(directlyImported);
         allClasses.putAll(directlyImported);
         this.resolver = resolver;
+        this.resolutionParallelism = resolutionParallelism;
     }
 
     Map<String, JavaClass> getDirectlyImported() {
@@ -52,21 +67,110 @@ class ImportedClasses {
     }
 
     JavaClass getOrResolve(String typeName) {
+        JavaClass javaClass = allClasses.get(typeName);
+        return javaClass != null ? javaClass : resolve(typeName);
+    }
+
+    private synchronized JavaClass resolve(String typeName) {
         JavaClass javaClass = allClasses.get(typeName);
         if (javaClass == null) {
-            Optional<JavaClass> resolved = resolver.tryResolve(typeName);
-            javaClass = resolved.isPresent() ? resolved.get() : simpleClassOf(typeName);
-            allClasses.put(typeName, javaClass);
+            javaClass = add(typeName, resolver.tryResolve(typeName));
         }
         return javaClass;
     }
 
-    boolean isPresent(String typeName) {
-        return allClasses.containsKey(typeName);
+    private JavaClass add(String typeName, Optional<JavaClass> resolved) {
+        if (!resolved.isPresent()) {
+            numberOfStubClasses++;
+        }
+        JavaClass javaClass = resolved.isPresent() ? resolved.get() : simpleClassOf(typeName);
+        allClasses.put(typeName, javaClass);
+        additionallyResolved.add(javaClass);
+        return javaClass;
     }
 
-    void ensurePresent(String typeName) {
-        getOrResolve(typeName);
+    /**
+     * Resolves all given types that are not present yet as one batch, in parallel if configured.
+     *
+     * @return The classes that have been added by this call, in the order of their names
+     */
+    synchronized List<JavaClass> ensureAllPresent(Collection<String> typeNames) {
+        SortedSet<String> missingTypeNames = new TreeSet<>();
+        for (String typeName : typeNames) {
+            if (!allClasses.containsKey(typeName)) {
+                missingTypeNames.add(typeName);
+            }
+        }
+        List<Optional<JavaClass>> resolvedClasses = tryResolveAll(ImmutableList.copyOf(missingTypeNames));
+        List<JavaClass> result = new ArrayList<>();
+        int i = 0;
+        for (String typeName : missingTypeNames) {
+            result.add(add(typeName, resolvedClasses.get(i++)));
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #ensureAllPresent(Collection)}, but replaces all missing types by stubs instead of resolving them
+     */
+    synchronized void ensureAllPresentAsStubs(Collection<String> typeNames) {
+        for (String typeName : new TreeSet<>(typeNames)) {
+            if (!allClasses.containsKey(typeName)) {
+                add(typeName, Optional.<JavaClass>absent());
+            }
+        }
+    }
+
+    private List<Optional<JavaClass>> tryResolveAll(List<String> typeNames) {
+        List<Optional<JavaClass>> result = new ArrayList<>();
+        if (resolutionParallelism <= 1 || typeNames.size() <= 1) {
+            for (String typeName : typeNames) {
+                result.add(resolver.tryResolve(typeName));
+            }
+            return result;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(resolutionParallelism);
+        try {
+            List<Future<Optional<JavaClass>>> futures = new ArrayList<>();
+            for (String typeName : typeNames) {
+                futures.add(pool.submit(tryResolve(typeName)));
+            }
+            for (Future<Optional<JavaClass>> future : futures) {
+                result.add(Futures.getUnchecked(future));
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Callable<Optional<JavaClass>> tryResolve(final String typeName) {
+        return new Callable<Optional<JavaClass>>() {
+            @Override
+            public Optional<JavaClass> call() {
+                return resolver.tryResolve(typeName);
+            }
+        };
+    }
+
+    synchronized int getNumberOfAdditionallyResolvedClasses() {
+        return additionallyResolved.size();
+    }
+
+    /**
+     * @return The number of classes that could not be resolved, and have been replaced by a stub without any members
+     */
+    synchronized int getNumberOfStubClasses() {
+        return numberOfStubClasses;
+    }
+
+    synchronized List<JavaClass> getAdditionallyResolvedClassesFrom(int index) {
+        return ImmutableList.copyOf(additionallyResolved.subList(index, additionallyResolved.size()));
+    }
+
+    boolean isPresent(String typeName) {
+        return allClasses.containsKey(typeName);
     }
 
     Collection<JavaClass> getAllWithOuterClassesSortedBeforeInnerClasses() {
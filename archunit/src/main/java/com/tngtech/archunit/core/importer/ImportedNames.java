@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.tngtech.archunit.core.domain.JavaClassDescriptor;
+
+/**
+ * Pool of the names and descriptors found in the class files of one import. ASM creates new strings for every class file
+ * it reads, so without this pool every imported class, member and access would keep its own copy of type names,
+ * member names and descriptors like "java.lang.Object", "toString" or "()Ljava/lang/String;".
+ * <br><br>
+ * The pool also maps ASM type names and descriptors directly to the canonical {@link JavaClassDescriptor} of the type,
+ * which saves parsing them over and over again. Since class files of one import might be parsed in parallel,
+ * this pool is thread-safe.
+ */
+class ImportedNames {
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, JavaClassDescriptor> descriptorsByAsmObjectTypeName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, JavaClassDescriptor> descriptorsByAsmTypeDescriptor = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<JavaClassDescriptor>> parameterTypesByMethodDescriptor = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, JavaClassDescriptor> returnTypesByMethodDescriptor = new ConcurrentHashMap<>();
+
+    /**
+     * @return The instance of the pool equal to {@code name}, or {@code null} if {@code name} is {@code null}
+     */
+    String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    /**
+     * @param objectTypeName An 'internal' ASM object type name, like java/lang/Object
+     *                       (compare {@link JavaClassDescriptorImporter#createFromAsmObjectTypeName(String)})
+     * @return The fully qualified class name of the respective type, like java.lang.Object
+     */
+    String typeNameOf(String objectTypeName) {
+        return descriptorOfAsmObjectTypeName(objectTypeName).getFullyQualifiedClassName();
+    }
+
+    JavaClassDescriptor descriptorOfAsmObjectTypeName(String objectTypeName) {
+        JavaClassDescriptor result = descriptorsByAsmObjectTypeName.get(objectTypeName);
+        if (result == null) {
+            result = putIfAbsent(descriptorsByAsmObjectTypeName, objectTypeName,
+                    JavaClassDescriptorImporter.createFromAsmObjectTypeName(objectTypeName));
+        }
+        return result;
+    }
+
+    JavaClassDescriptor descriptorOfAsmType(String typeDescriptor) {
+        JavaClassDescriptor result = descriptorsByAsmTypeDescriptor.get(typeDescriptor);
+        if (result == null) {
+            result = putIfAbsent(descriptorsByAsmTypeDescriptor, typeDescriptor,
+                    JavaClassDescriptorImporter.importAsmType(typeDescriptor));
+        }
+        return result;
+    }
+
+    List<JavaClassDescriptor> parameterTypesOf(String methodDescriptor) {
+        List<JavaClassDescriptor> result = parameterTypesByMethodDescriptor.get(methodDescriptor);
+        if (result == null) {
+            result = putIfAbsent(parameterTypesByMethodDescriptor, methodDescriptor,
+                    JavaClassDescriptorImporter.importAsmMethodArgumentTypes(methodDescriptor));
+        }
+        return result;
+    }
+
+    JavaClassDescriptor returnTypeOf(String methodDescriptor) {
+        JavaClassDescriptor result = returnTypesByMethodDescriptor.get(methodDescriptor);
+        if (result == null) {
+            result = putIfAbsent(returnTypesByMethodDescriptor, methodDescriptor,
+                    JavaClassDescriptorImporter.importAsmMethodReturnType(methodDescriptor));
+        }
+        return result;
+    }
+
+    private static <T> T putIfAbsent(ConcurrentMap<String, T> map, String key, T value) {
+        T existing = map.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+}
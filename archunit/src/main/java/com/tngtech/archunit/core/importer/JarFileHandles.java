@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+import com.tngtech.archunit.base.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Keeps a bounded pool of open archives, so each JAR file is only opened once for listing its entries
+ * and reading all its class files, no matter how many {@link ClassFileLocation ClassFileLocations} refer to it.
+ * Archives are only pooled while pooling has been started, which is scoped to a single import
+ * (compare {@link #startPooling()} and {@link #stopPooling()}). Thus no archive stays open (or locked on Windows)
+ * once the import is done, and every import sees the current state of each archive.
+ * Outside of such a scope (e.g. when accesses are imported on demand later on) every access simply opens the archive
+ * and closes it again when done.
+ * <br><br>
+ * Archives that are currently in use are never closed, i.e. while several threads import concurrently, the pool
+ * might temporarily exceed its bound by the number of those threads. Idle archives are closed least recently used first.
+ */
+class JarFileHandles {
+    private static final Logger LOG = LoggerFactory.getLogger(JarFileHandles.class);
+
+    private static final int DEFAULT_MAX_OPEN_ARCHIVES = 32;
+
+    private final int maxOpenArchivesWhilePooling;
+    private final Map<File, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxOpenArchives = 0;
+
+    JarFileHandles() {
+        this(DEFAULT_MAX_OPEN_ARCHIVES);
+    }
+
+    @VisibleForTesting
+    JarFileHandles(int maxOpenArchivesWhilePooling) {
+        this.maxOpenArchivesWhilePooling = maxOpenArchivesWhilePooling;
+    }
+
+    synchronized void startPooling() {
+        maxOpenArchives = maxOpenArchivesWhilePooling;
+    }
+
+    /**
+     * Closes all pooled archives (archives still in use are closed as soon as they are released).
+     * From then on, archives are only open while they are in use, until pooling is started again.
+     */
+    synchronized void stopPooling() {
+        maxOpenArchives = 0;
+        closeIdleArchivesExceedingBound();
+    }
+
+    <T> T withJarFile(File file, JarFileAction<T> action) throws IOException {
+        Handle handle = acquire(file);
+        try {
+            return action.process(handle.jarFile);
+        } finally {
+            release(handle);
+        }
+    }
+
+    /**
+     * Reads the complete entry into a byte array of exactly the entry's size (if known up front),
+     * so it can be handed to the class file parser without any further copying.
+     */
+    byte[] readEntry(File file, final ZipEntry entry) throws IOException {
+        return withJarFile(file, new JarFileAction<byte[]>() {
+            @Override
+            public byte[] process(JarFile jarFile) throws IOException {
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    return readFully(in, entry.getSize());
+                }
+            }
+        });
+    }
+
+    /**
+     * @return A stream of the entry, that keeps the archive open until the stream is closed
+     */
+    InputStream openEntry(File file, ZipEntry entry) throws IOException {
+        final Handle handle = acquire(file);
+        try {
+            return new FilterInputStream(handle.jarFile.getInputStream(entry)) {
+                private boolean closed = false;
+
+                @Override
+                public void close() throws IOException {
+                    if (!closed) {
+                        closed = true;
+                        try {
+                            super.close();
+                        } finally {
+                            release(handle);
+                        }
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            release(handle);
+            throw e;
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int numberOfOpenArchives() {
+        return handles.size();
+    }
+
+    // NOTE: Opening an archive reads its central directory, so we do this outside of the lock to not block the other threads.
+    //       We don't verify signatures, since we only analyze the bytecode and never execute it
+    private Handle acquire(File file) throws IOException {
+        Optional<Handle> pooled = tryAcquirePooled(file);
+        if (pooled.isPresent()) {
+            return pooled.get();
+        }
+        return acquireOpened(file, new Handle(new JarFile(file, false)));
+    }
+
+    private synchronized Optional<Handle> tryAcquirePooled(File file) {
+        Handle handle = handles.get(file);
+        if (handle != null) {
+            handle.users++;
+        }
+        return Optional.fromNullable(handle);
+    }
+
+    private synchronized Handle acquireOpened(File file, Handle opened) {
+        Handle handle = handles.get(file);
+        if (handle != null) {
+            close(opened);
+        } else {
+            handle = opened;
+            handles.put(file, handle);
+        }
+        handle.users++;
+        return handle;
+    }
+
+    private synchronized void release(Handle handle) {
+        checkState(handle.users > 0, "Archive handle was released more often than acquired");
+        handle.users--;
+        closeIdleArchivesExceedingBound();
+    }
+
+    private void closeIdleArchivesExceedingBound() {
+        Iterator<Handle> leastRecentlyUsedFirst = handles.values().iterator();
+        while (handles.size() > maxOpenArchives && leastRecentlyUsedFirst.hasNext()) {
+            Handle handle = leastRecentlyUsedFirst.next();
+            if (handle.users == 0) {
+                leastRecentlyUsedFirst.remove();
+                close(handle);
+            }
+        }
+    }
+
+    private void close(Handle handle) {
+        try {
+            handle.jarFile.close();
+        } catch (IOException e) {
+            LOG.debug("Couldn't close archive " + handle.jarFile.getName(), e);
+        }
+    }
+
+    private static byte[] readFully(InputStream in, long size) throws IOException {
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return ByteStreams.toByteArray(in);
+        }
+        byte[] result = new byte[(int) size];
+        ByteStreams.readFully(in, result);
+        return result;
+    }
+
+    interface JarFileAction<T> {
+        T process(JarFile jarFile) throws IOException;
+    }
+
+    private static class Handle {
+        private final JarFile jarFile;
+        private int users = 0;
+
+        Handle(JarFile jarFile) {
+            this.jarFile = jarFile;
+        }
+    }
+}
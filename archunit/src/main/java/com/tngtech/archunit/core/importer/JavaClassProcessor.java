@@ -69,17 +69,19 @@ class JavaClassProcessor extends ClassVisitor {
     private DomainBuilders.JavaClassBuilder javaClassBuilder;
     private final Set<DomainBuilders.JavaAnnotationBuilder> annotations = new HashSet<>();
     private final SourceDescriptor sourceDescriptor;
+    private final ImportedNames importedNames;
     private final DeclarationHandler declarationHandler;
     private final AccessHandler accessHandler;
     private String className;
 
-    JavaClassProcessor(SourceDescriptor sourceDescriptor, DeclarationHandler declarationHandler) {
-        this(sourceDescriptor, declarationHandler, NO_OP);
+    JavaClassProcessor(SourceDescriptor sourceDescriptor, ImportedNames importedNames, DeclarationHandler declarationHandler) {
+        this(sourceDescriptor, importedNames, declarationHandler, NO_OP);
     }
 
-    JavaClassProcessor(SourceDescriptor sourceDescriptor, DeclarationHandler declarationHandler, AccessHandler accessHandler) {
+    JavaClassProcessor(SourceDescriptor sourceDescriptor, ImportedNames importedNames, DeclarationHandler declarationHandler, AccessHandler accessHandler) {
         super(ASM_API_VERSION);
         this.sourceDescriptor = sourceDescriptor;
+        this.importedNames = importedNames;
         this.declarationHandler = declarationHandler;
         this.accessHandler = accessHandler;
     }
@@ -91,7 +93,7 @@ class JavaClassProcessor extends ClassVisitor {
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
         LOG.debug("Analyzing class '{}'", name);
-        JavaClassDescriptor descriptor = JavaClassDescriptorImporter.createFromAsmObjectTypeName(name);
+        JavaClassDescriptor descriptor = importedNames.descriptorOfAsmObjectTypeName(name);
         if (alreadyImported(descriptor)) {
             return;
         }
@@ -136,7 +138,7 @@ class JavaClassProcessor extends ClassVisitor {
     @Override
     public void visitSource(String source, String debug) {
         if (!importAborted() && source != null) {
-            javaClassBuilder.withSourceFileName(source);
+            javaClassBuilder.withSourceFileName(importedNames.intern(source));
         }
     }
 
@@ -151,7 +153,7 @@ class JavaClassProcessor extends ClassVisitor {
             return;
         }
 
-        javaClassBuilder.withSimpleName(nullToEmpty(innerName));
+        javaClassBuilder.withSimpleName(importedNames.intern(nullToEmpty(innerName)));
 
         // Javadoc for innerName: "May be null for anonymous inner classes."
         boolean isAnonymousClass = innerName == null;
@@ -195,7 +197,7 @@ class JavaClassProcessor extends ClassVisitor {
     }
 
     private String createTypeName(String name) {
-        return name.replace("/", ".");
+        return importedNames.typeNameOf(name);
     }
 
     @Override
@@ -205,10 +207,10 @@ class JavaClassProcessor extends ClassVisitor {
         }
 
         DomainBuilders.JavaFieldBuilder fieldBuilder = new DomainBuilders.JavaFieldBuilder()
-                .withName(name)
-                .withType(JavaClassDescriptorImporter.importAsmType(desc))
+                .withName(importedNames.intern(name))
+                .withType(importedNames.descriptorOfAsmType(desc))
                 .withModifiers(JavaModifier.getModifiersForField(access))
-                .withDescriptor(desc);
+                .withDescriptor(importedNames.intern(desc));
         declarationHandler.onDeclaredField(fieldBuilder);
         return new FieldProcessor(fieldBuilder, declarationHandler);
     }
@@ -220,26 +222,27 @@ class JavaClassProcessor extends ClassVisitor {
         }
 
         LOG.trace("Analyzing method {}.{}:{}", className, name, desc);
-        List<JavaClassDescriptor> parameters = JavaClassDescriptorImporter.importAsmMethodArgumentTypes(desc);
-        accessHandler.setContext(new CodeUnit(name, namesOf(parameters), className));
+        String methodName = importedNames.intern(name);
+        List<JavaClassDescriptor> parameters = importedNames.parameterTypesOf(desc);
+        accessHandler.setContext(new CodeUnit(methodName, namesOf(parameters), className));
 
-        DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder = addCodeUnitBuilder(name);
+        DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder = addCodeUnitBuilder(methodName);
         codeUnitBuilder
-                .withName(name)
+                .withName(methodName)
                 .withModifiers(JavaModifier.getModifiersForMethod(access))
                 .withParameters(parameters)
-                .withReturnType(JavaClassDescriptorImporter.importAsmMethodReturnType(desc))
-                .withDescriptor(desc)
+                .withReturnType(importedNames.returnTypeOf(desc))
+                .withDescriptor(importedNames.intern(desc))
                 .withThrowsClause(typesFrom(exceptions));
 
-        return new MethodProcessor(className, accessHandler, codeUnitBuilder, declarationHandler);
+        return new MethodProcessor(className, importedNames, accessHandler, codeUnitBuilder, declarationHandler);
     }
 
     private List<JavaClassDescriptor> typesFrom(String[] throwsDeclarations) {
         List<JavaClassDescriptor> result = new ArrayList<>();
         if (throwsDeclarations != null) {
             for (String throwsDeclaration : throwsDeclarations) {
-                result.add(JavaClassDescriptorImporter.createFromAsmObjectTypeName(throwsDeclaration));
+                result.add(importedNames.descriptorOfAsmObjectTypeName(throwsDeclaration));
             }
         }
         return result;
@@ -290,15 +293,18 @@ class JavaClassProcessor extends ClassVisitor {
 
     private static class MethodProcessor extends MethodVisitor {
         private final String declaringClassName;
+        private final ImportedNames importedNames;
         private final AccessHandler accessHandler;
         private final DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder;
         private final DeclarationHandler declarationHandler;
         private final Set<DomainBuilders.JavaAnnotationBuilder> annotations = new HashSet<>();
         private int actualLineNumber;
 
-        MethodProcessor(String declaringClassName, AccessHandler accessHandler, DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder, DeclarationHandler declarationHandler) {
+        MethodProcessor(String declaringClassName, ImportedNames importedNames, AccessHandler accessHandler,
+                DomainBuilders.JavaCodeUnitBuilder<?, ?> codeUnitBuilder, DeclarationHandler declarationHandler) {
             super(ASM_API_VERSION);
             this.declaringClassName = declaringClassName;
+            this.importedNames = importedNames;
             this.accessHandler = accessHandler;
             this.codeUnitBuilder = codeUnitBuilder;
             this.declarationHandler = declarationHandler;
@@ -331,7 +337,7 @@ class JavaClassProcessor extends ClassVisitor {
         @Override
         public void visitTypeInsn(int opcode, String type) {
             if (opcode == Opcodes.INSTANCEOF) {
-                codeUnitBuilder.addInstanceOfCheck(from(JavaClassDescriptorImporter.createFromAsmObjectTypeName(type), actualLineNumber));
+                codeUnitBuilder.addInstanceOfCheck(from(importedNames.descriptorOfAsmObjectTypeName(type), actualLineNumber));
             }
         }
 
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.base.Optional;
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.Source;
+import com.tngtech.archunit.core.importer.resolvers.ClassResolver;
+import org.objectweb.asm.ClassVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.restoreMd5sum;
+
+/**
+ * Saves imported {@link JavaClasses} in a compact binary format and restores them later on, e.g. in a different JVM,
+ * considerably faster than importing the original class files again. This way one build step could import the
+ * classes once, and many subsequent test JVMs could just read the snapshot:
+ * <pre><code>
+ * JavaClassesSnapshot.writeTo(JavaClassesSnapshot.capturing(new ClassFileImporter()).importPackages("com.myapp"), outputStream);
+ * // ... possibly within another JVM
+ * JavaClasses classes = JavaClassesSnapshot.readFrom(inputStream);
+ * </code></pre>
+ * The snapshot contains every imported class together with all classes that were resolved as dependencies
+ * (compare {@link ClassResolver}), so reading it neither scans nor accesses the class path. Cross references
+ * between classes are kept by their fully qualified names. The restored {@link JavaClasses} are always complete,
+ * i.e. as if imported by {@link ImportMode#FULL}, and keep the {@link Source Sources} of the original class files
+ * (i.e. {@link Source#getUri() URI} and {@link Source#getMd5sum() checksum}).
+ * <br><br>
+ * The snapshot is written from data captured while the classes are imported, so the class files are never read again.
+ * Thus, only classes imported by an importer obtained from {@link #capturing(ClassFileImporter)} can be written.
+ * <br><br>
+ * A snapshot is only valid for the same version of ArchUnit that wrote it. Reading a snapshot written by a
+ * different version will fail with an {@link IOException}.
+ */
+@PublicAPI(usage = ACCESS)
+public final class JavaClassesSnapshot {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaClassesSnapshot.class);
+
+    private static final int MAGIC = 0x41524353;
+    private static final int FORMAT_VERSION = 2;
+    private static final byte IMPORTED = 1;
+    private static final byte RESOLVED = 2;
+
+    // NOTE: Keys are compared by identity, and captures are released together with the classes they have been captured for
+    private static final Cache<JavaClasses, Capture> CAPTURES = CacheBuilder.newBuilder().weakKeys().build();
+
+    private JavaClassesSnapshot() {
+    }
+
+    /**
+     * Classes imported by the returned importer keep the data necessary to write them to a snapshot
+     * (compare {@link #writeTo(JavaClasses, OutputStream)}), until these {@link JavaClasses} are garbage collected.
+     * Importing in chunks (compare {@link ClassFileImporter#importLocationsInChunks(Collection, int)}) does not capture
+     * anything, and the importer can only import with {@link ImportMode#FULL}.
+     *
+     * @param importer The importer to configure
+     * @return A copy of the given importer, which captures the data of every imported class for a snapshot
+     */
+    @PublicAPI(usage = ACCESS)
+    public static ClassFileImporter capturing(ClassFileImporter importer) {
+        return importer.capturingSnapshot();
+    }
+
+    /**
+     * Writes a snapshot of the given classes to the given stream. The classes must have been imported by an importer
+     * obtained from {@link #capturing(ClassFileImporter)}, or restored by {@link #readFrom(InputStream)}.
+     * The stream is not closed.
+     *
+     * @param classes The classes to save
+     * @param outputStream The stream to write the snapshot to
+     * @throws IOException If writing to the stream fails
+     */
+    @PublicAPI(usage = ACCESS)
+    public static void writeTo(JavaClasses classes, OutputStream outputStream) throws IOException {
+        Capture capture = CAPTURES.getIfPresent(classes);
+        checkArgument(capture != null, "%s can only be written to a snapshot, if they have been imported by %s.capturing(..)",
+                JavaClasses.class.getSimpleName(), JavaClassesSnapshot.class.getSimpleName());
+
+        Map<String, JavaClass> imported = new LinkedHashMap<>();
+        for (JavaClass javaClass : classes) {
+            imported.put(javaClass.getName(), javaClass);
+        }
+        List<JavaClass> resolved = findResolvedClassesReachableFrom(imported);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(imported.size() + resolved.size());
+        for (JavaClass javaClass : imported.values()) {
+            Optional<CapturedClassFile> classFile = capture.get(javaClass);
+            checkState(classFile.isPresent(), "Class file of %s has not been captured during the import", javaClass.getName());
+            write(out, IMPORTED, javaClass.getName(), classFile.get());
+        }
+        for (JavaClass javaClass : resolved) {
+            Optional<CapturedClassFile> classFile = capture.get(javaClass);
+            if (classFile.isPresent()) {
+                write(out, RESOLVED, javaClass.getName(), classFile.get());
+            } else {
+                LOG.warn("Class file of resolved class {} has not been captured during the import, it will be missing from the snapshot", javaClass.getName());
+            }
+        }
+        out.flush();
+    }
+
+    private static void write(DataOutputStream out, byte kind, String className, CapturedClassFile classFile) throws IOException {
+        out.writeByte(kind);
+        out.writeUTF(className);
+        out.writeUTF(classFile.sourceDescriptor.getUri().toString());
+        byte[] md5Bytes = classFile.sourceDescriptor.getMd5sum().asBytes();
+        out.writeInt(md5Bytes.length);
+        out.write(md5Bytes);
+        out.writeUTF(classFile.sourceDescriptor.getMd5sum().toString());
+        out.writeInt(classFile.recording.length);
+        out.write(classFile.recording);
+    }
+
+    // NOTE: Only classes with a source have actually been resolved, all others are stubs, which will be created again on reading
+    private static List<JavaClass> findResolvedClassesReachableFrom(Map<String, JavaClass> imported) {
+        Map<String, JavaClass> resolved = new LinkedHashMap<>();
+        Deque<JavaClass> toVisit = new ArrayDeque<>();
+        for (JavaClass javaClass : imported.values()) {
+            for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                toVisit.add(dependency.getTargetClass());
+            }
+            addSupertypesAndAnnotationsOf(javaClass, toVisit);
+        }
+        while (!toVisit.isEmpty()) {
+            JavaClass next = toVisit.poll();
+            if (!next.getSource().isPresent() || imported.containsKey(next.getName()) || resolved.containsKey(next.getName())) {
+                continue;
+            }
+            resolved.put(next.getName(), next);
+            addSupertypesAndAnnotationsOf(next, toVisit);
+        }
+        return ImmutableList.copyOf(resolved.values());
+    }
+
+    private static void addSupertypesAndAnnotationsOf(JavaClass javaClass, Deque<JavaClass> toVisit) {
+        toVisit.addAll(javaClass.getSuperClass().asSet());
+        toVisit.addAll(javaClass.getInterfaces());
+        toVisit.addAll(javaClass.getEnclosingClass().asSet());
+        for (JavaAnnotation<JavaClass> annotation : javaClass.getAnnotations()) {
+            toVisit.add(annotation.getRawType());
+        }
+    }
+
+    /**
+     * Reads {@link JavaClasses} from a snapshot previously written by {@link #writeTo(JavaClasses, OutputStream)}.
+     * The stream is not closed.
+     *
+     * @param inputStream The stream to read the snapshot from
+     * @return The classes contained in the snapshot
+     * @throws IOException If the stream does not contain a valid snapshot, or reading from the stream fails
+     */
+    @PublicAPI(usage = ACCESS)
+    public static JavaClasses readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Stream does not contain a snapshot of " + JavaClasses.class.getSimpleName());
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException(String.format("Snapshot has format version %d, but only version %d is supported", formatVersion, FORMAT_VERSION));
+        }
+
+        List<ClassFileLocation> imported = new ArrayList<>();
+        Map<String, URI> resolvedUrisByTypeName = new HashMap<>();
+        Map<URI, ClassFileLocation> resolvedLocations = new HashMap<>();
+        int numberOfClasses = in.readInt();
+        for (int i = 0; i < numberOfClasses; i++) {
+            byte kind = in.readByte();
+            String className = in.readUTF();
+            URI uri = URI.create(in.readUTF());
+            byte[] md5Bytes = new byte[in.readInt()];
+            in.readFully(md5Bytes);
+            SourceDescriptor sourceDescriptor = SourceDescriptor.restore(uri, restoreMd5sum(md5Bytes, in.readUTF()));
+            byte[] recording = new byte[in.readInt()];
+            in.readFully(recording);
+            RecordedClassFileLocation location = new RecordedClassFileLocation(sourceDescriptor, recording);
+            if (kind == IMPORTED) {
+                imported.add(location);
+            } else {
+                resolvedUrisByTypeName.put(className, uri);
+                resolvedLocations.put(uri, location);
+            }
+        }
+
+        // NOTE: The restored classes capture their recordings again, so they can be written to another snapshot
+        return new ClassFileProcessor(ImportMode.FULL, new ImportMetricsRecorder(), Optional.of(new Capture())).process(
+                sourceOf(imported), new SnapshotClassResolver(resolvedUrisByTypeName), ImmutableMap.copyOf(resolvedLocations));
+    }
+
+    private static ClassFileSource sourceOf(final List<ClassFileLocation> locations) {
+        return new ClassFileSource() {
+            @Override
+            public Iterator<ClassFileLocation> iterator() {
+                return locations.iterator();
+            }
+        };
+    }
+
+    /**
+     * The class files of the imported and resolved classes, as captured during the import
+     */
+    static class Capture {
+        private final Map<URI, CapturedClassFile> classFilesByUri = new ConcurrentHashMap<>();
+
+        void add(SourceDescriptor sourceDescriptor, byte[] recording) {
+            classFilesByUri.put(sourceDescriptor.getUri(), new CapturedClassFile(sourceDescriptor, recording));
+        }
+
+        void registerFor(JavaClasses classes) {
+            CAPTURES.put(classes, this);
+        }
+
+        Optional<CapturedClassFile> get(JavaClass javaClass) {
+            return Optional.fromNullable(classFilesByUri.get(javaClass.getSource().get().getUri()));
+        }
+    }
+
+    private static class CapturedClassFile {
+        private final SourceDescriptor sourceDescriptor;
+        private final byte[] recording;
+
+        CapturedClassFile(SourceDescriptor sourceDescriptor, byte[] recording) {
+            this.sourceDescriptor = sourceDescriptor;
+            this.recording = recording;
+        }
+    }
+
+    /**
+     * A class file restored from a snapshot. Its {@link SourceDescriptor} has been recorded together with the parse events,
+     * so the original class file does not need to be read to determine its checksum.
+     */
+    static class RecordedClassFileLocation implements ClassFileLocation {
+        private final SourceDescriptor sourceDescriptor;
+        private final byte[] recording;
+
+        RecordedClassFileLocation(SourceDescriptor sourceDescriptor, byte[] recording) {
+            this.sourceDescriptor = sourceDescriptor;
+            this.recording = recording;
+        }
+
+        SourceDescriptor getSourceDescriptor() {
+            return sourceDescriptor;
+        }
+
+        @Override
+        public InputStream openStream() {
+            try {
+                return getUri().toURL().openStream();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public URI getUri() {
+            return sourceDescriptor.getUri();
+        }
+
+        @Override
+        public long accept(ClassVisitor visitor, int parsingOptions) {
+            ClassFileRecording.replay(recording, visitor);
+            return 0;
+        }
+
+        @Override
+        public void accept(byte[] classFile, ClassVisitor visitor, int parsingOptions) {
+            accept(visitor, parsingOptions);
+        }
+    }
+
+    static class SnapshotClassResolver implements ClassResolver {
+        private final Map<String, URI> urisByTypeName;
+        private ClassUriImporter classUriImporter;
+
+        SnapshotClassResolver(Map<String, URI> urisByTypeName) {
+            this.urisByTypeName = ImmutableMap.copyOf(urisByTypeName);
+        }
+
+        @Override
+        public void setClassUriImporter(ClassUriImporter classUriImporter) {
+            this.classUriImporter = classUriImporter;
+        }
+
+        @Override
+        public Optional<JavaClass> tryResolve(String typeName) {
+            URI uri = urisByTypeName.get(typeName);
+            return uri != null ? classUriImporter.tryImport(uri) : Optional.<JavaClass>absent();
+        }
+    }
+}
@@ -88,6 +88,14 @@ public abstract class Location {
 
     abstract ClassFileSource asClassFileSource(ImportOptions importOptions);
 
+    /**
+     * Like {@link #asClassFileSource(ImportOptions)}, but reads archives through the given {@link JarFileHandles},
+     * which are scoped to the current import
+     */
+    ClassFileSource asClassFileSource(ImportOptions importOptions, JarFileHandles jarFileHandles) {
+        return asClassFileSource(importOptions);
+    }
+
     /**
      * @param part A part to check the respective location {@link URI} for
      * @return {@code true}, if the respective {@link URI} contains the given part, {@code false} otherwise
@@ -272,9 +280,14 @@ public abstract class Location {
 
         @Override
         ClassFileSource asClassFileSource(ImportOptions importOptions) {
+            return asClassFileSource(importOptions, new JarFileHandles());
+        }
+
+        @Override
+        ClassFileSource asClassFileSource(ImportOptions importOptions, JarFileHandles jarFileHandles) {
             try {
                 String[] parts = uri.toString().split("!/", 2);
-                return new ClassFileSource.FromJar(new URL(parts[0] + "!/"), parts[1], importOptions);
+                return new ClassFileSource.FromJar(new URL(parts[0] + "!/"), parts[1], importOptions, jarFileHandles);
             } catch (IOException e) {
                 throw new LocationException(e);
             }
@@ -97,11 +97,7 @@ public final class Locations {
      */
     @PublicAPI(usage = ACCESS)
     public static Set<Location> inClassPath() {
-        ImmutableSet.Builder<Location> result = ImmutableSet.builder();
-        for (URL url : locationResolver.get().resolveClassPath()) {
-            result.add(Location.of(url));
-        }
-        return result.build();
+        return ImmutableSet.copyOf(PackageIndex.of(locationResolver.get().resolveClassPath()).getClassPath());
     }
 
     private static String asResourceName(String qualifiedName) {
@@ -109,9 +105,9 @@ public final class Locations {
     }
 
     private static Set<Location> getLocationsOf(String resourceName) {
-        UrlSource classpath = locationResolver.get().resolveClassPath();
+        PackageIndex packageIndex = PackageIndex.of(locationResolver.get().resolveClassPath());
         NormalizedResourceName normalizedResourceName = NormalizedResourceName.from(resourceName);
-        return ImmutableSet.copyOf(getResourceLocations(getCurrentClassLoader(Locations.class), normalizedResourceName, classpath));
+        return ImmutableSet.copyOf(getResourceLocations(getCurrentClassLoader(Locations.class), normalizedResourceName, packageIndex));
     }
 
     /**
@@ -121,11 +117,12 @@ public final class Locations {
      * <pre><code>importPackage("java.io") -> classLoader.getResources("/java/io")</code></pre>
      * does not behave correctly for older Java versions,
      * because the folder entry {@code /java/io} is missing from {@code rt.jar}.
+     * Instead we look up the locations of the class path containing the resource within the {@link PackageIndex}.
      */
-    private static Collection<Location> getResourceLocations(ClassLoader loader, NormalizedResourceName resourceName, Iterable<URL> classpath) {
+    private static Collection<Location> getResourceLocations(ClassLoader loader, NormalizedResourceName resourceName, PackageIndex packageIndex) {
         Set<Location> result = newHashSet(Locations.of(getResources(loader, resourceName)));
-        for (Location location : Locations.of(classpath)) {
-            if (containsEntryWithPrefix(location, resourceName)) {
+        for (Location location : packageIndex.getClassPath()) {
+            if (packageIndex.containsEntryWithPrefix(location, resourceName)) {
                 result.add(location.append(resourceName.toString()));
             }
         }
@@ -139,13 +136,4 @@ public final class Locations {
             throw new LocationException(e);
         }
     }
-
-    private static boolean containsEntryWithPrefix(Location location, NormalizedResourceName searchedJarEntryPrefix) {
-        for (NormalizedResourceName name : location.iterateEntries()) {
-            if (name.startsWith(searchedJarEntryPrefix)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
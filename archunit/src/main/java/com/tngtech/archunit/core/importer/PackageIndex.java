@@ -0,0 +1,280 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers for every JAR file of the class path, which entry prefixes it contains, i.e. every folder
+ * (like {@code com/foo}) containing any entry, directly or within subfolders, as well as every entry
+ * except for class files. Thus, looking up the locations of a package (or a resource) does not need to
+ * scan the entries of every JAR of the class path over and over again.
+ * <br><br>
+ * The index is built in a single pass over the class path and only built again if the class path changes.
+ * If {@link ArchConfiguration#getImportCacheDirectory()} is configured, the entry prefixes of JAR files are also persisted,
+ * keyed by path, size and last modification time of the JAR file, so later runs only need to read JAR files that changed.
+ * Directories are not indexed, since they might change while the JVM is running (e.g. by compiling classes),
+ * but looking up an entry of a directory only needs to check whether the respective file exists.
+ * Locations that can't be indexed (e.g. folders within JAR files) are scanned like before.
+ */
+class PackageIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(PackageIndex.class);
+
+    private static final String CACHE_FILE_NAME = "archunit-packages.cache";
+    private static final int MAGIC = 0x41525049;
+    private static final int FORMAT_VERSION = 2;
+    private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final String JAR_ROOT_SUFFIX = "!/";
+
+    private static PackageIndex instance;
+
+    private final List<Location> classPath;
+    private final Map<Location, Set<String>> entryPrefixesByLocation = new HashMap<>();
+    private final Map<Location, Path> directoriesByLocation = new HashMap<>();
+
+    private PackageIndex(List<Location> classPath) {
+        this.classPath = classPath;
+        Optional<Path> cacheFile = getCacheFile();
+        Map<String, JarEntryPrefixes> jarEntryPrefixes = cacheFile.isPresent()
+                ? load(cacheFile.get())
+                : new HashMap<String, JarEntryPrefixes>();
+        boolean modified = false;
+        for (Location location : classPath) {
+            modified |= index(location, jarEntryPrefixes);
+        }
+        if (cacheFile.isPresent() && modified) {
+            persist(cacheFile.get(), jarEntryPrefixes);
+        }
+        LOG.debug("Indexed entry prefixes of {} JAR files of the class path", entryPrefixesByLocation.size());
+    }
+
+    static synchronized PackageIndex of(UrlSource classPath) {
+        List<Location> locations = ImmutableList.copyOf(Locations.of(classPath));
+        if (instance == null || !instance.classPath.equals(locations)) {
+            instance = new PackageIndex(locations);
+        }
+        return instance;
+    }
+
+    List<Location> getClassPath() {
+        return classPath;
+    }
+
+    boolean containsEntryWithPrefix(Location location, NormalizedResourceName prefix) {
+        Path directory = directoriesByLocation.get(location);
+        if (directory != null) {
+            return Files.exists(directory.resolve(prefix.toString()));
+        }
+        Set<String> entryPrefixes = entryPrefixesByLocation.get(location);
+        if (entryPrefixes == null) {
+            return scanForEntryWithPrefix(location, prefix);
+        }
+        if (!prefix.belongsToClassFile()) {
+            return entryPrefixes.contains(prefix.toString());
+        }
+        String classFile = prefix.toString();
+        int packageEnd = classFile.lastIndexOf('/');
+        return (packageEnd < 0 || entryPrefixes.contains(classFile.substring(0, packageEnd)))
+                && scanForEntryWithPrefix(location, prefix);
+    }
+
+    private static boolean scanForEntryWithPrefix(Location location, NormalizedResourceName prefix) {
+        for (NormalizedResourceName name : location.iterateEntries()) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true, if the entries of a JAR file had to be read, i.e. could not be taken from {@code jarEntryPrefixes}
+     */
+    private boolean index(Location location, Map<String, JarEntryPrefixes> jarEntryPrefixes) {
+        try {
+            Optional<File> jarFile = tryGetFileOfJarRoot(location);
+            if (jarFile.isPresent()) {
+                return indexJar(location, jarFile.get(), jarEntryPrefixes);
+            }
+            if (isDirectory(location)) {
+                directoriesByLocation.put(location, Paths.get(location.asURI()));
+            }
+        } catch (Exception e) {
+            LOG.debug("Couldn't index entries of " + location, e);
+        }
+        return false;
+    }
+
+    private boolean indexJar(Location location, File jarFile, Map<String, JarEntryPrefixes> jarEntryPrefixes) throws IOException {
+        String path = jarFile.getAbsolutePath();
+        JarEntryPrefixes known = jarEntryPrefixes.get(path);
+        if (known != null && known.size == jarFile.length() && known.lastModified == jarFile.lastModified()) {
+            entryPrefixesByLocation.put(location, known.prefixes);
+            return false;
+        }
+        JarEntryPrefixes prefixes = new JarEntryPrefixes(path, jarFile.length(), jarFile.lastModified(), getEntryPrefixesOf(jarFile));
+        jarEntryPrefixes.put(path, prefixes);
+        entryPrefixesByLocation.put(location, prefixes.prefixes);
+        return true;
+    }
+
+    private Optional<File> tryGetFileOfJarRoot(Location location) {
+        String uri = location.asURI().toString();
+        if (!location.isJar() || !uri.endsWith(JAR_ROOT_SUFFIX)) {
+            return Optional.absent();
+        }
+        File file = new File(URI.create(uri.substring("jar:".length(), uri.length() - JAR_ROOT_SUFFIX.length())));
+        return file.isFile() ? Optional.of(file) : Optional.<File>absent();
+    }
+
+    private boolean isDirectory(Location location) {
+        return "file".equals(location.asURI().getScheme()) && new File(location.asURI()).isDirectory();
+    }
+
+    private Set<String> getEntryPrefixesOf(File jarFile) throws IOException {
+        Set<String> prefixes = new JarFileHandles().withJarFile(jarFile, new JarFileHandles.JarFileAction<Set<String>>() {
+            @Override
+            public Set<String> process(JarFile jarFile) {
+                Set<String> result = new HashSet<>();
+                for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+                    addPrefixesOf(entries.nextElement().getName(), result);
+                }
+                return result;
+            }
+        });
+        return ImmutableSet.copyOf(prefixes);
+    }
+
+    // NOTE: A JAR file contains an entry with a certain prefix, if the prefix is a folder containing any entry, directly or within
+    //       subfolders, or the name of the entry itself. Class files themselves are not indexed, since they would make up
+    //       most of the index, but are only looked up rarely (compare containsEntryWithPrefix(..))
+    private static void addPrefixesOf(String entryName, Set<String> prefixes) {
+        String name = entryName.endsWith("/") ? entryName.substring(0, entryName.length() - 1) : entryName;
+        if (!name.endsWith(CLASS_FILE_SUFFIX)) {
+            prefixes.add(name);
+        }
+        int folderEnd = name.lastIndexOf('/');
+        while (folderEnd > 0 && prefixes.add(name.substring(0, folderEnd))) {
+            folderEnd = name.lastIndexOf('/', folderEnd - 1);
+        }
+    }
+
+    private static Optional<Path> getCacheFile() {
+        Optional<String> cacheDirectory = ArchConfiguration.get().getImportCacheDirectory();
+        return cacheDirectory.isPresent()
+                ? Optional.of(Paths.get(cacheDirectory.get()).resolve(CACHE_FILE_NAME))
+                : Optional.<Path>absent();
+    }
+
+    private static Map<String, JarEntryPrefixes> load(Path file) {
+        Map<String, JarEntryPrefixes> result = new HashMap<>();
+        if (!Files.exists(file)) {
+            return result;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOG.debug("Ignoring package index {} of unknown format", file);
+                return result;
+            }
+            int numberOfJars = in.readInt();
+            for (int i = 0; i < numberOfJars; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                ImmutableSet.Builder<String> prefixes = ImmutableSet.builder();
+                int numberOfPrefixes = in.readInt();
+                for (int j = 0; j < numberOfPrefixes; j++) {
+                    prefixes.add(in.readUTF());
+                }
+                result.put(path, new JarEntryPrefixes(path, size, lastModified, prefixes.build()));
+            }
+        } catch (IOException e) {
+            LOG.warn(String.format("Ignoring corrupt package index %s", file), e);
+            result.clear();
+        }
+        return result;
+    }
+
+    // NOTE: The cache file might be shared by several class paths, so we keep the entry prefixes of all JAR files that still exist
+    private static void persist(Path target, Map<String, JarEntryPrefixes> jarEntryPrefixes) {
+        List<JarEntryPrefixes> existingJarEntryPrefixes = new ArrayList<>();
+        for (JarEntryPrefixes prefixes : jarEntryPrefixes.values()) {
+            if (new File(prefixes.path).isFile()) {
+                existingJarEntryPrefixes.add(prefixes);
+            }
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tempFile = Files.createTempFile(target.getParent(), CACHE_FILE_NAME, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(existingJarEntryPrefixes.size());
+                for (JarEntryPrefixes prefixes : existingJarEntryPrefixes) {
+                    out.writeUTF(prefixes.path);
+                    out.writeLong(prefixes.size);
+                    out.writeLong(prefixes.lastModified);
+                    out.writeInt(prefixes.prefixes.size());
+                    for (String prefix : prefixes.prefixes) {
+                        out.writeUTF(prefix);
+                    }
+                }
+            }
+            ImportCache.moveAtomically(tempFile, target);
+        } catch (IOException e) {
+            LOG.warn(String.format("Couldn't write package index to %s", target), e);
+        }
+    }
+
+    private static class JarEntryPrefixes {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final Set<String> prefixes;
+
+        JarEntryPrefixes(String path, long size, long lastModified, Set<String> prefixes) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.prefixes = prefixes;
+        }
+    }
+}
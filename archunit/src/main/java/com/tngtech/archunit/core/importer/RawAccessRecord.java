@@ -129,8 +129,8 @@ class RawAccessRecord {
         final String name;
         final String desc;
 
-        TargetInfo(String owner, String name, String desc) {
-            this.owner = JavaClassDescriptorImporter.createFromAsmObjectTypeName(owner);
+        TargetInfo(JavaClassDescriptor owner, String name, String desc) {
+            this.owner = owner;
             this.name = name;
             this.desc = desc;
         }
@@ -160,43 +160,10 @@ class RawAccessRecord {
         }
     }
 
-    static class Builder extends BaseBuilder<Builder> {
-    }
-
-    static class BaseBuilder<SELF extends BaseBuilder<SELF>> {
-        CodeUnit caller;
-        TargetInfo target;
-        int lineNumber = -1;
-
-        SELF withCaller(CodeUnit caller) {
-            this.caller = caller;
-            return self();
-        }
-
-        SELF withTarget(TargetInfo target) {
-            this.target = target;
-            return self();
-        }
-
-        SELF withLineNumber(int lineNumber) {
-            this.lineNumber = lineNumber;
-            return self();
-        }
-
-        @SuppressWarnings("unchecked")
-        SELF self() {
-            return (SELF) this;
-        }
-
-        RawAccessRecord build() {
-            return new RawAccessRecord(caller, target, lineNumber);
-        }
-    }
-
     static class ForField extends RawAccessRecord {
         final AccessType accessType;
 
-        private ForField(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType) {
+        ForField(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType) {
             super(caller, target, lineNumber);
             this.accessType = accessType;
         }
@@ -220,19 +187,5 @@ class RawAccessRecord {
             final ForField other = (ForField) obj;
             return Objects.equals(this.accessType, other.accessType);
         }
-
-        static class Builder extends BaseBuilder<Builder> {
-            private AccessType accessType;
-
-            Builder withAccessType(AccessType accessType) {
-                this.accessType = accessType;
-                return this;
-            }
-
-            @Override
-            ForField build() {
-                return new ForField(super.caller, super.target, super.lineNumber, accessType);
-            }
-        }
     }
 }
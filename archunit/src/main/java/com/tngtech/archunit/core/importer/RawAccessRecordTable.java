@@ -0,0 +1,203 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.core.importer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
+import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
+import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
+
+/**
+ * Stores raw access records column by column, i.e. every access only occupies a few array slots referring to the
+ * ids of its caller and target, instead of an object per access. Callers and targets are stored only once per table.
+ * Like a {@link Set}, the table ignores accesses that are equal to an access already contained.
+ * {@link RawAccessRecord RawAccessRecords} are only created on demand, when the table is read via {@link #asList()}.
+ */
+abstract class RawAccessRecordTable<RECORD extends RawAccessRecord> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final List<CodeUnit> callers = new ArrayList<>();
+    private final Map<CodeUnit, Integer> callerIds = new HashMap<>();
+    private final List<TargetInfo> targets = new ArrayList<>();
+    private final Map<TargetInfo, Integer> targetIds = new HashMap<>();
+    private CodeUnit lastCaller;
+    private int lastCallerId;
+
+    private int size;
+    private int[] callerIdColumn = new int[INITIAL_CAPACITY];
+    private int[] targetIdColumn = new int[INITIAL_CAPACITY];
+    private int[] lineNumberColumn = new int[INITIAL_CAPACITY];
+    private byte[] detailColumn = new byte[INITIAL_CAPACITY];
+    // open addressing hash index over all rows, every slot contains the row + 1, or 0 if empty
+    private int[] rowIndex = new int[2 * INITIAL_CAPACITY];
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return A view of the accesses within this table, where every access is created on demand when it is retrieved
+     */
+    List<RECORD> asList() {
+        return new AbstractList<RECORD>() {
+            @Override
+            public RECORD get(int row) {
+                if (row < 0 || row >= size) {
+                    throw new IndexOutOfBoundsException(String.format("Row %d is not within [0, %d)", row, size));
+                }
+                return createRecord(
+                        callers.get(callerIdColumn[row]), targets.get(targetIdColumn[row]), lineNumberColumn[row], detailColumn[row]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    Set<String> getTargetOwnerNames() {
+        Set<String> result = new HashSet<>();
+        for (TargetInfo target : targets) {
+            result.add(target.owner.getFullyQualifiedClassName());
+        }
+        return result;
+    }
+
+    void addAllWithCallerIn(RawAccessRecordTable<RECORD> other, Set<String> callerClassNames) {
+        for (int row = 0; row < other.size; row++) {
+            CodeUnit caller = other.callers.get(other.callerIdColumn[row]);
+            if (callerClassNames.contains(caller.getDeclaringClassName())) {
+                add(caller, other.targets.get(other.targetIdColumn[row]), other.lineNumberColumn[row], other.detailColumn[row]);
+            }
+        }
+    }
+
+    abstract RECORD createRecord(CodeUnit caller, TargetInfo target, int lineNumber, byte detail);
+
+    void add(CodeUnit caller, TargetInfo target, int lineNumber, byte detail) {
+        ensureCapacity(size + 1);
+        int callerId = idOf(caller);
+        int targetId = idOf(target);
+        int slot = findSlot(callerId, targetId, lineNumber, detail);
+        if (rowIndex[slot] != 0) {
+            return;
+        }
+
+        callerIdColumn[size] = callerId;
+        targetIdColumn[size] = targetId;
+        lineNumberColumn[size] = lineNumber;
+        detailColumn[size] = detail;
+        rowIndex[slot] = size + 1;
+        size++;
+    }
+
+    // NOTE: Accesses are recorded code unit by code unit, so the caller is mostly the same as for the previous access
+    private int idOf(CodeUnit caller) {
+        if (caller != lastCaller) {
+            lastCallerId = idOf(caller, callers, callerIds);
+            lastCaller = caller;
+        }
+        return lastCallerId;
+    }
+
+    private int idOf(TargetInfo target) {
+        return idOf(target, targets, targetIds);
+    }
+
+    private static <T> int idOf(T element, List<T> elements, Map<T, Integer> ids) {
+        Integer id = ids.get(element);
+        if (id == null) {
+            id = elements.size();
+            elements.add(element);
+            ids.put(element, id);
+        }
+        return id;
+    }
+
+    private int findSlot(int callerId, int targetId, int lineNumber, byte detail) {
+        int mask = rowIndex.length - 1;
+        int slot = hash(callerId, targetId, lineNumber, detail) & mask;
+        while (rowIndex[slot] != 0 && !rowEquals(rowIndex[slot] - 1, callerId, targetId, lineNumber, detail)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean rowEquals(int row, int callerId, int targetId, int lineNumber, byte detail) {
+        return callerIdColumn[row] == callerId
+                && targetIdColumn[row] == targetId
+                && lineNumberColumn[row] == lineNumber
+                && detailColumn[row] == detail;
+    }
+
+    private static int hash(int callerId, int targetId, int lineNumber, byte detail) {
+        int hash = 31 * (31 * (31 * callerId + targetId) + lineNumber) + detail;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > callerIdColumn.length) {
+            int newLength = Math.max(capacity, callerIdColumn.length + (callerIdColumn.length >> 1));
+            callerIdColumn = Arrays.copyOf(callerIdColumn, newLength);
+            targetIdColumn = Arrays.copyOf(targetIdColumn, newLength);
+            lineNumberColumn = Arrays.copyOf(lineNumberColumn, newLength);
+            detailColumn = Arrays.copyOf(detailColumn, newLength);
+        }
+        if (2 * capacity > rowIndex.length) {
+            rebuildRowIndex(2 * rowIndex.length);
+        }
+    }
+
+    private void rebuildRowIndex(int length) {
+        rowIndex = new int[length];
+        for (int row = 0; row < size; row++) {
+            rowIndex[findSlot(callerIdColumn[row], targetIdColumn[row], lineNumberColumn[row], detailColumn[row])] = row + 1;
+        }
+    }
+
+    static class ForCalls extends RawAccessRecordTable<RawAccessRecord> {
+        void add(CodeUnit caller, TargetInfo target, int lineNumber) {
+            add(caller, target, lineNumber, (byte) 0);
+        }
+
+        @Override
+        RawAccessRecord createRecord(CodeUnit caller, TargetInfo target, int lineNumber, byte detail) {
+            return new RawAccessRecord(caller, target, lineNumber);
+        }
+    }
+
+    static class ForFieldAccesses extends RawAccessRecordTable<RawAccessRecord.ForField> {
+        private static final AccessType[] ACCESS_TYPES = AccessType.values();
+
+        void add(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType) {
+            add(caller, target, lineNumber, (byte) accessType.ordinal());
+        }
+
+        @Override
+        RawAccessRecord.ForField createRecord(CodeUnit caller, TargetInfo target, int lineNumber, byte detail) {
+            return new RawAccessRecord.ForField(caller, target, lineNumber, ACCESS_TYPES[detail]);
+        }
+    }
+}
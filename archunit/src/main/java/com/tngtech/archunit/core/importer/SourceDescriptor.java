@@ -17,20 +17,43 @@ package com.tngtech.archunit.core.importer;
 
 import java.net.URI;
 
+import com.tngtech.archunit.core.domain.Source.HashAlgorithm;
+import com.tngtech.archunit.core.domain.Source.Md5sum;
+
+import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.createDisabledMd5sum;
+import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.createMd5sum;
+import static com.tngtech.archunit.core.domain.DomainObjectCreationContext.createUndeterminedMd5sum;
+
 class SourceDescriptor {
     private final URI sourceUri;
-    private final boolean md5InClassSourcesEnabled;
+    private final Md5sum md5sum;
 
-    SourceDescriptor(URI sourceUri, boolean md5InClassSourcesEnabled) {
+    private SourceDescriptor(URI sourceUri, Md5sum md5sum) {
         this.sourceUri = sourceUri;
-        this.md5InClassSourcesEnabled = md5InClassSourcesEnabled;
+        this.md5sum = md5sum;
     }
 
     URI getUri() {
         return sourceUri;
     }
 
-    boolean isMd5InClassSourcesEnabled() {
-        return md5InClassSourcesEnabled;
+    Md5sum getMd5sum() {
+        return md5sum;
+    }
+
+    static SourceDescriptor withoutMd5sum(URI sourceUri) {
+        return new SourceDescriptor(sourceUri, createDisabledMd5sum());
+    }
+
+    static SourceDescriptor withUndeterminedMd5sum(URI sourceUri) {
+        return new SourceDescriptor(sourceUri, createUndeterminedMd5sum());
+    }
+
+    static SourceDescriptor restore(URI sourceUri, Md5sum md5sum) {
+        return new SourceDescriptor(sourceUri, md5sum);
+    }
+
+    static SourceDescriptor of(URI sourceUri, byte[] classFile, HashAlgorithm algorithm) {
+        return new SourceDescriptor(sourceUri, createMd5sum(classFile, algorithm));
     }
 }
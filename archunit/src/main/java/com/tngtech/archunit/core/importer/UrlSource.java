@@ -54,8 +54,8 @@ interface UrlSource extends Iterable<URL> {
     class From {
         private static final Logger LOG = LoggerFactory.getLogger(From.class);
 
-        private static final String CLASS_PATH_PROPERTY_NAME = "java.class.path";
-        private static final String BOOT_CLASS_PATH_PROPERTY_NAME = "sun.boot.class.path";
+        static final String CLASS_PATH_PROPERTY_NAME = "java.class.path";
+        static final String BOOT_CLASS_PATH_PROPERTY_NAME = "sun.boot.class.path";
 
         static UrlSource iterable(Iterable<URL> urls) {
             final Iterable<URL> uniqueUrls = unique(urls);
@@ -23,18 +23,21 @@ import com.tngtech.archunit.base.ArchUnitException;
 import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.MayResolveTypesViaReflection;
 import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.importer.ClassPathIndex;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.tngtech.archunit.base.ClassLoaders.getCurrentClassLoader;
 
 /**
  * A {@link ClassResolver} that tries to locate missing dependencies on the classpath.
- * I.e. uses {@link Class#getResource(String)} to find the {@link URI} of the classfile for the missing
- * type, then uses the supplied {@link ClassResolver.ClassUriImporter} to import the type.
+ * I.e. looks up the {@link URI} of the classfile for the missing type within an index of the classpath,
+ * falling back to {@link ClassLoader#getResource(String)} for classes not contained in the index
+ * (e.g. JDK classes on Java 9+), then uses the supplied {@link ClassResolver.ClassUriImporter} to import the type.
  */
 @MayResolveTypesViaReflection(reason = "This is a dedicated option to resolve further dependencies from the classpath")
 public final class ClassResolverFromClasspath implements ClassResolver {
     private ClassUriImporter classUriImporter;
+    private volatile ClassPathIndex classPathIndex;
 
     @Override
     public void setClassUriImporter(ClassUriImporter classUriImporter) {
@@ -52,7 +55,31 @@ public final class ClassResolverFromClasspath implements ClassResolver {
     }
 
     private Optional<URI> tryGetUriOf(String typeFile) {
-        URL resource = getCurrentClassLoader(getClass()).getResource(typeFile);
+        ClassPathIndex index = getClassPathIndex();
+        Optional<URI> result = index.tryGetUriOf(typeFile);
+        if (result.isPresent()) {
+            return result;
+        }
+        ClassLoader classLoader = getCurrentClassLoader(getClass());
+        if (index.isKnownToBeMissing(typeFile, classLoader)) {
+            return Optional.absent();
+        }
+        result = tryGetUriFromClassLoader(typeFile, classLoader);
+        if (!result.isPresent()) {
+            index.registerMissing(typeFile, classLoader);
+        }
+        return result;
+    }
+
+    private ClassPathIndex getClassPathIndex() {
+        if (classPathIndex == null) {
+            classPathIndex = ClassPathIndex.get();
+        }
+        return classPathIndex;
+    }
+
+    private Optional<URI> tryGetUriFromClassLoader(String typeFile, ClassLoader classLoader) {
+        URL resource = classLoader.getResource(typeFile);
         if (resource == null) {
             return Optional.absent();
         }
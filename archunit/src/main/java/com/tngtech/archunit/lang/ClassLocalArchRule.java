@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014-2020 TNG Technology Consulting GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tngtech.archunit.lang;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.tngtech.archunit.PublicAPI;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.tngtech.archunit.PublicAPI.Usage.ACCESS;
+import static com.tngtech.archunit.lang.Priority.MEDIUM;
+import static java.util.Collections.singletonList;
+
+/**
+ * An {@link ArchRule} that is declared to consider each class in isolation, i.e. the result of evaluating the rule
+ * against some {@link JavaClasses} is the same as evaluating it against any partition of these classes and
+ * combining the results. E.g. rules like "classes that reside in a package 'foo' should be public" or
+ * "classes that reside in a package 'foo' should not access classes that reside in a package 'bar'" are class-local,
+ * while rules about incoming dependencies or cycles are not.
+ * <br><br>
+ * Class-local rules can be evaluated against classes imported chunk by chunk
+ * (compare {@link ClassFileImporter#importLocationsInChunks(Collection, int)}), so the memory consumption
+ * is bounded by the size of a chunk instead of the number of classes to check. Every chunk still contains the
+ * class hierarchies, enclosing classes and (meta-)annotations of its classes, thus predicates like "are assignable to"
+ * or "are meta-annotated with" are class-local. Targets of accesses outside of a chunk on the other hand are stubs,
+ * thus rules about any other details of the classes a class depends on are not class-local.
+ * Note that ArchUnit cannot verify that a rule is actually class-local, declaring a rule class-local that
+ * considers several classes at once will lead to wrong results.
+ */
+public final class ClassLocalArchRule implements ArchRule {
+    private final ArchRule rule;
+
+    private ClassLocalArchRule(ArchRule rule) {
+        this.rule = checkNotNull(rule);
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public static ClassLocalArchRule classLocal(ArchRule rule) {
+        return rule instanceof ClassLocalArchRule ? (ClassLocalArchRule) rule : new ClassLocalArchRule(rule);
+    }
+
+    /**
+     * Evaluates all the given rules against each chunk of classes and merges the results per rule.
+     * Each chunk is only requested once from {@code chunks} and can be discarded as soon as all rules
+     * have been evaluated against it.
+     *
+     * @return The results of the given rules in the same order as the rules
+     */
+    @PublicAPI(usage = ACCESS)
+    public static List<EvaluationResult> evaluateInChunks(Iterable<JavaClasses> chunks, Collection<ClassLocalArchRule> rules) {
+        List<ClassLocalArchRule> ruleList = ImmutableList.copyOf(rules);
+        List<EvaluationResult> results = new ArrayList<>();
+        for (JavaClasses chunk : chunks) {
+            for (int i = 0; i < ruleList.size(); i++) {
+                EvaluationResult result = ruleList.get(i).evaluate(chunk);
+                if (results.size() <= i) {
+                    results.add(result);
+                } else {
+                    results.get(i).add(result);
+                }
+            }
+        }
+        for (int i = results.size(); i < ruleList.size(); i++) {
+            results.add(new EvaluationResult(ruleList.get(i), MEDIUM));
+        }
+        return results;
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public EvaluationResult evaluateInChunks(Iterable<JavaClasses> chunks) {
+        return evaluateInChunks(chunks, singletonList(this)).get(0);
+    }
+
+    @PublicAPI(usage = ACCESS)
+    public void checkInChunks(Iterable<JavaClasses> chunks) {
+        Assertions.assertNoViolation(evaluateInChunks(chunks));
+    }
+
+    @Override
+    @PublicAPI(usage = ACCESS)
+    public void check(JavaClasses classes) {
+        Assertions.check(this, classes);
+    }
+
+    @Override
+    @PublicAPI(usage = ACCESS)
+    public EvaluationResult evaluate(JavaClasses classes) {
+        return rule.evaluate(classes);
+    }
+
+    @Override
+    @PublicAPI(usage = ACCESS)
+    public ClassLocalArchRule because(String reason) {
+        return new ClassLocalArchRule(rule.because(reason));
+    }
+
+    @Override
+    @PublicAPI(usage = ACCESS)
+    public ClassLocalArchRule as(String newDescription) {
+        return new ClassLocalArchRule(rule.as(newDescription));
+    }
+
+    @Override
+    @PublicAPI(usage = ACCESS)
+    public String getDescription() {
+        return rule.getDescription();
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
@@ -16,6 +16,7 @@
 package com.tngtech.archunit.lang.conditions;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.SortedSet;
@@ -50,6 +51,7 @@ import com.tngtech.archunit.core.domain.JavaMember;
 import com.tngtech.archunit.core.domain.JavaMethod;
 import com.tngtech.archunit.core.domain.JavaMethodCall;
 import com.tngtech.archunit.core.domain.JavaModifier;
+import com.tngtech.archunit.core.domain.TransitiveDependencyIndex;
 import com.tngtech.archunit.core.domain.properties.HasAnnotations;
 import com.tngtech.archunit.core.domain.properties.HasModifiers;
 import com.tngtech.archunit.core.domain.properties.HasName;
@@ -304,6 +306,20 @@ public final class ArchConditions {
                 GET_DIRECT_DEPENDENCIES_FROM_SELF);
     }
 
+    /**
+     * Like {@link #dependOnClassesThat(DescribedPredicate)}, but also follows the dependencies of the dependency targets,
+     * i.e. {@code A} transitively depends on {@code C} if {@code A} depends on {@code B} and {@code B} depends on {@code C}.
+     * Violations report one shortest chain of dependencies to a matching class.
+     * <br><br>
+     * NOTE: This usually makes more sense the negated way, e.g. to assert that the domain never reaches the infrastructure
+     * by any chain of dependencies. Whether a class transitively depends on a matching class is answered
+     * from an index, which is computed once per import, so checking many classes is cheap.
+     */
+    @PublicAPI(usage = ACCESS)
+    public static ArchCondition<JavaClass> transitivelyDependOnClassesThat(final DescribedPredicate<? super JavaClass> predicate) {
+        return new TransitiveDependencyCondition(predicate);
+    }
+
     @PublicAPI(usage = ACCESS)
     public static ArchCondition<JavaClass> onlyBeAccessedByClassesThat(DescribedPredicate<? super JavaClass> predicate) {
         return new AllAccessesCondition("only be accessed by classes that",
@@ -1088,6 +1104,35 @@ public final class ArchConditions {
         }
     }
 
+    private static class TransitiveDependencyCondition extends ArchCondition<JavaClass> {
+        private final DescribedPredicate<? super JavaClass> predicate;
+        private final TransitiveDependencyIndex index;
+
+        TransitiveDependencyCondition(DescribedPredicate<? super JavaClass> predicate) {
+            super("transitively depend on classes that " + predicate.getDescription());
+            this.predicate = predicate;
+            this.index = TransitiveDependencyIndex.forTargetClassesThat(predicate);
+        }
+
+        @Override
+        public void check(JavaClass javaClass, ConditionEvents events) {
+            List<JavaClass> path = index.findDependencyPathToMatchingClass(javaClass);
+            boolean satisfied = !path.isEmpty();
+            String description = satisfied
+                    ? String.format("transitively depends on <%s> by [%s]", path.get(path.size() - 1).getName(), Joiner.on("->").join(namesOf(path)))
+                    : "does not transitively depend on any class that " + predicate.getDescription();
+            events.add(new SimpleConditionEvent(javaClass, satisfied, createMessage(javaClass, description)));
+        }
+
+        private static List<String> namesOf(List<JavaClass> classes) {
+            List<String> result = new ArrayList<>();
+            for (JavaClass javaClass : classes) {
+                result.add(javaClass.getName());
+            }
+            return result;
+        }
+    }
+
     private static class ImplementsCondition extends ArchCondition<JavaClass> {
         private final DescribedPredicate<? super JavaClass> implement;
 
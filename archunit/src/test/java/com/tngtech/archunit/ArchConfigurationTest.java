@@ -1,5 +1,6 @@
 package com.tngtech.archunit;
 
+import com.tngtech.archunit.core.domain.Source.HashAlgorithm;
 import com.tngtech.archunit.testutil.SystemPropertiesRule;
 import org.junit.After;
 import org.junit.Before;
@@ -59,13 +60,21 @@ public class ArchConfigurationTest {
     public void simple_properties_explicitly_set() {
         writeProperties(
                 ArchConfiguration.RESOLVE_MISSING_DEPENDENCIES_FROM_CLASS_PATH, true,
-                ArchConfiguration.ENABLE_MD5_IN_CLASS_SOURCES, true
+                ArchConfiguration.ENABLE_MD5_IN_CLASS_SOURCES, true,
+                ArchConfiguration.IMPORT_PARALLELISM, 4,
+                ArchConfiguration.IMPORT_CACHE_DIRECTORY, "/some/cache",
+                ArchConfiguration.CLASS_SOURCE_HASH_ALGORITHM, "CRC32C",
+                ArchConfiguration.IMPORT_METRICS_LISTENER, "some.Listener"
         );
 
         ArchConfiguration configuration = testConfiguration(PROPERTIES_FILE_NAME);
 
         assertThat(configuration.resolveMissingDependenciesFromClassPath()).isTrue();
         assertThat(configuration.md5InClassSourcesEnabled()).isTrue();
+        assertThat(configuration.getImportParallelism()).isEqualTo(4);
+        assertThat(configuration.getImportCacheDirectory()).contains("/some/cache");
+        assertThat(configuration.getClassSourceHashAlgorithm()).isEqualTo(HashAlgorithm.CRC32C);
+        assertThat(configuration.getImportMetricsListener()).contains("some.Listener");
         assertThat(configuration.getClassResolver()).isAbsent();
         assertThat(configuration.getClassResolverArguments()).isEmpty();
     }
@@ -287,6 +296,23 @@ public class ArchConfigurationTest {
                 .as("configuration.resolveMissingDependenciesFromClassPath()").isTrue();
         assertThat(configuration.md5InClassSourcesEnabled())
                 .as("configuration.md5InClassSourcesEnabled()").isFalse();
+        assertThat(configuration.getImportParallelism())
+                .as("configuration.getImportParallelism()").isEqualTo(1);
+        assertThat(configuration.getImportCacheDirectory())
+                .as("configuration.getImportCacheDirectory()").isAbsent();
+        assertThat(configuration.getClassSourceHashAlgorithm())
+                .as("configuration.getClassSourceHashAlgorithm()").isEqualTo(HashAlgorithm.MD5);
+        assertThat(configuration.getImportMetricsListener())
+                .as("configuration.getImportMetricsListener()").isAbsent();
+    }
+
+    @Test
+    public void rejects_import_parallelism_smaller_than_one() {
+        ArchConfiguration configuration = testConfiguration(PROPERTIES_FILE_NAME);
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("at least 1");
+        configuration.setImportParallelism(0);
     }
 
     private ArchConfiguration testConfiguration(String resourceName) {
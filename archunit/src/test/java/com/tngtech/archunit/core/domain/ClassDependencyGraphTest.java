@@ -0,0 +1,132 @@
+package com.tngtech.archunit.core.domain;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.Test;
+
+import static com.tngtech.archunit.core.domain.ClassDependencyGraph.NO_ID;
+import static com.tngtech.archunit.core.domain.Dependency.Kind.ACCESS;
+import static com.tngtech.archunit.core.domain.Dependency.Kind.COMPONENT_TYPE;
+import static com.tngtech.archunit.core.domain.Dependency.Kind.FIELD_TYPE;
+import static com.tngtech.archunit.core.domain.Dependency.Kind.INHERITANCE;
+import static com.tngtech.archunit.core.domain.Dependency.Kind.PARAMETER_TYPE;
+import static com.tngtech.archunit.core.domain.Dependency.Kind.RETURN_TYPE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassDependencyGraphTest {
+
+    @SuppressWarnings("unused")
+    static class Graph {
+        static class A extends B {
+            C c;
+            D[][] ds;
+
+            C call(C c) {
+                return c;
+            }
+        }
+
+        static class B {
+        }
+
+        static class C {
+            A a;
+        }
+
+        static class D {
+        }
+    }
+
+    @Test
+    public void stores_one_edge_per_pair_of_classes_with_the_kinds_of_all_dependencies() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class, Graph.D.class);
+        ClassDependencyGraph graph = classes.get(Graph.A.class).getDependencyGraph();
+
+        Map<JavaClass, Integer> outgoingKinds = outgoingKindsOf(graph, classes.get(Graph.A.class));
+
+        assertThat(outgoingKinds.get(classes.get(Graph.B.class))).as("inheritance and super constructor call").isEqualTo(INHERITANCE.mask() | ACCESS.mask());
+        assertThat(outgoingKinds.get(classes.get(Graph.C.class)))
+                .isEqualTo(FIELD_TYPE.mask() | PARAMETER_TYPE.mask() | RETURN_TYPE.mask());
+        assertThat(outgoingKinds.get(classes.get(Graph.D.class))).as("edge to base component type of array")
+                .isEqualTo(FIELD_TYPE.mask() | COMPONENT_TYPE.mask());
+        assertThat(outgoingKinds).doesNotContainKey(classes.get(Graph.A.class));
+    }
+
+    @Test
+    public void incoming_edges_mirror_outgoing_edges() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class, Graph.D.class);
+        ClassDependencyGraph graph = classes.get(Graph.A.class).getDependencyGraph();
+
+        Set<String> outgoing = new HashSet<>();
+        Set<String> incoming = new HashSet<>();
+        for (int id = 0; id < graph.size(); id++) {
+            for (int edge = graph.outgoingStart(id); edge < graph.outgoingEnd(id); edge++) {
+                outgoing.add(id + "->" + graph.targetAt(edge) + ":" + graph.outgoingKindsAt(edge));
+            }
+            for (int edge = graph.incomingStart(id); edge < graph.incomingEnd(id); edge++) {
+                incoming.add(graph.originAt(edge) + "->" + id + ":" + graph.incomingKindsAt(edge));
+            }
+        }
+
+        assertThat(incoming).isNotEmpty().isEqualTo(outgoing);
+        int idOfA = graph.idOf(classes.get(Graph.A.class));
+        int idOfC = graph.idOf(classes.get(Graph.C.class));
+        assertThat(incoming).contains(idOfC + "->" + idOfA + ":" + FIELD_TYPE.mask());
+    }
+
+    @Test
+    public void dependencies_to_class_match_dependencies_from_all_imported_classes() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class, Graph.D.class);
+
+        for (JavaClass target : classes) {
+            Set<Dependency> expected = new HashSet<>();
+            for (JavaClass origin : classes) {
+                for (Dependency dependency : origin.getDirectDependenciesFromSelf()) {
+                    if (dependency.getTargetClass().equals(target)) {
+                        expected.add(dependency);
+                    }
+                }
+            }
+            assertThat(target.getDirectDependenciesToSelf()).as("dependencies to " + target.getSimpleName()).containsOnlyElementsOf(expected);
+            assertThat(target.getDirectDependenciesToSelf()).hasSameSizeAs(expected);
+        }
+    }
+
+    @Test
+    public void dependencies_to_class_contain_exactly_the_dependencies_on_that_class() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class, Graph.D.class);
+        ClassDependencyGraph graph = classes.get(Graph.A.class).getDependencyGraph();
+
+        Set<Dependency> dependenciesToC = graph.getDependenciesTo(classes.get(Graph.C.class));
+        for (Dependency dependency : classes.get(Graph.A.class).getDirectDependenciesFromSelf()) {
+            boolean targetsC = dependency.getTargetClass().equals(classes.get(Graph.C.class));
+            assertThat(dependenciesToC.contains(dependency)).as("contains " + dependency).isEqualTo(targetsC);
+        }
+        assertThat(dependenciesToC.contains(new Object())).isFalse();
+        assertThat(dependenciesToC).isEqualTo(new HashSet<>(dependenciesToC));
+    }
+
+    @Test
+    public void classes_outside_of_the_graph_have_no_id() {
+        JavaClasses classes = new ClassFileImporter().importClasses(Graph.B.class);
+        ClassDependencyGraph graph = classes.get(Graph.B.class).getDependencyGraph();
+
+        JavaClass otherClass = new ClassFileImporter().importClasses(Graph.D.class).get(Graph.D.class);
+
+        assertThat(graph.idOf(otherClass)).isEqualTo(NO_ID);
+        assertThat(graph.getDependenciesTo(otherClass)).isEmpty();
+    }
+
+    private Map<JavaClass, Integer> outgoingKindsOf(ClassDependencyGraph graph, JavaClass origin) {
+        Map<JavaClass, Integer> result = new HashMap<>();
+        int id = graph.idOf(origin);
+        for (int edge = graph.outgoingStart(id); edge < graph.outgoingEnd(id); edge++) {
+            result.put(graph.classOf(graph.targetAt(edge)), graph.outgoingKindsAt(edge));
+        }
+        return result;
+    }
+}
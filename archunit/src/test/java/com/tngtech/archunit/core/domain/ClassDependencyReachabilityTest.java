@@ -0,0 +1,93 @@
+package com.tngtech.archunit.core.domain;
+
+import java.util.Arrays;
+
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassDependencyReachabilityTest {
+
+    @SuppressWarnings("unused")
+    static class Graph {
+        static class A {
+            B b;
+        }
+
+        static class B {
+            C c;
+            D d;
+        }
+
+        static class C {
+            A a;
+        }
+
+        static class D {
+            E[] e;
+        }
+
+        static class E {
+        }
+    }
+
+    @Test
+    public void classes_within_a_cycle_share_one_component() {
+        JavaClasses classes = importGraph();
+        ClassDependencyGraph graph = classes.get(Graph.A.class).getDependencyGraph();
+        ClassDependencyReachability reachability = graph.getReachability();
+
+        int componentOfA = reachability.componentOf(idOf(graph, classes, Graph.A.class));
+
+        assertThat(reachability.componentOf(idOf(graph, classes, Graph.B.class))).isEqualTo(componentOfA);
+        assertThat(reachability.componentOf(idOf(graph, classes, Graph.C.class))).isEqualTo(componentOfA);
+        assertThat(reachability.componentOf(idOf(graph, classes, Graph.D.class))).isNotEqualTo(componentOfA);
+        assertThat(reachability.componentMembersEnd(componentOfA) - reachability.componentMembersStart(componentOfA)).isEqualTo(3);
+    }
+
+    @Test
+    public void reaches_classes_transitively() {
+        JavaClasses classes = importGraph();
+        ClassDependencyGraph graph = classes.get(Graph.A.class).getDependencyGraph();
+        ClassDependencyReachability reachability = graph.getReachability();
+
+        int a = idOf(graph, classes, Graph.A.class);
+        int c = idOf(graph, classes, Graph.C.class);
+        int d = idOf(graph, classes, Graph.D.class);
+        int e = idOf(graph, classes, Graph.E.class);
+        int object = graph.idOf(classes.get(Graph.A.class).getSuperClass().get());
+
+        assertThat(reachability.reaches(a, e)).as("A reaches E via array").isTrue();
+        assertThat(reachability.reaches(c, d)).as("C reaches D").isTrue();
+        assertThat(reachability.reaches(c, a)).as("C reaches A").isTrue();
+        assertThat(reachability.reaches(a, a)).as("A reaches itself").isTrue();
+        assertThat(reachability.reaches(d, a)).as("D reaches A").isFalse();
+        assertThat(reachability.reaches(e, d)).as("E reaches D").isFalse();
+        assertThat(reachability.reaches(e, object)).as("E reaches Object").isTrue();
+    }
+
+    @Test
+    public void does_not_share_reachable_components_between_queries() {
+        JavaClasses classes = importGraph();
+        ClassDependencyGraph graph = classes.get(Graph.A.class).getDependencyGraph();
+        ClassDependencyReachability reachability = graph.getReachability();
+        int a = idOf(graph, classes, Graph.A.class);
+        int e = idOf(graph, classes, Graph.E.class);
+
+        int[] reachableFromA = reachability.reachableComponentsFrom(a);
+        assertThat(reachableFromA).contains(reachability.componentOf(e));
+        Arrays.fill(reachableFromA, reachability.componentOf(a));
+
+        assertThat(reachability.reachableComponentsFrom(a)).contains(reachability.componentOf(e)).doesNotHaveDuplicates();
+        assertThat(reachability.reaches(a, e)).isTrue();
+    }
+
+    private JavaClasses importGraph() {
+        return new ClassFileImporter().importClasses(Graph.A.class, Graph.B.class, Graph.C.class, Graph.D.class, Graph.E.class);
+    }
+
+    private int idOf(ClassDependencyGraph graph, JavaClasses classes, Class<?> type) {
+        return graph.idOf(classes.get(type));
+    }
+}
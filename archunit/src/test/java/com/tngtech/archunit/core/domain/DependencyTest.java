@@ -275,6 +275,21 @@ public class DependencyTest {
                 ClassWithTypeParameters.class.getName(), typeParameter.getName(), String.class.getName(), getClass().getSimpleName()));
     }
 
+    @Test
+    public void Dependencies_with_the_same_origin_target_and_line_but_different_cause_are_distinct() {
+        JavaClass origin = importClassesWithContext(ClassWithTwoFieldsOfSameType.class, DependencyClass.class)
+                .get(ClassWithTwoFieldsOfSameType.class);
+
+        Dependency first = getOnlyElement(Dependency.tryCreateFromField(origin.getField("first")));
+        Dependency second = getOnlyElement(Dependency.tryCreateFromField(origin.getField("second")));
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first).isEqualTo(getOnlyElement(Dependency.tryCreateFromField(origin.getField("first"))));
+        assertThat(first.hashCode()).isEqualTo(getOnlyElement(Dependency.tryCreateFromField(origin.getField("first"))).hashCode());
+        assertThat(first.getDescription()).isEqualTo(String.format("Field <%s.first> has type <%s> in (%s.java:0)",
+                ClassWithTwoFieldsOfSameType.class.getName(), DependencyClass.class.getName(), getClass().getSimpleName()));
+    }
+
     @Test
     public void origin_predicates_match() {
         assertThatDependency(Origin.class, Target.class)
@@ -370,6 +385,12 @@ public class DependencyTest {
     private static class Origin {
     }
 
+    @SuppressWarnings("unused")
+    private static class ClassWithTwoFieldsOfSameType {
+        DependencyClass first;
+        DependencyClass second;
+    }
+
     private static class Target {
     }
 
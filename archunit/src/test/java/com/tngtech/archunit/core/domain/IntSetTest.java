@@ -0,0 +1,21 @@
+package com.tngtech.archunit.core.domain;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntSetTest {
+    @Test
+    public void adds_every_value_only_once() {
+        IntSet set = new IntSet();
+
+        for (int value = 0; value < 1000; value++) {
+            assertThat(set.add(value)).as("added %d", value).isTrue();
+        }
+        for (int value = 0; value < 1000; value++) {
+            assertThat(set.add(value)).as("added %d again", value).isFalse();
+        }
+        assertThat(set.add(Integer.MAX_VALUE)).as("added max value").isTrue();
+        assertThat(set.add(Integer.MAX_VALUE)).as("added max value again").isFalse();
+    }
+}
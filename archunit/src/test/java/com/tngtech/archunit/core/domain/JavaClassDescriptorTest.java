@@ -53,6 +53,29 @@ public class JavaClassDescriptorTest {
         assertThat(objectType).isEquivalentTo(Object.class);
     }
 
+    @Test
+    public void records_cache_statistics() {
+        String typeName = getClass().getName() + "$NotCachedBefore" + System.nanoTime();
+        JavaClassDescriptor.From.CacheStatistics before = JavaClassDescriptor.From.getCacheStatistics();
+
+        JavaClassDescriptor first = JavaClassDescriptor.From.name(typeName);
+        JavaClassDescriptor second = JavaClassDescriptor.From.name(typeName);
+
+        JavaClassDescriptor.From.CacheStatistics after = JavaClassDescriptor.From.getCacheStatistics();
+        assertThat(second).isSameAs(first);
+        assertThat(after.getMissCount()).isGreaterThanOrEqualTo(before.getMissCount() + 1);
+        assertThat(after.getHitCount()).isGreaterThanOrEqualTo(before.getHitCount() + 1);
+        assertThat(after.getSize()).isGreaterThan(0);
+    }
+
+    @Test
+    public void types_of_the_same_package_share_the_package_name() {
+        JavaClassDescriptor first = JavaClassDescriptor.From.name("some.pkg.First");
+        JavaClassDescriptor second = JavaClassDescriptor.From.name("some.pkg.Second");
+
+        assertThat(first.getPackageName()).isEqualTo("some.pkg").isSameAs(second.getPackageName());
+    }
+
     @Test
     @UseDataProvider(value = "primitives")
     public void resolves_primitive_type_names(String name, Class<?> expected) {
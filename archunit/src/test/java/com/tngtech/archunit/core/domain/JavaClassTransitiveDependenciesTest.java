@@ -1,11 +1,24 @@
 package com.tngtech.archunit.core.domain;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
 import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassWriter;
 
+import static com.google.common.base.Preconditions.checkState;
 import static com.tngtech.archunit.testutil.Assertions.assertThatDependencies;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.V1_7;
 
 public class JavaClassTransitiveDependenciesTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @SuppressWarnings("unused")
     static class AcyclicGraph {
@@ -143,4 +156,36 @@ public class JavaClassTransitiveDependenciesTest {
                     .contain(e, String.class);
         // @formatter:on
     }
+
+    @Test
+    public void findsTransitiveDependenciesInDeepGraphWithoutRecursion() throws IOException {
+        int depth = 20000;
+        File folder = temporaryFolder.newFolder();
+        for (int i = 0; i < depth; i++) {
+            writeClassWithFieldOfType(folder, "deep.Class" + i, "deep.Class" + ((i + 1) % depth));
+        }
+
+        JavaClasses classes = new ClassFileImporter().importPath(folder.toPath());
+
+        JavaClass first = classes.get("deep.Class0");
+        JavaClass last = classes.get("deep.Class" + (depth - 1));
+        assertThat(first.getTransitiveDependenciesFromSelf())
+                .containsAll(first.getDirectDependenciesFromSelf())
+                .containsAll(last.getDirectDependenciesFromSelf());
+        assertThat(last.getTransitiveDependenciesFromSelf())
+                .as("transitive dependencies from the same cycle")
+                .isEqualTo(first.getTransitiveDependenciesFromSelf());
+    }
+
+    private void writeClassWithFieldOfType(File rootFolder, String name, String fieldTypeName) throws IOException {
+        String internalName = name.replace('.', '/');
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(V1_7, ACC_PUBLIC, internalName, null, "java/lang/Object", new String[0]);
+        classWriter.visitField(ACC_PUBLIC, "field", "L" + fieldTypeName.replace('.', '/') + ";", null, null).visitEnd();
+        classWriter.visitEnd();
+
+        File classFile = new File(rootFolder, internalName + ".class");
+        checkState(classFile.getParentFile().isDirectory() || classFile.getParentFile().mkdirs());
+        Files.write(classFile.toPath(), classWriter.toByteArray());
+    }
 }
@@ -9,12 +9,18 @@ import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import com.tngtech.archunit.ArchConfiguration;
 import com.tngtech.archunit.base.Optional;
+import com.tngtech.archunit.core.domain.Source.HashAlgorithm;
 import com.tngtech.archunit.core.domain.Source.Md5sum;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
@@ -141,6 +147,38 @@ public class SourceTest {
         assertThat(first).isNotEqualTo(second);
     }
 
+    @Test
+    @UseDataProvider("classes")
+    public void calculates_crc32c_correctly(URL url) throws Exception {
+        Md5sum checksum = Md5sum.of(bytesAt(url), HashAlgorithm.CRC32C);
+
+        assertThat(checksum.asBytes()).isEqualTo(Hashing.crc32c().hashBytes(bytesAt(url)).asBytes());
+        assertThat(checksum).isNotEqualTo(Md5sum.of(bytesAt(url), HashAlgorithm.MD5));
+    }
+
+    @Test
+    public void calculates_md5_concurrently() throws Exception {
+        final byte[] input = bytesAt(urlOf(SourceTest.class));
+        final byte[] expected = MessageDigest.getInstance("MD5").digest(input);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() {
+                        return Md5sum.of(input, HashAlgorithm.MD5).asBytes();
+                    }
+                }));
+            }
+            for (Future<byte[]> result : results) {
+                assertThat(result.get()).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void compensates_error_on_md5_calculation() throws Exception {
         Source source = newSource(new URI("bummer"));
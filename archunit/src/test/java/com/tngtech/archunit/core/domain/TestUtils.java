@@ -177,6 +177,7 @@ public class TestUtils {
         private JavaMethodCall to(MethodCallTarget methodCallTarget) {
             targets.add(methodCallTarget);
             ImportContext context = mock(ImportContext.class);
+            when(context.areCodeUnitBodiesImported()).thenReturn(true);
             Set<JavaMethodCall> calls = new HashSet<>();
             for (MethodCallTarget target : targets) {
                 calls.add(newMethodCall(method, target, lineNumber));
@@ -206,6 +207,7 @@ public class TestUtils {
 
         public void to(JavaField target, AccessType accessType) {
             ImportContext context = mock(ImportContext.class);
+            when(context.areCodeUnitBodiesImported()).thenReturn(true);
             when(context.createFieldAccessesFor(method))
                     .thenReturn(ImmutableSet.of(
                             newFieldAccess(method, target, lineNumber, accessType)
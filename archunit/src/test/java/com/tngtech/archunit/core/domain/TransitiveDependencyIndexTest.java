@@ -0,0 +1,69 @@
+package com.tngtech.archunit.core.domain;
+
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import org.junit.Test;
+
+import static com.tngtech.archunit.core.domain.JavaClass.Predicates.type;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransitiveDependencyIndexTest {
+
+    @SuppressWarnings("unused")
+    static class Graph {
+        static class Origin {
+            Cycle1 cycle;
+        }
+
+        static class Cycle1 {
+            Cycle2 next;
+        }
+
+        static class Cycle2 {
+            Cycle1 previous;
+            Target[] targets;
+        }
+
+        static class Target {
+        }
+
+        static class Unrelated {
+            Origin origin;
+        }
+    }
+
+    @Test
+    public void finds_classes_transitively_depending_on_matching_classes() {
+        JavaClasses classes = importGraph();
+        TransitiveDependencyIndex index = TransitiveDependencyIndex.forTargetClassesThat(type(Graph.Target.class));
+
+        assertThat(index.transitivelyDependsOnMatchingClass(classes.get(Graph.Origin.class))).isTrue();
+        assertThat(index.transitivelyDependsOnMatchingClass(classes.get(Graph.Cycle1.class))).isTrue();
+        assertThat(index.transitivelyDependsOnMatchingClass(classes.get(Graph.Unrelated.class))).isTrue();
+        assertThat(index.transitivelyDependsOnMatchingClass(classes.get(Graph.Target.class))).as("target itself").isFalse();
+    }
+
+    @Test
+    public void finds_shortest_path_to_matching_class() {
+        JavaClasses classes = importGraph();
+        TransitiveDependencyIndex index = TransitiveDependencyIndex.forTargetClassesThat(type(Graph.Target.class));
+
+        assertThat(index.findDependencyPathToMatchingClass(classes.get(Graph.Origin.class))).containsExactly(
+                classes.get(Graph.Origin.class), classes.get(Graph.Cycle1.class), classes.get(Graph.Cycle2.class), classes.get(Graph.Target.class));
+        assertThat(index.findDependencyPathToMatchingClass(classes.get(Graph.Target.class))).isEmpty();
+    }
+
+    @Test
+    public void class_within_cycle_transitively_depends_on_itself() {
+        JavaClasses classes = importGraph();
+        TransitiveDependencyIndex index = TransitiveDependencyIndex.forTargetClassesThat(type(Graph.Cycle1.class));
+
+        assertThat(index.findDependencyPathToMatchingClass(classes.get(Graph.Cycle1.class))).containsExactly(
+                classes.get(Graph.Cycle1.class), classes.get(Graph.Cycle2.class), classes.get(Graph.Cycle1.class));
+        assertThat(index.transitivelyDependsOnMatchingClass(classes.get(Graph.Target.class))).isFalse();
+    }
+
+    private JavaClasses importGraph() {
+        return new ClassFileImporter().importClasses(
+                Graph.Origin.class, Graph.Cycle1.class, Graph.Cycle2.class, Graph.Target.class, Graph.Unrelated.class);
+    }
+}
@@ -2,6 +2,7 @@ package com.tngtech.archunit.core.importer;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
@@ -11,28 +12,39 @@ import java.net.JarURLConnection;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLClassLoader;
 import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.jar.JarFile;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.ArchUnitException.AccessesNotImportableException;
+import com.tngtech.archunit.base.ArchUnitException.CodeUnitBodiesNotImportedException;
+import com.tngtech.archunit.base.ArchUnitException.ImportMetricsListenerConfigurationException;
 import com.tngtech.archunit.base.DescribedPredicate;
 import com.tngtech.archunit.base.ForwardingCollection;
+import com.tngtech.archunit.base.HasDescription;
 import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.AccessTarget.ConstructorCallTarget;
 import com.tngtech.archunit.core.domain.AccessTarget.FieldAccessTarget;
@@ -55,6 +67,7 @@ import com.tngtech.archunit.core.domain.JavaMethodCall;
 import com.tngtech.archunit.core.domain.JavaModifier;
 import com.tngtech.archunit.core.domain.JavaPackage;
 import com.tngtech.archunit.core.domain.Source;
+import com.tngtech.archunit.core.domain.Source.HashAlgorithm;
 import com.tngtech.archunit.core.domain.ThrowsDeclaration;
 import com.tngtech.archunit.core.domain.properties.HasName;
 import com.tngtech.archunit.core.domain.properties.HasOwner;
@@ -77,6 +90,10 @@ import com.tngtech.archunit.core.importer.testexamples.callimport.CallsOwnMethod
 import com.tngtech.archunit.core.importer.testexamples.callimport.ExternalInterfaceMethodCall;
 import com.tngtech.archunit.core.importer.testexamples.callimport.ExternalOverriddenMethodCall;
 import com.tngtech.archunit.core.importer.testexamples.callimport.ExternalSubTypeConstructorCall;
+import com.tngtech.archunit.core.importer.testexamples.chunkimport.Grandparent;
+import com.tngtech.archunit.core.importer.testexamples.chunkimport.MetaAnnotation;
+import com.tngtech.archunit.core.importer.testexamples.chunkimport.Outer;
+import com.tngtech.archunit.core.importer.testexamples.chunkimport.Parent;
 import com.tngtech.archunit.core.importer.testexamples.classhierarchyimport.BaseClass;
 import com.tngtech.archunit.core.importer.testexamples.classhierarchyimport.CollectionInterface;
 import com.tngtech.archunit.core.importer.testexamples.classhierarchyimport.GrandParentInterface;
@@ -164,13 +181,18 @@ import com.tngtech.java.junit.dataprovider.UseDataProvider;
 import org.apache.logging.log4j.Level;
 import org.assertj.core.api.Condition;
 import org.assertj.core.util.Objects;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Predicates.containsPattern;
 import static com.google.common.base.Predicates.not;
 import static com.google.common.collect.Iterables.getFirst;
@@ -209,10 +231,24 @@ import static com.tngtech.java.junit.dataprovider.DataProviders.$;
 import static com.tngtech.java.junit.dataprovider.DataProviders.$$;
 import static com.tngtech.java.junit.dataprovider.DataProviders.testForEach;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static org.junit.Assume.assumeTrue;
+import static org.objectweb.asm.Opcodes.ACC_ABSTRACT;
+import static org.objectweb.asm.Opcodes.ACC_ANNOTATION;
+import static org.objectweb.asm.Opcodes.ACC_INTERFACE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V1_7;
 
 @RunWith(DataProviderRunner.class)
 public class ClassFileImporterTest {
+    // NOTE: Enough classes to be split into several partitions of 128 classes by every parallel step of the import
+    private static final int NUMBER_OF_GENERATED_CLASSES = 300;
+
     @Rule
     public final OutsideOfClassPathRule outsideOfClassPath = new OutsideOfClassPathRule();
     @Rule
@@ -223,6 +259,8 @@ public class ClassFileImporterTest {
     public final IndependentClasspathRule independentClasspathRule = new IndependentClasspathRule();
     @Rule
     public final ArchConfigurationRule archConfigurationRule = new ArchConfigurationRule();
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
 
     @Test
     public void imports_simple_package() throws Exception {
@@ -1714,6 +1752,113 @@ public class ClassFileImporterTest {
         assertThat(clazz.getSuperClass().get().getMethods()).isEmpty();
     }
 
+    @Test
+    public void resolves_missing_dependencies_in_parallel_with_the_same_result_as_sequentially() throws Exception {
+        ArchConfiguration.get().unsetClassResolver();
+        ArchConfiguration.get().setResolveMissingDependenciesFromClassPath(true);
+
+        assertSameResultSequentiallyAndInParallel(new ComparedProperties() {
+            @Override
+            void describe(JavaClass javaClass) {
+                add("all members", javaClass.getAllMembers());
+            }
+        });
+    }
+
+    @Test
+    public void resolves_deep_annotation_hierarchies_from_classpath() throws Exception {
+        int depth = 3000;
+        File importFolder = temporaryFolder.newFolder();
+        File classpathFolder = temporaryFolder.newFolder();
+        writeAnnotationType(importFolder, "deep.Annotation0", Optional.of("deep.Annotation1"));
+        for (int i = 1; i < depth; i++) {
+            Optional<String> metaAnnotation = i + 1 < depth ? Optional.of("deep.Annotation" + (i + 1)) : Optional.<String>absent();
+            writeAnnotationType(classpathFolder, "deep.Annotation" + i, metaAnnotation);
+        }
+        ArchConfiguration.get().unsetClassResolver();
+        ArchConfiguration.get().setResolveMissingDependenciesFromClassPath(true);
+
+        JavaClasses classes;
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classpathFolder.toURI().toURL()}, originalClassLoader)) {
+            Thread.currentThread().setContextClassLoader(classLoader);
+            classes = new ClassFileImporter().importPath(importFolder.toPath());
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+
+        JavaClass current = classes.get("deep.Annotation0");
+        for (int i = 1; i < depth; i++) {
+            current = getOnlyElement(current.getAnnotations()).getRawType();
+            assertThat(current.getName()).isEqualTo("deep.Annotation" + i);
+        }
+        assertThat(current.getAnnotations()).isEmpty();
+    }
+
+    @Test
+    public void imports_locations_in_chunks_of_bounded_size() throws Exception {
+        Set<Location> locations = Locations.ofPackage(getClass().getPackage().getName() + ".testexamples");
+        JavaClasses fullImport = new ClassFileImporter().importLocations(locations);
+
+        Set<String> namesImportedInChunks = new HashSet<>();
+        int numberOfChunks = 0;
+        for (JavaClasses chunk : new ClassFileImporter().importLocationsInChunks(locations, 10)) {
+            assertThat(chunk.size()).as("number of classes in chunk").isLessThanOrEqualTo(10);
+            namesImportedInChunks.addAll(namesOf(chunk));
+            numberOfChunks++;
+        }
+
+        assertThat(namesImportedInChunks).containsOnlyElementsOf(namesOf(fullImport)).hasSize(fullImport.size());
+        assertThat(numberOfChunks).isGreaterThanOrEqualTo(fullImport.size() / 10);
+    }
+
+    @Test
+    public void replaces_classes_missing_from_a_chunk_by_stubs_instead_of_resolving_them_from_the_classpath() {
+        ArchConfiguration.get().setResolveMissingDependenciesFromClassPath(true);
+        Set<Location> locations = ImmutableSet.<Location>builder()
+                .addAll(Locations.ofClass(CallsOtherMethod.class))
+                .addAll(Locations.ofClass(CallsOwnMethod.class))
+                .build();
+
+        for (JavaClasses chunk : new ClassFileImporter().importLocationsInChunks(locations, 1)) {
+            for (JavaClass javaClass : chunk) {
+                for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+                    JavaClass target = dependency.getTargetClass();
+                    if (!chunk.contain(target.getName())) {
+                        assertThat(target.getSource().isPresent()).as("source of " + target.getName() + " is present").isFalse();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void resolves_hierarchies_enclosing_classes_and_annotations_of_a_chunk_from_other_chunks() {
+        Set<Location> locations = Locations.ofPackage(Outer.class.getPackage().getName());
+
+        JavaClass child = null;
+        for (JavaClasses chunk : new ClassFileImporter().importLocationsInChunks(locations, 1)) {
+            if (chunk.contain(Outer.Child.class)) {
+                child = chunk.get(Outer.Child.class);
+            }
+        }
+
+        assertThat(child).as("imported class").isNotNull();
+        assertThat(child.getAllSuperClasses()).extracting("name")
+                .containsExactly(Parent.class.getName(), Grandparent.class.getName(), Object.class.getName());
+        assertThat(child.isAssignableTo(Grandparent.class)).as("child is assignable to grandparent").isTrue();
+        assertThat(child.getEnclosingClass().get().getSource().isPresent()).as("source of enclosing class is present").isTrue();
+        assertThat(child.isMetaAnnotatedWith(MetaAnnotation.class)).as("child is meta-annotated").isTrue();
+    }
+
+    @Test
+    public void rejects_non_positive_chunk_size() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Chunk size must be positive");
+
+        new ClassFileImporter().importLocationsInChunks(Locations.ofClass(getClass()), 0);
+    }
+
     @DataProvider
     public static Object[][] classes_not_fully_imported() {
         class Element {
@@ -1773,6 +1918,260 @@ public class ClassFileImporterTest {
         logTest.assertLogMessage(Level.WARN, "Evil.class");
     }
 
+    @Test
+    public void imports_class_files_in_parallel_with_the_same_result_as_sequentially() throws Exception {
+        assertSameResultSequentiallyAndInParallel(new ComparedProperties() {
+            @Override
+            void describe(JavaClass javaClass) {
+            }
+        });
+    }
+
+    @Test
+    public void completes_classes_and_accesses_in_parallel_with_the_same_result_as_sequentially() throws Exception {
+        assertSameResultSequentiallyAndInParallel(new ComparedProperties() {
+            @Override
+            void describe(JavaClass javaClass) {
+                add("accesses from", javaClass.getAccessesFromSelf());
+                add("subclasses of", javaClass.getSubClasses());
+            }
+        });
+    }
+
+    // NOTE: Members depending on a class are indexed lazily on first query, i.e. with the parallelism configured at that time
+    @Test
+    public void indexes_dependencies_to_classes_in_parallel_with_the_same_result_as_sequentially() throws Exception {
+        assertSameResultSequentiallyAndInParallel(new ComparedProperties() {
+            @Override
+            void describe(JavaClass javaClass) {
+                add("fields with type", javaClass.getFieldsWithTypeOfSelf());
+                add("methods with parameter type", javaClass.getMethodsWithParameterTypeOfSelf());
+                add("annotations with type", javaClass.getAnnotationsWithTypeOfSelf());
+                add("accesses to", javaClass.getAccessesToSelf());
+                add("dependencies to", javaClass.getDirectDependenciesToSelf());
+            }
+        });
+    }
+
+    @Test
+    public void imports_accesses_of_class_files_without_line_numbers_with_line_number_zero() throws Exception {
+        File folderWithLineNumbers = temporaryFolder.newFolder();
+        copyClassFile(CallsOtherMethod.class, folderWithLineNumbers);
+        File folderWithoutLineNumbers = writeClassesDependingOnEachOther(1);
+
+        JavaClasses classes = new ClassFileImporter().importPaths(folderWithLineNumbers.toPath(), folderWithoutLineNumbers.toPath());
+
+        Set<JavaAccess<?>> accesses = classes.get("generated.Class0").getAccessesFromSelf();
+        assertThat(accesses).isNotEmpty();
+        for (JavaAccess<?> access : accesses) {
+            assertThat(access.getLineNumber()).as("line number of " + access.getDescription()).isZero();
+        }
+    }
+
+    @Test
+    public void parallel_import_is_resilient_against_broken_class_files() throws Exception {
+        Class<?> expectedClass = getClass();
+
+        File folder = temporaryFolder.newFolder();
+        copyClassFile(expectedClass, folder);
+        Files.write(new File(folder, "Evil.class").toPath(), "broken".getBytes(UTF_8));
+
+        logTest.watch(ClassFileProcessor.class, Level.WARN);
+        ArchConfiguration.get().setImportParallelism(2);
+
+        JavaClasses classes = new ClassFileImporter().importPath(folder.toPath());
+
+        assertThatTypes(classes).matchExactly(expectedClass);
+        logTest.assertLogMessage(Level.WARN, "Evil.class");
+    }
+
+    @Test
+    public void imports_class_files_from_cache_with_the_same_result_as_without_cache() throws Exception {
+        File testexamplesFolder = new File(new File(urlOf(getClass()).toURI()).getParentFile(), "testexamples");
+        File cacheFolder = temporaryFolder.newFolder();
+
+        JavaClasses importedWithoutCache = new ClassFileImporter().importPath(testexamplesFolder.toPath());
+        ArchConfiguration.get().setImportCacheDirectory(cacheFolder.getAbsolutePath());
+        JavaClasses importedIntoCache = new ClassFileImporter().importPath(testexamplesFolder.toPath());
+        JavaClasses importedFromCache = new ClassFileImporter().importPath(testexamplesFolder.toPath());
+
+        assertThat(cacheFolder.list()).as("files in cache folder").isNotEmpty();
+        assertSameImport(importedIntoCache, importedWithoutCache);
+        assertSameImport(importedFromCache, importedWithoutCache);
+    }
+
+    @Test
+    public void import_cache_detects_changed_class_files() throws Exception {
+        File folder = temporaryFolder.newFolder();
+        Path classFile = new File(folder, "Some.class").toPath();
+        ArchConfiguration.get().setImportCacheDirectory(temporaryFolder.newFolder().getAbsolutePath());
+
+        Files.copy(Paths.get(urlOf(ClassToImportOne.class).toURI()), classFile);
+        assertThatTypes(new ClassFileImporter().importPath(folder.toPath())).matchExactly(ClassToImportOne.class);
+
+        Files.copy(Paths.get(urlOf(ClassToImportTwo.class).toURI()), classFile, REPLACE_EXISTING);
+        assertThatTypes(new ClassFileImporter().importPath(folder.toPath())).matchExactly(ClassToImportTwo.class);
+    }
+
+    @Test
+    public void import_cache_does_not_read_class_files_with_unchanged_size_and_modification_time() throws Exception {
+        File folder = temporaryFolder.newFolder();
+        Path classFile = new File(folder, "Some.class").toPath();
+        ArchConfiguration.get().setImportCacheDirectory(temporaryFolder.newFolder().getAbsolutePath());
+        ArchConfiguration.get().setMd5InClassSourcesEnabled(false);
+
+        Files.copy(Paths.get(urlOf(ClassToImportOne.class).toURI()), classFile);
+        assertThatTypes(new ClassFileImporter().importPath(folder.toPath())).matchExactly(ClassToImportOne.class);
+
+        FileTime lastModified = Files.getLastModifiedTime(classFile);
+        Files.write(classFile, new byte[(int) Files.size(classFile)]);
+        Files.setLastModifiedTime(classFile, lastModified);
+        assertThatTypes(new ClassFileImporter().importPath(folder.toPath())).matchExactly(ClassToImportOne.class);
+    }
+
+    @Test
+    public void import_cache_is_resilient_against_corrupt_cache_files() throws Exception {
+        File cacheFolder = temporaryFolder.newFolder();
+        ArchConfiguration.get().setImportCacheDirectory(cacheFolder.getAbsolutePath());
+        new ClassFileImporter().importClass(ClassToImportOne.class);
+        for (File cacheFile : cacheFolder.listFiles()) {
+            Files.write(cacheFile.toPath(), "broken".getBytes(UTF_8));
+        }
+
+        JavaClasses classes = new ClassFileImporter().importClasses(ClassToImportOne.class, ClassToImportTwo.class);
+
+        assertThatTypes(classes).matchInAnyOrder(ClassToImportOne.class, ClassToImportTwo.class);
+    }
+
+    @Test
+    public void imports_only_signatures_in_signatures_only_mode() {
+        JavaClasses classes = new ClassFileImporter().withImportMode(ImportMode.SIGNATURES_ONLY)
+                .importClasses(CallsOtherMethod.class, CallsOwnMethod.class);
+        JavaClass callsOtherMethod = classes.get(CallsOtherMethod.class);
+
+        assertThatType(callsOtherMethod.getField("other").getRawType()).matches(CallsOwnMethod.class);
+        assertThatType(callsOtherMethod.getMethod("getFromOther").getRawReturnType()).matches(String.class);
+        String dependencyDescriptions = Joiner.on(System.lineSeparator()).join(descriptionsOf(callsOtherMethod.getDirectDependenciesFromSelf()));
+        assertThat(dependencyDescriptions)
+                .contains("has type <" + CallsOwnMethod.class.getName() + ">")
+                .doesNotContain("calls method");
+    }
+
+    @Test
+    public void signatures_only_mode_fails_fast_on_accesses_from_code_units() {
+        JavaClasses classes = new ClassFileImporter().withImportMode(ImportMode.SIGNATURES_ONLY)
+                .importClasses(CallsOtherMethod.class, CallsOwnMethod.class);
+
+        thrown.expect(CodeUnitBodiesNotImportedException.class);
+        thrown.expectMessage("method calls");
+        thrown.expectMessage(CallsOtherMethod.class.getName() + ".getFromOther()");
+        classes.get(CallsOtherMethod.class).getMethodCallsFromSelf();
+    }
+
+    @Test
+    public void signatures_only_mode_fails_fast_on_accesses_to_members() {
+        JavaClasses classes = new ClassFileImporter().withImportMode(ImportMode.SIGNATURES_ONLY)
+                .importClasses(CallsOtherMethod.class, CallsOwnMethod.class);
+
+        thrown.expect(CodeUnitBodiesNotImportedException.class);
+        thrown.expectMessage("accesses to " + CallsOwnMethod.class.getName() + ".getString()");
+        classes.get(CallsOwnMethod.class).getMethod("getString").getCallsOfSelf();
+    }
+
+    @Test
+    public void imports_accesses_on_demand_with_the_same_result_as_full_import() throws Exception {
+        File testexamplesFolder = new File(new File(urlOf(getClass()).toURI()).getParentFile(), "testexamples");
+
+        JavaClasses importedFully = new ClassFileImporter().importPath(testexamplesFolder.toPath());
+        JavaClasses importedOnDemand = new ClassFileImporter().withImportMode(ImportMode.ACCESSES_ON_DEMAND)
+                .importPath(testexamplesFolder.toPath());
+
+        assertSameImport(importedOnDemand, importedFully);
+        for (JavaClass expected : importedFully) {
+            JavaClass actual = importedOnDemand.get(expected.getName());
+            assertThat(descriptionsOf(actual.getAccessesFromSelf()))
+                    .as("accesses from " + actual.getName())
+                    .isEqualTo(descriptionsOf(expected.getAccessesFromSelf()));
+            assertThat(descriptionsOf(actual.getAccessesToSelf()))
+                    .as("accesses to " + actual.getName())
+                    .isEqualTo(descriptionsOf(expected.getAccessesToSelf()));
+            assertThat(descriptionsOf(actual.getDirectDependenciesToSelf()))
+                    .as("dependencies to " + actual.getName())
+                    .isEqualTo(descriptionsOf(expected.getDirectDependenciesToSelf()));
+        }
+        assertThat(namesOf(importedOnDemand.getDefaultPackage().getAllClasses())).containsAll(namesOf(importedFully.getDefaultPackage().getAllClasses()));
+    }
+
+    @Test
+    public void imports_accesses_on_demand_from_the_class_file_when_first_requested() throws Exception {
+        File folder = temporaryFolder.newFolder();
+        copyClassFile(CallsOtherMethod.class, folder);
+        copyClassFile(CallsOwnMethod.class, folder);
+
+        JavaClasses classes = new ClassFileImporter().withImportMode(ImportMode.ACCESSES_ON_DEMAND).importPath(folder.toPath());
+
+        assertThat(getOnlyElement(classes.get(CallsOtherMethod.class).getMethodCallsFromSelf()).getTarget().getFullName())
+                .isEqualTo(CallsOwnMethod.class.getName() + ".getString()");
+    }
+
+    @Test
+    public void imports_accesses_on_demand_from_archives_that_have_been_closed_after_the_import() throws IOException {
+        JavaClasses classes = new ClassFileImporter().withImportMode(ImportMode.ACCESSES_ON_DEMAND)
+                .withImportOption(importOnly(Assert.class))
+                .importJar(jarFileOf(Assert.class));
+
+        assertThat(classes.get(Assert.class).getMethodCallsFromSelf()).isNotEmpty();
+    }
+
+    @Test
+    public void import_of_accesses_on_demand_fails_if_the_class_file_has_become_unreadable() throws Exception {
+        ArchConfiguration.get().setMd5InClassSourcesEnabled(false);
+        File folder = temporaryFolder.newFolder();
+        copyClassFile(CallsOwnMethod.class, folder);
+
+        JavaClasses classes = new ClassFileImporter().withImportMode(ImportMode.ACCESSES_ON_DEMAND).importPath(folder.toPath());
+        Files.write(new File(folder, CallsOwnMethod.class.getSimpleName() + ".class").toPath(), "broken".getBytes(UTF_8));
+
+        thrown.expect(AccessesNotImportableException.class);
+        thrown.expectMessage("Couldn't import accesses of " + CallsOwnMethod.class.getName());
+        classes.get(CallsOwnMethod.class).getMethodCallsFromSelf();
+    }
+
+    @Test
+    public void import_of_accesses_on_demand_fails_if_the_class_file_has_changed() throws Exception {
+        ArchConfiguration.get().setMd5InClassSourcesEnabled(true);
+        File folder = temporaryFolder.newFolder();
+        copyClassFile(CallsOwnMethod.class, folder);
+
+        JavaClasses classes = new ClassFileImporter().withImportMode(ImportMode.ACCESSES_ON_DEMAND).importPath(folder.toPath());
+        Files.write(new File(folder, CallsOwnMethod.class.getSimpleName() + ".class").toPath(), bytesAt(urlOf(CallsOtherMethod.class)));
+
+        thrown.expect(AccessesNotImportableException.class);
+        thrown.expectMessage("has changed since the import");
+        classes.get(CallsOwnMethod.class).getMethodCallsFromSelf();
+    }
+
+    @Test
+    public void registers_classes_resolved_while_importing_accesses_on_demand_like_all_other_classes() {
+        JavaClasses importedFully = new ClassFileImporter().importClasses(CallsExternalMethod.class);
+        JavaClasses importedOnDemand = new ClassFileImporter().withImportMode(ImportMode.ACCESSES_ON_DEMAND)
+                .importClasses(CallsExternalMethod.class);
+
+        JavaClass expectedTarget = getOnlyElement(importedFully.get(CallsExternalMethod.class).getMethodCallsFromSelf()).getTargetOwner();
+        JavaClass target = getOnlyElement(importedOnDemand.get(CallsExternalMethod.class).getMethodCallsFromSelf()).getTargetOwner();
+
+        assertThat(target.getName()).isEqualTo(ArrayList.class.getName());
+        assertThat(target.getPackage().getName()).isEqualTo(ArrayList.class.getPackage().getName());
+        assertThat(importedOnDemand.getPackage(ArrayList.class.getPackage().getName()).containsClass(target)).as("package contains target").isTrue();
+        assertThat(target.getPackage().getParent().get().getName()).isEqualTo("java");
+        assertThat(descriptionsOf(target.getDirectDependenciesToSelf()))
+                .isEqualTo(descriptionsOf(expectedTarget.getDirectDependenciesToSelf()))
+                .isNotEmpty();
+        assertThat(descriptionsOf(target.getConstructor().getCallsOfSelf()))
+                .isEqualTo(descriptionsOf(expectedTarget.getConstructor().getCallsOfSelf()))
+                .isNotEmpty();
+    }
+
     @Test
     public void class_has_source_of_import() throws Exception {
         ArchConfiguration.get().setMd5InClassSourcesEnabled(true);
@@ -1800,6 +2199,53 @@ public class ClassFileImporterTest {
         assertThat(source.getMd5sum()).isEqualTo(MD5_SUM_DISABLED);
     }
 
+    @Test
+    public void hashes_class_sources_with_configured_algorithm() throws Exception {
+        ArchConfiguration.get().setMd5InClassSourcesEnabled(true);
+        ArchConfiguration.get().setClassSourceHashAlgorithm(HashAlgorithm.CRC32C);
+        ArchConfiguration.get().setImportParallelism(4);
+
+        JavaClasses classes = new ClassFileImporter().importClasses(ClassToImportOne.class, Rule.class);
+
+        for (Class<?> clazz : ImmutableList.of(ClassToImportOne.class, Rule.class)) {
+            assertThat(classes.get(clazz).getSource().get().getMd5sum().asBytes())
+                    .as("CRC32C of " + clazz.getSimpleName())
+                    .isEqualTo(Hashing.crc32c().hashBytes(bytesAt(urlOf(clazz))).asBytes());
+        }
+    }
+
+    @Test
+    public void reports_metrics_of_import_to_configured_listener() {
+        ArchConfiguration.get().setResolveMissingDependenciesFromClassPath(false);
+        ArchConfiguration.get().setImportMetricsListener(RecordingImportMetricsListener.class);
+        RecordingImportMetricsListener.reported.clear();
+
+        new ClassFileImporter().importClasses(ClassToImportOne.class);
+
+        ImportMetrics metrics = getOnlyElement(RecordingImportMetricsListener.reported);
+        assertThat(metrics.getNumberOfClassFiles()).as("number of class files").isEqualTo(1);
+        assertThat(metrics.getNumberOfImportedClasses()).as("number of imported classes").isEqualTo(1);
+        assertThat(metrics.getNumberOfResolvedClasses()).as("number of resolved classes").isZero();
+        assertThat(metrics.getNumberOfStubClasses()).as("number of stub classes").isPositive();
+        assertThat(metrics.getNumberOfAccesses()).as("number of accesses").isPositive();
+        assertThat(metrics.getNumberOfBytesRead()).as("number of bytes read").isEqualTo(sizeOfClassFile(ClassToImportOne.class));
+        for (ImportMetrics.Phase phase : ImportMetrics.Phase.values()) {
+            assertThat(metrics.getWallTimeNanos(phase)).as("wall time of " + phase).isNotNegative();
+        }
+        assertThat(metrics.getTotalWallTimeNanos()).as("total wall time").isPositive();
+    }
+
+    @Test
+    public void rejects_import_metrics_listener_without_default_constructor() {
+        ArchConfiguration.get().setImportMetricsListener(ImportMetricsListenerWithoutDefaultConstructor.class);
+
+        thrown.expect(ImportMetricsListenerConfigurationException.class);
+        thrown.expectMessage(ImportMetricsListenerWithoutDefaultConstructor.class.getName());
+        thrown.expectMessage("public default constructor");
+
+        new ClassFileImporter().importClasses(ClassToImportOne.class);
+    }
+
     @Test
     public void imports_class_objects() {
         JavaClasses classes = new ClassFileImporter().importClasses(ClassToImportOne.class, ClassToImportTwo.class);
@@ -1880,6 +2326,114 @@ public class ClassFileImporterTest {
         assertThat(classes.get(clazz.getName()).getSimpleName()).isEqualTo(clazz.getSimpleName());
     }
 
+    private void assertSameImport(JavaClasses actualClasses, JavaClasses expectedClasses) {
+        assertThat(actualClasses).hasSameSizeAs(expectedClasses);
+        for (JavaClass expected : expectedClasses) {
+            JavaClass actual = actualClasses.get(expected.getName());
+            assertThat(actual.getMembers()).as("members of " + actual.getName()).hasSameSizeAs(expected.getMembers());
+            assertThat(actual.getAnnotations()).as("annotations of " + actual.getName()).hasSameSizeAs(expected.getAnnotations());
+            assertThat(descriptionsOf(actual.getDirectDependenciesFromSelf()))
+                    .as("dependencies of " + actual.getName())
+                    .isEqualTo(descriptionsOf(expected.getDirectDependenciesFromSelf()));
+        }
+    }
+
+    /**
+     * Imports the test examples together with {@link #NUMBER_OF_GENERATED_CLASSES} generated classes sequentially and then
+     * with an import parallelism of 4, and compares both imports. The properties are described right after each import,
+     * so lazily computed properties are computed with the respective parallelism, too.
+     */
+    private void assertSameResultSequentiallyAndInParallel(ComparedProperties properties) throws Exception {
+        List<Path> paths = ImmutableList.of(
+                new File(new File(urlOf(getClass()).toURI()).getParentFile(), "testexamples").toPath(),
+                writeClassesDependingOnEachOther(NUMBER_OF_GENERATED_CLASSES).toPath());
+
+        JavaClasses importedSequentially = new ClassFileImporter().importPaths(paths);
+        assertThat(importedSequentially.getPackage("generated").getClasses()).hasSize(NUMBER_OF_GENERATED_CLASSES);
+        Map<String, Set<String>> expected = properties.describeAll(importedSequentially);
+        ArchConfiguration.get().setImportParallelism(4);
+        JavaClasses importedInParallel = new ClassFileImporter().importPaths(paths);
+        Map<String, Set<String>> actual = properties.describeAll(importedInParallel);
+
+        assertSameImport(importedInParallel, importedSequentially);
+        assertThat(actual.keySet()).isEqualTo(expected.keySet());
+        for (Map.Entry<String, Set<String>> entry : expected.entrySet()) {
+            assertThat(actual.get(entry.getKey())).as(entry.getKey()).isEqualTo(entry.getValue());
+        }
+    }
+
+    private abstract static class ComparedProperties {
+        private final Map<String, Set<String>> descriptions = new HashMap<>();
+        private String currentClassName;
+
+        Map<String, Set<String>> describeAll(JavaClasses classes) {
+            descriptions.clear();
+            for (JavaClass javaClass : classes) {
+                currentClassName = javaClass.getName();
+                describe(javaClass);
+            }
+            return new HashMap<>(descriptions);
+        }
+
+        abstract void describe(JavaClass javaClass);
+
+        void add(String property, Set<? extends HasDescription> objects) {
+            descriptions.put(property + " " + currentClassName, descriptionsOf(objects));
+        }
+    }
+
+    /**
+     * Writes classes {@code generated.Class0} to {@code generated.Class<numberOfClasses - 1>}, which extend each other
+     * as a binary tree and have fields, method parameters and field accesses of other generated classes.
+     */
+    private File writeClassesDependingOnEachOther(int numberOfClasses) throws IOException {
+        File rootFolder = temporaryFolder.newFolder();
+        for (int i = 0; i < numberOfClasses; i++) {
+            String internalName = "generated/Class" + i;
+            String superClassName = i > 0 ? "generated/Class" + (i / 2) : "java/lang/Object";
+            int target = (13 * i + 5) % numberOfClasses;
+
+            ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            classWriter.visit(V1_7, ACC_PUBLIC, internalName, null, superClassName, new String[0]);
+            classWriter.visitField(ACC_PUBLIC, "field", fieldTypeOfGeneratedClass(i, numberOfClasses), null, null).visitEnd();
+
+            MethodVisitor constructor = classWriter.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            constructor.visitCode();
+            constructor.visitVarInsn(ALOAD, 0);
+            constructor.visitMethodInsn(INVOKESPECIAL, superClassName, "<init>", "()V", false);
+            constructor.visitInsn(RETURN);
+            constructor.visitMaxs(0, 0);
+            constructor.visitEnd();
+
+            MethodVisitor method = classWriter.visitMethod(ACC_PUBLIC, "call", "(Lgenerated/Class" + target + ";)V", null, null);
+            method.visitCode();
+            method.visitVarInsn(ALOAD, 1);
+            method.visitFieldInsn(GETFIELD, "generated/Class" + target, "field", fieldTypeOfGeneratedClass(target, numberOfClasses));
+            method.visitInsn(POP);
+            method.visitInsn(RETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+            classWriter.visitEnd();
+
+            File classFile = new File(rootFolder, internalName + ".class");
+            checkState(classFile.getParentFile().isDirectory() || classFile.getParentFile().mkdirs());
+            Files.write(classFile.toPath(), classWriter.toByteArray());
+        }
+        return rootFolder;
+    }
+
+    private static String fieldTypeOfGeneratedClass(int index, int numberOfClasses) {
+        return "Lgenerated/Class" + ((7 * index + 3) % numberOfClasses) + ";";
+    }
+
+    private static Set<String> descriptionsOf(Set<? extends HasDescription> objects) {
+        Set<String> result = new HashSet<>();
+        for (HasDescription object : objects) {
+            result.add(object.getDescription());
+        }
+        return result;
+    }
+
     private Set<Dependency> withoutJavaLangTargets(Set<Dependency> dependencies) {
         Set<Dependency> result = new HashSet<>();
         for (Dependency dependency : dependencies) {
@@ -1890,6 +2444,21 @@ public class ClassFileImporterTest {
         return result;
     }
 
+    private void writeAnnotationType(File rootFolder, String name, Optional<String> metaAnnotationName) throws IOException {
+        String internalName = name.replace('.', '/');
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(V1_7, ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION,
+                internalName, null, "java/lang/Object", new String[]{"java/lang/annotation/Annotation"});
+        if (metaAnnotationName.isPresent()) {
+            classWriter.visitAnnotation("L" + metaAnnotationName.get().replace('.', '/') + ";", true).visitEnd();
+        }
+        classWriter.visitEnd();
+
+        File classFile = new File(rootFolder, internalName + ".class");
+        checkState(classFile.getParentFile().isDirectory() || classFile.getParentFile().mkdirs());
+        Files.write(classFile.toPath(), classWriter.toByteArray());
+    }
+
     private void copyClassFile(Class<?> clazz, File targetFolder) throws IOException, URISyntaxException {
         Files.copy(Paths.get(urlOf(clazz).toURI()), new File(targetFolder, clazz.getSimpleName() + ".class").toPath());
     }
@@ -2101,4 +2670,31 @@ public class ClassFileImporterTest {
             return fields;
         }
     }
+
+    private static long sizeOfClassFile(Class<?> clazz) {
+        try (InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class")) {
+            return ByteStreams.toByteArray(in).length;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static class RecordingImportMetricsListener implements ImportMetricsListener {
+        static final List<ImportMetrics> reported = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onImportFinished(ImportMetrics metrics) {
+            reported.add(metrics);
+        }
+    }
+
+    public static class ImportMetricsListenerWithoutDefaultConstructor implements ImportMetricsListener {
+        @SuppressWarnings("unused")
+        public ImportMetricsListenerWithoutDefaultConstructor(String someArgument) {
+        }
+
+        @Override
+        public void onImportFinished(ImportMetrics metrics) {
+        }
+    }
 }
@@ -1,11 +1,24 @@
 package com.tngtech.archunit.core.importer;
 
+import java.util.Collections;
+
 import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMethod;
+import com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType;
+import com.tngtech.archunit.core.domain.JavaMethodCall;
+import com.tngtech.archunit.core.importer.ClassFileProcessor.RecordAccessHandler;
+import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
+import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolverFromClasspath;
 import org.junit.Test;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.tngtech.archunit.core.domain.JavaConstructor.CONSTRUCTOR_NAME;
 import static com.tngtech.archunit.testutil.Assertions.assertThat;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
 
 public class ClassFileProcessorTest {
     @Test
@@ -15,4 +28,91 @@ public class ClassFileProcessorTest {
 
         assertThat(resolved).isAbsent();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void classes_of_one_import_share_names_and_descriptors() {
+        JavaClasses classes = new ClassFileImporter().importClasses(First.class, Second.class);
+        JavaMethod first = classes.get(First.class).getMethod("describe", String.class);
+        JavaMethod second = classes.get(Second.class).getMethod("describe", String.class);
+
+        assertThat(first.getName()).isSameAs(second.getName());
+        assertThat(first.getDescriptor()).isSameAs(second.getDescriptor());
+        assertThat(classes.get(First.class).getPackageName()).isSameAs(classes.get(Second.class).getPackageName());
+
+        JavaMethodCall firstCall = getOnlyElement(first.getMethodCallsFromSelf());
+        JavaMethodCall secondCall = getOnlyElement(second.getMethodCallsFromSelf());
+        assertThat(firstCall.getTarget().getName()).isSameAs(secondCall.getTarget().getName());
+    }
+
+    @Test
+    public void registers_repeated_accesses_from_the_same_line_only_once_per_code_unit() {
+        RegistrationCountingImportRecord importRecord = new RegistrationCountingImportRecord();
+        RecordAccessHandler handler = new RecordAccessHandler(importRecord, new ImportedNames());
+
+        handler.setContext(new CodeUnit("first", Collections.<String>emptyList(), "com.example.Caller"));
+        handler.setLineNumber(10);
+        for (int i = 0; i < 3; i++) {
+            handler.handleMethodInstruction("java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;");
+            handler.handleMethodInstruction("java/lang/Object", CONSTRUCTOR_NAME, "()V");
+            handler.handleFieldInstruction(GETFIELD, "com/example/Caller", "count", "I");
+            handler.handleFieldInstruction(PUTFIELD, "com/example/Caller", "count", "I");
+        }
+
+        assertThat(importRecord.numberOfMethodCalls).as("registered method calls").isEqualTo(1);
+        assertThat(importRecord.numberOfConstructorCalls).as("registered constructor calls").isEqualTo(1);
+        assertThat(importRecord.numberOfFieldAccesses).as("registered field accesses").isEqualTo(2);
+
+        handler.setLineNumber(11);
+        handler.handleMethodInstruction("java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;");
+
+        assertThat(importRecord.numberOfMethodCalls).as("registered method calls after changing the line").isEqualTo(2);
+
+        handler.setContext(new CodeUnit("second", Collections.<String>emptyList(), "com.example.Caller"));
+        handler.setLineNumber(10);
+        handler.handleMethodInstruction("java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;");
+        handler.handleFieldInstruction(GETFIELD, "com/example/Caller", "count", "I");
+
+        assertThat(importRecord.numberOfMethodCalls).as("registered method calls after changing the code unit").isEqualTo(3);
+        assertThat(importRecord.numberOfFieldAccesses).as("registered field accesses after changing the code unit").isEqualTo(3);
+        assertThat(importRecord.getRawMethodCallRecords()).hasSize(3);
+        assertThat(importRecord.getRawFieldAccessRecords()).hasSize(3);
+    }
+
+    @SuppressWarnings("unused")
+    private static class First {
+        String describe(String input) {
+            return input.trim();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Second {
+        String describe(String input) {
+            return input.trim();
+        }
+    }
+
+    private static class RegistrationCountingImportRecord extends ClassFileImportRecord {
+        int numberOfFieldAccesses;
+        int numberOfMethodCalls;
+        int numberOfConstructorCalls;
+
+        @Override
+        void registerFieldAccess(CodeUnit caller, TargetInfo target, int lineNumber, AccessType accessType) {
+            numberOfFieldAccesses++;
+            super.registerFieldAccess(caller, target, lineNumber, accessType);
+        }
+
+        @Override
+        void registerMethodCall(CodeUnit caller, TargetInfo target, int lineNumber) {
+            numberOfMethodCalls++;
+            super.registerMethodCall(caller, target, lineNumber);
+        }
+
+        @Override
+        void registerConstructorCall(CodeUnit caller, TargetInfo target, int lineNumber) {
+            numberOfConstructorCalls++;
+            super.registerConstructorCall(caller, target, lineNumber);
+        }
+    }
+}
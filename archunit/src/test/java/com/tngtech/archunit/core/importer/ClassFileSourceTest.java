@@ -6,11 +6,17 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.jar.JarFile;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.testutil.ArchConfigurationRule;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
@@ -32,6 +38,8 @@ public class ClassFileSourceTest {
 
     @Rule
     public final TemporaryFolder tempDir = new TemporaryFolder();
+    @Rule
+    public final ArchConfigurationRule archConfigurationRule = new ArchConfigurationRule();
 
     @DataProvider
     public static Object[][] expected_classes() {
@@ -113,6 +121,94 @@ public class ClassFileSourceTest {
         assertThat(getOnlyElement(source).getUri().toString()).contains(classFile.getName());
     }
 
+    @Test
+    public void skips_directories_excluded_as_a_whole() throws IOException {
+        File dir = tempDir.newFolder();
+        for (String file : ImmutableList.of("included/Foo.class", "excluded/Bar.class", "excluded/deeper/Baz.class")) {
+            File newFile = new File(dir, file);
+            checkArgument(newFile.getParentFile().exists() || newFile.getParentFile().mkdirs());
+            checkState(newFile.createNewFile());
+        }
+        ExcludingFolderContaining option = new ExcludingFolderContaining("/excluded/");
+
+        ClassFileSource source = Location.of(dir.toPath()).asClassFileSource(new ImportOptions().with(option));
+
+        assertSourceMatches(source, ImmutableSet.of("/included/Foo.class"));
+        assertNoneContains(option.evaluatedLocations, "/excluded/");
+    }
+
+    @Test
+    public void skips_folders_in_JAR_excluded_as_a_whole() {
+        JarFile jarFile = new TestJarFile()
+                .withEntry("included/Foo.class")
+                .withEntry("excluded/Bar.class")
+                .withEntry("excluded/deeper/Baz.class")
+                .create();
+        ExcludingFolderContaining option = new ExcludingFolderContaining("/excluded/");
+
+        ClassFileSource source = Location.of(jarFile).asClassFileSource(new ImportOptions().with(option));
+
+        assertSourceMatches(source, ImmutableSet.of("/included/Foo.class"));
+        assertNoneContains(option.evaluatedLocations, "/excluded/");
+    }
+
+    @Test
+    public void skips_JARs_excluded_as_a_whole() {
+        JarFile jarFile = new TestJarFile()
+                .withEntry("some/Foo.class")
+                .create();
+
+        ClassFileSource source = Location.of(jarFile).asClassFileSource(new ImportOptions().with(ImportOption.Predefined.DO_NOT_INCLUDE_JARS));
+
+        assertThat(source).isEmpty();
+    }
+
+    @DataProvider
+    public static Object[][] import_parallelisms() {
+        return $$($(1), $(4));
+    }
+
+    @Test
+    @UseDataProvider("import_parallelisms")
+    public void walks_file_path_in_deterministic_order(int parallelism) throws IOException {
+        ArchConfiguration.get().setImportParallelism(parallelism);
+        File dir = tempDir.newFolder();
+        for (String file : ImmutableList.of("b/B.class", "a/c/C.class", "a/A.class", "Z.class", "a/B.class", "a/c/d/D.class", "e/E.class")) {
+            File newFile = new File(dir, file);
+            checkArgument(newFile.getParentFile().exists() || newFile.getParentFile().mkdirs());
+            checkState(newFile.createNewFile());
+        }
+
+        ClassFileSource source = Location.of(dir.toPath()).asClassFileSource(new ImportOptions());
+
+        List<String> relativePaths = new ArrayList<>();
+        for (ClassFileLocation location : source) {
+            relativePaths.add(dir.toURI().relativize(location.getUri()).toString());
+        }
+        assertThat(relativePaths).containsExactly(
+                "Z.class", "a/A.class", "a/B.class", "a/c/C.class", "a/c/d/D.class", "b/B.class", "e/E.class");
+    }
+
+    @Test
+    public void does_not_leak_threads_if_parallel_walks_are_abandoned() throws IOException {
+        ArchConfiguration.get().setImportParallelism(4);
+        File dir = tempDir.newFolder();
+        for (String file : ImmutableList.of("a/A.class", "b/B.class", "c/C.class")) {
+            File newFile = new File(dir, file);
+            checkArgument(newFile.getParentFile().mkdirs());
+            checkState(newFile.createNewFile());
+        }
+        ClassFileSource source = Location.of(dir.toPath()).asClassFileSource(new ImportOptions());
+        source.iterator().next();
+        int threadsAfterFirstWalk = Thread.activeCount();
+
+        for (int i = 0; i < 20; i++) {
+            source.iterator().next();
+        }
+
+        assertThat(Thread.activeCount()).as("number of active threads").isLessThanOrEqualTo(threadsAfterFirstWalk + 4);
+    }
+
     @Test
     public void resolves_class_files_with_whitespace() throws IOException {
         File file = tempDir.newFile("path with spaces like kotlin does.class");
@@ -172,6 +268,33 @@ public class ClassFileSourceTest {
                 .containsOnlyElementsOf(expectedIncluded);
     }
 
+    private static void assertNoneContains(List<String> evaluatedLocations, String part) {
+        assertThat(evaluatedLocations).as("evaluated locations").isNotEmpty();
+        for (String location : evaluatedLocations) {
+            assertThat(location).as("evaluated location").doesNotContain(part);
+        }
+    }
+
+    private static class ExcludingFolderContaining implements ImportOption.DirectoryAware {
+        private final String part;
+        private final List<String> evaluatedLocations = new CopyOnWriteArrayList<>();
+
+        ExcludingFolderContaining(String part) {
+            this.part = part;
+        }
+
+        @Override
+        public boolean mayIncludeAnyLocationIn(Location directory) {
+            return !directory.contains(part);
+        }
+
+        @Override
+        public boolean includes(Location location) {
+            evaluatedLocations.add(location.asURI().toString());
+            return !location.contains(part);
+        }
+    }
+
     private static ImportOptions locationContains(final String part) {
         return new ImportOptions().with(new ImportOption() {
             @Override
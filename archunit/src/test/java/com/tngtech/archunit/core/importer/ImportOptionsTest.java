@@ -2,8 +2,10 @@ package com.tngtech.archunit.core.importer;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.file.Files;
 
+import com.tngtech.archunit.core.importer.ImportOption.DirectoryAware;
 import com.tngtech.archunit.core.importer.ImportOption.DoNotIncludeArchives;
 import com.tngtech.archunit.core.importer.ImportOption.DoNotIncludeJars;
 import com.tngtech.archunit.core.importer.ImportOption.DoNotIncludeTests;
@@ -83,6 +85,17 @@ public class ImportOptionsTest {
                 .as("includes location %s", targetFile.getAbsolutePath()).isEqualTo(expectedInclude);
     }
 
+    @Test
+    @UseDataProvider("folders")
+    public void decides_for_whole_output_folders(
+            ImportOption doNotIncludeTests, String[] folderName, boolean expectedInclude) throws IOException {
+
+        File folder = temporaryFolder.newFolder(folderName);
+
+        assertThat(((DirectoryAware) doNotIncludeTests).mayIncludeAnyLocationIn(Location.of(folder.toPath())))
+                .as("may include locations in %s", folder.getAbsolutePath()).isEqualTo(expectedInclude);
+    }
+
     @DataProvider
     public static Object[][] do_not_include_jars() {
         return testForEach(new DoNotIncludeJars(), DO_NOT_INCLUDE_JARS);
@@ -102,6 +115,19 @@ public class ImportOptionsTest {
                 .isEqualTo(!comesFromJarArchive(Object.class));
     }
 
+    @Test
+    @UseDataProvider("do_not_include_jars")
+    public void decides_for_whole_Jars(ImportOption doNotIncludeJars) {
+        DirectoryAware directoryAware = (DirectoryAware) doNotIncludeJars;
+
+        assertThat(directoryAware.mayIncludeAnyLocationIn(Location.of(temporaryFolder.getRoot().toPath())))
+                .as("may include locations in directory")
+                .isTrue();
+        assertThat(directoryAware.mayIncludeAnyLocationIn(folderOf(Rule.class)))
+                .as("may include locations in Jar folder")
+                .isFalse();
+    }
+
     @DataProvider
     public static Object[][] do_not_include_archives() {
         return testForEach(new DoNotIncludeArchives(), DO_NOT_INCLUDE_ARCHIVES);
@@ -121,10 +147,28 @@ public class ImportOptionsTest {
                 .isFalse();
     }
 
+    @Test
+    @UseDataProvider("do_not_include_archives")
+    public void decides_for_whole_archives(ImportOption doNotIncludeArchives) {
+        DirectoryAware directoryAware = (DirectoryAware) doNotIncludeArchives;
+
+        assertThat(directoryAware.mayIncludeAnyLocationIn(Location.of(temporaryFolder.getRoot().toPath())))
+                .as("may include locations in directory")
+                .isTrue();
+        assertThat(directoryAware.mayIncludeAnyLocationIn(folderOf(Rule.class)))
+                .as("may include locations in Jar folder")
+                .isFalse();
+    }
+
     private static Location locationOf(Class<?> clazz) {
         return getLast(Locations.ofClass(clazz));
     }
 
+    private static Location folderOf(Class<?> clazz) {
+        String uri = locationOf(clazz).asURI().toString();
+        return Location.of(URI.create(uri.substring(0, uri.lastIndexOf('/') + 1)));
+    }
+
     private static boolean comesFromJarArchive(Class<?> clazz) {
         return LocationTest.urlOfClass(clazz).getProtocol().equals("jar");
     }
@@ -381,6 +381,20 @@ public class ImportTestUtils {
             return Optional.absent();
         }
 
+        @Override
+        public boolean areCodeUnitBodiesImported() {
+            return true;
+        }
+
+        @Override
+        public boolean areAccessesImportedOnDemand() {
+            return false;
+        }
+
+        @Override
+        public void importAccessesOnDemand(JavaClass owner) {
+        }
+
         @Override
         public Set<JavaFieldAccess> createFieldAccessesFor(JavaCodeUnit codeUnit) {
             return Collections.emptySet();
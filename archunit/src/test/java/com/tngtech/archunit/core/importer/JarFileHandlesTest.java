@@ -0,0 +1,118 @@
+package com.tngtech.archunit.core.importer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JarFileHandlesTest {
+    private static final String ENTRY_NAME = "some/Entry.class";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final JarFileHandles jarFileHandles = new JarFileHandles(2);
+
+    @Before
+    public void setUp() {
+        jarFileHandles.startPooling();
+    }
+
+    @Test
+    public void reads_content_of_entries() throws IOException {
+        File jar = createJarWithContent("expected");
+
+        assertThat(readEntry(jar)).isEqualTo("expected");
+        try (InputStream in = jarFileHandles.openEntry(jar, new ZipEntry(ENTRY_NAME))) {
+            assertThat(new String(ByteStreams.toByteArray(in), UTF_8)).isEqualTo("expected");
+        }
+    }
+
+    @Test
+    public void reuses_open_archives() throws IOException {
+        File jar = createJarWithContent("any");
+
+        readEntry(jar);
+        readEntry(jar);
+
+        assertThat(jarFileHandles.numberOfOpenArchives()).isEqualTo(1);
+    }
+
+    @Test
+    public void closes_least_recently_used_archives_exceeding_bound() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            readEntry(createJarWithContent("content" + i));
+        }
+
+        assertThat(jarFileHandles.numberOfOpenArchives()).isEqualTo(2);
+    }
+
+    @Test
+    public void keeps_archives_open_while_in_use() throws IOException {
+        File jarInUse = createJarWithContent("in use");
+
+        try (InputStream in = jarFileHandles.openEntry(jarInUse, new ZipEntry(ENTRY_NAME))) {
+            for (int i = 0; i < 3; i++) {
+                readEntry(createJarWithContent("content" + i));
+            }
+
+            assertThat(new String(ByteStreams.toByteArray(in), UTF_8)).isEqualTo("in use");
+        }
+        assertThat(jarFileHandles.numberOfOpenArchives()).isEqualTo(2);
+    }
+
+    @Test
+    public void closes_all_archives_once_pooling_stops() throws IOException {
+        File jarInUse = createJarWithContent("in use");
+        readEntry(createJarWithContent("idle"));
+
+        try (InputStream in = jarFileHandles.openEntry(jarInUse, new ZipEntry(ENTRY_NAME))) {
+            jarFileHandles.stopPooling();
+
+            assertThat(jarFileHandles.numberOfOpenArchives()).isEqualTo(1);
+            assertThat(new String(ByteStreams.toByteArray(in), UTF_8)).isEqualTo("in use");
+        }
+        assertThat(jarFileHandles.numberOfOpenArchives()).isEqualTo(0);
+    }
+
+    @Test
+    public void reads_archives_without_keeping_them_open_while_not_pooling() throws IOException {
+        File jar = createJarWithContent("before");
+        jarFileHandles.stopPooling();
+        assertThat(readEntry(jar)).isEqualTo("before");
+
+        writeJar(jar, "after");
+
+        assertThat(readEntry(jar)).isEqualTo("after");
+        assertThat(jarFileHandles.numberOfOpenArchives()).isEqualTo(0);
+    }
+
+    private String readEntry(File jar) throws IOException {
+        return new String(jarFileHandles.readEntry(jar, new ZipEntry(ENTRY_NAME)), UTF_8);
+    }
+
+    private File createJarWithContent(String content) throws IOException {
+        File jar = temporaryFolder.newFile();
+        writeJar(jar, content);
+        return jar;
+    }
+
+    private void writeJar(File jar, String content) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry(ENTRY_NAME));
+            out.write(content.getBytes(UTF_8));
+            out.closeEntry();
+        }
+    }
+}
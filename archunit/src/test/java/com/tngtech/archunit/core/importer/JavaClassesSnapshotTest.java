@@ -0,0 +1,150 @@
+package com.tngtech.archunit.core.importer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.base.Optional;
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaAccess;
+import com.tngtech.archunit.core.domain.JavaAnnotation;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.domain.JavaMember;
+import com.tngtech.archunit.core.domain.Source;
+import com.tngtech.archunit.core.importer.testexamples.simpleimport.ClassToImportOne;
+import com.tngtech.archunit.testutil.ArchConfigurationRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JavaClassesSnapshotTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+    @Rule
+    public final ArchConfigurationRule archConfigurationRule = new ArchConfigurationRule();
+
+    @Test
+    public void restores_classes_with_members_accesses_and_annotations() throws IOException {
+        JavaClasses imported = capturingImporter().importPackages("com.tngtech.archunit.core.importer.testexamples");
+
+        JavaClasses restored = JavaClassesSnapshot.readFrom(snapshotOf(imported));
+
+        assertThat(namesOf(restored)).isEqualTo(namesOf(imported));
+        for (JavaClass expected : imported) {
+            JavaClass actual = restored.get(expected.getName());
+            assertThat(actual.getSource().get().getUri()).isEqualTo(expected.getSource().get().getUri());
+            assertThat(membersOf(actual)).as("members of %s", expected.getName()).isEqualTo(membersOf(expected));
+            assertThat(accessesOf(actual)).as("accesses of %s", expected.getName()).isEqualTo(accessesOf(expected));
+            assertThat(annotationsOf(actual)).as("annotations of %s", expected.getName()).isEqualTo(annotationsOf(expected));
+            assertThat(dependenciesOf(actual)).as("dependencies of %s", expected.getName()).isEqualTo(dependenciesOf(expected));
+        }
+    }
+
+    @Test
+    public void restores_resolved_dependencies_without_class_path() throws IOException {
+        ArchConfiguration.get().setResolveMissingDependenciesFromClassPath(true);
+        JavaClasses imported = capturingImporter().importClasses(ClassToImportOne.class);
+        ByteArrayInputStream snapshot = snapshotOf(imported);
+
+        ArchConfiguration.get().setResolveMissingDependenciesFromClassPath(false);
+        JavaClasses restored = JavaClassesSnapshot.readFrom(snapshot);
+
+        assertThat(namesOf(restored)).containsOnly(ClassToImportOne.class.getName());
+        JavaClass superClass = restored.get(ClassToImportOne.class).getSuperClass().get();
+        assertThat(superClass.getSource()).as("source of resolved super class").isNotEqualTo(Optional.absent());
+        assertThat(superClass.getMethods()).isNotEmpty();
+    }
+
+    @Test
+    public void restores_checksums_of_the_original_class_files() throws IOException {
+        ArchConfiguration.get().setMd5InClassSourcesEnabled(true);
+        JavaClasses imported = capturingImporter().importClasses(ClassToImportOne.class);
+
+        JavaClasses restored = JavaClassesSnapshot.readFrom(snapshotOf(imported));
+
+        Source expected = imported.get(ClassToImportOne.class).getSource().get();
+        assertThat(restored.get(ClassToImportOne.class).getSource().get().getMd5sum()).isEqualTo(expected.getMd5sum());
+    }
+
+    @Test
+    public void writes_restored_classes_to_a_snapshot_again() throws IOException {
+        JavaClasses imported = capturingImporter().importClasses(ClassToImportOne.class);
+
+        JavaClasses restoredTwice = JavaClassesSnapshot.readFrom(snapshotOf(JavaClassesSnapshot.readFrom(snapshotOf(imported))));
+
+        assertThat(namesOf(restoredTwice)).isEqualTo(namesOf(imported));
+    }
+
+    @Test
+    public void rejects_classes_that_have_not_been_captured_during_the_import() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("capturing");
+
+        snapshotOf(new ClassFileImporter().importClasses(ClassToImportOne.class));
+    }
+
+    @Test
+    public void rejects_streams_that_do_not_contain_a_snapshot() throws IOException {
+        thrown.expect(IOException.class);
+        thrown.expectMessage("does not contain a snapshot");
+
+        JavaClassesSnapshot.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}));
+    }
+
+    private ClassFileImporter capturingImporter() {
+        return JavaClassesSnapshot.capturing(new ClassFileImporter());
+    }
+
+    private ByteArrayInputStream snapshotOf(JavaClasses classes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JavaClassesSnapshot.writeTo(classes, out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private Set<String> namesOf(JavaClasses classes) {
+        Set<String> result = new HashSet<>();
+        for (JavaClass javaClass : classes) {
+            result.add(javaClass.getName());
+        }
+        return result;
+    }
+
+    private Set<String> membersOf(JavaClass javaClass) {
+        Set<String> result = new HashSet<>();
+        for (JavaMember member : javaClass.getMembers()) {
+            result.add(member.getDescription());
+        }
+        return result;
+    }
+
+    private Set<String> accessesOf(JavaClass javaClass) {
+        Set<String> result = new HashSet<>();
+        for (JavaAccess<?> access : javaClass.getAccessesFromSelf()) {
+            result.add(access.getDescription());
+        }
+        return result;
+    }
+
+    private Set<String> annotationsOf(JavaClass javaClass) {
+        Set<String> result = new HashSet<>();
+        for (JavaAnnotation<?> annotation : javaClass.getAnnotations()) {
+            result.add(annotation.getRawType().getName() + new TreeSet<>(annotation.getProperties().keySet()));
+        }
+        return result;
+    }
+
+    private Set<String> dependenciesOf(JavaClass javaClass) {
+        Set<String> result = new HashSet<>();
+        for (Dependency dependency : javaClass.getDirectDependenciesFromSelf()) {
+            result.add(dependency.getDescription());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,119 @@
+package com.tngtech.archunit.core.importer;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.jar.JarFile;
+
+import com.google.common.collect.ImmutableList;
+import com.tngtech.archunit.ArchConfiguration;
+import com.tngtech.archunit.testutil.ArchConfigurationRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PackageIndexTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    @Rule
+    public final ArchConfigurationRule archConfigurationRule = new ArchConfigurationRule();
+
+    @Test
+    public void finds_packages_and_class_files_of_JARs() throws MalformedURLException {
+        JarFile jarFile = new TestJarFile()
+                .withEntry("a/b/C.class")
+                .withEntry("a/D.class")
+                .create();
+
+        PackageIndex index = PackageIndex.of(UrlSource.From.iterable(ImmutableList.of(urlOf(jarFile))));
+
+        Location location = getOnlyElement(index.getClassPath());
+        assertContains(index, location, "a", true);
+        assertContains(index, location, "a/b", true);
+        assertContains(index, location, "a/b/C.class", true);
+        assertContains(index, location, "a/D.class", true);
+        assertContains(index, location, "a/c", false);
+        assertContains(index, location, "a/b/X.class", false);
+        assertContains(index, location, "b", false);
+    }
+
+    @Test
+    public void finds_packages_of_directories() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        File classFile = new File(directory, "a/b/C.class");
+        assertThat(classFile.getParentFile().mkdirs()).isTrue();
+        assertThat(classFile.createNewFile()).isTrue();
+
+        PackageIndex index = PackageIndex.of(UrlSource.From.iterable(ImmutableList.of(directory.toURI().toURL())));
+
+        Location location = getOnlyElement(index.getClassPath());
+        assertContains(index, location, "a", true);
+        assertContains(index, location, "a/b", true);
+        assertContains(index, location, "a/b/C.class", true);
+        assertContains(index, location, "a/c", false);
+    }
+
+    @Test
+    public void finds_packages_and_resources_of_JARs_without_class_files() throws MalformedURLException {
+        JarFile jarFile = new TestJarFile()
+                .withEntry("a/b/resource.txt")
+                .withEntry("a/empty/")
+                .create();
+
+        PackageIndex index = PackageIndex.of(UrlSource.From.iterable(ImmutableList.of(urlOf(jarFile))));
+
+        Location location = getOnlyElement(index.getClassPath());
+        assertContains(index, location, "a/b", true);
+        assertContains(index, location, "a/b/resource.txt", true);
+        assertContains(index, location, "a/empty", true);
+        assertContains(index, location, "a/b/other.txt", false);
+    }
+
+    @Test
+    public void finds_entries_added_to_directories_after_indexing() throws Exception {
+        File directory = temporaryFolder.newFolder();
+        PackageIndex index = PackageIndex.of(UrlSource.From.iterable(ImmutableList.of(directory.toURI().toURL())));
+        Location location = getOnlyElement(index.getClassPath());
+        assertContains(index, location, "a/b", false);
+
+        File resource = new File(directory, "a/b/resource.txt");
+        assertThat(resource.getParentFile().mkdirs()).isTrue();
+        assertThat(resource.createNewFile()).isTrue();
+
+        assertContains(index, location, "a/b", true);
+        assertContains(index, location, "a/b/resource.txt", true);
+    }
+
+    @Test
+    public void persists_packages_of_JARs_within_the_import_cache_directory() throws Exception {
+        Path cacheDirectory = temporaryFolder.newFolder().toPath();
+        ArchConfiguration.get().setImportCacheDirectory(cacheDirectory.toString());
+        URL jarUrl = urlOf(new TestJarFile().withEntry("a/b/C.class").create());
+        URL otherJarUrl = urlOf(new TestJarFile().withEntry("x/Y.class").create());
+
+        PackageIndex.of(UrlSource.From.iterable(ImmutableList.of(jarUrl)));
+        Path cacheFile = getOnlyElement(ImmutableList.copyOf(cacheDirectory.toFile().listFiles())).toPath();
+        long sizeWithOneJar = cacheFile.toFile().length();
+        PackageIndex index = PackageIndex.of(UrlSource.From.iterable(ImmutableList.of(jarUrl, otherJarUrl)));
+
+        assertThat(cacheFile.toFile().length()).as("size of cache file").isGreaterThan(sizeWithOneJar);
+        assertContains(index, index.getClassPath().get(0), "a/b", true);
+        assertContains(index, index.getClassPath().get(0), "x", false);
+        assertContains(index, index.getClassPath().get(1), "a/b", false);
+        assertContains(index, index.getClassPath().get(1), "x", true);
+    }
+
+    private static void assertContains(PackageIndex index, Location location, String prefix, boolean expected) {
+        assertThat(index.containsEntryWithPrefix(location, NormalizedResourceName.from(prefix)))
+                .as("%s contains entry with prefix %s", location, prefix)
+                .isEqualTo(expected);
+    }
+
+    private static URL urlOf(JarFile jarFile) throws MalformedURLException {
+        return new File(jarFile.getName()).toURI().toURL();
+    }
+}
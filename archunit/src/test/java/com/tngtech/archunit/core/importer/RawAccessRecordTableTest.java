@@ -0,0 +1,78 @@
+package com.tngtech.archunit.core.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.ImmutableSet;
+import com.tngtech.archunit.core.domain.JavaClassDescriptor;
+import com.tngtech.archunit.core.importer.RawAccessRecord.CodeUnit;
+import com.tngtech.archunit.core.importer.RawAccessRecord.TargetInfo;
+import org.junit.Test;
+
+import static com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType.GET;
+import static com.tngtech.archunit.core.domain.JavaFieldAccess.AccessType.SET;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RawAccessRecordTableTest {
+    private static final CodeUnit CALLER = new CodeUnit("call", Collections.<String>emptyList(), "some.Caller");
+    private static final CodeUnit OTHER_CALLER = new CodeUnit("call", Collections.<String>emptyList(), "other.Caller");
+    private static final TargetInfo TARGET = new TargetInfo(JavaClassDescriptor.From.name("some.Target"), "target", "()V");
+
+    @Test
+    public void creates_records_of_added_accesses_in_order() {
+        RawAccessRecordTable.ForCalls table = new RawAccessRecordTable.ForCalls();
+
+        table.add(CALLER, TARGET, 5);
+        table.add(OTHER_CALLER, TARGET, 3);
+
+        assertThat(table.asList()).containsExactly(
+                new RawAccessRecord(CALLER, TARGET, 5),
+                new RawAccessRecord(OTHER_CALLER, TARGET, 3));
+    }
+
+    @Test
+    public void ignores_accesses_equal_to_accesses_already_contained() {
+        RawAccessRecordTable.ForFieldAccesses table = new RawAccessRecordTable.ForFieldAccesses();
+
+        table.add(CALLER, TARGET, 5, GET);
+        table.add(CALLER, new TargetInfo(JavaClassDescriptor.From.name("some.Target"), "target", "()V"), 5, GET);
+        table.add(CALLER, TARGET, 5, SET);
+        table.add(CALLER, TARGET, 6, GET);
+
+        assertThat(table.asList()).containsExactly(
+                new RawAccessRecord.ForField(CALLER, TARGET, 5, GET),
+                new RawAccessRecord.ForField(CALLER, TARGET, 5, SET),
+                new RawAccessRecord.ForField(CALLER, TARGET, 6, GET));
+    }
+
+    @Test
+    public void stores_many_accesses() {
+        RawAccessRecordTable.ForCalls table = new RawAccessRecordTable.ForCalls();
+        List<RawAccessRecord> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            CodeUnit caller = new CodeUnit("call" + (i % 7), Collections.<String>emptyList(), "some.Caller");
+            TargetInfo target = new TargetInfo(JavaClassDescriptor.From.name("some.Target" + (i % 13)), "target", "()V");
+            table.add(caller, target, i);
+            table.add(caller, target, i);
+            expected.add(new RawAccessRecord(caller, target, i));
+        }
+
+        assertThat(table.size()).isEqualTo(expected.size());
+        assertThat(table.asList()).isEqualTo(expected);
+    }
+
+    @Test
+    public void adds_accesses_of_other_table_with_caller_in_given_classes() {
+        RawAccessRecordTable.ForCalls other = new RawAccessRecordTable.ForCalls();
+        other.add(CALLER, TARGET, 1);
+        other.add(OTHER_CALLER, new TargetInfo(JavaClassDescriptor.From.name("other.Target"), "target", "()V"), 2);
+        RawAccessRecordTable.ForCalls table = new RawAccessRecordTable.ForCalls();
+        table.add(CALLER, TARGET, 1);
+
+        table.addAllWithCallerIn(other, ImmutableSet.of("some.Caller"));
+
+        assertThat(table.asList()).containsExactly(new RawAccessRecord(CALLER, TARGET, 1));
+        assertThat(table.getTargetOwnerNames()).containsOnly("some.Target");
+    }
+}
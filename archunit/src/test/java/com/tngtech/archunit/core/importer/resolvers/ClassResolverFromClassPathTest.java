@@ -3,20 +3,29 @@ package com.tngtech.archunit.core.importer.resolvers;
 import java.net.URI;
 import java.net.URISyntaxException;
 
+import com.google.common.collect.ImmutableList;
 import com.tngtech.archunit.base.Optional;
 import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.importer.ClassPathIndex;
 import com.tngtech.archunit.core.importer.resolvers.ClassResolver.ClassUriImporter;
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import static com.tngtech.archunit.base.ClassLoaders.getCurrentClassLoader;
 import static com.tngtech.archunit.core.domain.TestUtils.importClassWithContext;
 import static com.tngtech.archunit.testutil.Assertions.assertThat;
+import static com.tngtech.java.junit.dataprovider.DataProviders.testForEach;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+@RunWith(DataProviderRunner.class)
 public class ClassResolverFromClassPathTest {
     @Rule
     public final MockitoRule mockitoRule = MockitoJUnit.rule();
@@ -38,6 +47,33 @@ public class ClassResolverFromClassPathTest {
         assertThat(result).contains(expectedJavaClass);
     }
 
+    @DataProvider
+    public static Object[][] classes_from_folders_and_jars() {
+        return testForEach(ClassResolverFromClassPathTest.class, Test.class, ImmutableList.class);
+    }
+
+    @Test
+    @UseDataProvider("classes_from_folders_and_jars")
+    public void finds_the_same_uri_as_the_class_loader(Class<?> clazz) throws URISyntaxException {
+        JavaClass expectedJavaClass = importClassWithContext(clazz);
+        when(uriImporter.tryImport(uriOf(clazz))).thenReturn(Optional.of(expectedJavaClass));
+
+        resolver.setClassUriImporter(uriImporter);
+
+        Optional<JavaClass> result = resolver.tryResolve(clazz.getName());
+
+        assertThat(result).contains(expectedJavaClass);
+    }
+
+    @Test
+    public void caches_URIs_that_cant_be_located() {
+        resolver.setClassUriImporter(uriImporter);
+
+        resolver.tryResolve("sooo.Wrong");
+
+        assertThat(ClassPathIndex.get().isKnownToBeMissing("sooo/Wrong.class", getCurrentClassLoader(getClass()))).isTrue();
+    }
+
     @Test
     public void is_resilient_if_URI_cant_be_located() throws URISyntaxException {
         resolver.setClassUriImporter(uriImporter);
@@ -0,0 +1,4 @@
+package com.tngtech.archunit.core.importer.testexamples.chunkimport;
+
+public class Grandparent {
+}
@@ -0,0 +1,9 @@
+package com.tngtech.archunit.core.importer.testexamples.chunkimport;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@Retention(RetentionPolicy.RUNTIME)
+@MetaAnnotation
+public @interface MetaAnnotatedAnnotation {
+}
@@ -0,0 +1,10 @@
+package com.tngtech.archunit.core.importer.testexamples.chunkimport;
+
+public class Outer {
+    @MetaAnnotatedAnnotation
+    public static class Child extends Parent {
+        void callGrandparent() {
+            new Grandparent();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.tngtech.archunit.lang;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.Location;
+import com.tngtech.archunit.core.importer.Locations;
+import com.tngtech.archunit.core.importer.testexamples.chunkimport.Grandparent;
+import com.tngtech.archunit.core.importer.testexamples.chunkimport.MetaAnnotation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.tngtech.archunit.core.domain.TestUtils.importClasses;
+import static com.tngtech.archunit.lang.ClassLocalArchRule.classLocal;
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassLocalArchRuleTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void evaluating_in_chunks_yields_the_same_result_as_evaluating_all_classes() {
+        ClassLocalArchRule rule = classLocal(classes().should().bePublic());
+        List<JavaClasses> chunks = ImmutableList.of(
+                importClasses(PublicClass.class, PrivateClass.class),
+                importClasses(ProtectedClass.class));
+
+        EvaluationResult result = rule.evaluateInChunks(chunks);
+
+        EvaluationResult expected = rule.evaluate(importClasses(PublicClass.class, PrivateClass.class, ProtectedClass.class));
+        assertThat(result.getFailureReport().getDetails()).containsOnlyElementsOf(expected.getFailureReport().getDetails());
+        assertThat(result.getFailureReport().getDetails()).hasSize(2);
+    }
+
+    @Test
+    public void evaluating_imported_chunks_considers_hierarchies_and_meta_annotations_of_other_chunks() {
+        ClassLocalArchRule rule = classLocal(classes().that().areMetaAnnotatedWith(MetaAnnotation.class)
+                .should().notBeAssignableTo(Grandparent.class));
+        Set<Location> locations = Locations.ofPackage(Grandparent.class.getPackage().getName());
+
+        EvaluationResult result = rule.evaluateInChunks(new ClassFileImporter().importLocationsInChunks(locations, 1));
+
+        EvaluationResult expected = rule.evaluate(new ClassFileImporter().importLocations(locations));
+        assertThat(result.getFailureReport().getDetails()).containsOnlyElementsOf(expected.getFailureReport().getDetails());
+        assertThat(result.getFailureReport().getDetails()).hasSize(1);
+    }
+
+    @Test
+    public void evaluates_several_rules_in_chunks_in_order() {
+        ClassLocalArchRule first = classLocal(classes().should().bePublic());
+        ClassLocalArchRule second = classLocal(classes().should().notBePrivate());
+        List<JavaClasses> chunks = ImmutableList.of(
+                importClasses(PrivateClass.class),
+                importClasses(ProtectedClass.class));
+
+        List<EvaluationResult> results = ClassLocalArchRule.evaluateInChunks(chunks, ImmutableList.of(first, second));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getFailureReport().getDetails()).hasSize(2);
+        assertThat(results.get(1).getFailureReport().getDetails()).hasSize(1);
+    }
+
+    @Test
+    public void evaluating_no_chunks_has_no_violation() {
+        ClassLocalArchRule rule = classLocal(classes().should().bePublic());
+
+        EvaluationResult result = rule.evaluateInChunks(Collections.<JavaClasses>emptyList());
+
+        assertThat(result.hasViolation()).as("result has violation").isFalse();
+        assertThat(result.getFailureReport().toString()).contains(rule.getDescription());
+    }
+
+    @Test
+    public void checking_in_chunks_reports_violations_of_all_chunks() {
+        ClassLocalArchRule rule = classLocal(classes().should().bePublic()).because("reasons");
+
+        thrown.expect(AssertionError.class);
+        thrown.expectMessage(PrivateClass.class.getName());
+        thrown.expectMessage(ProtectedClass.class.getName());
+        thrown.expectMessage("because reasons");
+
+        rule.checkInChunks(ImmutableList.of(
+                importClasses(PrivateClass.class),
+                importClasses(PublicClass.class),
+                importClasses(ProtectedClass.class)));
+    }
+
+    public static class PublicClass {
+    }
+
+    private static class PrivateClass {
+    }
+
+    protected static class ProtectedClass {
+    }
+}
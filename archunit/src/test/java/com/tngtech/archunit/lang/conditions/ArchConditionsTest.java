@@ -37,6 +37,7 @@ import static com.tngtech.archunit.lang.conditions.ArchConditions.never;
 import static com.tngtech.archunit.lang.conditions.ArchConditions.onlyBeAccessedByAnyPackage;
 import static com.tngtech.archunit.lang.conditions.ArchConditions.onlyHaveDependentsInAnyPackage;
 import static com.tngtech.archunit.lang.conditions.ArchConditions.onlyHaveDependentsWhere;
+import static com.tngtech.archunit.lang.conditions.ArchConditions.transitivelyDependOnClassesThat;
 import static com.tngtech.archunit.testutil.Assertions.assertThat;
 import static java.util.regex.Pattern.quote;
 
@@ -130,6 +131,27 @@ public class ArchConditionsTest {
                 .haveOneViolationMessageContaining("Method", "method()", "does not declare throwable of type " + SQLException.class.getName());
     }
 
+    @Test
+    public void transitively_depend_on_classes_that() {
+        JavaClasses classes = importClasses(TransitiveOrigin.class, TransitiveIntermediate.class, TransitiveTarget.class, SomeSuperClass.class);
+
+        ArchCondition<JavaClass> condition = transitivelyDependOnClassesThat(type(TransitiveTarget.class));
+
+        assertThat(condition)
+                .hasDescription("transitively depend on classes that type " + TransitiveTarget.class.getName());
+        assertThat(never(condition))
+                .checking(classes.get(TransitiveOrigin.class))
+                .haveOneViolationMessageContaining(
+                        "Class <" + TransitiveOrigin.class.getName() + "> transitively depends on <" + TransitiveTarget.class.getName() + ">",
+                        String.format("by [%s->%s->%s]", TransitiveOrigin.class.getName(), TransitiveIntermediate.class.getName(), TransitiveTarget.class.getName()));
+        assertThat(never(condition))
+                .checking(classes.get(SomeSuperClass.class))
+                .containNoViolation();
+        assertThat(condition)
+                .checking(classes.get(SomeSuperClass.class))
+                .haveOneViolationMessageContaining("does not transitively depend on any class that type " + TransitiveTarget.class.getName());
+    }
+
     private ArchCondition<Object> conditionWithDescription(String description) {
         return new ArchCondition<Object>(description) {
             @Override
@@ -155,4 +177,17 @@ public class ArchConditionsTest {
 
     private static class SomeSuperClass {
     }
+
+    @SuppressWarnings("unused")
+    private static class TransitiveOrigin {
+        TransitiveIntermediate intermediate;
+    }
+
+    @SuppressWarnings("unused")
+    private static class TransitiveIntermediate {
+        TransitiveTarget target;
+    }
+
+    private static class TransitiveTarget {
+    }
 }
\ No newline at end of file
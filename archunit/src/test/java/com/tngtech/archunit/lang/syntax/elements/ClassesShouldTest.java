@@ -71,6 +71,7 @@ import static com.tngtech.archunit.lang.conditions.ArchConditions.notBePublic;
 import static com.tngtech.archunit.lang.conditions.ArchConditions.notHaveModifier;
 import static com.tngtech.archunit.lang.conditions.ArchPredicates.are;
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.classes;
+import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.noClasses;
 import static com.tngtech.archunit.testutil.Assertions.assertThat;
 import static com.tngtech.java.junit.dataprovider.DataProviders.$;
 import static com.tngtech.java.junit.dataprovider.DataProviders.$$;
@@ -1721,6 +1722,31 @@ public class ClassesShouldTest {
         assertThat(rule).checking(importClasses(classCallingUnresolvableTarget)).hasNoViolation();
     }
 
+    @DataProvider
+    public static Object[][] transitivelyDependOnClassesThat_rules() {
+        return $$(
+                $(noClasses().should().transitivelyDependOnClassesThat(type(ClassWithField.class))),
+                $(noClasses().should(ArchConditions.transitivelyDependOnClassesThat(type(ClassWithField.class))))
+        );
+    }
+
+    @Test
+    @UseDataProvider("transitivelyDependOnClassesThat_rules")
+    public void transitivelyDependOnClassesThat(ArchRule rule) {
+        EvaluationResult result = rule.evaluate(importClasses(
+                ClassDependingOnClassAccessingField.class, ClassAccessingField.class, ClassWithField.class, ClassWithMethod.class));
+
+        assertThat(singleLineFailureReportOf(result))
+                .contains(String.format("no classes should transitively depend on classes that type %s", ClassWithField.class.getName()))
+                .contains(String.format("Class <%s> transitively depends on <%s> by [%s->%s->%s]",
+                        ClassDependingOnClassAccessingField.class.getName(), ClassWithField.class.getName(),
+                        ClassDependingOnClassAccessingField.class.getName(), ClassAccessingField.class.getName(), ClassWithField.class.getName()))
+                .contains(String.format("Class <%s> transitively depends on <%s> by [%s->%s]",
+                        ClassAccessingField.class.getName(), ClassWithField.class.getName(),
+                        ClassAccessingField.class.getName(), ClassWithField.class.getName()))
+                .doesNotContain(String.format("Class <%s> transitively", ClassWithMethod.class.getName()));
+    }
+
     static String locationPattern(Class<?> clazz) {
         return String.format("\\(%s.java:\\d+\\)", quote(clazz.getSimpleName()));
     }
@@ -1841,6 +1867,11 @@ public class ClassesShouldTest {
         return Pattern.compile(String.format(".*%s (field|method|constructor) %s.*", originAccesses, target));
     }
 
+    @SuppressWarnings("unused")
+    private static class ClassDependingOnClassAccessingField {
+        ClassAccessingField classAccessingField;
+    }
+
     private static class ClassWithField {
         String field;
     }